@@ -14,16 +14,22 @@ package org.openhab.binding.http.internal;
 
 import static org.openhab.binding.http.internal.HttpBindingConstants.THING_TYPE_URL;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry;
 import org.openhab.binding.http.internal.transform.CascadedValueTransformationImpl;
 import org.openhab.binding.http.internal.transform.NoOpValueTransformation;
 import org.openhab.binding.http.internal.transform.ValueTransformation;
 import org.openhab.binding.http.internal.transform.ValueTransformationProvider;
+import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.io.net.http.HttpClientFactory;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingTypeUID;
@@ -35,9 +41,16 @@ import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
 /**
  * The {@link HttpHandlerFactory} is responsible for creating things and thing
  * handlers.
@@ -49,12 +62,18 @@ import org.slf4j.LoggerFactory;
 public class HttpHandlerFactory extends BaseThingHandlerFactory
         implements ValueTransformationProvider, HttpClientProvider {
     private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Set.of(THING_TYPE_URL);
+    private static final String THING_HANDLER_THREADPOOL_NAME = "thingHandler";
     private final Logger logger = LoggerFactory.getLogger(HttpHandlerFactory.class);
 
     private final HttpClient secureClient;
     private final HttpClient insecureClient;
 
     private final HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider;
+    private final RefreshingUrlCacheRegistry urlCacheRegistry = new RefreshingUrlCacheRegistry(
+            ThreadPoolManager.getScheduledPool(THING_HANDLER_THREADPOOL_NAME));
+
+    // the meters of the state requests, registered while a meter registry is available
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
 
     @Activate
     public HttpHandlerFactory(@Reference HttpClientFactory httpClientFactory,
@@ -74,6 +93,7 @@ public class HttpHandlerFactory extends BaseThingHandlerFactory
 
     @Deactivate
     public void deactivate() {
+        urlCacheRegistry.dispose();
         try {
             secureClient.stop();
             insecureClient.stop();
@@ -83,6 +103,27 @@ public class HttpHandlerFactory extends BaseThingHandlerFactory
         }
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        meters.add(refreshCounter(registry, "modified", RefreshingUrlCacheRegistry::getModifiedCount));
+        meters.add(refreshCounter(registry, "not.modified", RefreshingUrlCacheRegistry::getNotModifiedCount));
+        meters.add(refreshCounter(registry, "skipped", RefreshingUrlCacheRegistry::getSkippedCount));
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    private Meter refreshCounter(MeterRegistry registry, String result,
+            ToLongFunction<RefreshingUrlCacheRegistry> count) {
+        return FunctionCounter.builder("openhab.binding.http.refreshes." + result, urlCacheRegistry,
+                cacheRegistry -> count.applyAsLong(cacheRegistry)).tags(Tags.of("binding", "http"))
+                .register(registry);
+    }
+
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
         return SUPPORTED_THING_TYPES_UIDS.contains(thingTypeUID);
@@ -93,7 +134,7 @@ public class HttpHandlerFactory extends BaseThingHandlerFactory
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (THING_TYPE_URL.equals(thingTypeUID)) {
-            return new HttpThingHandler(thing, this, this, httpDynamicStateDescriptionProvider);
+            return new HttpThingHandler(thing, this, this, httpDynamicStateDescriptionProvider, urlCacheRegistry);
         }
 
         return null;
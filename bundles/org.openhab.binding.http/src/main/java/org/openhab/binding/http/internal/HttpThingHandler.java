@@ -52,6 +52,7 @@ import org.openhab.binding.http.internal.http.HttpAuthException;
 import org.openhab.binding.http.internal.http.HttpResponseListener;
 import org.openhab.binding.http.internal.http.RateLimitedHttpClient;
 import org.openhab.binding.http.internal.http.RefreshingUrlCache;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry;
 import org.openhab.binding.http.internal.transform.ValueTransformationProvider;
 import org.openhab.core.library.types.DateTimeType;
 import org.openhab.core.library.types.PointType;
@@ -86,6 +87,7 @@ public class HttpThingHandler extends BaseThingHandler {
     private HttpClient httpClient;
     private RateLimitedHttpClient rateLimitedHttpClient;
     private final HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider;
+    private final RefreshingUrlCacheRegistry urlCacheRegistry;
 
     private HttpThingConfig config = new HttpThingConfig();
     private final Map<String, RefreshingUrlCache> urlHandlers = new HashMap<>();
@@ -94,13 +96,15 @@ public class HttpThingHandler extends BaseThingHandler {
 
     public HttpThingHandler(Thing thing, HttpClientProvider httpClientProvider,
             ValueTransformationProvider valueTransformationProvider,
-            HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider) {
+            HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider,
+            RefreshingUrlCacheRegistry urlCacheRegistry) {
         super(thing);
         this.httpClientProvider = httpClientProvider;
         this.httpClient = httpClientProvider.getSecureClient();
         this.rateLimitedHttpClient = new RateLimitedHttpClient(httpClient, scheduler);
         this.valueTransformationProvider = valueTransformationProvider;
         this.httpDynamicStateDescriptionProvider = httpDynamicStateDescriptionProvider;
+        this.urlCacheRegistry = urlCacheRegistry;
     }
 
     @Override
@@ -208,8 +212,8 @@ public class HttpThingHandler extends BaseThingHandler {
 
     @Override
     public void dispose() {
-        // stop update tasks
-        urlHandlers.values().forEach(RefreshingUrlCache::stop);
+        // stop update tasks (if no other thing uses them)
+        urlCacheRegistry.unsubscribe(this);
         rateLimitedHttpClient.shutdown();
 
         // clear lists
@@ -292,8 +296,8 @@ public class HttpThingHandler extends BaseThingHandler {
             // we need a key consisting of stateContent and URL, only if both are equal, we can use the same cache
             String key = channelConfig.stateContent + "$" + stateUrl;
             channelUrls.put(channelUID, key);
-            urlHandlers.computeIfAbsent(key, k -> new RefreshingUrlCache(scheduler, rateLimitedHttpClient, stateUrl,
-                    config, channelConfig.stateContent)).addConsumer(itemValueConverter::process);
+            urlHandlers.put(key, urlCacheRegistry.subscribe(this, rateLimitedHttpClient, stateUrl, config,
+                    channelConfig.stateContent, itemValueConverter::process));
         }
 
         StateDescription stateDescription = StateDescriptionFragmentBuilder.create()
@@ -23,6 +23,8 @@ import org.eclipse.jetty.client.api.Response;
 import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.BufferingResponseListener;
 import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,12 +71,16 @@ public class HttpResponseListener extends BufferingResponseListener {
                     byte[] content = getContent();
                     String encoding = getEncoding();
                     if (content != null) {
-                        future.complete(
-                                new Content(content, encoding == null ? fallbackEncoding : encoding, getMediaType()));
+                        HttpFields headers = response.getHeaders();
+                        future.complete(new Content(content, encoding == null ? fallbackEncoding : encoding,
+                                getMediaType(), headers.get(HttpHeader.ETAG), headers.get(HttpHeader.LAST_MODIFIED)));
                     } else {
                         future.complete(null);
                     }
                     break;
+                case HttpStatus.NOT_MODIFIED_304:
+                    future.complete(Content.NOT_MODIFIED);
+                    break;
                 case HttpStatus.UNAUTHORIZED_401:
                     logger.debug("Requesting '{}' (method='{}', content='{}') failed: Authorization error",
                             request.getURI(), request.getMethod(), request.getContent());
@@ -15,8 +15,11 @@ package org.openhab.binding.http.internal.http;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
@@ -25,12 +28,14 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.api.Authentication;
 import org.eclipse.jetty.client.api.AuthenticationStore;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.openhab.binding.http.internal.Util;
 import org.openhab.binding.http.internal.config.HttpThingConfig;
@@ -41,6 +46,12 @@ import org.slf4j.LoggerFactory;
  * The {@link RefreshingUrlCache} is responsible for requesting from a single URL and passing the content to the
  * channels
  *
+ * The cache is shared by all channels (of all things) requesting the same URL with the same request parameters, see
+ * {@link RefreshingUrlCacheRegistry}.
+ *
+ * GET requests are sent as conditional requests if the server provided an ETag or Last-Modified header. If
+ * configured, content that did not change since the last refresh is not passed to the channels again.
+ *
  * @author Jan N. Klug - Initial contribution
  */
 @NonNullByDefault
@@ -48,7 +59,7 @@ public class RefreshingUrlCache {
     private final Logger logger = LoggerFactory.getLogger(RefreshingUrlCache.class);
 
     private final String url;
-    private final RateLimitedHttpClient httpClient;
+    private final ScheduledExecutorService executor;
     private final int timeout;
     private final int bufferSize;
     private final @Nullable String fallbackEncoding;
@@ -56,23 +67,33 @@ public class RefreshingUrlCache {
     private final List<String> headers;
     private final HttpMethod httpMethod;
     private final String httpContent;
+    private final boolean skipUnchanged;
+
+    // the first subscriber provides the client used for the requests
+    private final Map<Object, Subscriber> subscribers = new LinkedHashMap<>();
+    private volatile RateLimitedHttpClient httpClient;
+    private @Nullable ScheduledFuture<?> future;
+    private int refreshInterval = 0;
 
-    private final ScheduledFuture<?> future;
-    private @Nullable Content lastContent;
+    private volatile @Nullable Content lastContent;
+    private volatile boolean forceDispatch = false;
+
+    private final AtomicLong modifiedCount = new AtomicLong();
+    private final AtomicLong notModifiedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
 
     public RefreshingUrlCache(ScheduledExecutorService executor, RateLimitedHttpClient httpClient, String url,
             HttpThingConfig thingConfig, String httpContent) {
+        this.executor = executor;
         this.httpClient = httpClient;
         this.url = url;
         this.timeout = thingConfig.timeout;
         this.bufferSize = thingConfig.bufferSize;
-        this.headers = thingConfig.headers;
+        this.headers = List.copyOf(thingConfig.headers);
         this.httpMethod = thingConfig.stateMethod;
         this.httpContent = httpContent;
+        this.skipUnchanged = thingConfig.skipUnchanged;
         fallbackEncoding = thingConfig.encoding;
-
-        future = executor.scheduleWithFixedDelay(this::refresh, 1, thingConfig.refresh, TimeUnit.SECONDS);
-        logger.trace("Started refresh task for URL '{}' with interval {}s", url, thingConfig.refresh);
     }
 
     private void refresh() {
@@ -102,6 +123,18 @@ public class RefreshingUrlCache {
                     }
                 });
 
+                Content content = lastContent;
+                if (content != null && httpMethod == HttpMethod.GET) {
+                    String eTag = content.getETag();
+                    if (eTag != null) {
+                        request.header(HttpHeader.IF_NONE_MATCH, eTag);
+                    }
+                    String lastModified = content.getLastModified();
+                    if (lastModified != null) {
+                        request.header(HttpHeader.IF_MODIFIED_SINCE, lastModified);
+                    }
+                }
+
                 CompletableFuture<@Nullable Content> response = new CompletableFuture<>();
                 response.exceptionally(e -> {
                     if (e instanceof HttpAuthException) {
@@ -140,15 +173,76 @@ public class RefreshingUrlCache {
         }
     }
 
-    public void stop() {
+    public synchronized void stop() {
         // clearing all listeners to prevent further updates
         consumers.clear();
-        future.cancel(false);
-        logger.trace("Stopped refresh task for URL '{}'", url);
+        subscribers.clear();
+        ScheduledFuture<?> future = this.future;
+        if (future != null) {
+            future.cancel(false);
+            this.future = null;
+        }
+        logger.trace("Stopped refresh task for URL '{}' (modified: {}, not modified: {}, skipped: {})", url,
+                modifiedCount, notModifiedCount, skippedCount);
     }
 
-    public void addConsumer(Consumer<Content> consumer) {
+    /**
+     * add a consumer for the content of this URL
+     *
+     * The refresh interval is the shortest interval requested by any subscriber.
+     *
+     * @param owner the subscriber (usually a thing handler) the consumer belongs to
+     * @param httpClient the client of the subscriber
+     * @param refresh the refresh interval requested by the subscriber in s
+     * @param consumer the consumer
+     */
+    public synchronized void addConsumer(Object owner, RateLimitedHttpClient httpClient, int refresh,
+            Consumer<Content> consumer) {
+        Subscriber subscriber = subscribers.computeIfAbsent(owner, o -> new Subscriber(httpClient, refresh));
+        subscriber.consumers.add(consumer);
         consumers.add(consumer);
+        // new consumers have to receive the next content, even if it did not change
+        forceDispatch = true;
+        reschedule();
+    }
+
+    /**
+     * remove all consumers of a subscriber
+     *
+     * @param owner the subscriber
+     * @return true if no subscribers are left and the refresh task was stopped
+     */
+    public synchronized boolean removeConsumers(Object owner) {
+        Subscriber subscriber = subscribers.remove(owner);
+        if (subscriber != null) {
+            consumers.removeAll(subscriber.consumers);
+        }
+        if (subscribers.isEmpty()) {
+            stop();
+            return true;
+        }
+        httpClient = subscribers.values().iterator().next().httpClient;
+        reschedule();
+        return false;
+    }
+
+    private void reschedule() {
+        int newRefresh = subscribers.values().stream().mapToInt(s -> s.refresh).min().orElse(0);
+        if (newRefresh == refreshInterval || newRefresh <= 0) {
+            return;
+        }
+        long initialDelay = TimeUnit.SECONDS.toMillis(1);
+        ScheduledFuture<?> future = this.future;
+        if (future != null) {
+            // keep the phase of the running task, so that later subscribers do not add requests at other times
+            initialDelay = Math.max(0,
+                    Math.min(future.getDelay(TimeUnit.MILLISECONDS), TimeUnit.SECONDS.toMillis(newRefresh)));
+            future.cancel(false);
+        }
+        refreshInterval = newRefresh;
+        this.future = executor.scheduleWithFixedDelay(this::refresh, initialDelay,
+                TimeUnit.SECONDS.toMillis(refreshInterval), TimeUnit.MILLISECONDS);
+        logger.trace("Started refresh task for URL '{}' with interval {}s", url, refreshInterval);
     }
 
     public Optional<Content> get() {
@@ -160,8 +254,61 @@ public class RefreshingUrlCache {
         }
     }
 
-    private void processResult(@Nullable Content content) {
+    /**
+     * @return the number of refreshes that returned new content
+     */
+    public long getModifiedCount() {
+        return modifiedCount.get();
+    }
+
+    /**
+     * @return the number of refreshes that were answered with 304 (Not Modified)
+     */
+    public long getNotModifiedCount() {
+        return notModifiedCount.get();
+    }
+
+    /**
+     * @return the number of refreshes that were not passed to the channels because the content did not change
+     */
+    public long getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    /**
+     * process the result of a refresh, package-private for tests
+     *
+     * @param content the content of the response, {@link Content#NOT_MODIFIED} or <code>null</code> if the request
+     *            failed
+     */
+    void processResult(@Nullable Content content) {
+        Content previousContent = lastContent;
+        boolean skipUnchanged = this.skipUnchanged && !forceDispatch;
+        if (content == Content.NOT_MODIFIED) {
+            notModifiedCount.incrementAndGet();
+            if (previousContent == null) {
+                // should not happen, as validators are only sent if there is content
+                return;
+            }
+            if (skipUnchanged) {
+                skippedCount.incrementAndGet();
+                logger.trace("Content of URL {} not modified, skipping update", url);
+                return;
+            }
+            content = previousContent;
+        } else if (content != null) {
+            modifiedCount.incrementAndGet();
+            if (skipUnchanged && previousContent != null && content.hasSameContent(previousContent)) {
+                skippedCount.incrementAndGet();
+                logger.trace("Content of URL {} unchanged, skipping update", url);
+                // keep the validators of the latest response
+                lastContent = content;
+                return;
+            }
+        }
+
         if (content != null) {
+            forceDispatch = false;
             for (Consumer<Content> consumer : consumers) {
                 try {
                     consumer.accept(content);
@@ -172,4 +319,21 @@ public class RefreshingUrlCache {
         }
         lastContent = content;
     }
+
+    @Override
+    public String toString() {
+        return "RefreshingUrlCache{url='" + url + "', modified=" + modifiedCount + ", notModified="
+                + notModifiedCount + ", skipped=" + skippedCount + "}";
+    }
+
+    private static class Subscriber {
+        private final RateLimitedHttpClient httpClient;
+        private final int refresh;
+        private final List<Consumer<Content>> consumers = new ArrayList<>();
+
+        public Subscriber(RateLimitedHttpClient httpClient, int refresh) {
+            this.httpClient = httpClient;
+            this.refresh = refresh;
+        }
+    }
 }
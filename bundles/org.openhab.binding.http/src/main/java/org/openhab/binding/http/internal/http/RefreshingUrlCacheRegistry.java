@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RefreshingUrlCacheRegistry} holds the {@link RefreshingUrlCache}s of all things, so that a URL which is
+ * requested by several things with the same request parameters is only requested once per refresh
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RefreshingUrlCacheRegistry {
+    private final Logger logger = LoggerFactory.getLogger(RefreshingUrlCacheRegistry.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<List<@Nullable Object>, RefreshingUrlCache> caches = new HashMap<>();
+
+    // the counts of the caches which are no longer in use, so that the totals never decrease
+    private long releasedModifiedCount = 0;
+    private long releasedNotModifiedCount = 0;
+    private long releasedSkippedCount = 0;
+
+    public RefreshingUrlCacheRegistry(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * subscribe a consumer to the content of an URL
+     *
+     * @param owner the subscriber (usually a thing handler), used for unsubscribing
+     * @param httpClient the client of the subscriber
+     * @param url the state URL
+     * @param thingConfig the configuration of the subscribing thing
+     * @param httpContent the content of the state request
+     * @param consumer the consumer
+     * @return the cache for the URL
+     */
+    public synchronized RefreshingUrlCache subscribe(Object owner, RateLimitedHttpClient httpClient, String url,
+            HttpThingConfig thingConfig, String httpContent, Consumer<Content> consumer) {
+        // everything that influences the request or the processing of the response has to be part of the key,
+        // including the settings of the client: ignoreSSLErrors selects the Jetty client and delay the rate limit of
+        // the requests, which are sent with the client of one of the subscribers
+        List<@Nullable Object> key = Arrays.asList(url, thingConfig.stateMethod, httpContent,
+                List.copyOf(thingConfig.headers), thingConfig.ignoreSSLErrors, thingConfig.delay,
+                thingConfig.authMode, thingConfig.username, thingConfig.password, thingConfig.timeout,
+                thingConfig.bufferSize, thingConfig.encoding, thingConfig.skipUnchanged);
+        RefreshingUrlCache cache = caches.computeIfAbsent(key,
+                k -> new RefreshingUrlCache(scheduler, httpClient, url, thingConfig, httpContent));
+        cache.addConsumer(owner, httpClient, thingConfig.refresh, consumer);
+        logger.trace("Subscribed {} to URL '{}', {} caches in use", owner, url, caches.size());
+        return cache;
+    }
+
+    /**
+     * remove all consumers of a subscriber and stop caches without consumers
+     *
+     * @param owner the subscriber
+     */
+    public synchronized void unsubscribe(Object owner) {
+        caches.values().removeIf(cache -> {
+            if (cache.removeConsumers(owner)) {
+                release(cache);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * @return the number of caches in use
+     */
+    synchronized int getCacheCount() {
+        return caches.size();
+    }
+
+    /**
+     * @return the number of refreshes of all caches that returned new content
+     */
+    public synchronized long getModifiedCount() {
+        return releasedModifiedCount + sum(RefreshingUrlCache::getModifiedCount);
+    }
+
+    /**
+     * @return the number of refreshes of all caches that were answered with 304 (Not Modified)
+     */
+    public synchronized long getNotModifiedCount() {
+        return releasedNotModifiedCount + sum(RefreshingUrlCache::getNotModifiedCount);
+    }
+
+    /**
+     * @return the number of refreshes of all caches that were not passed to the channels because the content did not
+     *         change
+     */
+    public synchronized long getSkippedCount() {
+        return releasedSkippedCount + sum(RefreshingUrlCache::getSkippedCount);
+    }
+
+    /**
+     * stop all caches
+     */
+    public synchronized void dispose() {
+        caches.values().forEach(cache -> {
+            cache.stop();
+            release(cache);
+        });
+        caches.clear();
+    }
+
+    private long sum(ToLongFunction<RefreshingUrlCache> count) {
+        return caches.values().stream().mapToLong(count).sum();
+    }
+
+    private void release(RefreshingUrlCache cache) {
+        releasedModifiedCount += cache.getModifiedCount();
+        releasedNotModifiedCount += cache.getNotModifiedCount();
+        releasedSkippedCount += cache.getSkippedCount();
+    }
+}
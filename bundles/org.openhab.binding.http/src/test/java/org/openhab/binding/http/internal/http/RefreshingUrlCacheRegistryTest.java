@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+
+/**
+ * Tests cases for {@link RefreshingUrlCacheRegistry}
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class RefreshingUrlCacheRegistryTest {
+    private static final String URL = "http://localhost/state";
+
+    private @Mock ScheduledExecutorService scheduler;
+    private @Mock ScheduledFuture<?> refreshJob;
+    private @Mock RateLimitedHttpClient httpClient1;
+    private @Mock RateLimitedHttpClient httpClient2;
+
+    private final Object thing1 = new Object();
+    private final Object thing2 = new Object();
+
+    private RefreshingUrlCacheRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        doReturn(refreshJob).when(scheduler).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        registry = new RefreshingUrlCacheRegistry(scheduler);
+    }
+
+    @Test
+    public void sameRequestIsShared() {
+        RefreshingUrlCache cache1 = registry.subscribe(thing1, httpClient1, URL, new HttpThingConfig(), "",
+                content -> {
+                });
+        RefreshingUrlCache cache2 = registry.subscribe(thing2, httpClient2, URL, new HttpThingConfig(), "",
+                content -> {
+                });
+
+        assertThat(cache2, is(sameInstance(cache1)));
+        assertThat(registry.getCacheCount(), is(1));
+        // one refresh task for both things
+        verify(scheduler, times(1)).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void differentRequestsAreNotShared() {
+        RefreshingUrlCache cache = registry.subscribe(thing1, httpClient1, URL, new HttpThingConfig(), "", content -> {
+        });
+
+        assertThat(registry.subscribe(thing2, httpClient2, URL + "2", new HttpThingConfig(), "", content -> {
+        }), is(not(sameInstance(cache))));
+        assertThat(registry.subscribe(thing2, httpClient2, URL, new HttpThingConfig(), "content", content -> {
+        }), is(not(sameInstance(cache))));
+        HttpThingConfig headers = new HttpThingConfig();
+        headers.headers.add("Accept=text/plain");
+        assertThat(registry.subscribe(thing2, httpClient2, URL, headers, "", content -> {
+        }), is(not(sameInstance(cache))));
+        assertThat(registry.getCacheCount(), is(4));
+    }
+
+    @Test
+    public void differentClientSettingsAreNotShared() {
+        RefreshingUrlCache cache = registry.subscribe(thing1, httpClient1, URL, new HttpThingConfig(), "", content -> {
+        });
+
+        HttpThingConfig insecure = new HttpThingConfig();
+        insecure.ignoreSSLErrors = true;
+        assertThat(registry.subscribe(thing2, httpClient2, URL, insecure, "", content -> {
+        }), is(not(sameInstance(cache))));
+        HttpThingConfig rateLimited = new HttpThingConfig();
+        rateLimited.delay = 500;
+        assertThat(registry.subscribe(thing2, httpClient2, URL, rateLimited, "", content -> {
+        }), is(not(sameInstance(cache))));
+        assertThat(registry.getCacheCount(), is(3));
+    }
+
+    @Test
+    public void shortestRefreshIsUsed() {
+        HttpThingConfig slow = new HttpThingConfig();
+        slow.refresh = 60;
+        HttpThingConfig fast = new HttpThingConfig();
+        fast.refresh = 10;
+
+        registry.subscribe(thing1, httpClient1, URL, slow, "", content -> {
+        });
+        registry.subscribe(thing2, httpClient2, URL, fast, "", content -> {
+        });
+
+        verify(scheduler).scheduleWithFixedDelay(any(), anyLong(), eq(TimeUnit.SECONDS.toMillis(60)), any());
+        verify(scheduler).scheduleWithFixedDelay(any(), anyLong(), eq(TimeUnit.SECONDS.toMillis(10)), any());
+        verify(refreshJob).cancel(false);
+    }
+
+    @Test
+    public void cacheIsKeptWhileSubscribed() {
+        RefreshingUrlCache cache = registry.subscribe(thing1, httpClient1, URL, new HttpThingConfig(), "",
+                content -> {
+                });
+        registry.subscribe(thing2, httpClient2, URL, new HttpThingConfig(), "", content -> {
+        });
+
+        registry.unsubscribe(thing1);
+
+        assertThat(registry.getCacheCount(), is(1));
+        verify(refreshJob, never()).cancel(anyBoolean());
+        assertThat(registry.subscribe(thing1, httpClient1, URL, new HttpThingConfig(), "", content -> {
+        }), is(sameInstance(cache)));
+    }
+
+    @Test
+    public void cacheIsReleasedWithLastSubscriber() {
+        RefreshingUrlCache cache = registry.subscribe(thing1, httpClient1, URL, new HttpThingConfig(), "",
+                content -> {
+                });
+        registry.subscribe(thing2, httpClient2, URL, new HttpThingConfig(), "", content -> {
+        });
+
+        registry.unsubscribe(thing1);
+        registry.unsubscribe(thing2);
+
+        assertThat(registry.getCacheCount(), is(0));
+        verify(refreshJob).cancel(false);
+        // a new subscriber gets a new cache
+        assertThat(registry.subscribe(thing1, httpClient1, URL, new HttpThingConfig(), "", content -> {
+        }), is(not(sameInstance(cache))));
+    }
+
+    @Test
+    public void unsubscribingUnknownOwnerKeepsCaches() {
+        registry.subscribe(thing1, httpClient1, URL, new HttpThingConfig(), "", content -> {
+        });
+
+        registry.unsubscribe(thing2);
+
+        assertThat(registry.getCacheCount(), is(1));
+        verify(refreshJob, never()).cancel(anyBoolean());
+    }
+
+    @Test
+    public void disposeStopsAllCaches() {
+        registry.subscribe(thing1, httpClient1, URL, new HttpThingConfig(), "", content -> {
+        });
+        registry.subscribe(thing2, httpClient2, URL + "2", new HttpThingConfig(), "", content -> {
+        });
+
+        registry.dispose();
+
+        assertThat(registry.getCacheCount(), is(0));
+        verify(refreshJob, times(2)).cancel(false);
+    }
+
+    @Test
+    public void countsOfReleasedCachesAreKept() {
+        RefreshingUrlCache cache1 = registry.subscribe(thing1, httpClient1, URL, new HttpThingConfig(), "",
+                content -> {
+                });
+        RefreshingUrlCache cache2 = registry.subscribe(thing2, httpClient2, URL + "2", new HttpThingConfig(), "",
+                content -> {
+                });
+        cache1.processResult(new Content(new byte[0], "UTF-8", "text/plain", "\"1\"", null));
+        cache2.processResult(Content.NOT_MODIFIED);
+
+        registry.unsubscribe(thing1);
+
+        assertThat(registry.getModifiedCount(), is(1L));
+        assertThat(registry.getNotModifiedCount(), is(1L));
+        assertThat(registry.getSkippedCount(), is(0L));
+
+        registry.dispose();
+
+        assertThat(registry.getModifiedCount(), is(1L));
+        assertThat(registry.getNotModifiedCount(), is(1L));
+    }
+}
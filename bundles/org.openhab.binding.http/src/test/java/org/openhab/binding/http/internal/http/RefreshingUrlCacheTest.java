@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+
+/**
+ * Tests cases for {@link RefreshingUrlCache}, which check the conditional requests and the handling of unchanged
+ * content.
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class RefreshingUrlCacheTest {
+    private static final String URL = "http://localhost/state";
+    private static final String ETAG = "\"1234\"";
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+    private @Mock ScheduledExecutorService scheduler;
+    private @Mock ScheduledFuture<?> refreshJob;
+    private @Mock RateLimitedHttpClient httpClient;
+    private @Mock(answer = Answers.RETURNS_SELF) Request request;
+
+    private final Object owner = new Object();
+    private final List<Content> received = new ArrayList<>();
+    private final HttpThingConfig config = new HttpThingConfig();
+
+    @BeforeEach
+    public void setUp() {
+        doReturn(refreshJob).when(scheduler).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        when(httpClient.newRequest(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(request));
+    }
+
+    private RefreshingUrlCache createCache() {
+        RefreshingUrlCache cache = new RefreshingUrlCache(scheduler, httpClient, URL, config, "");
+        cache.addConsumer(owner, httpClient, config.refresh, received::add);
+        return cache;
+    }
+
+    @Test
+    public void notModifiedWithPreviousContentIsPassedOn() {
+        RefreshingUrlCache cache = createCache();
+        Content content = content("1", ETAG);
+
+        cache.processResult(content);
+        cache.processResult(Content.NOT_MODIFIED);
+
+        assertThat(received, is(List.of(content, content)));
+        assertThat(cache.get().get(), is(sameInstance(content)));
+        assertThat(cache.getModifiedCount(), is(1L));
+        assertThat(cache.getNotModifiedCount(), is(1L));
+        assertThat(cache.getSkippedCount(), is(0L));
+    }
+
+    @Test
+    public void notModifiedWithoutPreviousContentIsIgnored() {
+        RefreshingUrlCache cache = createCache();
+
+        cache.processResult(Content.NOT_MODIFIED);
+
+        assertThat(received.isEmpty(), is(true));
+        assertThat(cache.get().isPresent(), is(false));
+        assertThat(cache.getNotModifiedCount(), is(1L));
+    }
+
+    @Test
+    public void notModifiedIsSkippedIfConfigured() {
+        config.skipUnchanged = true;
+        RefreshingUrlCache cache = createCache();
+        Content content = content("1", ETAG);
+
+        cache.processResult(content);
+        cache.processResult(Content.NOT_MODIFIED);
+
+        assertThat(received, is(List.of(content)));
+        assertThat(cache.get().get(), is(sameInstance(content)));
+        assertThat(cache.getSkippedCount(), is(1L));
+    }
+
+    @Test
+    public void unchangedContentIsSkippedIfConfigured() {
+        config.skipUnchanged = true;
+        RefreshingUrlCache cache = createCache();
+        Content first = content("1", ETAG);
+        Content second = content("1", "\"5678\"");
+
+        cache.processResult(first);
+        cache.processResult(second);
+
+        assertThat(received, is(List.of(first)));
+        assertThat(cache.getSkippedCount(), is(1L));
+        // the validators of the latest response are used for the next request
+        assertThat(cache.get().get().getETag(), is("\"5678\""));
+    }
+
+    @Test
+    public void changedContentIsPassedOnIfUnchangedIsSkipped() {
+        config.skipUnchanged = true;
+        RefreshingUrlCache cache = createCache();
+        Content first = content("1", null);
+        Content second = content("2", null);
+
+        cache.processResult(first);
+        cache.processResult(second);
+
+        assertThat(received, is(List.of(first, second)));
+        assertThat(cache.getSkippedCount(), is(0L));
+    }
+
+    @Test
+    public void unchangedContentIsPassedOnByDefault() {
+        RefreshingUrlCache cache = createCache();
+        Content first = content("1", null);
+        Content second = content("1", null);
+
+        cache.processResult(first);
+        cache.processResult(second);
+
+        assertThat(received, is(List.of(first, second)));
+        assertThat(cache.getSkippedCount(), is(0L));
+    }
+
+    @Test
+    public void newConsumerReceivesUnchangedContent() {
+        config.skipUnchanged = true;
+        RefreshingUrlCache cache = createCache();
+        Content content = content("1", ETAG);
+        cache.processResult(content);
+
+        List<Content> lateReceived = new ArrayList<>();
+        cache.addConsumer(new Object(), httpClient, config.refresh, lateReceived::add);
+        cache.processResult(Content.NOT_MODIFIED);
+
+        assertThat(lateReceived, is(List.of(content)));
+        assertThat(received, is(List.of(content, content)));
+        // afterwards unchanged content is skipped again
+        cache.processResult(Content.NOT_MODIFIED);
+        assertThat(lateReceived.size(), is(1));
+    }
+
+    @Test
+    public void failedRequestIsNotPassedOn() {
+        RefreshingUrlCache cache = createCache();
+        Content content = content("1", ETAG);
+
+        cache.processResult(content);
+        cache.processResult(null);
+
+        assertThat(received, is(List.of(content)));
+        // the next request is unconditional
+        assertThat(cache.get().isPresent(), is(false));
+    }
+
+    @Test
+    public void conditionalRequestIsSentWithValidators() {
+        RefreshingUrlCache cache = createCache();
+        Runnable refresh = captureRefresh();
+        cache.processResult(new Content("1".getBytes(StandardCharsets.UTF_8), "UTF-8", null, ETAG, LAST_MODIFIED));
+
+        refresh.run();
+
+        verify(request).header(HttpHeader.IF_NONE_MATCH, ETAG);
+        verify(request).header(HttpHeader.IF_MODIFIED_SINCE, LAST_MODIFIED);
+        verify(request).send(any());
+    }
+
+    @Test
+    public void unconditionalRequestIsSentWithoutContent() {
+        createCache();
+        Runnable refresh = captureRefresh();
+
+        refresh.run();
+
+        verify(request, never()).header(eq(HttpHeader.IF_NONE_MATCH), any());
+        verify(request, never()).header(eq(HttpHeader.IF_MODIFIED_SINCE), any());
+        verify(request).send(any());
+    }
+
+    @Test
+    public void onlyGetRequestsAreConditional() {
+        config.stateMethod = HttpMethod.POST;
+        RefreshingUrlCache cache = createCache();
+        Runnable refresh = captureRefresh();
+        cache.processResult(content("1", ETAG));
+
+        refresh.run();
+
+        verify(request, never()).header(eq(HttpHeader.IF_NONE_MATCH), any());
+        verify(request).send(any());
+    }
+
+    private Runnable captureRefresh() {
+        ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).scheduleWithFixedDelay(refresh.capture(), anyLong(), anyLong(), any());
+        return refresh.getValue();
+    }
+
+    private static Content content(String value, String eTag) {
+        return new Content(value.getBytes(StandardCharsets.UTF_8), "UTF-8", "text/plain", eTag, null);
+    }
+}
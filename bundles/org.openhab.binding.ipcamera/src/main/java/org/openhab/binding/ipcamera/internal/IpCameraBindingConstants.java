@@ -33,6 +33,9 @@ public class IpCameraBindingConstants {
     public static final String COMMON_HANDLER = "commonHandler";
     public static final String INSTAR_HANDLER = "instarHandler";
 
+    // binding configuration
+    public static final String CONFIG_EVENT_LOOP_THREADS = "eventLoopThreads";
+
     public static enum FFmpegFormat {
         HLS,
         GIF,
@@ -14,19 +14,35 @@ package org.openhab.binding.ipcamera.internal;
 
 import static org.openhab.binding.ipcamera.internal.IpCameraBindingConstants.*;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.ipcamera.internal.handler.IpCameraGroupHandler;
 import org.openhab.binding.ipcamera.internal.handler.IpCameraHandler;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.net.NetworkAddressService;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingTypeUID;
 import org.openhab.core.thing.binding.BaseThingHandlerFactory;
 import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerFactory;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 
 /**
  * The {@link IpCameraHandlerFactory} is responsible for creating things and thing
@@ -37,15 +53,66 @@ import org.osgi.service.component.annotations.Reference;
 @Component(service = ThingHandlerFactory.class, configurationPid = "binding.ipcamera")
 @NonNullByDefault
 public class IpCameraHandlerFactory extends BaseThingHandlerFactory {
+    private final Logger logger = LoggerFactory.getLogger(IpCameraHandlerFactory.class);
     private final @Nullable String openhabIpAddress;
     private final GroupTracker groupTracker = new GroupTracker();
     private final IpCameraDynamicStateDescriptionProvider stateDescriptionProvider;
+    private final SharedEventLoopGroup eventLoopGroup;
+
+    // the meters of the event loops, registered while a meter registry is available
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
 
     @Activate
     public IpCameraHandlerFactory(final @Reference NetworkAddressService networkAddressService,
-            final @Reference IpCameraDynamicStateDescriptionProvider stateDescriptionProvider) {
+            final @Reference IpCameraDynamicStateDescriptionProvider stateDescriptionProvider,
+            Map<String, Object> config) {
         openhabIpAddress = networkAddressService.getPrimaryIpv4HostAddress();
         this.stateDescriptionProvider = stateDescriptionProvider;
+        eventLoopGroup = new SharedEventLoopGroup(getEventLoopThreads(config.get(CONFIG_EVENT_LOOP_THREADS)));
+    }
+
+    private int getEventLoopThreads(@Nullable Object threads) {
+        if (threads == null) {
+            return 0;
+        }
+        try {
+            return new BigDecimal(threads.toString()).intValue();
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid number of event loop threads '{}', using the number of processors", threads);
+            return 0;
+        }
+    }
+
+    @Override
+    protected void deactivate(ComponentContext componentContext) {
+        super.deactivate(componentContext);
+        eventLoopGroup.shutdown();
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        for (int i = 0; i < eventLoopGroup.getThreads(); i++) {
+            final int loop = i;
+            meters.add(Gauge
+                    .builder("openhab.binding.ipcamera.eventloop.channels", eventLoopGroup,
+                            group -> group.getRegisteredChannels().get(loop))
+                    .tags(Tags.of("binding", "ipcamera", "loop", String.valueOf(loop)))
+                    .description("Channels registered to the event loop").register(registry));
+        }
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    /**
+     * @return the event loop group shared by all cameras, package-private for tests
+     */
+    SharedEventLoopGroup getEventLoopGroup() {
+        return eventLoopGroup;
     }
 
     @Override
@@ -61,9 +128,10 @@ public class IpCameraHandlerFactory extends BaseThingHandlerFactory {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (SUPPORTED_THING_TYPES.contains(thingTypeUID)) {
-            return new IpCameraHandler(thing, openhabIpAddress, groupTracker, stateDescriptionProvider);
+            return new IpCameraHandler(thing, openhabIpAddress, groupTracker, stateDescriptionProvider,
+                    eventLoopGroup);
         } else if (GROUP_SUPPORTED_THING_TYPES.contains(thingTypeUID)) {
-            return new IpCameraGroupHandler(thing, openhabIpAddress, groupTracker);
+            return new IpCameraGroupHandler(thing, openhabIpAddress, groupTracker, eventLoopGroup);
         }
         return null;
     }
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SingleThreadEventLoop;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * The {@link SharedEventLoopGroup} is the Netty event loop group that is shared by all cameras, their ONVIF and RTSP
+ * connections and the stream servers, instead of each of them starting its own threads.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SharedEventLoopGroup {
+    private final Logger logger = LoggerFactory.getLogger(SharedEventLoopGroup.class);
+
+    private final EventLoopGroup group;
+    private final int threads;
+
+    /**
+     * @param threads number of event loop threads, 0 to use the number of available processors
+     */
+    public SharedEventLoopGroup(int threads) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        group = new NioEventLoopGroup(this.threads, new DefaultThreadFactory("OH-binding-ipcamera", true));
+        logger.debug("Started shared event loop group with {} threads", this.threads);
+    }
+
+    /**
+     * @return the number of event loops of the group, each of them runs on its own thread
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public EventLoopGroup getGroup() {
+        return group;
+    }
+
+    public Class<? extends SocketChannel> getSocketChannelClass() {
+        return NioSocketChannel.class;
+    }
+
+    public Class<? extends ServerSocketChannel> getServerSocketChannelClass() {
+        return NioServerSocketChannel.class;
+    }
+
+    /**
+     * @return the number of channels registered to each event loop of the group, in the order of the event loops
+     */
+    public List<Integer> getRegisteredChannels() {
+        List<Integer> channels = new ArrayList<>();
+        for (EventExecutor executor : group) {
+            if (executor instanceof SingleThreadEventLoop) {
+                channels.add(((SingleThreadEventLoop) executor).registeredChannels());
+            }
+        }
+        return channels;
+    }
+
+    public void shutdown() {
+        logger.debug("Shutting down {}", this);
+        group.shutdownGracefully();
+    }
+
+    @Override
+    public String toString() {
+        return "SharedEventLoopGroup{registeredChannels=" + getRegisteredChannels() + "}";
+    }
+}
@@ -26,6 +26,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -53,11 +55,14 @@ import io.netty.util.ReferenceCountUtil;
 
 @NonNullByDefault
 public class StreamServerHandler extends ChannelInboundHandlerAdapter {
+    // ffmpeg posts each jpg in many small chunks
+    private static final int MAX_COMPONENTS = 256;
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private IpCameraHandler ipCameraHandler;
     private boolean handlingMjpeg = false; // used to remove ctx from group when handler is removed.
     private boolean handlingSnapshotStream = false; // used to remove ctx from group when handler is removed.
-    private byte[] incomingJpeg = new byte[0];
+    private @Nullable CompositeByteBuf incomingJpeg;
     private String whiteList = "";
     private int recievedBytes = 0;
     private boolean updateSnapshot = false;
@@ -176,25 +181,27 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
             }
             if (msg instanceof HttpContent) {
                 HttpContent content = (HttpContent) msg;
-                if (recievedBytes == 0) {
-                    incomingJpeg = new byte[content.content().readableBytes()];
-                    content.content().getBytes(0, incomingJpeg, 0, content.content().readableBytes());
-                } else {
-                    byte[] temp = incomingJpeg;
-                    incomingJpeg = new byte[recievedBytes + content.content().readableBytes()];
-                    System.arraycopy(temp, 0, incomingJpeg, 0, temp.length);
-                    content.content().getBytes(0, incomingJpeg, temp.length, content.content().readableBytes());
+                CompositeByteBuf localJpeg = incomingJpeg;
+                if (localJpeg == null) {
+                    localJpeg = ctx.alloc().compositeBuffer(MAX_COMPONENTS);
+                    incomingJpeg = localJpeg;
                 }
-                recievedBytes = incomingJpeg.length;
+                // the pooled buffers of the request are kept instead of being copied
+                localJpeg.addComponent(true, content.content().retain());
+                recievedBytes = localJpeg.readableBytes();
                 if (content instanceof LastHttpContent) {
-                    if (updateSnapshot) {
-                        ipCameraHandler.processSnapshot(incomingJpeg);
-                    } else if (onvifEvent) {
-                        ipCameraHandler.onvifCamera.eventRecieved(new String(incomingJpeg, StandardCharsets.UTF_8));
-                    } else { // handles the snapshots that make up mjpeg from rtsp to ffmpeg conversions.
-                        if (recievedBytes > 1000) {
-                            ipCameraHandler.sendMjpegFrame(incomingJpeg, ipCameraHandler.mjpegChannelGroup);
+                    try {
+                        if (updateSnapshot) {
+                            ipCameraHandler.processSnapshot(ByteBufUtil.getBytes(localJpeg));
+                        } else if (onvifEvent) {
+                            ipCameraHandler.onvifCamera.eventRecieved(localJpeg.toString(StandardCharsets.UTF_8));
+                        } else { // handles the snapshots that make up mjpeg from rtsp to ffmpeg conversions.
+                            if (recievedBytes > 1000) {
+                                ipCameraHandler.sendMjpegFrame(localJpeg, ipCameraHandler.mjpegChannelGroup);
+                            }
                         }
+                    } finally {
+                        releaseIncomingJpeg();
                     }
                     recievedBytes = 0;
                 }
@@ -208,7 +215,7 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
         HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
         ipCameraHandler.lockCurrentSnapshot.lock();
         try {
-            ByteBuf snapshotData = Unpooled.copiedBuffer(ipCameraHandler.currentSnapshot);
+            ByteBuf snapshotData = Unpooled.wrappedBuffer(ipCameraHandler.currentSnapshot);
             response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType);
             response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
             response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
@@ -278,8 +285,17 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
         }
     }
 
+    private void releaseIncomingJpeg() {
+        CompositeByteBuf localJpeg = incomingJpeg;
+        if (localJpeg != null) {
+            localJpeg.release();
+            incomingJpeg = null;
+        }
+    }
+
     @Override
     public void handlerRemoved(@Nullable ChannelHandlerContext ctx) {
+        releaseIncomingJpeg();
         if (ctx == null) {
             return;
         }
@@ -32,6 +32,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.ipcamera.internal.GroupConfig;
 import org.openhab.binding.ipcamera.internal.GroupTracker;
 import org.openhab.binding.ipcamera.internal.Helper;
+import org.openhab.binding.ipcamera.internal.SharedEventLoopGroup;
 import org.openhab.binding.ipcamera.internal.StreamServerGroupHandler;
 import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.StringType;
@@ -48,13 +49,13 @@ import org.slf4j.LoggerFactory;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.GlobalEventExecutor;
 
 /**
  * The {@link IpCameraGroupHandler} is responsible for finding cameras that are part of this group and displaying a
@@ -69,7 +70,8 @@ public class IpCameraGroupHandler extends BaseThingHandler {
     public GroupConfig groupConfig;
     private BigDecimal pollTimeInSeconds = new BigDecimal(2);
     public ArrayList<IpCameraHandler> cameraOrder = new ArrayList<IpCameraHandler>(2);
-    private EventLoopGroup serversLoopGroup = new NioEventLoopGroup();
+    private final SharedEventLoopGroup eventLoopGroup;
+    private final ChannelGroup streamServerChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     private final ScheduledExecutorService pollCameraGroup = Executors.newSingleThreadScheduledExecutor();
     private @Nullable ScheduledFuture<?> pollCameraGroupJob = null;
     private @Nullable ServerBootstrap serverBootstrap;
@@ -86,8 +88,10 @@ public class IpCameraGroupHandler extends BaseThingHandler {
     private int discontinuitySequence = 0;
     private GroupTracker groupTracker;
 
-    public IpCameraGroupHandler(Thing thing, @Nullable String openhabIpAddress, GroupTracker groupTracker) {
+    public IpCameraGroupHandler(Thing thing, @Nullable String openhabIpAddress, GroupTracker groupTracker,
+            SharedEventLoopGroup eventLoopGroup) {
         super(thing);
+        this.eventLoopGroup = eventLoopGroup;
         groupConfig = getConfigAs(GroupConfig.class);
         if (openhabIpAddress != null) {
             hostIp = openhabIpAddress;
@@ -187,20 +191,26 @@ public class IpCameraGroupHandler extends BaseThingHandler {
     @SuppressWarnings("null")
     public void startStreamServer(boolean start) {
         if (!start) {
-            serversLoopGroup.shutdownGracefully(8, 8, TimeUnit.SECONDS);
+            // the event loop group is shared, so the server and its connections have to be closed explicitly
+            ChannelFuture localServerFuture = serverFuture;
+            if (localServerFuture != null) {
+                localServerFuture.channel().close();
+                serverFuture = null;
+            }
+            streamServerChannels.close();
             serverBootstrap = null;
         } else {
             if (serverBootstrap == null) {
                 try {
-                    serversLoopGroup = new NioEventLoopGroup();
                     serverBootstrap = new ServerBootstrap();
-                    serverBootstrap.group(serversLoopGroup);
-                    serverBootstrap.channel(NioServerSocketChannel.class);
+                    serverBootstrap.group(eventLoopGroup.getGroup());
+                    serverBootstrap.channel(eventLoopGroup.getServerSocketChannelClass());
                     // IP "0.0.0.0" will bind the server to all network connections//
                     serverBootstrap.localAddress(new InetSocketAddress("0.0.0.0", serverPort));
                     serverBootstrap.childHandler(new ChannelInitializer<SocketChannel>() {
                         @Override
                         protected void initChannel(SocketChannel socketChannel) throws Exception {
+                            streamServerChannels.add(socketChannel);
                             socketChannel.pipeline().addLast("idleStateHandler", new IdleStateHandler(0, 25, 0));
                             socketChannel.pipeline().addLast("HttpServerCodec", new HttpServerCodec());
                             socketChannel.pipeline().addLast("ChunkedWriteHandler", new ChunkedWriteHandler());
@@ -35,6 +35,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -55,6 +56,7 @@ import org.openhab.binding.ipcamera.internal.IpCameraActions;
 import org.openhab.binding.ipcamera.internal.IpCameraBindingConstants.FFmpegFormat;
 import org.openhab.binding.ipcamera.internal.IpCameraDynamicStateDescriptionProvider;
 import org.openhab.binding.ipcamera.internal.MyNettyAuthHandler;
+import org.openhab.binding.ipcamera.internal.SharedEventLoopGroup;
 import org.openhab.binding.ipcamera.internal.StreamServerHandler;
 import org.openhab.binding.ipcamera.internal.onvif.OnvifConnection;
 import org.openhab.core.library.types.DecimalType;
@@ -78,6 +80,7 @@ import org.slf4j.LoggerFactory;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelDuplexHandler;
@@ -86,13 +89,10 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.base64.Base64;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.DefaultHttpResponse;
@@ -112,6 +112,8 @@ import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
 import io.netty.util.CharsetUtil;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.GlobalEventExecutor;
@@ -125,6 +127,13 @@ import io.netty.util.concurrent.GlobalEventExecutor;
 
 @NonNullByDefault
 public class IpCameraHandler extends BaseThingHandler {
+    private static final int STREAM_LOW_WATER_MARK = 1024 * 1024;
+    private static final int STREAM_HIGH_WATER_MARK = 2 * 1024 * 1024;
+    private static final int DEFAULT_JPEG_BUFFER_SIZE = 64 * 1024;
+    private static final byte[] MJPEG_FRAME_FOOTER = { '\r', '\n' };
+    private static final AttributeKey<Boolean> SKIP_TO_BOUNDARY = AttributeKey.valueOf("ipcamera.skipToBoundary");
+    private static final AttributeKey<AtomicLong> DROPPED_FRAMES = AttributeKey.valueOf("ipcamera.droppedFrames");
+
     public final Logger logger = LoggerFactory.getLogger(getClass());
     public final IpCameraDynamicStateDescriptionProvider stateDescriptionProvider;
     private ScheduledExecutorService threadPool = Executors.newScheduledThreadPool(4);
@@ -136,6 +145,7 @@ public class IpCameraHandler extends BaseThingHandler {
     private final ChannelGroup snapshotMjpegChannelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     private final ChannelGroup autoSnapshotMjpegChannelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     public final ChannelGroup openChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private final ChannelGroup streamServerChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     public @Nullable Ffmpeg ffmpegHLS = null;
     public @Nullable Ffmpeg ffmpegRecord = null;
     public @Nullable Ffmpeg ffmpegGIF = null;
@@ -151,8 +161,7 @@ public class IpCameraHandler extends BaseThingHandler {
     private @Nullable Bootstrap mainBootstrap;
     private @Nullable ServerBootstrap serverBootstrap;
 
-    private EventLoopGroup mainEventLoopGroup = new NioEventLoopGroup();
-    private EventLoopGroup serversLoopGroup = new NioEventLoopGroup();
+    private final SharedEventLoopGroup eventLoopGroup;
     private FullHttpRequest putRequestWithBody = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, new HttpMethod("PUT"),
             "");
     private String gifFilename = "ipcamera";
@@ -203,7 +212,7 @@ public class IpCameraHandler extends BaseThingHandler {
     private class CommonCameraHandler extends ChannelDuplexHandler {
         private int bytesToRecieve = 0;
         private int bytesAlreadyRecieved = 0;
-        private byte[] incomingJpeg = new byte[0];
+        private @Nullable ByteBuf incomingJpeg;
         private String incomingMessage = "";
         private String contentType = "empty";
         private String boundary = "";
@@ -249,6 +258,7 @@ public class IpCameraHandler extends BaseThingHandler {
                             }
                             if (contentType.contains("multipart")) {
                                 closeConnection = false;
+                                boundary = Helper.searchString(contentType, "boundary=");
                                 if (mjpegUri.equals(requestUrl)) {
                                     if (msg instanceof HttpMessage) {
                                         // very start of stream only
@@ -256,15 +266,12 @@ public class IpCameraHandler extends BaseThingHandler {
                                         firstStreamedMsg = msg;
                                         streamToGroup(firstStreamedMsg, mjpegChannelGroup, true);
                                     }
-                                } else {
-                                    boundary = Helper.searchString(contentType, "boundary=");
                                 }
                             } else if (contentType.contains("image/jp")) {
-                                if (bytesToRecieve == 0) {
-                                    bytesToRecieve = 768000; // 0.768 Mbyte when no Content-Length is sent
-                                    logger.debug("Camera has no Content-Length header, we have to guess how much RAM.");
-                                }
-                                incomingJpeg = new byte[bytesToRecieve];
+                                releaseIncomingJpeg();
+                                // a pooled buffer that grows as needed, Content-Length is only used as initial size
+                                incomingJpeg = ctx.alloc()
+                                        .buffer(bytesToRecieve > 0 ? bytesToRecieve : DEFAULT_JPEG_BUFFER_SIZE);
                             }
                         }
                     }
@@ -272,17 +279,20 @@ public class IpCameraHandler extends BaseThingHandler {
                 if (msg instanceof HttpContent) {
                     if (mjpegUri.equals(requestUrl)) {
                         // multiple MJPEG stream packets come back as this.
-                        ReferenceCountUtil.retain(msg, 1);
-                        streamToGroup(msg, mjpegChannelGroup, true);
+                        streamMjpegContent((HttpContent) msg, boundary);
                     } else {
                         HttpContent content = (HttpContent) msg;
                         // Found some cameras use Content-Type: image/jpg instead of image/jpeg
                         if (contentType.contains("image/jp")) {
-                            for (int i = 0; i < content.content().capacity(); i++) {
-                                incomingJpeg[bytesAlreadyRecieved++] = content.content().getByte(i);
+                            ByteBuf localJpeg = incomingJpeg;
+                            if (localJpeg != null) {
+                                localJpeg.writeBytes(content.content());
+                                bytesAlreadyRecieved = localJpeg.readableBytes();
                             }
-                            if (content instanceof LastHttpContent) {
-                                processSnapshot(incomingJpeg);
+                            if (content instanceof LastHttpContent && localJpeg != null) {
+                                byte[] snapshot = ByteBufUtil.getBytes(localJpeg);
+                                releaseIncomingJpeg();
+                                processSnapshot(snapshot);
                                 // testing next line and if works need to do a full cleanup of this function.
                                 closeConnection = true;
                                 if (closeConnection) {
@@ -368,6 +378,15 @@ public class IpCameraHandler extends BaseThingHandler {
 
         @Override
         public void handlerRemoved(@Nullable ChannelHandlerContext ctx) {
+            releaseIncomingJpeg();
+        }
+
+        private void releaseIncomingJpeg() {
+            ByteBuf localJpeg = incomingJpeg;
+            if (localJpeg != null) {
+                localJpeg.release();
+                incomingJpeg = null;
+            }
         }
 
         @Override
@@ -375,13 +394,8 @@ public class IpCameraHandler extends BaseThingHandler {
             if (cause == null || ctx == null) {
                 return;
             }
-            if (cause instanceof ArrayIndexOutOfBoundsException) {
-                logger.debug("Camera sent {} bytes when the content-length header was {}.", bytesAlreadyRecieved,
-                        bytesToRecieve);
-            } else {
-                logger.warn("!!!! Camera possibly closed the channel on the binding, cause reported is: {}",
-                        cause.getMessage());
-            }
+            logger.warn("!!!! Camera possibly closed the channel on the binding, cause reported is: {}",
+                    cause.getMessage());
             ctx.close();
         }
 
@@ -419,9 +433,10 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public IpCameraHandler(Thing thing, @Nullable String ipAddress, GroupTracker groupTracker,
-            IpCameraDynamicStateDescriptionProvider stateDescriptionProvider) {
+            IpCameraDynamicStateDescriptionProvider stateDescriptionProvider, SharedEventLoopGroup eventLoopGroup) {
         super(thing);
         this.stateDescriptionProvider = stateDescriptionProvider;
+        this.eventLoopGroup = eventLoopGroup;
         if (ipAddress != null) {
             hostIp = ipAddress;
         } else {
@@ -434,6 +449,10 @@ public class IpCameraHandler extends BaseThingHandler {
         return this;
     }
 
+    public SharedEventLoopGroup getEventLoopGroup() {
+        return eventLoopGroup;
+    }
+
     // false clears the stored user/pass hash, true creates the hash
     public boolean setBasicAuth(boolean useBasic) {
         if (!useBasic) {
@@ -527,8 +546,8 @@ public class IpCameraHandler extends BaseThingHandler {
 
         if (mainBootstrap == null) {
             mainBootstrap = new Bootstrap();
-            mainBootstrap.group(mainEventLoopGroup);
-            mainBootstrap.channel(NioSocketChannel.class);
+            mainBootstrap.group(eventLoopGroup.getGroup());
+            mainBootstrap.channel(eventLoopGroup.getSocketChannelClass());
             mainBootstrap.option(ChannelOption.SO_KEEPALIVE, true);
             mainBootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 4500);
             mainBootstrap.option(ChannelOption.SO_SNDBUF, 1024 * 8);
@@ -680,7 +699,13 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public void stopStreamServer() {
-        serversLoopGroup.shutdownGracefully();
+        // the event loop group is shared, so the server and its connections have to be closed explicitly
+        ChannelFuture localServerFuture = serverFuture;
+        if (localServerFuture != null) {
+            localServerFuture.channel().close();
+            serverFuture = null;
+        }
+        streamServerChannels.close();
         serverBootstrap = null;
     }
 
@@ -688,15 +713,18 @@ public class IpCameraHandler extends BaseThingHandler {
     public void startStreamServer() {
         if (serverBootstrap == null) {
             try {
-                serversLoopGroup = new NioEventLoopGroup();
                 serverBootstrap = new ServerBootstrap();
-                serverBootstrap.group(serversLoopGroup);
-                serverBootstrap.channel(NioServerSocketChannel.class);
+                serverBootstrap.group(eventLoopGroup.getGroup());
+                serverBootstrap.channel(eventLoopGroup.getServerSocketChannelClass());
                 // IP "0.0.0.0" will bind the server to all network connections//
                 serverBootstrap.localAddress(new InetSocketAddress("0.0.0.0", cameraConfig.getServerPort()));
+                // frames are dropped for clients that have more than the high water mark waiting to be sent
+                serverBootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK,
+                        new WriteBufferWaterMark(STREAM_LOW_WATER_MARK, STREAM_HIGH_WATER_MARK));
                 serverBootstrap.childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel socketChannel) throws Exception {
+                        streamServerChannels.add(socketChannel);
                         socketChannel.pipeline().addLast("idleStateHandler", new IdleStateHandler(0, 60, 0));
                         socketChannel.pipeline().addLast("HttpServerCodec", new HttpServerCodec());
                         socketChannel.pipeline().addLast("ChunkedWriteHandler", new ChunkedWriteHandler());
@@ -754,6 +782,7 @@ public class IpCameraHandler extends BaseThingHandler {
         } else {
             snapshotMjpegChannelGroup.remove(ctx.channel());
             autoSnapshotMjpegChannelGroup.remove(ctx.channel());
+            logDroppedFrames(ctx.channel());
             if (streamingSnapshotMjpeg && snapshotMjpegChannelGroup.isEmpty()) {
                 streamingSnapshotMjpeg = false;
                 stopSnapshotPolling();
@@ -792,6 +821,7 @@ public class IpCameraHandler extends BaseThingHandler {
             }
         } else {
             mjpegChannelGroup.remove(ctx.channel());
+            logDroppedFrames(ctx.channel());
             if (mjpegChannelGroup.isEmpty()) {
                 logger.debug("All ipcamera.mjpeg streams have stopped.");
                 if (mjpegUri.equals("ffmpeg") || mjpegUri.isEmpty()) {
@@ -869,16 +899,96 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public void sendMjpegFrame(byte[] jpg, ChannelGroup channelGroup) {
+        // snapshots are never modified once received, so they can be wrapped instead of copied
+        ByteBuf imageByteBuf = Unpooled.wrappedBuffer(jpg);
+        try {
+            sendMjpegFrame(imageByteBuf, channelGroup);
+        } finally {
+            imageByteBuf.release();
+        }
+    }
+
+    /**
+     * Sends a jpg as the next frame of a mjpeg stream to all clients of a group. The frame is assembled once and each
+     * client gets a retained duplicate of it, so the picture is never copied per client. Clients that still have more
+     * than the high water mark waiting to be sent skip the frame, so a slow client can not hold back the others.
+     * The reference to the jpg stays with the caller.
+     */
+    public void sendMjpegFrame(ByteBuf jpg, ChannelGroup channelGroup) {
+        if (channelGroup.isEmpty()) {
+            return;
+        }
         final String boundary = "thisMjpegStream";
-        ByteBuf imageByteBuf = Unpooled.copiedBuffer(jpg);
-        int length = imageByteBuf.readableBytes();
-        String header = "--" + boundary + "\r\n" + "content-type: image/jpeg" + "\r\n" + "content-length: " + length
-                + "\r\n\r\n";
-        ByteBuf headerBbuf = Unpooled.copiedBuffer(header, 0, header.length(), StandardCharsets.UTF_8);
-        ByteBuf footerBbuf = Unpooled.copiedBuffer("\r\n", 0, 2, StandardCharsets.UTF_8);
-        streamToGroup(headerBbuf, channelGroup, false);
-        streamToGroup(imageByteBuf, channelGroup, false);
-        streamToGroup(footerBbuf, channelGroup, true);
+        String header = "--" + boundary + "\r\n" + "content-type: image/jpeg" + "\r\n" + "content-length: "
+                + jpg.readableBytes() + "\r\n\r\n";
+        ByteBuf frame = Unpooled.wrappedBuffer(Unpooled.copiedBuffer(header, StandardCharsets.US_ASCII),
+                jpg.retainedDuplicate(), Unpooled.wrappedBuffer(MJPEG_FRAME_FOOTER));
+        try {
+            for (Channel channel : channelGroup) {
+                if (channel.isWritable()) {
+                    channel.writeAndFlush(frame.retainedDuplicate());
+                } else {
+                    countDroppedFrame(channel);
+                }
+            }
+        } finally {
+            frame.release();
+        }
+    }
+
+    /**
+     * Passes a part of the camera's own mjpeg stream on to all clients. A part can not be dropped on its own without
+     * corrupting the stream, so a client that could not keep up skips everything up to the next boundary.
+     * Package-private for tests.
+     */
+    void streamMjpegContent(HttpContent content, String boundary) {
+        ByteBuf data = content.content();
+        for (Channel channel : mjpegChannelGroup) {
+            Attribute<Boolean> skipToBoundary = channel.attr(SKIP_TO_BOUNDARY);
+            if (!channel.isWritable()) {
+                if (!Boolean.TRUE.equals(skipToBoundary.getAndSet(true))) {
+                    countDroppedFrame(channel);
+                }
+            } else if (Boolean.TRUE.equals(skipToBoundary.get())) {
+                int start = findBoundary(data, boundary);
+                if (start >= 0) {
+                    skipToBoundary.set(false);
+                    channel.writeAndFlush(content.replace(data.retainedSlice(start, data.writerIndex() - start)));
+                }
+            } else {
+                channel.writeAndFlush(content.retainedDuplicate());
+            }
+        }
+    }
+
+    private int findBoundary(ByteBuf data, String boundary) {
+        if (boundary.isEmpty()) {
+            return -1;
+        }
+        int index = ByteBufUtil.indexOf(Unpooled.wrappedBuffer(boundary.getBytes(StandardCharsets.US_ASCII)), data);
+        // include the dashes in front of the boundary
+        while (index > data.readerIndex() && data.getByte(index - 1) == '-') {
+            index--;
+        }
+        return index;
+    }
+
+    private void countDroppedFrame(Channel channel) {
+        AtomicLong dropped = channel.attr(DROPPED_FRAMES).setIfAbsent(new AtomicLong(1));
+        if (dropped != null) {
+            dropped.incrementAndGet();
+        }
+        logger.trace("Dropping mjpeg frame for slow client {}", channel.remoteAddress());
+    }
+
+    /**
+     * Logs the number of frames that were dropped for a client, as its stream has stopped.
+     */
+    private void logDroppedFrames(Channel channel) {
+        AtomicLong dropped = channel.attr(DROPPED_FRAMES).getAndSet(null);
+        if (dropped != null) {
+            logger.debug("Dropped {} mjpeg frames for slow client {}", dropped.get(), channel.remoteAddress());
+        }
     }
 
     public void streamToGroup(Object msg, ChannelGroup channelGroup, boolean flush) {
@@ -1653,7 +1763,7 @@ public class IpCameraHandler extends BaseThingHandler {
             localHLS.checkKeepAlive();
         }
         if (openChannels.size() > 18) {
-            logger.debug("There are {} open Channels being tracked.", openChannels.size());
+            logger.debug("There are {} open Channels being tracked, {}", openChannels.size(), eventLoopGroup);
             cleanChannels();
         }
     }
@@ -27,7 +27,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
 import java.util.TimeZone;
-import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -47,10 +46,7 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpClientCodec;
@@ -111,7 +107,6 @@ public class OnvifConnection {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private @Nullable Bootstrap bootstrap;
-    private EventLoopGroup mainEventLoopGroup = new NioEventLoopGroup();
     private String ipAddress = "";
     private String user = "";
     private String password = "";
@@ -497,8 +492,8 @@ public class OnvifConnection {
     public void sendOnvifRequest(HttpRequest request) {
         if (bootstrap == null) {
             bootstrap = new Bootstrap();
-            bootstrap.group(mainEventLoopGroup);
-            bootstrap.channel(NioSocketChannel.class);
+            bootstrap.group(ipCameraHandler.getEventLoopGroup().getGroup());
+            bootstrap.channel(ipCameraHandler.getEventLoopGroup().getSocketChannelClass());
             bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
             bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000);
             bootstrap.option(ChannelOption.SO_SNDBUF, 1024 * 8);
@@ -834,15 +829,6 @@ public class OnvifConnection {
         isConnected = false;
         presetTokens.clear();
         mediaProfileTokens.clear();
-        if (!mainEventLoopGroup.isShutdown()) {
-            try {
-                mainEventLoopGroup.awaitTermination(3, TimeUnit.SECONDS);
-            } catch (InterruptedException e) {
-                logger.info("Onvif was not shutdown correctly due to being interrupted");
-            } finally {
-                mainEventLoopGroup = new NioEventLoopGroup();
-                bootstrap = null;
-            }
-        }
+        bootstrap = null;
     }
 }
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.openhab.binding.ipcamera.internal.IpCameraBindingConstants.CONFIG_EVENT_LOOP_THREADS;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
+import org.openhab.core.net.NetworkAddressService;
+
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests cases for the shared event loop group of {@link IpCameraHandlerFactory}
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class IpCameraHandlerFactoryTest {
+    private @Mock NetworkAddressService networkAddressService;
+    private @Mock IpCameraDynamicStateDescriptionProvider stateDescriptionProvider;
+
+    private IpCameraHandlerFactory factory;
+
+    @AfterEach
+    public void tearDown() {
+        if (factory != null) {
+            factory.getEventLoopGroup().shutdown();
+        }
+    }
+
+    @Test
+    public void configuredNumberOfThreadsIsUsed() {
+        factory = new IpCameraHandlerFactory(networkAddressService, stateDescriptionProvider,
+                Map.<String, Object> of(CONFIG_EVENT_LOOP_THREADS, new BigDecimal(3)));
+
+        assertThat(factory.getEventLoopGroup().getThreads(), is(3));
+    }
+
+    @Test
+    public void invalidNumberOfThreadsFallsBackToTheNumberOfProcessors() {
+        factory = new IpCameraHandlerFactory(networkAddressService, stateDescriptionProvider,
+                Map.<String, Object> of(CONFIG_EVENT_LOOP_THREADS, "many"));
+
+        assertThat(factory.getEventLoopGroup().getThreads(), is(Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Test
+    public void channelsOfEachEventLoopAreExported() {
+        factory = new IpCameraHandlerFactory(networkAddressService, stateDescriptionProvider,
+                Map.<String, Object> of(CONFIG_EVENT_LOOP_THREADS, 2));
+        CompositeMeterRegistry meterRegistry = new CompositeMeterRegistry();
+        meterRegistry.add(new SimpleMeterRegistry());
+        MeterRegistryProvider meterRegistryProvider = () -> meterRegistry;
+
+        factory.setMeterRegistryProvider(meterRegistryProvider);
+
+        assertThat(meterRegistry.find("openhab.binding.ipcamera.eventloop.channels").gauges().size(), is(2));
+        assertThat(meterRegistry.get("openhab.binding.ipcamera.eventloop.channels").tag("loop", "1").gauge().value(),
+                is(0.0));
+
+        factory.unsetMeterRegistryProvider(meterRegistryProvider);
+        assertThat(meterRegistry.getMeters().isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.netty.channel.Channel;
+
+/**
+ * Tests cases for {@link SharedEventLoopGroup}
+ *
+ * @author agent - Initial contribution
+ */
+public class SharedEventLoopGroupTest {
+    private final SharedEventLoopGroup group = new SharedEventLoopGroup(2);
+
+    @AfterEach
+    public void tearDown() {
+        group.shutdown();
+    }
+
+    @Test
+    public void defaultUsesTheNumberOfProcessors() {
+        SharedEventLoopGroup defaultGroup = new SharedEventLoopGroup(0);
+        try {
+            assertThat(defaultGroup.getThreads(), is(Runtime.getRuntime().availableProcessors()));
+            assertThat(defaultGroup.getRegisteredChannels().size(), is(defaultGroup.getThreads()));
+        } finally {
+            defaultGroup.shutdown();
+        }
+    }
+
+    @Test
+    public void channelsAreCountedPerEventLoop() throws Exception {
+        assertThat(group.getRegisteredChannels(), is(List.of(0, 0)));
+
+        Channel first = group.getSocketChannelClass().getDeclaredConstructor().newInstance();
+        Channel second = group.getSocketChannelClass().getDeclaredConstructor().newInstance();
+        group.getGroup().register(first).sync();
+        group.getGroup().register(second).sync();
+        // the channels are distributed over the event loops
+        assertThat(group.getRegisteredChannels(), is(List.of(1, 1)));
+
+        first.close().sync();
+        second.close().sync();
+        assertThat(group.getRegisteredChannels().stream().mapToInt(Integer::intValue).sum(), is(0));
+    }
+
+    @Test
+    public void shutdownStopsTheThreads() throws InterruptedException {
+        group.shutdown();
+
+        assertThat(group.getGroup().isShuttingDown(), is(true));
+        assertThat(group.getGroup().awaitTermination(5, TimeUnit.SECONDS), is(true));
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.binding.ipcamera.internal.handler.IpCameraHandler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+
+/**
+ * Tests cases for {@link StreamServerHandler}
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class StreamServerHandlerTest {
+    private @Mock IpCameraHandler ipCameraHandler;
+
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    public void setUp() {
+        when(ipCameraHandler.getWhiteList()).thenReturn("DISABLE");
+        channel = new EmbeddedChannel(new StreamServerHandler(ipCameraHandler));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void mjpegFrameIsAssembledWithoutCopiesAndReleased() {
+        ByteBuf first = Unpooled.buffer().writeBytes(new byte[800]);
+        ByteBuf last = Unpooled.buffer().writeBytes(new byte[800]);
+        doAnswer(invocation -> {
+            ByteBuf jpg = invocation.getArgument(0);
+            assertThat(jpg.readableBytes(), is(1600));
+            return null;
+        }).when(ipCameraHandler).sendMjpegFrame(any(ByteBuf.class), any());
+
+        channel.writeInbound(new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/ipcamera.jpg"));
+        channel.writeInbound(new DefaultHttpContent(first));
+        // the parts of the frame are kept until the last one has been received
+        assertThat(first.refCnt(), is(1));
+        channel.writeInbound(new DefaultLastHttpContent(last));
+
+        verify(ipCameraHandler).sendMjpegFrame(any(ByteBuf.class), any());
+        assertThat(first.refCnt(), is(0));
+        assertThat(last.refCnt(), is(0));
+    }
+
+    @Test
+    public void partsAreReleasedWhenTheClientDisconnects() {
+        ByteBuf first = Unpooled.buffer().writeBytes(new byte[800]);
+
+        channel.writeInbound(new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/ipcamera.jpg"));
+        channel.writeInbound(new DefaultHttpContent(first));
+        channel.close();
+
+        verify(ipCameraHandler, never()).sendMjpegFrame(any(ByteBuf.class), any());
+        assertThat(first.refCnt(), is(0));
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.binding.ipcamera.internal.GroupTracker;
+import org.openhab.binding.ipcamera.internal.IpCameraDynamicStateDescriptionProvider;
+import org.openhab.binding.ipcamera.internal.SharedEventLoopGroup;
+import org.openhab.core.thing.Thing;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.util.concurrent.GlobalEventExecutor;
+
+/**
+ * Tests cases for the mjpeg streaming of {@link IpCameraHandler}
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class IpCameraHandlerTest {
+    private static final String BOUNDARY = "myboundary";
+
+    private @Mock Thing thing;
+    private @Mock IpCameraDynamicStateDescriptionProvider stateDescriptionProvider;
+    private @Mock SharedEventLoopGroup eventLoopGroup;
+
+    private IpCameraHandler handler;
+    private final EmbeddedChannel client = new EmbeddedChannel();
+    private final EmbeddedChannel slowClient = new EmbeddedChannel();
+
+    @BeforeEach
+    public void setUp() {
+        handler = new IpCameraHandler(thing, "127.0.0.1", new GroupTracker(), stateDescriptionProvider,
+                eventLoopGroup);
+        // a client is not writable while more than the high water mark is waiting to be sent
+        slowClient.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16));
+        slowClient.write(Unpooled.wrappedBuffer(new byte[32]));
+        assertThat(slowClient.isWritable(), is(false));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        client.finishAndReleaseAll();
+        slowClient.finishAndReleaseAll();
+    }
+
+    @Test
+    public void frameIsSentToWritableClientsOnly() {
+        ChannelGroup group = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+        group.add(client);
+        group.add(slowClient);
+        ByteBuf jpg = Unpooled.copiedBuffer("jpg", StandardCharsets.US_ASCII);
+
+        handler.sendMjpegFrame(jpg, group);
+
+        ByteBuf frame = client.readOutbound();
+        assertThat(frame.toString(StandardCharsets.US_ASCII),
+                is("--thisMjpegStream\r\ncontent-type: image/jpeg\r\ncontent-length: 3\r\n\r\njpg\r\n"));
+        frame.release();
+        assertSkipped(slowClient);
+        // the reference to the jpg stays with the caller
+        assertThat(jpg.refCnt(), is(1));
+        jpg.release();
+        assertThat(jpg.refCnt(), is(0));
+    }
+
+    @Test
+    public void streamIsPassedOnWithoutCopies() {
+        handler.mjpegChannelGroup.add(client);
+        HttpContent content = content("--" + BOUNDARY + "\r\njpg");
+
+        handler.streamMjpegContent(content, BOUNDARY);
+
+        HttpContent sent = client.readOutbound();
+        assertThat(sent.content().toString(StandardCharsets.US_ASCII), is("--" + BOUNDARY + "\r\njpg"));
+        sent.release();
+        content.release();
+        assertThat(content.refCnt(), is(0));
+    }
+
+    @Test
+    public void slowClientSkipsToTheNextBoundary() {
+        handler.mjpegChannelGroup.add(slowClient);
+        HttpContent skipped = content("--" + BOUNDARY + "\r\nfirst");
+        HttpContent partial = content("rest of first--" + BOUNDARY + "\r\nsecond");
+        HttpContent next = content(" rest of second");
+
+        handler.streamMjpegContent(skipped, BOUNDARY);
+        assertSkipped(slowClient);
+        handler.streamMjpegContent(partial, BOUNDARY);
+        handler.streamMjpegContent(next, BOUNDARY);
+
+        HttpContent sent = slowClient.readOutbound();
+        assertThat(sent.content().toString(StandardCharsets.US_ASCII), is("--" + BOUNDARY + "\r\nsecond"));
+        sent.release();
+        sent = slowClient.readOutbound();
+        assertThat(sent.content().toString(StandardCharsets.US_ASCII), is(" rest of second"));
+        sent.release();
+        for (HttpContent content : new HttpContent[] { skipped, partial, next }) {
+            content.release();
+            assertThat(content.refCnt(), is(0));
+        }
+    }
+
+    /**
+     * Asserts that nothing but the data which made the client unwritable was sent and makes it writable again.
+     */
+    private static void assertSkipped(EmbeddedChannel channel) {
+        channel.flush();
+        ByteBuf pending = channel.readOutbound();
+        assertThat(pending.readableBytes(), is(32));
+        pending.release();
+        assertThat(channel.readOutbound(), is(nullValue()));
+        assertThat(channel.isWritable(), is(true));
+    }
+
+    private static HttpContent content(String data) {
+        return new DefaultHttpContent(Unpooled.copiedBuffer(data, StandardCharsets.US_ASCII));
+    }
+}
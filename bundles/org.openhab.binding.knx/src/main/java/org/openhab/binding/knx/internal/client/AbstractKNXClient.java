@@ -12,7 +12,11 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
@@ -64,6 +68,7 @@ import tuwien.auto.calimero.process.ProcessListener;
 public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClient {
 
     private static final int MAX_SEND_ATTEMPTS = 2;
+    private static final int MAX_PENDING_TELEGRAMS = 1000;
 
     private final Logger logger = LoggerFactory.getLogger(AbstractKNXClient.class);
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
@@ -85,7 +90,9 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> busJob;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
+    private final Map<GroupAddress, Set<GroupAddressListener>> groupAddressListeners = new ConcurrentHashMap<>();
+    private final Map<GroupAddressListener, Set<GroupAddress>> listenerGroupAddresses = new HashMap<>();
+    private final TelegramDispatcher telegramDispatcher;
     private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
 
     @FunctionalInterface
@@ -132,6 +139,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         this.readRetriesLimit = readRetriesLimit;
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
+        this.telegramDispatcher = new TelegramDispatcher(knxScheduler, MAX_PENDING_TELEGRAMS);
     }
 
     public void initialize() {
@@ -252,11 +260,19 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
-            }
+        Set<GroupAddressListener> listeners = groupAddressListeners.get(destination);
+        if (listeners == null || listeners.isEmpty()) {
+            return;
         }
+        telegramDispatcher.dispatch(destination, () -> {
+            for (GroupAddressListener listener : listeners) {
+                try {
+                    action.apply(listener, source, destination, asdu);
+                } catch (RuntimeException e) {
+                    logger.warn("Processing the {} telegram to '{}' failed: {}", task, destination, e.getMessage(), e);
+                }
+            }
+        });
     }
 
     /**
@@ -305,6 +321,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     public void dispose() {
         cancelReconnectJob();
         disconnect(null);
+        telegramDispatcher.clear();
     }
 
     @Override
@@ -378,12 +395,41 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        synchronized (listenerGroupAddresses) {
+            Set<GroupAddress> groupAddresses = new HashSet<>(listener.getGroupAddresses());
+            Set<GroupAddress> previousGroupAddresses = listenerGroupAddresses.put(listener, groupAddresses);
+            if (previousGroupAddresses != null) {
+                removeFromIndex(listener, previousGroupAddresses);
+            }
+            for (GroupAddress groupAddress : groupAddresses) {
+                groupAddressListeners.computeIfAbsent(groupAddress, ga -> new CopyOnWriteArraySet<>()).add(listener);
+            }
+            return previousGroupAddresses == null;
+        }
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        synchronized (listenerGroupAddresses) {
+            Set<GroupAddress> groupAddresses = listenerGroupAddresses.remove(listener);
+            if (groupAddresses == null) {
+                return false;
+            }
+            removeFromIndex(listener, groupAddresses);
+            return true;
+        }
+    }
+
+    private void removeFromIndex(GroupAddressListener listener, Set<GroupAddress> groupAddresses) {
+        for (GroupAddress groupAddress : groupAddresses) {
+            Set<GroupAddressListener> listeners = groupAddressListeners.get(groupAddress);
+            if (listeners != null) {
+                listeners.remove(listener);
+                if (listeners.isEmpty()) {
+                    groupAddressListeners.remove(groupAddress);
+                }
+            }
+        }
     }
 
     @Override
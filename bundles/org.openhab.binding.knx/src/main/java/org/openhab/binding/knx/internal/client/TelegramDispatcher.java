@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Delivers received telegrams to the listeners of their group address.
+ *
+ * The telegrams of a group address are delivered one after another in the order they were received, while telegrams
+ * of different group addresses are delivered in parallel by the given executor. Only one task per group address is
+ * running at any time. The number of pending telegrams is bounded, further telegrams are dropped until the pending
+ * ones have been delivered. The start and the end of such an overflow are logged, together with the number of
+ * telegrams dropped during it.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TelegramDispatcher {
+
+    private static final long RATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Logger logger = LoggerFactory.getLogger(TelegramDispatcher.class);
+
+    private final Executor executor;
+    private final int capacity;
+
+    private final Map<GroupAddress, Queue<Delivery>> queues = new HashMap<>();
+    private int pending;
+    private boolean overflow;
+    private long overflowDroppedTelegrams;
+
+    private long telegrams;
+    private long droppedTelegrams;
+    private long deliveredTelegrams;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+    private long rateIntervalStart = System.nanoTime();
+    private long rateIntervalTelegrams;
+    private long telegramsPerSecond;
+
+    private static class Delivery {
+        private final Runnable task;
+        private final long received = System.nanoTime();
+
+        private Delivery(Runnable task) {
+            this.task = task;
+        }
+    }
+
+    /**
+     * @param executor the executor which delivers the telegrams
+     * @param capacity the maximum number of telegrams which are waiting to be delivered
+     */
+    public TelegramDispatcher(Executor executor, int capacity) {
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Queues the delivery of a telegram.
+     *
+     * @param destination the group address of the telegram
+     * @param task the task which delivers the telegram to all listeners of the group address
+     * @return {@code true} if the telegram was queued, {@code false} if it was dropped
+     */
+    public boolean dispatch(GroupAddress destination, Runnable task) {
+        Delivery delivery = new Delivery(task);
+        synchronized (this) {
+            telegrams++;
+            countRate(delivery.received);
+            if (pending >= capacity) {
+                droppedTelegrams++;
+                overflowDroppedTelegrams++;
+                if (!overflow) {
+                    overflow = true;
+                    logger.warn("More than {} KNX telegrams are waiting to be processed, dropping telegrams", capacity);
+                }
+                return false;
+            }
+            pending++;
+            Queue<Delivery> queue = queues.get(destination);
+            if (queue != null) {
+                // the running task of the group address delivers it
+                queue.add(delivery);
+                return true;
+            }
+            queues.put(destination, new ArrayDeque<>());
+        }
+        try {
+            executor.execute(() -> deliver(destination, delivery));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Could not deliver KNX telegram to '{}': {}", destination, e.getMessage());
+            synchronized (this) {
+                Queue<Delivery> queue = queues.remove(destination);
+                pending -= 1 + (queue != null ? queue.size() : 0);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void deliver(GroupAddress destination, Delivery first) {
+        @Nullable
+        Delivery delivery = first;
+        while (delivery != null) {
+            long latency = System.nanoTime() - delivery.received;
+            try {
+                delivery.task.run();
+            } catch (RuntimeException e) {
+                logger.warn("Processing a KNX telegram to '{}' failed: {}", destination, e.getMessage(), e);
+            }
+            synchronized (this) {
+                deliveredTelegrams++;
+                totalLatencyNanos += latency;
+                maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+                pending--;
+                if (pending == 0 && overflow) {
+                    overflow = false;
+                    logger.warn("All waiting KNX telegrams have been processed, {} telegrams were dropped",
+                            overflowDroppedTelegrams);
+                    overflowDroppedTelegrams = 0;
+                }
+                Queue<Delivery> queue = queues.get(destination);
+                delivery = queue != null ? queue.poll() : null;
+                if (delivery == null) {
+                    queues.remove(destination);
+                }
+            }
+        }
+    }
+
+    private void countRate(long now) {
+        long elapsed = now - rateIntervalStart;
+        if (elapsed >= RATE_INTERVAL_NANOS) {
+            telegramsPerSecond = rateIntervalTelegrams * RATE_INTERVAL_NANOS / elapsed;
+            logger.trace("KNX telegrams: {}/s, dropped: {}, average dispatch latency: {} us, maximum: {} us",
+                    telegramsPerSecond, droppedTelegrams, getAverageLatencyMicros(),
+                    TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos));
+            rateIntervalStart = now;
+            rateIntervalTelegrams = 0;
+        }
+        rateIntervalTelegrams++;
+    }
+
+    /**
+     * Returns the number of telegrams received.
+     */
+    public synchronized long getTelegrams() {
+        return telegrams;
+    }
+
+    /**
+     * Returns the number of telegrams dropped because too many telegrams were waiting to be delivered.
+     */
+    public synchronized long getDroppedTelegrams() {
+        return droppedTelegrams;
+    }
+
+    /**
+     * Returns the number of telegrams delivered to the listeners.
+     */
+    public synchronized long getDeliveredTelegrams() {
+        return deliveredTelegrams;
+    }
+
+    /**
+     * Returns the number of telegrams received per second, measured over the last full second with telegrams.
+     */
+    public synchronized long getTelegramsPerSecond() {
+        return telegramsPerSecond;
+    }
+
+    /**
+     * Returns the average time between receiving a telegram and delivering it, in microseconds.
+     */
+    public synchronized long getAverageLatencyMicros() {
+        return deliveredTelegrams == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatencyNanos / deliveredTelegrams);
+    }
+
+    /**
+     * Returns the maximum time between receiving a telegram and delivering it, in microseconds.
+     */
+    public synchronized long getMaxLatencyMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos);
+    }
+
+    /**
+     * Discards all telegrams which are waiting to be delivered. Telegrams which are being delivered are not
+     * interrupted.
+     */
+    public synchronized void clear() {
+        for (Queue<Delivery> queue : queues.values()) {
+            pending -= queue.size();
+            queue.clear();
+        }
+        logger.debug("KNX telegrams received: {}, delivered: {}, dropped: {}, average dispatch latency: {} us",
+                telegrams, deliveredTelegrams, droppedTelegrams, getAverageLatencyMicros());
+    }
+}
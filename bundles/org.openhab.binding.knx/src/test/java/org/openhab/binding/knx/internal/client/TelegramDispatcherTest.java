@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Tests cases for {@link TelegramDispatcher}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TelegramDispatcherTest {
+
+    private static final GroupAddress GA1 = new GroupAddress(1, 2, 3);
+    private static final GroupAddress GA2 = new GroupAddress(1, 2, 4);
+
+    @Test
+    public void testOrderPerGroupAddress() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        TelegramDispatcher dispatcher = new TelegramDispatcher(executor, 10000);
+        List<Integer> received1 = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> received2 = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 1000; i++) {
+            int value = i;
+            assertTrue(dispatcher.dispatch(GA1, () -> received1.add(value)));
+            assertTrue(dispatcher.dispatch(GA2, () -> received2.add(value)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, received1.size());
+        assertEquals(1000, received2.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, received1.get(i));
+            assertEquals(i, received2.get(i));
+        }
+        assertEquals(2000, dispatcher.getTelegrams());
+        assertEquals(2000, dispatcher.getDeliveredTelegrams());
+        assertEquals(0, dispatcher.getDroppedTelegrams());
+    }
+
+    @Test
+    public void testOneTaskPerGroupAddress() {
+        List<Runnable> tasks = new ArrayList<>();
+        TelegramDispatcher dispatcher = new TelegramDispatcher(tasks::add, 100);
+        List<Integer> received = new ArrayList<>();
+        dispatcher.dispatch(GA1, () -> received.add(1));
+        dispatcher.dispatch(GA1, () -> received.add(2));
+        dispatcher.dispatch(GA2, () -> received.add(3));
+
+        // the second telegram to the same group address is delivered by the first task
+        assertEquals(2, tasks.size());
+        tasks.get(0).run();
+        assertEquals(List.of(1, 2), received);
+        tasks.get(1).run();
+        assertEquals(List.of(1, 2, 3), received);
+
+        // a new task is started when the group address has no pending telegrams anymore
+        dispatcher.dispatch(GA1, () -> received.add(4));
+        assertEquals(3, tasks.size());
+    }
+
+    @Test
+    public void testCapacity() {
+        List<Runnable> tasks = new ArrayList<>();
+        TelegramDispatcher dispatcher = new TelegramDispatcher(tasks::add, 2);
+        assertTrue(dispatcher.dispatch(GA1, () -> {
+        }));
+        assertTrue(dispatcher.dispatch(GA1, () -> {
+        }));
+        assertFalse(dispatcher.dispatch(GA2, () -> {
+        }));
+        assertEquals(1, dispatcher.getDroppedTelegrams());
+
+        tasks.get(0).run();
+        assertTrue(dispatcher.dispatch(GA2, () -> {
+        }));
+        assertEquals(4, dispatcher.getTelegrams());
+        assertEquals(2, dispatcher.getDeliveredTelegrams());
+    }
+
+    @Test
+    public void testFailingTaskDoesNotStopDelivery() {
+        List<Runnable> tasks = new ArrayList<>();
+        TelegramDispatcher dispatcher = new TelegramDispatcher(tasks::add, 100);
+        List<Integer> received = new ArrayList<>();
+        dispatcher.dispatch(GA1, () -> {
+            throw new IllegalStateException("test");
+        });
+        dispatcher.dispatch(GA1, () -> received.add(1));
+        tasks.get(0).run();
+        assertEquals(List.of(1), received);
+    }
+}
@@ -28,6 +28,7 @@ import java.util.stream.Collectors;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.mqtt.generic.tools.JsonPayloadDemultiplexer;
 import org.openhab.binding.mqtt.generic.utils.FutureCollector;
 import org.openhab.binding.mqtt.generic.values.OnOffValue;
 import org.openhab.binding.mqtt.generic.values.Value;
@@ -84,6 +85,9 @@ public abstract class AbstractMQTTThingHandler extends BaseThingHandler
 
     protected @Nullable MqttBrokerConnection connection;
 
+    /** Parses a JSON payload once for all channels on the same topic */
+    protected final JsonPayloadDemultiplexer jsonPayloadDemultiplexer = new JsonPayloadDemultiplexer();
+
     private AtomicBoolean messageReceived = new AtomicBoolean(false);
     private Map<String, @Nullable ChannelState> availabilityStates = new ConcurrentHashMap<>();
 
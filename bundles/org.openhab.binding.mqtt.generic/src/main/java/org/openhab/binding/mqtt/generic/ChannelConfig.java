@@ -43,6 +43,11 @@ public class ChannelConfig {
     public boolean trigger = false;
     public String unit = "";
 
+    /** If true, a received message with the same topic and payload as the previous one is dropped. */
+    public boolean dropDuplicates = false;
+    /** The minimum time in milliseconds between two processed messages, 0 processes every message. */
+    public int minUpdateInterval = 0;
+
     public String transformationPattern = "";
     public String transformationPatternOut = "";
     public String formatBeforePublish = "%s";
@@ -69,6 +69,16 @@ public class ChannelConfigBuilder {
         return this;
     }
 
+    public ChannelConfigBuilder withDropDuplicates(boolean dropDuplicates) {
+        config.dropDuplicates = dropDuplicates;
+        return this;
+    }
+
+    public ChannelConfigBuilder withMinUpdateInterval(int minUpdateInterval) {
+        config.minUpdateInterval = minUpdateInterval;
+        return this;
+    }
+
     public ChannelConfigBuilder makeTrigger(boolean trigger) {
         config.trigger = trigger;
         return this;
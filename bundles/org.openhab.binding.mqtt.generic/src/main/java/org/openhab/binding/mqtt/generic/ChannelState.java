@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.IllegalFormatException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -62,6 +63,17 @@ public class ChannelState implements MqttMessageSubscriber {
     private CompletableFuture<@Nullable Void> future = CompletableFuture.completedFuture(null);
     private final Object futureLock = new Object();
 
+    // Message pipeline: duplicate detection and rate limiting
+    private final Object messageLock = new Object();
+    private @Nullable ScheduledExecutorService scheduler;
+    private @Nullable ScheduledFuture<?> flushFuture;
+    private @Nullable String lastTopic;
+    private byte @Nullable [] lastPayload;
+    private byte @Nullable [] pendingPayload;
+    private long lastForwardedNanos;
+    private long receivedMessages;
+    private long forwardedMessages;
+
     /**
      * Creates a new channel state.
      *
@@ -133,18 +145,84 @@ public class ChannelState implements MqttMessageSubscriber {
 
     /**
      * Incoming message from the MqttBrokerConnection
+     * <p>
+     * If configured, a message with the same topic and payload as the previous one is dropped before any
+     * transformation, and messages arriving within the minimum update interval are held back. Only the latest held
+     * back message is processed when the interval has passed.
+     * </p>
+     * <p>
+     * The decision is taken while holding the message lock, the transformations and the listener are called outside of
+     * it, so that a slow transformation does not block the scheduler or {@link #stop()}.
+     * </p>
      *
      * @param topic The topic. Is the same as the field stateTopic.
      * @param payload The byte payload. Must be UTF8 encoded text or binary data.
      */
     @Override
     public void processMessage(String topic, byte[] payload) {
-        final ChannelStateUpdateListener channelStateUpdateListener = this.channelStateUpdateListener;
         if (channelStateUpdateListener == null) {
             logger.warn("MQTT message received for topic {}, but MessageSubscriber object hasn't been started!", topic);
             return;
         }
 
+        synchronized (messageLock) {
+            receivedMessages++;
+            if (config.dropDuplicates && topic.equals(lastTopic) && Arrays.equals(payload, lastPayload)) {
+                logger.trace("Dropped duplicate message on topic {} for channel {}", topic, channelUID);
+                receivedOrTimeout();
+                return;
+            }
+            lastTopic = topic;
+            lastPayload = payload;
+
+            final ScheduledExecutorService scheduler = this.scheduler;
+            if (config.minUpdateInterval > 0 && scheduler != null) {
+                long waitNanos = lastForwardedNanos + TimeUnit.MILLISECONDS.toNanos(config.minUpdateInterval)
+                        - System.nanoTime();
+                if (forwardedMessages > 0 && waitNanos > 0) {
+                    // Keep the latest message only, it is processed when the interval has passed
+                    pendingPayload = payload;
+                    if (flushFuture == null) {
+                        flushFuture = scheduler.schedule(this::flushPendingMessage, waitNanos, TimeUnit.NANOSECONDS);
+                    }
+                    receivedOrTimeout();
+                    return;
+                }
+            }
+            markForwarded();
+        }
+        forwardMessage(payload);
+    }
+
+    private void flushPendingMessage() {
+        final byte[] payload;
+        synchronized (messageLock) {
+            flushFuture = null;
+            payload = pendingPayload;
+            pendingPayload = null;
+            if (payload == null) {
+                return;
+            }
+            markForwarded();
+        }
+        forwardMessage(payload);
+    }
+
+    /**
+     * Counts a message as forwarded and starts the minimum update interval. Must be called while holding the message
+     * lock, before the message is forwarded.
+     */
+    private void markForwarded() {
+        forwardedMessages++;
+        lastForwardedNanos = System.nanoTime();
+    }
+
+    private void forwardMessage(byte[] payload) {
+        final ChannelStateUpdateListener channelStateUpdateListener = this.channelStateUpdateListener;
+        if (channelStateUpdateListener == null) {
+            return;
+        }
+
         if (cachedValue.isBinary()) {
             cachedValue.update(payload);
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
@@ -152,18 +230,23 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
-        // String value: Apply transformations
-        String strValue = new String(payload, StandardCharsets.UTF_8);
+        // String value: Apply transformations. The first one gets the payload, so that a JSON payload of several
+        // channels is parsed only once.
+        String strValue = null;
         for (ChannelStateTransformation t : transformationsIn) {
-            String transformedValue = t.processValue(strValue);
+            String transformedValue = strValue == null ? t.processPayload(payload) : t.processValue(strValue);
             if (transformedValue != null) {
                 strValue = transformedValue;
             } else {
-                logger.debug("Transformation '{}' returned null on '{}', discarding message", strValue, t.serviceName);
+                logger.debug("Transformation '{}' returned null on '{}', discarding message",
+                        strValue != null ? strValue : new String(payload, StandardCharsets.UTF_8), t.serviceName);
                 receivedOrTimeout();
                 return;
             }
         }
+        if (strValue == null) {
+            strValue = new String(payload, StandardCharsets.UTF_8);
+        }
 
         // Is trigger?: Special handling
         if (config.trigger) {
@@ -255,6 +338,40 @@ public class ChannelState implements MqttMessageSubscriber {
         this.channelStateUpdateListener = null;
         hasSubscribed = false;
         cachedValue.resetState();
+        synchronized (messageLock) {
+            final ScheduledFuture<?> flushFuture = this.flushFuture;
+            if (flushFuture != null) {
+                flushFuture.cancel(false);
+                this.flushFuture = null;
+            }
+            if (receivedMessages > 0) {
+                logger.debug("Channel {} received {} messages and forwarded {}", channelUID, receivedMessages,
+                        forwardedMessages);
+            }
+            pendingPayload = null;
+            lastTopic = null;
+            lastPayload = null;
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Returns the number of MQTT messages received for this channel, package-private for tests.
+     */
+    long getReceivedMessages() {
+        synchronized (messageLock) {
+            return receivedMessages;
+        }
+    }
+
+    /**
+     * Returns the number of received MQTT messages which were processed, i.e. were neither dropped as duplicate nor
+     * replaced by a later message within the minimum update interval, package-private for tests.
+     */
+    long getForwardedMessages() {
+        synchronized (messageLock) {
+            return forwardedMessages;
+        }
     }
 
     private void receivedOrTimeout() {
@@ -295,6 +412,9 @@ public class ChannelState implements MqttMessageSubscriber {
             hasSubscribed = false;
 
             this.connection = connection;
+            synchronized (messageLock) {
+                this.scheduler = scheduler;
+            }
 
             if (config.stateTopic.isBlank()) {
                 return CompletableFuture.completedFuture(null);
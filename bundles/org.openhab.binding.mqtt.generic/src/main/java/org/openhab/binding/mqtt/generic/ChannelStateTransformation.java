@@ -13,14 +13,19 @@
 package org.openhab.binding.mqtt.generic;
 
 import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.mqtt.generic.tools.JsonPayloadDemultiplexer;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonElement;
+
 /**
  * A transformation for a {@link ChannelState}. It is applied for each received value on an MQTT topic.
  *
@@ -33,6 +38,8 @@ public class ChannelStateTransformation {
     private WeakReference<@Nullable TransformationService> transformationService = new WeakReference<>(null);
     final String pattern;
     final String serviceName;
+    private final @Nullable JsonPayloadDemultiplexer jsonPayloadDemultiplexer;
+    private final @Nullable List<Object> jsonPath;
 
     /**
      * Creates a new channel state transformer.
@@ -44,6 +51,21 @@ public class ChannelStateTransformation {
      * @param provider The transformation service provider
      */
     public ChannelStateTransformation(String pattern, TransformationServiceProvider provider) {
+        this(pattern, provider, null);
+    }
+
+    /**
+     * Creates a new channel state transformer, which extracts simple JSONPATH expressions from a JSON payload that is
+     * parsed once for all channels.
+     *
+     * @param pattern A transformation pattern, starting with the transformation service
+     *            name,followed by a colon and the transformation itself.
+     * @param provider The transformation service provider
+     * @param jsonPayloadDemultiplexer The shared JSON parser of the thing, or null to always use the transformation
+     *            service
+     */
+    public ChannelStateTransformation(String pattern, TransformationServiceProvider provider,
+            @Nullable JsonPayloadDemultiplexer jsonPayloadDemultiplexer) {
         this.provider = provider;
         int index = pattern.indexOf(':');
         if (index == -1) {
@@ -53,6 +75,10 @@ public class ChannelStateTransformation {
         String type = pattern.substring(0, index).toUpperCase();
         this.pattern = pattern.substring(index + 1);
         this.serviceName = type;
+        this.jsonPayloadDemultiplexer = jsonPayloadDemultiplexer;
+        this.jsonPath = jsonPayloadDemultiplexer != null && "JSONPATH".equals(type)
+                ? JsonPayloadDemultiplexer.compilePath(this.pattern)
+                : null;
     }
 
     /**
@@ -68,6 +94,32 @@ public class ChannelStateTransformation {
         this.serviceName = serviceName;
         this.pattern = pattern;
         this.provider = provider;
+        this.jsonPayloadDemultiplexer = null;
+        this.jsonPath = null;
+    }
+
+    /**
+     * Will be called by the {@link ChannelState} for each incoming MQTT payload, if this is the first transformation.
+     * Simple JSONPATH expressions are extracted from the shared parsed payload, all other transformations are applied
+     * to the payload as string.
+     *
+     * @param payload The incoming payload
+     * @return The transformed value
+     */
+    protected @Nullable String processPayload(byte[] payload) {
+        final JsonPayloadDemultiplexer jsonPayloadDemultiplexer = this.jsonPayloadDemultiplexer;
+        final List<Object> jsonPath = this.jsonPath;
+        // The extraction replaces the transformation service, so it is only done if the service is installed
+        if (jsonPayloadDemultiplexer != null && jsonPath != null && getTransformationService() != null) {
+            JsonElement tree = jsonPayloadDemultiplexer.parse(payload);
+            if (tree != null) {
+                String value = JsonPayloadDemultiplexer.extract(tree, jsonPath);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return processValue(new String(payload, StandardCharsets.UTF_8));
     }
 
     /**
@@ -77,14 +129,10 @@ public class ChannelStateTransformation {
      * @return The transformed value
      */
     protected @Nullable String processValue(String value) {
-        TransformationService transformationService = this.transformationService.get();
+        TransformationService transformationService = getTransformationService();
         if (transformationService == null) {
-            transformationService = provider.getTransformationService(serviceName);
-            if (transformationService == null) {
-                logger.warn("Transformation service {} for pattern {} not found!", serviceName, pattern);
-                return value;
-            }
-            this.transformationService = new WeakReference<>(transformationService);
+            logger.warn("Transformation service {} for pattern {} not found!", serviceName, pattern);
+            return value;
         }
         String returnValue = null;
         try {
@@ -94,4 +142,15 @@ public class ChannelStateTransformation {
         }
         return returnValue;
     }
+
+    private @Nullable TransformationService getTransformationService() {
+        TransformationService transformationService = this.transformationService.get();
+        if (transformationService == null) {
+            transformationService = provider.getTransformationService(serviceName);
+            if (transformationService != null) {
+                this.transformationService = new WeakReference<>(transformationService);
+            }
+        }
+        return transformationService;
+    }
 }
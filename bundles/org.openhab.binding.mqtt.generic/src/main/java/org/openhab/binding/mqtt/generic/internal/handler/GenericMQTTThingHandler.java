@@ -128,7 +128,7 @@ public class GenericMQTTThingHandler extends AbstractMQTTThingHandler implements
         // Incoming value transformations
         transformations = channelConfig.transformationPattern.split("∩");
         Stream.of(transformations).filter(StringUtils::isNotBlank)
-                .map(t -> new ChannelStateTransformation(t, transformationServiceProvider))
+                .map(t -> new ChannelStateTransformation(t, transformationServiceProvider, jsonPayloadDemultiplexer))
                 .forEach(t -> state.addTransformation(t));
 
         // Outgoing value transformations
@@ -107,6 +107,7 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
     protected transient AttributeChanged attributeChangedListener = (b, c, d, e, f) -> {
     };
     private transient boolean complete = false;
+    protected transient @Nullable SubscriptionRouter subscriptionRouter;
 
     /**
      * Implement this interface to be notified of an updated field.
@@ -139,6 +140,14 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
      * @return Returns a future that completes as soon as all unsubscriptions have been performed.
      */
     public CompletableFuture<@Nullable Void> unsubscribe() {
+        final SubscriptionRouter router = this.subscriptionRouter;
+        if (router != null) {
+            final CompletableFuture<?>[] futures = subscriptions.stream().map(m -> router.unsubscribe(m.topic, m))
+                    .toArray(CompletableFuture[]::new);
+            subscriptions.clear();
+            return CompletableFuture.allOf(futures);
+        }
+
         final MqttBrokerConnection connection = this.connection.get();
         if (connection == null) {
             subscriptions.clear();
@@ -191,11 +200,33 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
         subscriptions = getAllFields(getFieldsOf().getClass()).stream().filter(AbstractMqttAttributeClass::filterField)
                 .map(this::mapFieldToSubscriber).collect(Collectors.toList());
 
-        final CompletableFuture<?>[] futures = subscriptions.stream()
-                .map(m -> m.subscribeAndReceive(connection, timeout)).toArray(CompletableFuture[]::new);
+        final SubscriptionRouter router = this.subscriptionRouter;
+        final CompletableFuture<?>[] futures = subscriptions.stream().map(
+                m -> router != null ? m.routeAndReceive(router, timeout) : m.subscribeAndReceive(connection, timeout))
+                .toArray(CompletableFuture[]::new);
         return CompletableFuture.allOf(startFuture, CompletableFuture.allOf(futures));
     }
 
+    /**
+     * Set a router that delivers the messages of the field topics instead of a broker subscription per field.
+     * Must be set before calling
+     * {@link #subscribeAndReceive(MqttBrokerConnection, ScheduledExecutorService, String, AttributeChanged, int)}
+     * and must not be changed until {@link #unsubscribe()} has been called.
+     *
+     * @param subscriptionRouter A router or null to subscribe to each field topic on the broker connection.
+     */
+    public void setSubscriptionRouter(@Nullable SubscriptionRouter subscriptionRouter) {
+        this.subscriptionRouter = subscriptionRouter;
+    }
+
+    /**
+     * Return the router that delivers the messages of the field topics or null if each field topic is subscribed to
+     * on the broker connection.
+     */
+    public @Nullable SubscriptionRouter getSubscriptionRouter() {
+        return subscriptionRouter;
+    }
+
     /**
      * Return fields of the given class as well as all super classes.
      *
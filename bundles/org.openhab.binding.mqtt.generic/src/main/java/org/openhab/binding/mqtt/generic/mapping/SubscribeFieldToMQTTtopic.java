@@ -180,7 +180,24 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
      * @throws MqttException If an MQTT IO exception happens this exception is thrown.
      */
     public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttBrokerConnection connection, int timeout) {
-        connection.subscribe(topic, this).exceptionally(e -> {
+        return receive(connection.subscribe(topic, this), timeout);
+    }
+
+    /**
+     * Let the given router deliver the messages of the MQTT topic instead of subscribing to it on the broker.
+     * You need to manually unsubscribe from the {@link #topic} on the router before disposing.
+     *
+     * @param router A subscription router, e.g. for a wildcard subscription.
+     * @param timeout Timeout in milliseconds. The returned future completes after this time even if no message has
+     *            been received for the MQTT topic.
+     * @return Returns a future that completes if either a value is received for the topic or a timeout happens.
+     */
+    public CompletableFuture<@Nullable Void> routeAndReceive(SubscriptionRouter router, int timeout) {
+        return receive(router.subscribe(topic, this), timeout);
+    }
+
+    private CompletableFuture<@Nullable Void> receive(CompletableFuture<Boolean> subscribed, int timeout) {
+        subscribed.exceptionally(e -> {
             logger.debug("Failed to subscribe to topic {}", topic, e);
             final ScheduledFuture<?> scheduledFuture = this.scheduledFuture;
             if (scheduledFuture != null) { // Cancel timeout
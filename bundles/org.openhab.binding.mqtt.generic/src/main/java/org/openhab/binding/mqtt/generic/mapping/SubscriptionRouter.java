@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.mapping;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.io.transport.mqtt.MqttMessageSubscriber;
+
+/**
+ * Delivers the messages of MQTT topics to subscribers without a broker subscription per topic,
+ * e.g. from a single wildcard subscription.
+ *
+ * Used by {@link AbstractMqttAttributeClass} if a router has been set with
+ * {@link AbstractMqttAttributeClass#setSubscriptionRouter(SubscriptionRouter)}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface SubscriptionRouter {
+    /**
+     * Routes the messages of the given topic to the subscriber. A retained message that has already been received
+     * for the topic may be delivered before this method returns.
+     *
+     * @param topic The MQTT topic
+     * @param subscriber The subscriber
+     * @return Returns a future that completes with true if the topic is routed to the subscriber.
+     */
+    CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber);
+
+    /**
+     * Stops routing the messages of the given topic to the subscriber.
+     *
+     * @param topic The MQTT topic
+     * @param subscriber The subscriber
+     * @return Returns a future that completes with true if the route has been removed.
+     */
+    CompletableFuture<Boolean> unsubscribe(String topic, MqttMessageSubscriber subscriber);
+}
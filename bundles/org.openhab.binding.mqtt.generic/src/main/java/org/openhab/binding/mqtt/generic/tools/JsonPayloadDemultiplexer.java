@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Parses a JSON payload once for all channels which extract fields of the same MQTT message.
+ * <p>
+ * The broker connection hands the same payload array to every subscriber of a topic. The parsed tree of the last
+ * payload is kept, so that the JSONPATH transformations of all channels on that topic use a single parse instead of
+ * every transformation re-parsing the full document.
+ * <p>
+ * Only simple paths like <code>$.device.status.temperature</code>, <code>$['a b']</code> or <code>$.values[0]</code>
+ * which select a single string, number or boolean are extracted from the tree. The result is formatted the same way as
+ * the JSONPATH transformation service does it. All other cases return null and are left to the transformation service.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JsonPayloadDemultiplexer {
+    private byte @Nullable [] lastPayload;
+    private @Nullable JsonElement lastTree;
+    private long parsedPayloads;
+    private long sharedPayloads;
+
+    /**
+     * Returns the parsed JSON tree of the given payload, or null if it is not valid JSON.
+     */
+    public synchronized @Nullable JsonElement parse(byte[] payload) {
+        if (payload == lastPayload) {
+            sharedPayloads++;
+            return lastTree;
+        }
+        @Nullable
+        JsonElement tree;
+        try {
+            tree = JsonParser
+                    .parseReader(new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8));
+        } catch (JsonParseException e) {
+            tree = null;
+        }
+        parsedPayloads++;
+        lastPayload = payload;
+        lastTree = tree;
+        return tree;
+    }
+
+    /**
+     * Returns the number of payloads which were parsed.
+     */
+    public synchronized long getParsedPayloads() {
+        return parsedPayloads;
+    }
+
+    /**
+     * Returns the number of times an already parsed payload was requested again.
+     */
+    public synchronized long getSharedPayloads() {
+        return sharedPayloads;
+    }
+
+    /**
+     * Compiles a JSONPATH expression into its field names and array indices.
+     *
+     * @param jsonPath A JSONPATH expression
+     * @return The segments of the path, or null if the expression is not a simple path.
+     */
+    public static @Nullable List<Object> compilePath(String jsonPath) {
+        String path = jsonPath.trim();
+        if (!path.startsWith("$")) {
+            return null;
+        }
+        List<Object> segments = new ArrayList<>();
+        int i = 1;
+        while (i < path.length()) {
+            char c = path.charAt(i);
+            if (c == '.') {
+                int end = i + 1;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                String name = path.substring(i + 1, end);
+                if (name.isEmpty() || !isSimpleName(name)) {
+                    return null;
+                }
+                segments.add(name);
+                i = end;
+            } else if (c == '[') {
+                int end = path.indexOf(']', i);
+                if (end == -1) {
+                    return null;
+                }
+                String selector = path.substring(i + 1, end).trim();
+                if (selector.length() >= 2 && (selector.charAt(0) == '\'' || selector.charAt(0) == '"')
+                        && selector.charAt(selector.length() - 1) == selector.charAt(0)) {
+                    String name = selector.substring(1, selector.length() - 1);
+                    if (name.indexOf('\'') != -1 || name.indexOf('"') != -1 || name.indexOf('\\') != -1) {
+                        return null;
+                    }
+                    segments.add(name);
+                } else {
+                    try {
+                        int index = Integer.parseInt(selector);
+                        if (index < 0) {
+                            return null;
+                        }
+                        segments.add(index);
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                }
+                i = end + 1;
+            } else {
+                return null;
+            }
+        }
+        return segments.isEmpty() ? null : segments;
+    }
+
+    private static boolean isSimpleName(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '*' || c == '(' || c == ')' || c == '?' || c == '@' || c == ',' || c == ':' || c == '\''
+                    || c == '"' || Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Extracts the value at the given path from a JSON tree.
+     *
+     * @param tree A parsed JSON tree
+     * @param path The segments of a path returned by {@link #compilePath(String)}
+     * @return The value as string, or null if the path does not select a string, number or boolean
+     */
+    public static @Nullable String extract(JsonElement tree, List<Object> path) {
+        @Nullable
+        JsonElement element = tree;
+        for (Object segment : path) {
+            if (element == null) {
+                return null;
+            } else if (segment instanceof String && element.isJsonObject()) {
+                element = ((JsonObject) element).get((String) segment);
+            } else if (segment instanceof Integer && element.isJsonArray()) {
+                JsonArray array = (JsonArray) element;
+                int index = (Integer) segment;
+                element = index < array.size() ? array.get(index) : null;
+            } else {
+                return null;
+            }
+        }
+        if (element == null || !element.isJsonPrimitive()) {
+            return null;
+        }
+        JsonPrimitive primitive = (JsonPrimitive) element;
+        if (!primitive.isNumber()) {
+            return primitive.getAsString();
+        }
+        // Numbers are formatted like the JSON parser of the JSONPATH transformation does it
+        String number = primitive.getAsString();
+        try {
+            if (number.indexOf('.') == -1 && number.indexOf('e') == -1 && number.indexOf('E') == -1) {
+                return new BigInteger(number).toString();
+            } else if (number.length() > 18) {
+                return new BigDecimal(number).toString();
+            } else {
+                return Double.toString(Double.parseDouble(number));
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -154,6 +155,64 @@ public class ChannelStateTests {
         verify(channelStateUpdateListener).updateChannelState(eq(channelUID), any());
     }
 
+    @Test
+    public void receiveDuplicateDroppedTest() {
+        ChannelConfig dropConfig = ChannelConfigBuilder.create("state/+", "command").withDropDuplicates(true).build();
+        ChannelState c = spy(new ChannelState(dropConfig, channelUID, textValue, channelStateUpdateListener));
+        c.start(connection, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state/a", "A TEST".getBytes());
+        c.processMessage("state/a", "A TEST".getBytes());
+        c.processMessage("state/b", "A TEST".getBytes());
+        c.processMessage("state/b", "B TEST".getBytes());
+
+        verify(channelStateUpdateListener, times(3)).updateChannelState(eq(channelUID), any());
+        assertThat(c.getReceivedMessages(), is(4L));
+        assertThat(c.getForwardedMessages(), is(3L));
+    }
+
+    @Test
+    public void receiveRateLimitedTest() {
+        ChannelConfig limitConfig = ChannelConfigBuilder.create("state", "command").withMinUpdateInterval(200).build();
+        ChannelState c = spy(new ChannelState(limitConfig, channelUID, textValue, channelStateUpdateListener));
+        c.start(connection, scheduler, 0);
+
+        c.processMessage("state", "1".getBytes());
+        c.processMessage("state", "2".getBytes());
+        c.processMessage("state", "3".getBytes());
+
+        verify(channelStateUpdateListener, times(1)).updateChannelState(eq(channelUID), any());
+        assertThat(textValue.getChannelState().toString(), is("1"));
+
+        // The latest held back message is processed after the interval
+        verify(channelStateUpdateListener, timeout(1000).times(2)).updateChannelState(eq(channelUID), any());
+        assertThat(textValue.getChannelState().toString(), is("3"));
+        assertThat(c.getReceivedMessages(), is(3L));
+        assertThat(c.getForwardedMessages(), is(2L));
+    }
+
+    @Test
+    public void stopIsNotBlockedBySlowListenerTest() throws Exception {
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            processing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(channelStateUpdateListener).updateChannelState(eq(channelUID), any());
+        ChannelState c = new ChannelState(config, channelUID, textValue, channelStateUpdateListener);
+        c.start(connection, scheduler, 0);
+
+        Thread receiver = new Thread(() -> c.processMessage("state", "A TEST".getBytes()));
+        receiver.start();
+        assertTrue(processing.await(1, TimeUnit.SECONDS));
+
+        // The message lock is not held while the listener is called
+        c.stop().get(1, TimeUnit.SECONDS);
+        release.countDown();
+        receiver.join(1000);
+    }
+
     @Test
     public void receiveDecimalTest() {
         NumberValue value = new NumberValue(null, null, new BigDecimal(10), null);
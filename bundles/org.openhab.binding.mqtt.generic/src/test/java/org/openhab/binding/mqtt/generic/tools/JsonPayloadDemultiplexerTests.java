@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Tests the {@link JsonPayloadDemultiplexer} class.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JsonPayloadDemultiplexerTests {
+    private static final byte[] PAYLOAD = ("{ \"device\": { \"status\": { \"temperature\": 23.20, \"humidity\": 45 } },"
+            + " \"state\": \"ON\", \"linkquality\": 120, \"battery low\": false, \"values\": [ 1, 2.5e1 ],"
+            + " \"update\": { \"state\": \"idle\" }, \"empty\": null }").getBytes(StandardCharsets.UTF_8);
+
+    private @Nullable String extract(JsonPayloadDemultiplexer demultiplexer, byte[] payload, String jsonPath) {
+        List<Object> path = JsonPayloadDemultiplexer.compilePath(jsonPath);
+        assertThat(path, is(notNullValue()));
+        JsonElement tree = demultiplexer.parse(payload);
+        assertThat(tree, is(notNullValue()));
+        return tree == null || path == null ? null : JsonPayloadDemultiplexer.extract(tree, path);
+    }
+
+    @Test
+    public void compilePath() {
+        assertThat(JsonPayloadDemultiplexer.compilePath("$.device.status.temperature"),
+                is(List.of("device", "status", "temperature")));
+        assertThat(JsonPayloadDemultiplexer.compilePath("$['battery low']"), is(List.of("battery low")));
+        assertThat(JsonPayloadDemultiplexer.compilePath("$.values[1]"), is(List.of("values", 1)));
+
+        assertThat(JsonPayloadDemultiplexer.compilePath("$"), is(nullValue()));
+        assertThat(JsonPayloadDemultiplexer.compilePath("$..temperature"), is(nullValue()));
+        assertThat(JsonPayloadDemultiplexer.compilePath("$.values[*]"), is(nullValue()));
+        assertThat(JsonPayloadDemultiplexer.compilePath("$.values[?(@ > 1)]"), is(nullValue()));
+        assertThat(JsonPayloadDemultiplexer.compilePath("device.status"), is(nullValue()));
+    }
+
+    @Test
+    public void extractValues() {
+        JsonPayloadDemultiplexer demultiplexer = new JsonPayloadDemultiplexer();
+
+        // Numbers are formatted like the JSONPATH transformation does it
+        assertThat(extract(demultiplexer, PAYLOAD, "$.device.status.temperature"), is("23.2"));
+        assertThat(extract(demultiplexer, PAYLOAD, "$.device.status.humidity"), is("45"));
+        assertThat(extract(demultiplexer, PAYLOAD, "$.values[1]"), is("25.0"));
+        assertThat(extract(demultiplexer, PAYLOAD, "$.state"), is("ON"));
+        assertThat(extract(demultiplexer, PAYLOAD, "$['battery low']"), is("false"));
+        assertThat(extract(demultiplexer, PAYLOAD, "$.update.state"), is("idle"));
+
+        // Everything else is left to the transformation service
+        assertThat(extract(demultiplexer, PAYLOAD, "$.update"), is(nullValue()));
+        assertThat(extract(demultiplexer, PAYLOAD, "$.values"), is(nullValue()));
+        assertThat(extract(demultiplexer, PAYLOAD, "$.empty"), is(nullValue()));
+        assertThat(extract(demultiplexer, PAYLOAD, "$.missing"), is(nullValue()));
+        assertThat(extract(demultiplexer, PAYLOAD, "$.values[2]"), is(nullValue()));
+    }
+
+    @Test
+    public void payloadIsParsedOnce() {
+        JsonPayloadDemultiplexer demultiplexer = new JsonPayloadDemultiplexer();
+
+        // Ten channels on the same topic get the same payload array
+        for (int i = 0; i < 10; i++) {
+            extract(demultiplexer, PAYLOAD, "$.linkquality");
+        }
+        assertThat(demultiplexer.getParsedPayloads(), is(1L));
+        assertThat(demultiplexer.getSharedPayloads(), is(9L));
+
+        // The next message is parsed again, even with the same content
+        extract(demultiplexer, PAYLOAD.clone(), "$.linkquality");
+        assertThat(demultiplexer.getParsedPayloads(), is(2L));
+    }
+
+    @Test
+    public void invalidJson() {
+        JsonPayloadDemultiplexer demultiplexer = new JsonPayloadDemultiplexer();
+        assertThat(demultiplexer.parse("{ \"a\": ".getBytes(StandardCharsets.UTF_8)), is(nullValue()));
+    }
+}
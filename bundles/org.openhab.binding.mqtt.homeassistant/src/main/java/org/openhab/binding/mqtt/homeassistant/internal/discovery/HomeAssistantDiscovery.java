@@ -14,9 +14,11 @@ package org.openhab.binding.mqtt.homeassistant.internal.discovery;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -51,6 +53,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 
 /**
  * The {@link HomeAssistantDiscovery} is responsible for discovering device nodes that follow the
@@ -61,15 +64,85 @@ import com.google.gson.GsonBuilder;
 @Component(service = DiscoveryService.class, configurationPid = "discovery.mqttha")
 @NonNullByDefault
 public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
-    @SuppressWarnings("unused")
     private final Logger logger = LoggerFactory.getLogger(HomeAssistantDiscovery.class);
+
+    // The config messages of a batch are processed when no message arrived for this time
+    static final long BATCH_QUIET_TIME_MILLIS = 2000;
+    // The config messages of a batch are processed at the latest after this time
+    static final long BATCH_MAX_DELAY_MILLIS = 10000;
+
+    private final long batchQuietTimeMillis;
+    private final long batchMaxDelayMillis;
+
     protected final Map<String, Set<HaID>> componentsPerThingID = new TreeMap<>();
     protected final Map<String, ThingUID> thingIDPerTopic = new TreeMap<>();
     protected final Map<String, DiscoveryResult> results = new ConcurrentHashMap<>();
 
+    // The latest config message per component of a broker connection which was not processed yet
+    private final Map<ComponentKey, ConfigMessage> pendingMessages = new LinkedHashMap<>();
+    // The last processed config payload per component of a broker connection
+    private final Map<ComponentKey, byte[]> processedPayloads = new HashMap<>();
+    // The configuration of the last processed config per thing
+    private final Map<String, BaseChannelConfiguration> configPerThingID = new HashMap<>();
+    // Guards the processed configs, separate from the lock of the discovery service, so that processing a batch does
+    // not block receiving messages
+    private final Object processingLock = new Object();
+
     private @Nullable ScheduledFuture<?> future;
+    private long batchStartNanos;
+    private long lastMessageNanos;
+    private int receivedMessages;
+    // statistics of the discovery passes, they are only logged and read by tests
+    private volatile int passes;
+    private volatile int lastPassComponents;
+    private volatile int lastPassChangedThings;
     private final Gson gson;
 
+    /**
+     * Identifies a component received from a broker connection. Different brokers may announce the same component.
+     */
+    private static class ComponentKey {
+        final ThingUID connectionBridge;
+        final HaID haID;
+
+        ComponentKey(ThingUID connectionBridge, HaID haID) {
+            this.connectionBridge = connectionBridge;
+            this.haID = haID;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * connectionBridge.hashCode() + haID.hashCode();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ComponentKey)) {
+                return false;
+            }
+            ComponentKey other = (ComponentKey) obj;
+            return connectionBridge.equals(other.connectionBridge) && haID.equals(other.haID);
+        }
+    }
+
+    /**
+     * A received config message, which is kept until the batch is processed.
+     */
+    private static class ConfigMessage {
+        final ThingUID connectionBridge;
+        final String topic;
+        final byte[] payload;
+
+        ConfigMessage(ThingUID connectionBridge, String topic, byte[] payload) {
+            this.connectionBridge = connectionBridge;
+            this.topic = topic;
+            this.payload = payload;
+        }
+    }
+
     public static final Map<String, String> HA_COMP_TO_NAME = new TreeMap<>();
     {
         HA_COMP_TO_NAME.put("alarm_control_panel", "Alarm Control Panel");
@@ -93,7 +166,13 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     protected MQTTTopicDiscoveryService mqttTopicDiscovery;
 
     public HomeAssistantDiscovery() {
+        this(BATCH_QUIET_TIME_MILLIS, BATCH_MAX_DELAY_MILLIS);
+    }
+
+    HomeAssistantDiscovery(long batchQuietTimeMillis, long batchMaxDelayMillis) {
         super(null, 3, true, BASE_TOPIC + "/#");
+        this.batchQuietTimeMillis = batchQuietTimeMillis;
+        this.batchMaxDelayMillis = batchMaxDelayMillis;
         this.gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory()).create();
     }
 
@@ -126,6 +205,28 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         return typeProvider.getThingTypeUIDs();
     }
 
+    @Override
+    protected void startScan() {
+        clearProcessedConfigs();
+        super.startScan();
+    }
+
+    @Override
+    protected void startBackgroundDiscovery() {
+        clearProcessedConfigs();
+        super.startBackgroundDiscovery();
+    }
+
+    /**
+     * Forgets the processed config payloads, so that all things are published again, e.g. after older results
+     * were removed.
+     */
+    private void clearProcessedConfigs() {
+        synchronized (processingLock) {
+            processedPayloads.clear();
+        }
+    }
+
     @Override
     public void receivedMessage(ThingUID connectionBridge, MqttBrokerConnection connection, String topic,
             byte[] payload) {
@@ -139,51 +240,136 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
             return;
         }
 
-        // Reset the found-component timer.
-        // We will collect components for the thing label description for another 2 seconds.
-        final ScheduledFuture<?> future = this.future;
-        if (future != null) {
-            future.cancel(false);
+        // Only the latest config of a component is kept, the messages are parsed when the batch is processed.
+        // We will collect components for the thing label description until no config arrived for 2 seconds.
+        ComponentKey key = new ComponentKey(connectionBridge, new HaID(topic));
+        synchronized (pendingMessages) {
+            pendingMessages.put(key, new ConfigMessage(connectionBridge, topic, payload));
+            receivedMessages++;
+            lastMessageNanos = System.nanoTime();
+            if (future == null) {
+                batchStartNanos = lastMessageNanos;
+                future = scheduler.schedule(this::processBatch, batchQuietTimeMillis, TimeUnit.MILLISECONDS);
+            }
         }
-        this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
-
-        BaseChannelConfiguration config = BaseChannelConfiguration
-                .fromString(new String(payload, StandardCharsets.UTF_8), gson);
-
-        // We will of course find multiple of the same unique Thing IDs, for each different component another one.
-        // Therefore the components are assembled into a list and given to the DiscoveryResult label for the user to
-        // easily recognize object capabilities.
+    }
 
-        HaID haID = new HaID(topic);
-        final String thingID = config.getThingId(haID.objectID);
+    /**
+     * Processes the pending config messages, if no message arrived for the quiet time or the batch is pending for the
+     * maximum delay. Otherwise the processing is postponed.
+     */
+    protected void processBatch() {
+        Collection<ConfigMessage> messages;
+        int batchMessages;
+        long batchStart;
+        synchronized (pendingMessages) {
+            long now = System.nanoTime();
+            long quietRemaining = lastMessageNanos + TimeUnit.MILLISECONDS.toNanos(batchQuietTimeMillis) - now;
+            long maxRemaining = batchStartNanos + TimeUnit.MILLISECONDS.toNanos(batchMaxDelayMillis) - now;
+            if (quietRemaining > 0 && maxRemaining > 0) {
+                future = scheduler.schedule(this::processBatch, Math.min(quietRemaining, maxRemaining),
+                        TimeUnit.NANOSECONDS);
+                return;
+            }
+            future = null;
+            messages = new ArrayList<>(pendingMessages.values());
+            pendingMessages.clear();
+            batchMessages = receivedMessages;
+            receivedMessages = 0;
+            batchStart = batchStartNanos;
+        }
+        long processingStart = System.nanoTime();
+        int changedThings;
+        synchronized (processingLock) {
+            changedThings = processConfigs(messages);
+        }
+        publishResults();
+        lastPassComponents = messages.size();
+        lastPassChangedThings = changedThings;
+        passes++;
+        long end = System.nanoTime();
+        logger.debug(
+                "Home Assistant discovery pass: {} config messages, {} components, {} things changed in {} ms ({} ms processing)",
+                batchMessages, messages.size(), changedThings, TimeUnit.NANOSECONDS.toMillis(end - batchStart),
+                TimeUnit.NANOSECONDS.toMillis(end - processingStart));
+    }
 
-        final ThingTypeUID typeID = new ThingTypeUID(MqttBindingConstants.BINDING_ID,
-                MqttBindingConstants.HOMEASSISTANT_MQTT_THING.getId() + "_" + thingID);
+    /**
+     * Parses the new or changed configs and updates the components of their things. Must be called with the
+     * processing lock held.
+     *
+     * @return The number of things with changed components.
+     */
+    private int processConfigs(Collection<ConfigMessage> messages) {
+        // The same device may be announced by several broker connections, so the changed things are kept per UID
+        Map<ThingUID, ConfigMessage> changedThings = new LinkedHashMap<>();
+        for (ConfigMessage message : messages) {
+            HaID haID = new HaID(message.topic);
+            ComponentKey key = new ComponentKey(message.connectionBridge, haID);
+            byte[] previousPayload = processedPayloads.put(key, message.payload);
+            if (Arrays.equals(previousPayload, message.payload)) {
+                continue;
+            }
 
-        final ThingUID thingUID = new ThingUID(typeID, connectionBridge, thingID);
+            BaseChannelConfiguration config;
+            try {
+                config = BaseChannelConfiguration.fromString(new String(message.payload, StandardCharsets.UTF_8),
+                        gson);
+            } catch (JsonParseException | NullPointerException e) {
+                logger.debug("Configuration of HomeAssistant component {} invalid: {}", message.topic,
+                        e.getMessage());
+                processedPayloads.remove(key);
+                continue;
+            }
 
-        thingIDPerTopic.put(topic, thingUID);
+            // We will of course find multiple of the same unique Thing IDs, for each different component another one.
+            // Therefore the components are assembled into a list and given to the DiscoveryResult label for the user
+            // to easily recognize object capabilities.
+            final String thingID = config.getThingId(haID.objectID);
 
-        // We need to keep track of already found component topics for a specific thing
-        Set<HaID> components = componentsPerThingID.computeIfAbsent(thingID, key -> ConcurrentHashMap.newKeySet());
-        components.add(haID);
+            final ThingTypeUID typeID = new ThingTypeUID(MqttBindingConstants.BINDING_ID,
+                    MqttBindingConstants.HOMEASSISTANT_MQTT_THING.getId() + "_" + thingID);
 
-        final String componentNames = components.stream().map(id -> id.component)
-                .map(c -> HA_COMP_TO_NAME.getOrDefault(c, c)).collect(Collectors.joining(", "));
+            final ThingUID thingUID = new ThingUID(typeID, message.connectionBridge, thingID);
 
-        final List<String> topics = components.stream().map(HaID::toShortTopic).collect(Collectors.toList());
+            thingIDPerTopic.put(message.topic, thingUID);
 
-        Map<String, Object> properties = new HashMap<>();
-        HandlerConfiguration handlerConfig = new HandlerConfiguration(haID.baseTopic, topics);
-        properties = handlerConfig.appendToProperties(properties);
-        properties = config.appendToProperties(properties);
-        properties.put("deviceId", thingID);
+            // We need to keep track of already found component topics for a specific thing
+            componentsPerThingID.computeIfAbsent(thingID, id -> ConcurrentHashMap.newKeySet()).add(haID);
+            configPerThingID.put(thingID, config);
+            changedThings.put(thingUID, message);
+        }
 
-        // Because we need the new properties map with the updated "components" list
-        results.put(thingUID.getAsString(),
-                DiscoveryResultBuilder.create(thingUID).withProperties(properties)
-                        .withRepresentationProperty("deviceId").withBridge(connectionBridge)
-                        .withLabel(config.getThingName() + " (" + componentNames + ")").build());
+        // Build the results of the changed things with all their components
+        for (Map.Entry<ThingUID, ConfigMessage> changedThing : changedThings.entrySet()) {
+            final ThingUID thingUID = changedThing.getKey();
+            final String thingID = thingUID.getId();
+            final ConfigMessage message = changedThing.getValue();
+            final HaID haID = new HaID(message.topic);
+            final ThingUID connectionBridge = message.connectionBridge;
+            Set<HaID> components = componentsPerThingID.getOrDefault(thingID, Collections.emptySet());
+            BaseChannelConfiguration config = configPerThingID.get(thingID);
+            if (components.isEmpty() || config == null) {
+                continue;
+            }
+            final String componentNames = components.stream().map(id -> id.component)
+                    .map(c -> HA_COMP_TO_NAME.getOrDefault(c, c)).collect(Collectors.joining(", "));
+
+            final List<String> topics = components.stream().map(HaID::toShortTopic).collect(Collectors.toList());
+
+            Map<String, Object> properties = new HashMap<>();
+            HandlerConfiguration handlerConfig = new HandlerConfiguration(haID.baseTopic, topics);
+            properties = handlerConfig.appendToProperties(properties);
+            properties = config.appendToProperties(properties);
+            properties.put("deviceId", thingID);
+
+            // Because we need the new properties map with the updated "components" list
+            results.put(thingUID.getAsString(),
+                    DiscoveryResultBuilder.create(thingUID).withProperties(properties)
+                            .withRepresentationProperty("deviceId").withBridge(connectionBridge)
+                            .withLabel(config.getThingName() + " (" + componentNames + ")").build());
+        }
+        return changedThings.size();
     }
 
     protected void publishResults() {
@@ -191,7 +377,6 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
         localResults = new ArrayList<>(results.values());
         results.clear();
-        componentsPerThingID.clear();
         for (DiscoveryResult result : localResults) {
             final ThingTypeUID typeID = result.getThingTypeUID();
             ThingType type = typeProvider.derive(typeID, MqttBindingConstants.HOMEASSISTANT_MQTT_THING).build();
@@ -206,17 +391,46 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
-        if (thingIDPerTopic.containsKey(topic)) {
+        HaID haID = new HaID(topic);
+        ComponentKey key = new ComponentKey(connectionBridge, haID);
+        synchronized (pendingMessages) {
+            pendingMessages.remove(key);
+        }
+        synchronized (processingLock) {
+            processedPayloads.remove(key);
             ThingUID thingUID = thingIDPerTopic.remove(topic);
-            final String thingID = thingUID.getId();
-
-            HaID haID = new HaID(topic);
-
-            Set<HaID> components = componentsPerThingID.getOrDefault(thingID, Collections.emptySet());
-            components.remove(haID);
-            if (components.isEmpty()) {
-                thingRemoved(thingUID);
+            if (thingUID != null) {
+                final String thingID = thingUID.getId();
+
+                Set<HaID> components = componentsPerThingID.getOrDefault(thingID, Collections.emptySet());
+                components.remove(haID);
+                if (components.isEmpty()) {
+                    componentsPerThingID.remove(thingID);
+                    configPerThingID.remove(thingID);
+                    thingRemoved(thingUID);
+                }
             }
         }
     }
+
+    /**
+     * Returns the number of discovery passes, i.e. processed batches.
+     */
+    public int getPasses() {
+        return passes;
+    }
+
+    /**
+     * Returns the number of components in the last batch.
+     */
+    public int getLastPassComponents() {
+        return lastPassComponents;
+    }
+
+    /**
+     * Returns the number of things whose components changed in the last batch.
+     */
+    public int getLastPassChangedThings() {
+        return lastPassChangedThings;
+    }
 }
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.discovery;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryService;
+import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
+import org.openhab.core.config.discovery.DiscoveryListener;
+import org.openhab.core.config.discovery.DiscoveryResult;
+import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Tests cases for {@link HomeAssistantDiscovery}, which feed config messages through
+ * {@link HomeAssistantDiscovery#receivedMessage} and check the published discovery results.
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class HomeAssistantDiscoveryTests {
+    private static final ThingUID BRIDGE1 = new ThingUID("mqtt", "broker", "broker1");
+    private static final ThingUID BRIDGE2 = new ThingUID("mqtt", "broker", "broker2");
+
+    private static final String LIGHT_TOPIC = "homeassistant/light/kitchen/light/config";
+    private static final String SWITCH_TOPIC = "homeassistant/switch/kitchen/switch/config";
+
+    private @Mock(answer = Answers.RETURNS_DEEP_STUBS) MqttChannelTypeProvider typeProvider;
+    private @Mock MQTTTopicDiscoveryService mqttTopicDiscovery;
+    private @Mock MqttBrokerConnection connection;
+    private @Mock DiscoveryListener listener;
+
+    private final List<DiscoveryResult> results = new CopyOnWriteArrayList<>();
+
+    private HomeAssistantDiscovery createDiscovery(long quietTimeMillis, long maxDelayMillis) {
+        doAnswer(invocation -> results.add(invocation.getArgument(1))).when(listener).thingDiscovered(any(), any());
+        HomeAssistantDiscovery discovery = new HomeAssistantDiscovery(quietTimeMillis, maxDelayMillis);
+        discovery.setTypeProvider(typeProvider);
+        discovery.setMQTTTopicDiscoveryService(mqttTopicDiscovery);
+        discovery.addDiscoveryListener(listener);
+        return discovery;
+    }
+
+    @Test
+    public void componentsOfABatchArePublishedOnce() {
+        HomeAssistantDiscovery discovery = createDiscovery(100, 10000);
+
+        discovery.receivedMessage(BRIDGE1, connection, LIGHT_TOPIC, config("Light"));
+        discovery.receivedMessage(BRIDGE1, connection, SWITCH_TOPIC, config("Switch"));
+        // only the latest config of a component is processed
+        discovery.receivedMessage(BRIDGE1, connection, SWITCH_TOPIC, config("Switch 2"));
+
+        DiscoveryResult result = awaitResults(1).get(0);
+        assertThat(result.getLabel(), containsString("Light"));
+        assertThat(result.getLabel(), containsString("Switch"));
+        assertThat(result.getBridgeUID(), is(BRIDGE1));
+        assertThat(discovery.getPasses(), is(1));
+        assertThat(discovery.getLastPassComponents(), is(2));
+        assertThat(discovery.getLastPassChangedThings(), is(1));
+    }
+
+    @Test
+    public void unchangedConfigIsNotPublishedAgain() throws InterruptedException {
+        HomeAssistantDiscovery discovery = createDiscovery(50, 10000);
+
+        discovery.receivedMessage(BRIDGE1, connection, LIGHT_TOPIC, config("Light"));
+        awaitResults(1);
+
+        discovery.receivedMessage(BRIDGE1, connection, LIGHT_TOPIC, config("Light"));
+        awaitPasses(discovery, 2);
+        verify(listener, times(1)).thingDiscovered(any(), any());
+        assertThat(discovery.getLastPassChangedThings(), is(0));
+    }
+
+    @Test
+    public void sameConfigOfAnotherBrokerIsPublished() {
+        HomeAssistantDiscovery discovery = createDiscovery(50, 10000);
+
+        discovery.receivedMessage(BRIDGE1, connection, LIGHT_TOPIC, config("Light"));
+        discovery.receivedMessage(BRIDGE2, connection, LIGHT_TOPIC, config("Light"));
+
+        List<DiscoveryResult> results = awaitResults(2);
+        assertThat(results.stream().map(DiscoveryResult::getBridgeUID).collect(Collectors.toSet()),
+                is(Set.of(BRIDGE1, BRIDGE2)));
+    }
+
+    @Test
+    public void changedConfigWithSameHashIsPublished() {
+        HomeAssistantDiscovery discovery = createDiscovery(50, 10000);
+        byte[] first = config("Light Aa");
+        byte[] second = config("Light BB");
+        assertThat(Arrays.hashCode(first), is(Arrays.hashCode(second)));
+
+        discovery.receivedMessage(BRIDGE1, connection, LIGHT_TOPIC, first);
+        awaitResults(1);
+        discovery.receivedMessage(BRIDGE1, connection, LIGHT_TOPIC, second);
+
+        awaitResults(2);
+    }
+
+    @Test
+    public void batchIsProcessedAfterQuietTime() throws InterruptedException {
+        HomeAssistantDiscovery discovery = createDiscovery(500, 10000);
+
+        discovery.receivedMessage(BRIDGE1, connection, LIGHT_TOPIC, config("Light"));
+        Thread.sleep(300);
+        discovery.receivedMessage(BRIDGE1, connection, SWITCH_TOPIC, config("Switch"));
+
+        // the second message postponed the processing
+        verify(listener, after(300).never()).thingDiscovered(any(), any());
+        DiscoveryResult result = awaitResults(1).get(0);
+        assertThat(result.getLabel(), containsString("Switch"));
+        assertThat(discovery.getPasses(), is(1));
+    }
+
+    @Test
+    public void batchIsProcessedAfterMaxDelay() throws InterruptedException {
+        HomeAssistantDiscovery discovery = createDiscovery(300, 600);
+
+        // messages keep arriving within the quiet time for longer than the maximum delay
+        long end = System.currentTimeMillis() + 1500;
+        int i = 0;
+        while (System.currentTimeMillis() < end) {
+            discovery.receivedMessage(BRIDGE1, connection, LIGHT_TOPIC, config("Light " + i++));
+            Thread.sleep(100);
+        }
+
+        verify(listener, atLeastOnce()).thingDiscovered(any(), any());
+    }
+
+    @Test
+    public void componentsOfEarlierBatchesAreKept() {
+        HomeAssistantDiscovery discovery = createDiscovery(50, 10000);
+
+        discovery.receivedMessage(BRIDGE1, connection, LIGHT_TOPIC, config("Light"));
+        DiscoveryResult first = awaitResults(1).get(0);
+        assertThat(first.getLabel(), not(containsString("Switch")));
+
+        discovery.receivedMessage(BRIDGE1, connection, SWITCH_TOPIC, config("Switch"));
+        DiscoveryResult second = awaitResults(2).get(1);
+        assertThat(second.getThingUID(), is(first.getThingUID()));
+        assertThat(second.getLabel(), containsString("Light"));
+        assertThat(second.getLabel(), containsString("Switch"));
+        assertThat(discovery.getLastPassComponents(), is(1));
+    }
+
+    private List<DiscoveryResult> awaitResults(int count) {
+        verify(listener, timeout(2000).times(count)).thingDiscovered(any(), any());
+        return results;
+    }
+
+    private void awaitPasses(HomeAssistantDiscovery discovery, int passes) throws InterruptedException {
+        long end = System.currentTimeMillis() + 2000;
+        while (discovery.getPasses() < passes && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertThat(discovery.getPasses(), is(passes));
+    }
+
+    private static byte[] config(String name) {
+        return ("{\"name\":\"" + name + "\",\"state_topic\":\"kitchen/state\","
+                + "\"device\":{\"identifiers\":\"kitchen\",\"name\":\"Kitchen\"}}").getBytes(StandardCharsets.UTF_8);
+    }
+}
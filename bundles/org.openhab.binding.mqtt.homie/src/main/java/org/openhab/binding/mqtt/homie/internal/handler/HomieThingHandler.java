@@ -105,6 +105,7 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
             return;
         }
         device.initialize(config.basetopic, config.deviceid, thing.getChannels());
+        device.setSubtreeSubscription(config.wildcardsubscription);
         super.initialize();
     }
 
@@ -214,10 +215,14 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
     /**
      * Callback of {@link DelayedBatchProcessing}.
      * Add all newly discovered nodes and properties to the Thing and start subscribe to each channel state topic.
+     * With a wildcard subscription the completed properties are added while the device tree is still being received.
      */
     @Override
     public void accept(@Nullable List<Object> t) {
         if (!device.isInitialized()) {
+            if (device.isSubtreeSubscription()) {
+                acceptCompletedProperties();
+            }
             return;
         }
         List<Channel> channels = device.nodes().stream().flatMap(n -> n.properties.stream()).map(Property::getChannel)
@@ -232,6 +237,26 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
         }
     }
 
+    /**
+     * Add the properties, whose attributes have been received already, to the Thing and start subscribe to their
+     * channel state topics.
+     */
+    private void acceptCompletedProperties() {
+        List<Channel> channels = device.nodes().stream().flatMap(n -> n.properties.stream())
+                .filter(p -> p.getChannelState() != null).map(Property::getChannel).collect(Collectors.toList());
+        if (channels.isEmpty()) {
+            return;
+        }
+        updateThing(editThing().withChannels(channels).build());
+        final MqttBrokerConnection connection = this.connection;
+        if (connection != null) {
+            device.startCompletedChannels(connection, scheduler, attributeReceiveTimeout).thenRun(() -> {
+                logger.debug("Homie device {} attached {} channels (accept)", device.attributes.name,
+                        channels.size());
+            });
+        }
+    }
+
     /**
      * Removes all retained topics related to the device
      */
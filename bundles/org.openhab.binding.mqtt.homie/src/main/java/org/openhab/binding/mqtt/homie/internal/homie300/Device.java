@@ -64,6 +64,8 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
     private String topic = "";
     public String deviceID = "";
     private boolean initialized = false;
+    private boolean subtreeSubscription = false;
+    private @Nullable DeviceSubtreeSubscriber subtreeSubscriber;
 
     /**
      * Creates a Homie Device structure. It consists of device attributes, device statistics and nodes.
@@ -113,7 +115,8 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
             throw new IllegalStateException("You must call initialize()!");
         }
 
-        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+        return startSubtreeSubscription(connection)
+                .thenCompose(b -> attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout))
                 // On success, create all nodes and tell the handler about the ready state
                 .thenCompose(b -> attributesReceived(connection, scheduler, timeout))
                 // No matter if values have been received or not -> the subscriptions have been performed
@@ -122,6 +125,33 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
                 });
     }
 
+    /**
+     * Subscribe once to the wildcard subtree of the device instead of each attribute topic, if enabled with
+     * {@link #setSubtreeSubscription(boolean)}. The attribute messages of the device, nodes and properties are routed
+     * in-memory then.
+     *
+     * @param connection A broker connection
+     * @return A future that is complete as soon as the wildcard subscription has been performed.
+     */
+    protected CompletableFuture<@Nullable Void> startSubtreeSubscription(MqttBrokerConnection connection) {
+        if (!subtreeSubscription) {
+            attributes.setSubscriptionRouter(null);
+            return CompletableFuture.completedFuture(null);
+        }
+        DeviceSubtreeSubscriber subscriber = subtreeSubscriber;
+        if (subscriber == null) {
+            subscriber = new DeviceSubtreeSubscriber(topic);
+            subtreeSubscriber = subscriber;
+        }
+        attributes.setSubscriptionRouter(subscriber);
+        return subscriber.start(connection).handle((b, e) -> {
+            if (e != null) {
+                logger.warn("Could not subscribe to the subtree of device {}", deviceID, e);
+            }
+            return null;
+        });
+    }
+
     public CompletableFuture<@Nullable Void> attributesReceived(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout) {
         callback.readyStateChanged(attributes.state);
@@ -150,6 +180,22 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
                 .map(p -> p.startChannel(connection, scheduler, timeout)).toArray(CompletableFuture[]::new));
     }
 
+    /**
+     * Subscribe to the state topics of all properties whose attributes have been received already, even if the device
+     * tree is not complete yet. Used to bring up channels incrementally as soon as their properties are complete.
+     *
+     * @param connection A broker connection
+     * @param scheduler A scheduler to realize the timeout
+     * @param timeout A timeout in milliseconds. Can be 0 to disable the timeout and let the future return earlier.
+     * @return A future that is complete as soon as the properties have subscribed to their state topics.
+     */
+    public CompletableFuture<@Nullable Void> startCompletedChannels(MqttBrokerConnection connection,
+            ScheduledExecutorService scheduler, int timeout) {
+        return CompletableFuture.allOf(nodes.stream().flatMap(node -> node.properties.stream())
+                .filter(p -> p.getChannelState() != null).map(p -> p.startChannel(connection, scheduler, timeout))
+                .toArray(CompletableFuture[]::new));
+    }
+
     /**
      * Get a homie property (which translates to a channel).
      *
@@ -174,8 +220,31 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      * Unsubscribe from everything.
      */
     public CompletableFuture<@Nullable Void> stop() {
-        return attributes.unsubscribe().thenCompose(
+        final CompletableFuture<@Nullable Void> stopped = attributes.unsubscribe().thenCompose(
                 b -> CompletableFuture.allOf(nodes.stream().map(Node::stop).toArray(CompletableFuture[]::new)));
+        final DeviceSubtreeSubscriber subscriber = subtreeSubscriber;
+        if (subscriber == null) {
+            return stopped;
+        }
+        return stopped.thenCompose(b -> subscriber.stop()).thenApply(b -> null);
+    }
+
+    /**
+     * Enable or disable the subscription to the wildcard subtree of the device. Takes effect with the next call of
+     * {@link #subscribe(MqttBrokerConnection, ScheduledExecutorService, int)}.
+     *
+     * @param subtreeSubscription True to subscribe once to the subtree and route attribute messages in-memory,
+     *            false to subscribe to each attribute topic.
+     */
+    public void setSubtreeSubscription(boolean subtreeSubscription) {
+        this.subtreeSubscription = subtreeSubscription;
+    }
+
+    /**
+     * @return Return true if the wildcard subtree of the device is subscribed to instead of each attribute topic.
+     */
+    public boolean isSubtreeSubscription() {
+        return subtreeSubscription;
     }
 
     /**
@@ -201,6 +270,7 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
     public void initialize(String baseTopic, String deviceID, List<Channel> channels) {
         this.topic = baseTopic + "/" + deviceID;
         this.deviceID = deviceID;
+        this.subtreeSubscriber = null;
         nodes.clear();
         for (Channel channel : channels) {
             final ChannelConfig channelConfig = channel.getConfiguration().as(ChannelConfig.class);
@@ -275,11 +345,13 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
 
     CompletableFuture<@Nullable Void> applyNodes(MqttBrokerConnection connection, ScheduledExecutorService scheduler,
             int timeout) {
-        return nodes.apply(attributes.nodes, node -> node.subscribe(connection, scheduler, timeout), this::createNode,
-                this::notifyNodeRemoved).exceptionally(e -> {
-                    logger.warn("Could not subscribe", e);
-                    return null;
-                });
+        return nodes.apply(attributes.nodes, node -> {
+            node.attributes.setSubscriptionRouter(attributes.getSubscriptionRouter());
+            return node.subscribe(connection, scheduler, timeout);
+        }, this::createNode, this::notifyNodeRemoved).exceptionally(e -> {
+            logger.warn("Could not subscribe", e);
+            return null;
+        });
     }
 
     @Override
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homie.internal.homie300;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.mqtt.generic.mapping.SubscriptionRouter;
+import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.core.io.transport.mqtt.MqttMessageSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Subscribes once to the wildcard subtree of a Homie device (e.g. "homie/device/#") and routes the messages of the
+ * device, node and property attribute topics in-memory to the attribute classes.
+ *
+ * The payloads of all attribute topics ("$name", "$properties", ...) are kept, because the retained messages of the
+ * whole subtree arrive right after subscribing, before the nodes and properties are known. A route that is added
+ * later receives the kept payload immediately.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class DeviceSubtreeSubscriber implements MqttMessageSubscriber, SubscriptionRouter {
+    private final Logger logger = LoggerFactory.getLogger(DeviceSubtreeSubscriber.class);
+    private final String topic;
+    private final String wildcardTopic;
+    private final Map<String, MqttMessageSubscriber> routes = new HashMap<>();
+    private final Map<String, byte[]> attributePayloads = new HashMap<>();
+    private volatile @Nullable MqttBrokerConnection connection;
+    private long routedMessages;
+    private long replayedMessages;
+
+    /**
+     * Creates a subscriber for the subtree of a device.
+     *
+     * @param topic The device topic (e.g. "homie/device")
+     */
+    public DeviceSubtreeSubscriber(String topic) {
+        this.topic = topic;
+        this.wildcardTopic = topic + "/#";
+    }
+
+    /**
+     * Subscribes to the subtree of the device.
+     *
+     * @param connection A broker connection
+     * @return Returns a future that completes as soon as the wildcard subscription has been performed.
+     */
+    public CompletableFuture<Boolean> start(MqttBrokerConnection connection) {
+        this.connection = connection;
+        return connection.subscribe(wildcardTopic, this);
+    }
+
+    /**
+     * Unsubscribes from the subtree of the device and forgets all routes and kept payloads.
+     *
+     * @return Returns a future that completes as soon as the wildcard unsubscription has been performed.
+     */
+    public CompletableFuture<Boolean> stop() {
+        final MqttBrokerConnection connection;
+        synchronized (this) {
+            connection = this.connection;
+            this.connection = null;
+            logger.debug("Routed {} attribute messages of {}, {} of them from kept payloads", routedMessages, topic,
+                    replayedMessages);
+            routes.clear();
+            attributePayloads.clear();
+        }
+        if (connection == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return connection.unsubscribe(wildcardTopic, this);
+    }
+
+    @Override
+    public synchronized void processMessage(String topic, byte[] payload) {
+        if (isAttributeTopic(topic)) {
+            if (payload.length == 0) {
+                attributePayloads.remove(topic);
+            } else {
+                attributePayloads.put(topic, payload);
+            }
+        }
+        final MqttMessageSubscriber subscriber = routes.get(topic);
+        if (subscriber != null) {
+            routedMessages++;
+            subscriber.processMessage(topic, payload);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber) {
+        if (!topic.startsWith(this.topic + "/")) {
+            // Not part of the subtree, subscribe on the broker
+            final MqttBrokerConnection connection = this.connection;
+            if (connection == null) {
+                return CompletableFuture.completedFuture(false);
+            }
+            return connection.subscribe(topic, subscriber);
+        }
+        synchronized (this) {
+            routes.put(topic, subscriber);
+            final byte[] payload = attributePayloads.get(topic);
+            if (payload != null) {
+                routedMessages++;
+                replayedMessages++;
+                subscriber.processMessage(topic, payload);
+            }
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> unsubscribe(String topic, MqttMessageSubscriber subscriber) {
+        if (!topic.startsWith(this.topic + "/")) {
+            final MqttBrokerConnection connection = this.connection;
+            if (connection == null) {
+                return CompletableFuture.completedFuture(true);
+            }
+            return connection.unsubscribe(topic, subscriber);
+        }
+        synchronized (this) {
+            routes.remove(topic, subscriber);
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Return the number of messages that have been delivered to a route.
+     */
+    public synchronized long getRoutedMessages() {
+        return routedMessages;
+    }
+
+    /**
+     * Return the number of messages that have been delivered from a kept payload when a route was added.
+     */
+    public synchronized long getReplayedMessages() {
+        return replayedMessages;
+    }
+
+    private static boolean isAttributeTopic(String topic) {
+        return topic.startsWith("$", topic.lastIndexOf('/') + 1);
+    }
+}
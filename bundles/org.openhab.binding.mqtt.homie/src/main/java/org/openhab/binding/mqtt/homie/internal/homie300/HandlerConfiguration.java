@@ -36,4 +36,9 @@ public class HandlerConfiguration {
      * Indicates if retained topics should be removed when the Thing is deleted.
      */
     public boolean removetopics = false;
+    /**
+     * Indicates if the device topic tree should be subscribed to with a single wildcard subscription instead of a
+     * subscription per attribute topic. Channels are added as soon as their properties are complete.
+     */
+    public boolean wildcardsubscription = false;
 }
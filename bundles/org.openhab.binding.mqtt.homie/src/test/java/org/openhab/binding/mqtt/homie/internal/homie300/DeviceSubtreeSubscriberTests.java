@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homie.internal.homie300;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.binding.mqtt.homie.internal.homie300.DeviceAttributes.ReadyState;
+import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.core.io.transport.mqtt.MqttMessageSubscriber;
+
+/**
+ * Tests cases for {@link DeviceSubtreeSubscriber}.
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+@NonNullByDefault
+public class DeviceSubtreeSubscriberTests {
+    private static final String DEVICE_TOPIC = "homie/device";
+
+    private @Mock @NonNullByDefault({}) MqttBrokerConnection connection;
+    private @Mock @NonNullByDefault({}) ScheduledExecutorService scheduler;
+    private @Mock @NonNullByDefault({}) MqttMessageSubscriber subscriber;
+
+    private final DeviceSubtreeSubscriber subtreeSubscriber = new DeviceSubtreeSubscriber(DEVICE_TOPIC);
+
+    @BeforeEach
+    public void setUp() {
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+        subtreeSubscriber.start(connection);
+    }
+
+    private void receive(String topic, String payload) {
+        subtreeSubscriber.processMessage(topic, payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void attributesFromSingleSubscription() {
+        // The retained messages arrive before the attribute class is subscribed
+        receive(DEVICE_TOPIC + "/$homie", "3.0");
+        receive(DEVICE_TOPIC + "/$name", "Name");
+        receive(DEVICE_TOPIC + "/$state", "init");
+
+        DeviceAttributes attributes = new DeviceAttributes();
+        attributes.setSubscriptionRouter(subtreeSubscriber);
+        CompletableFuture<?> future = attributes.subscribeAndReceive(connection, scheduler, DEVICE_TOPIC, null, 100);
+
+        assertThat(attributes.homie, is("3.0"));
+        assertThat(attributes.name, is("Name"));
+        assertThat(attributes.state, is(ReadyState.init));
+        assertThat(future.isDone(), is(false));
+
+        // A message after subscribing is routed as well
+        receive(DEVICE_TOPIC + "/$nodes", "node1,node2");
+        assertThat(attributes.nodes.length, is(2));
+        assertThat(future.isDone(), is(true));
+        assertThat(subtreeSubscriber.getRoutedMessages(), is(4L));
+        assertThat(subtreeSubscriber.getReplayedMessages(), is(3L));
+
+        // Only the wildcard topic has been subscribed to on the broker
+        verify(connection).subscribe(eq(DEVICE_TOPIC + "/#"), eq(subtreeSubscriber));
+        verify(connection, times(1)).subscribe(any(), any());
+
+        attributes.unsubscribe();
+        receive(DEVICE_TOPIC + "/$name", "Other name");
+        assertThat(attributes.name, is("Name"));
+        verify(connection, never()).unsubscribe(any(), any());
+    }
+
+    @Test
+    public void valueTopicsAreNotKept() {
+        receive(DEVICE_TOPIC + "/node/property", "10");
+        receive(DEVICE_TOPIC + "/node/property/$name", "Name");
+
+        subtreeSubscriber.subscribe(DEVICE_TOPIC + "/node/property", subscriber);
+        verify(subscriber, never()).processMessage(any(), any());
+
+        receive(DEVICE_TOPIC + "/node/property", "11");
+        verify(subscriber).processMessage(eq(DEVICE_TOPIC + "/node/property"), any());
+    }
+
+    @Test
+    public void removedAttributeIsNotReplayed() {
+        receive(DEVICE_TOPIC + "/node/$name", "Name");
+        receive(DEVICE_TOPIC + "/node/$name", "");
+
+        subtreeSubscriber.subscribe(DEVICE_TOPIC + "/node/$name", subscriber);
+        verify(subscriber, never()).processMessage(any(), any());
+    }
+
+    @Test
+    public void stopUnsubscribesWildcard() {
+        receive(DEVICE_TOPIC + "/$name", "Name");
+        subtreeSubscriber.stop();
+        verify(connection).unsubscribe(eq(DEVICE_TOPIC + "/#"), eq(subtreeSubscriber));
+
+        // Kept payloads are dropped
+        subtreeSubscriber.subscribe(DEVICE_TOPIC + "/$name", subscriber);
+        verify(subscriber, never()).processMessage(any(), any());
+    }
+}
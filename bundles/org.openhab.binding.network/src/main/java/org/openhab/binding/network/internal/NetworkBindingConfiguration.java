@@ -36,6 +36,10 @@ public class NetworkBindingConfiguration {
     public @NonNullByDefault({}) ArpPingUtilEnum arpPingUtilMethod;
     // For backwards compatibility reasons, the default is to use the ping method execution time as latency value
     public boolean preferResponseTimeAsLatency = false;
+    public BigDecimal presenceDetectionThreads = BigDecimal.valueOf(8);
+    public String fpingToolPath = "fping";
+    public boolean fastDiscovery = true;
+    public BigDecimal discoveryConnectsPerSecond = BigDecimal.valueOf(500);
 
     private List<NetworkBindingConfigurationListener> listeners = new ArrayList<>();
 
@@ -45,6 +49,10 @@ public class NetworkBindingConfiguration {
         this.cacheDeviceStateTimeInMS = newConfiguration.cacheDeviceStateTimeInMS;
         this.arpPingToolPath = newConfiguration.arpPingToolPath;
         this.preferResponseTimeAsLatency = newConfiguration.preferResponseTimeAsLatency;
+        this.presenceDetectionThreads = newConfiguration.presenceDetectionThreads;
+        this.fpingToolPath = newConfiguration.fpingToolPath;
+        this.fastDiscovery = newConfiguration.fastDiscovery;
+        this.discoveryConnectsPerSecond = newConfiguration.discoveryConnectsPerSecond;
 
         NetworkUtils networkUtils = new NetworkUtils();
         this.arpPingUtilMethod = networkUtils.determineNativeARPpingMethod(arpPingToolPath);
@@ -65,6 +73,8 @@ public class NetworkBindingConfiguration {
         return "NetworkBindingConfiguration{" + "allowSystemPings=" + allowSystemPings + ", allowDHCPlisten="
                 + allowDHCPlisten + ", cacheDeviceStateTimeInMS=" + cacheDeviceStateTimeInMS + ", arpPingToolPath='"
                 + arpPingToolPath + '\'' + ", arpPingUtilMethod=" + arpPingUtilMethod + ", preferResponseTimeAsLatency="
-                + preferResponseTimeAsLatency + '}';
+                + preferResponseTimeAsLatency + ", presenceDetectionThreads=" + presenceDetectionThreads
+                + ", fpingToolPath='" + fpingToolPath + '\'' + ", fastDiscovery=" + fastDiscovery
+                + ", discoveryConnectsPerSecond=" + discoveryConnectsPerSecond + '}';
     }
 }
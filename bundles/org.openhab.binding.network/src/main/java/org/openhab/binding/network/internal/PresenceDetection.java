@@ -17,10 +17,13 @@ import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -51,6 +54,8 @@ public class PresenceDetection implements IPRequestReceivedCallback {
 
     public static final double NOT_REACHABLE = -1;
     public static final int DESTINATION_TTL = 300 * 1000; // in ms, 300 s
+    // time in ms on top of the timeout until a detection is finished, even if not all checks are finished yet
+    private static final int FINISH_GRACE_TIME = 1000;
 
     NetworkUtils networkUtils = new NetworkUtils();
     private final Logger logger = LoggerFactory.getLogger(PresenceDetection.class);
@@ -68,6 +73,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     private long refreshIntervalInMS = 60000;
     private int timeoutInMS = 5000;
     private long lastSeenInMS;
+    private long detectionStartInMS;
 
     private @NonNullByDefault({}) String hostname;
     private @NonNullByDefault({}) ExpiringCache<@Nullable InetAddress> destination;
@@ -78,15 +84,19 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     /// State variables (cannot be final because of test dependency injections)
     ExpiringCacheAsync<PresenceDetectionValue> cache;
     private final PresenceDetectionListener updateListener;
+    private final PresenceDetectionEngine engine;
+    private @Nullable Executor checkExecutor;
     private @Nullable ScheduledFuture<?> refreshJob;
-    protected @Nullable ExecutorService executorService;
+    @Nullable
+    CompletableFuture<@Nullable Void> detectionResult;
+    private List<CompletableFuture<?>> runningChecks = List.of();
     private String dhcpState = "off";
-    Integer currentCheck = 0;
     int detectionChecks;
 
-    public PresenceDetection(final PresenceDetectionListener updateListener, int cacheDeviceStateTimeInMS)
-            throws IllegalArgumentException {
+    public PresenceDetection(final PresenceDetectionListener updateListener, int cacheDeviceStateTimeInMS,
+            PresenceDetectionEngine engine) throws IllegalArgumentException {
         this.updateListener = updateListener;
+        this.engine = engine;
         cache = new ExpiringCacheAsync<>(cacheDeviceStateTimeInMS, () -> {
             performPresenceDetection(false);
         });
@@ -156,6 +166,14 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         this.preferResponseTimeAsLatency = preferResponseTimeAsLatency;
     }
 
+    /**
+     * Sets the executor for the blocking checks. By default they are performed by the shared executor of the
+     * {@link PresenceDetectionEngine}.
+     */
+    public void setCheckExecutor(@Nullable Executor checkExecutor) {
+        this.checkExecutor = checkExecutor;
+    }
+
     /**
      * Sets the ping method. This method will perform a feature test. If SYSTEM_PING
      * does not work on this system, JAVA_PING will be used instead.
@@ -279,14 +297,10 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         cache.getValue(callback);
     }
 
-    public ExecutorService getThreadsFor(int threadCount) {
-        return Executors.newFixedThreadPool(threadCount);
-    }
-
     /**
      * Perform a presence detection with ICMP-, ARP ping and
-     * TCP connection attempts simultaneously. A fixed thread pool will be created with as many
-     * thread as necessary to perform all tests at once.
+     * TCP connection attempts simultaneously. The checks are performed by the {@link PresenceDetectionEngine}, which
+     * is shared by all presence detections, so no threads are created for a detection.
      *
      * This is a NO-OP, if there is already an ongoing detection or if the cached value
      * is not expired yet.
@@ -300,76 +314,70 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * @return Return true if a presence detection is performed and false otherwise.
      */
     public boolean performPresenceDetection(boolean waitForDetectionToFinish) {
-        if (executorService != null) {
-            logger.debug(
-                    "There is already an ongoing presence discovery for {} and a new one was issued by the scheduler! TCP Port {}",
-                    hostname, tcpPorts);
-            return false;
-        }
+        CompletableFuture<@Nullable Void> result;
+        Set<String> interfaceNames = null;
+        synchronized (this) {
+            if (detectionResult != null) {
+                logger.debug(
+                        "There is already an ongoing presence discovery for {} and a new one was issued by the scheduler! TCP Port {}",
+                        hostname, tcpPorts);
+                return false;
+            }
 
-        if (!cache.isExpired()) {
-            return false;
-        }
+            if (!cache.isExpired()) {
+                return false;
+            }
 
-        Set<String> interfaceNames = null;
+            detectionChecks = tcpPorts.size();
+            if (pingMethod != null) {
+                detectionChecks += 1;
+            }
+            if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL) {
+                interfaceNames = networkUtils.getInterfaceNames();
+                detectionChecks += interfaceNames.size();
+            }
 
-        currentCheck = 0;
-        detectionChecks = tcpPorts.size();
-        if (pingMethod != null) {
-            detectionChecks += 1;
-        }
-        if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL) {
-            interfaceNames = networkUtils.getInterfaceNames();
-            detectionChecks += interfaceNames.size();
-        }
+            if (detectionChecks == 0) {
+                return false;
+            }
 
-        if (detectionChecks == 0) {
-            return false;
+            result = new CompletableFuture<>();
+            detectionResult = result;
+            detectionStartInMS = System.currentTimeMillis();
         }
 
-        final ExecutorService executorService = getThreadsFor(detectionChecks);
-        this.executorService = executorService;
-
+        List<CompletableFuture<?>> checks = new ArrayList<>(detectionChecks);
         for (Integer tcpPort : tcpPorts) {
-            executorService.execute(() -> {
-                Thread.currentThread().setName("presenceDetectionTCP_" + hostname + " " + String.valueOf(tcpPort));
-                performServicePing(tcpPort);
-                checkIfFinished();
-            });
+            checks.add(performServicePing(tcpPort));
         }
 
-        // ARP ping for IPv4 addresses. Use single executor for Windows tool and
-        // each own executor for each network interface for other tools
+        // ARP ping for IPv4 addresses. Use single check for Windows tool and
+        // one check for each network interface for other tools
         if (arpPingMethod == ArpPingUtilEnum.ELI_FULKERSON_ARP_PING_FOR_WINDOWS) {
-            executorService.execute(() -> {
-                Thread.currentThread().setName("presenceDetectionARP_" + hostname + " ");
-                // arp-ping.exe tool capable of handling multiple interfaces by itself
-                performARPping("");
-                checkIfFinished();
-            });
+            // arp-ping.exe tool capable of handling multiple interfaces by itself
+            checks.add(execute(() -> performARPping("")));
         } else if (interfaceNames != null) {
             for (final String interfaceName : interfaceNames) {
-                executorService.execute(() -> {
-                    Thread.currentThread().setName("presenceDetectionARP_" + hostname + " " + interfaceName);
-                    performARPping(interfaceName);
-                    checkIfFinished();
-                });
+                checks.add(execute(() -> performARPping(interfaceName)));
             }
         }
 
         // ICMP ping
         if (pingMethod != null) {
-            executorService.execute(() -> {
-                if (pingMethod != IpPingMethodEnum.JAVA_PING) {
-                    Thread.currentThread().setName("presenceDetectionICMP_" + hostname);
-                    performSystemPing();
-                } else {
-                    performJavaPing();
-                }
-                checkIfFinished();
-            });
+            if (pingMethod != IpPingMethodEnum.JAVA_PING) {
+                checks.add(performSystemPing());
+            } else {
+                checks.add(execute(this::performJavaPing));
+            }
         }
 
+        synchronized (this) {
+            runningChecks = checks;
+        }
+        // every check times out on its own, counted from the moment it starts running
+        CompletableFuture.allOf(checks.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((r, e) -> submitFinalResult(result));
+
         if (waitForDetectionToFinish) {
             waitForPresenceDetection();
         }
@@ -380,71 +388,65 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     /**
      * Calls updateListener.finalDetectionResult() with a final result value.
      * Safe to be called from different threads. After a call to this method,
-     * the presence detection process is finished and all threads are forcefully
-     * shut down.
+     * the presence detection process is finished, checks that are still running
+     * can only report partial results.
+     *
+     * @param result The result of the detection process to finish
      */
-    private synchronized void submitFinalResult() {
-        // Do nothing if we are not in a detection process
-        ExecutorService service = executorService;
-        if (service == null) {
-            return;
-        }
-        // Finish the detection process
-        service.shutdownNow();
-        executorService = null;
-        detectionChecks = 0;
-
+    private void submitFinalResult(CompletableFuture<@Nullable Void> result) {
         PresenceDetectionValue v;
-
-        // The cache will be expired by now if cache_time < timeoutInMS. But the device might be actually reachable.
-        // Therefore use lastSeenInMS here and not cache.isExpired() to determine if we got a ping response.
-        if (lastSeenInMS + timeoutInMS + 100 < System.currentTimeMillis()) {
-            // We haven't seen the device in the detection process
-            v = new PresenceDetectionValue(hostname, -1);
-        } else {
-            // Make the cache valid again and submit the value.
-            v = cache.getExpiredValue();
+        List<CompletableFuture<?>> checks;
+        synchronized (this) {
+            // Do nothing if we are not in this detection process anymore
+            if (detectionResult != result) {
+                return;
+            }
+            // Finish the detection process
+            detectionResult = null;
+            detectionChecks = 0;
+            checks = runningChecks;
+            runningChecks = List.of();
+
+            // The cache will be expired by now if cache_time < timeoutInMS. But the device might be actually
+            // reachable. Therefore use lastSeenInMS here and not cache.isExpired() to determine if we got a ping
+            // response. It is compared with the start of the detection, as a slow check may finish long after the
+            // timeout when it had to wait for a thread of the shared executor.
+            if (lastSeenInMS < detectionStartInMS) {
+                // We haven't seen the device in the detection process
+                v = new PresenceDetectionValue(hostname, -1);
+            } else {
+                // Make the cache valid again and submit the value.
+                v = cache.getExpiredValue();
+            }
+            cache.setValue(v);
         }
-        cache.setValue(v);
 
+        // checks that are still waiting for a thread or running are of no use anymore
+        checks.forEach(check -> check.cancel(true));
         if (!v.isReachable()) {
             // if target can't be reached, check if name resolution need to be updated
             destination.invalidateValue();
         }
         updateListener.finalDetectionResult(v);
+        result.complete(null);
     }
 
     /**
-     * This method is called after each individual check and increases a check counter.
-     * If the counter equals the total checks,the final result is submitted. This will
-     * happen way before the "timeoutInMS", if all checks were successful.
-     * Thread safe.
-     */
-    private synchronized void checkIfFinished() {
-        currentCheck += 1;
-        if (currentCheck < detectionChecks) {
-            return;
-        }
-        submitFinalResult();
-    }
-
-    /**
-     * Waits for the presence detection threads to finish. Returns immediately
-     * if no presence detection is performed right now.
+     * Waits for the presence detection to finish. Returns immediately
+     * if no presence detection is performed right now. The detection always
+     * finishes, because each of its checks times out on its own.
      */
     public void waitForPresenceDetection() {
-        ExecutorService service = executorService;
-        if (service == null) {
+        CompletableFuture<@Nullable Void> result = detectionResult;
+        if (result == null) {
             return;
         }
         try {
-            // We may get interrupted here by cancelRefreshJob().
-            service.awaitTermination(timeoutInMS + 100, TimeUnit.MILLISECONDS);
-            submitFinalResult();
+            result.get();
+        } catch (ExecutionException e) {
+            logger.debug("Presence detection for {} failed", hostname, e);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt(); // Reset interrupt flag
-            service.shutdownNow();
-            executorService = null;
         }
     }
 
@@ -473,24 +475,33 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         return v;
     }
 
-    protected void performServicePing(int tcpPort) {
+    /**
+     * Performs a TCP connection attempt without blocking the calling thread.
+     *
+     * @param tcpPort The port to connect to
+     * @return A future that is completed when the connection attempt is finished
+     */
+    protected CompletableFuture<@Nullable Void> performServicePing(int tcpPort) {
         logger.trace("Perform TCP presence detection for {} on port: {}", hostname, tcpPort);
-        try {
-            InetAddress destinationAddress = destination.getValue();
-            if (destinationAddress != null) {
-                networkUtils.servicePing(destinationAddress.getHostAddress(), tcpPort, timeoutInMS).ifPresent(o -> {
-                    if (o.isSuccess()) {
-                        PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION,
-                                getLatency(o, preferResponseTimeAsLatency));
-                        v.addReachableTcpService(tcpPort);
-                        updateListener.partialDetectionResult(v);
-                    }
-                });
-            }
-        } catch (IOException e) {
-            // This should not happen and might be a user configuration issue, we log a warning message therefore.
-            logger.warn("Could not create a socket connection", e);
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress == null) {
+            return CompletableFuture.completedFuture(null);
         }
+        return engine.servicePing(destinationAddress, tcpPort, timeoutInMS).handle((o, e) -> {
+            if (e != null) {
+                // This should not happen and might be a user configuration issue, we log a warning message therefore.
+                logger.warn("Could not create a socket connection", e);
+            } else {
+                recordCheck(PresenceDetectionType.TCP_CONNECTION, o);
+                if (o.isSuccess()) {
+                    PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION,
+                            getLatency(o, preferResponseTimeAsLatency));
+                    v.addReachableTcpService(tcpPort);
+                    updateListener.partialDetectionResult(v);
+                }
+            }
+            return null;
+        });
     }
 
     /**
@@ -515,6 +526,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
 
             networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName,
                     destinationAddress.getHostAddress(), timeoutInMS).ifPresent(o -> {
+                        recordCheck(PresenceDetectionType.ARP_PING, o);
                         if (o.isSuccess()) {
                             PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ARP_PING,
                                     getLatency(o, preferResponseTimeAsLatency));
@@ -543,6 +555,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         }
 
         networkUtils.javaPing(timeoutInMS, destinationAddress).ifPresent(o -> {
+            recordCheck(PresenceDetectionType.ICMP_PING, o);
             if (o.isSuccess()) {
                 PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING,
                         getLatency(o, preferResponseTimeAsLatency));
@@ -551,21 +564,40 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         });
     }
 
-    protected void performSystemPing() {
+    /**
+     * Performs a system ping. If available, the ping is sent together with the pings of other presence detections
+     * by a single fping process, otherwise the native ping utility is executed on the shared executor.
+     *
+     * @return A future that is completed when the ping is finished
+     */
+    protected CompletableFuture<@Nullable Void> performSystemPing() {
+        logger.trace("Perform native ping presence detection for {}", hostname);
+        if (!engine.isBatchPingAvailable()) {
+            return execute(this::performNativePing);
+        }
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return engine.batchPing(destinationAddress.getHostAddress(), timeoutInMS).thenAccept(this::systemPingResult);
+    }
+
+    private CompletableFuture<@Nullable Void> execute(Runnable check) {
+        Executor executor = checkExecutor;
+        int checkTimeoutInMS = timeoutInMS + FINISH_GRACE_TIME;
+        return executor == null ? engine.execute(check, checkTimeoutInMS)
+                : engine.execute(check, checkTimeoutInMS, executor);
+    }
+
+    private void performNativePing() {
         try {
-            logger.trace("Perform native ping presence detection for {}", hostname);
             InetAddress destinationAddress = destination.getValue();
             if (destinationAddress == null) {
                 return;
             }
 
-            networkUtils.nativePing(pingMethod, destinationAddress.getHostAddress(), timeoutInMS).ifPresent(o -> {
-                if (o.isSuccess()) {
-                    PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING,
-                            getLatency(o, preferResponseTimeAsLatency));
-                    updateListener.partialDetectionResult(v);
-                }
-            });
+            networkUtils.nativePing(pingMethod, destinationAddress.getHostAddress(), timeoutInMS)
+                    .ifPresent(this::systemPingResult);
         } catch (IOException e) {
             logger.trace("Failed to execute a native ping for ip {}", hostname, e);
         } catch (InterruptedException e) {
@@ -573,6 +605,20 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         }
     }
 
+    private void systemPingResult(PingResult pingResult) {
+        recordCheck(PresenceDetectionType.ICMP_PING, pingResult);
+        if (pingResult.isSuccess()) {
+            PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING,
+                    getLatency(pingResult, preferResponseTimeAsLatency));
+            updateListener.partialDetectionResult(v);
+        }
+    }
+
+    private void recordCheck(PresenceDetectionType type, PingResult pingResult) {
+        engine.getMetrics().record(type, pingResult.isSuccess(),
+                pingResult.getResponseTimeInMS().orElse(pingResult.getExecutionTimeInMS()));
+    }
+
     private double getLatency(PingResult pingResult, boolean preferResponseTimeAsLatency) {
         logger.debug("Getting latency from ping result {} using latency mode {}", pingResult,
                 preferResponseTimeAsLatency);
@@ -602,7 +648,8 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         if (future != null && !future.isDone()) {
             future.cancel(true);
         }
-        refreshJob = scheduledExecutorService.scheduleWithFixedDelay(() -> performPresenceDetection(true), 0,
+        // the detection itself does not block the scheduler, its checks are performed by the engine
+        refreshJob = scheduledExecutorService.scheduleWithFixedDelay(() -> performPresenceDetection(false), 0,
                 refreshIntervalInMS, TimeUnit.MILLISECONDS);
     }
 
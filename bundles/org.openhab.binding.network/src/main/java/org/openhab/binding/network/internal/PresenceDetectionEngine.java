@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.network.internal.utils.BatchPinger;
+import org.openhab.binding.network.internal.utils.NioConnectChecker;
+import org.openhab.binding.network.internal.utils.PingResult;
+import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.core.config.core.Configuration;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link PresenceDetectionEngine} performs the checks of all presence detections of the binding.
+ *
+ * Blocking checks like ARP pings share one bounded executor, TCP connection attempts are multiplexed over a single
+ * selector thread and system pings are sent in batches with fping if it is available.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = PresenceDetectionEngine.class, configurationPid = "binding.network")
+public class PresenceDetectionEngine {
+    private static final long METRICS_INTERVAL_MINUTES = 1;
+
+    private final Logger logger = LoggerFactory.getLogger(PresenceDetectionEngine.class);
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final NioConnectChecker connectChecker;
+    private final PresenceDetectionMetrics metrics = new PresenceDetectionMetrics();
+    private final ScheduledFuture<?> metricsJob;
+    private final NetworkBindingConfiguration configuration = new NetworkBindingConfiguration();
+    private volatile @Nullable BatchPinger batchPinger;
+
+    @Activate
+    public PresenceDetectionEngine(Map<String, Object> config) throws IOException {
+        this(new Configuration(config).as(NetworkBindingConfiguration.class));
+    }
+
+    PresenceDetectionEngine(NetworkBindingConfiguration configuration) throws IOException {
+        this(configuration.presenceDetectionThreads.intValue(), configuration.fpingToolPath);
+        this.configuration.update(configuration);
+    }
+
+    public PresenceDetectionEngine(int threads, String fpingToolPath) throws IOException {
+        executor = new ScheduledThreadPoolExecutor(Math.max(1, threads),
+                new NamedThreadFactory("network-presence", true));
+        executor.setRemoveOnCancelPolicy(true);
+        connectChecker = new NioConnectChecker("OH-binding-network-connect");
+        metricsJob = executor.scheduleWithFixedDelay(this::logMetrics, METRICS_INTERVAL_MINUTES,
+                METRICS_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        setFpingToolPath(fpingToolPath);
+    }
+
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        NetworkBindingConfiguration newConfiguration = new Configuration(config).as(NetworkBindingConfiguration.class);
+        executor.setCorePoolSize(Math.max(1, newConfiguration.presenceDetectionThreads.intValue()));
+        setFpingToolPath(newConfiguration.fpingToolPath);
+        configuration.update(newConfiguration);
+    }
+
+    private void setFpingToolPath(String fpingToolPath) {
+        if (BatchPinger.isFpingAvailable(fpingToolPath)) {
+            logger.debug("Using {} to send system pings in batches", fpingToolPath);
+            batchPinger = new BatchPinger(executor, fpingToolPath);
+        } else {
+            batchPinger = null;
+        }
+    }
+
+    @Deactivate
+    public void dispose() {
+        metricsJob.cancel(false);
+        connectChecker.dispose();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a blocking check on the shared executor.
+     *
+     * @see #execute(Runnable, int, Executor)
+     */
+    public CompletableFuture<@Nullable Void> execute(Runnable check, int timeoutInMS) {
+        return execute(check, timeoutInMS, executor);
+    }
+
+    /**
+     * Runs a blocking check on the given executor. The timeout starts when the check starts running, so a check that
+     * waits for a free thread is not timed out before it had a chance to run. Completing or cancelling the returned
+     * future removes a waiting check from the executor or interrupts a running one.
+     *
+     * @param check The check to run
+     * @param timeoutInMS Time after which the returned future is completed although the check is still running
+     * @param checkExecutor The executor that runs the check
+     * @return A future that is completed when the check is finished or timed out
+     */
+    public CompletableFuture<@Nullable Void> execute(Runnable check, int timeoutInMS, Executor checkExecutor) {
+        CompletableFuture<@Nullable Void> result = new CompletableFuture<>();
+        FutureTask<@Nullable Void> task = new FutureTask<@Nullable Void>(() -> {
+            result.completeOnTimeout(null, timeoutInMS, TimeUnit.MILLISECONDS);
+            check.run();
+        }, null) {
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    // also a check that was drained from a stopped executor and never ran
+                    result.cancel(false);
+                    return;
+                }
+                try {
+                    get();
+                    result.complete(null);
+                } catch (ExecutionException e) {
+                    result.completeExceptionally(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        try {
+            checkExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        // a finished task ignores the cancellation, a stale one is removed or interrupted
+        result.whenComplete((r, e) -> task.cancel(true));
+        return result;
+    }
+
+    /**
+     * Returns the executor that is shared by all presence detections, e.g. for scheduling.
+     */
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Try to establish a tcp connection to the given port without blocking a thread.
+     *
+     * @param address The IP address
+     * @param port The tcp port. Must be not 0.
+     * @param timeout Timeout in ms
+     * @return A future for the ping result
+     */
+    public CompletableFuture<PingResult> servicePing(InetAddress address, int port, int timeout) {
+        return connectChecker.connect(new InetSocketAddress(address, port), timeout);
+    }
+
+    /**
+     * Return true if system pings can be sent in batches.
+     */
+    public boolean isBatchPingAvailable() {
+        return batchPinger != null;
+    }
+
+    /**
+     * Pings the given address together with all other addresses requested at about the same time.
+     *
+     * @param ipAddress The IPv4 or IPv6 address
+     * @param timeoutInMS Timeout in milliseconds
+     * @return A future for the ping result
+     * @throws IllegalStateException if batch pings are not available
+     */
+    public CompletableFuture<PingResult> batchPing(String ipAddress, int timeoutInMS) {
+        BatchPinger pinger = batchPinger;
+        if (pinger == null) {
+            throw new IllegalStateException("fping is not available");
+        }
+        return pinger.ping(ipAddress, timeoutInMS);
+    }
+
+    /**
+     * Returns the binding configuration the engine was configured with.
+     */
+    public NetworkBindingConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public PresenceDetectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void logMetrics() {
+        metrics.updateRate();
+        logger.debug("{}, queued checks: {}", metrics, executor.getQueue().size());
+    }
+}
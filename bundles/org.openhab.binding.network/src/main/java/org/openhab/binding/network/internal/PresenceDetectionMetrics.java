@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Counts the checks of all presence detections, together with a histogram of their latencies.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PresenceDetectionMetrics {
+    /** Upper bounds of the latency histogram buckets in ms, the last bucket counts all slower checks */
+    public static final double[] LATENCY_BUCKETS = { 1, 5, 10, 50, 100, 500, 1000, 5000 };
+
+    private final Map<PresenceDetectionType, AtomicLong> checks = new EnumMap<>(PresenceDetectionType.class);
+    private final Map<PresenceDetectionType, AtomicLong> successfulChecks = new EnumMap<>(
+            PresenceDetectionType.class);
+    private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS.length + 1);
+    private final AtomicLong totalChecks = new AtomicLong();
+
+    private long rateCheckCount;
+    private long rateTimestamp = System.nanoTime();
+    private volatile double checksPerSecond;
+
+    public PresenceDetectionMetrics() {
+        for (PresenceDetectionType type : PresenceDetectionType.values()) {
+            checks.put(type, new AtomicLong());
+            successfulChecks.put(type, new AtomicLong());
+        }
+    }
+
+    /**
+     * Records a finished check. The latency is only recorded for successful checks, as the time of a failed check is
+     * usually its timeout.
+     */
+    public void record(PresenceDetectionType type, boolean success, double latencyInMS) {
+        totalChecks.incrementAndGet();
+        checks.get(type).incrementAndGet();
+        if (success) {
+            successfulChecks.get(type).incrementAndGet();
+            int bucket = 0;
+            while (bucket < LATENCY_BUCKETS.length && latencyInMS > LATENCY_BUCKETS[bucket]) {
+                bucket++;
+            }
+            latencies.incrementAndGet(bucket);
+        }
+    }
+
+    public long getChecks(PresenceDetectionType type) {
+        return checks.get(type).get();
+    }
+
+    public long getSuccessfulChecks(PresenceDetectionType type) {
+        return successfulChecks.get(type).get();
+    }
+
+    public long getTotalChecks() {
+        return totalChecks.get();
+    }
+
+    /**
+     * Returns the number of successful checks per latency bucket, see {@link #LATENCY_BUCKETS}.
+     */
+    public long[] getLatencyHistogram() {
+        long[] result = new long[latencies.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = latencies.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the rate of checks between the last two calls of {@link #updateRate()}.
+     */
+    public double getChecksPerSecond() {
+        return checksPerSecond;
+    }
+
+    /**
+     * Calculates the rate of checks since the last call.
+     */
+    public synchronized void updateRate() {
+        long now = System.nanoTime();
+        long count = totalChecks.get();
+        if (now > rateTimestamp) {
+            checksPerSecond = (count - rateCheckCount) * 1_000_000_000.0 / (now - rateTimestamp);
+        }
+        rateCheckCount = count;
+        rateTimestamp = now;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("PresenceDetectionMetrics{checksPerSecond=")
+                .append(String.format("%.2f", checksPerSecond));
+        for (PresenceDetectionType type : PresenceDetectionType.values()) {
+            builder.append(", ").append(type).append('=').append(getSuccessfulChecks(type)).append('/')
+                    .append(getChecks(type));
+        }
+        builder.append(", latency={");
+        for (int i = 0; i < LATENCY_BUCKETS.length; i++) {
+            builder.append("<=").append((int) LATENCY_BUCKETS[i]).append("ms=").append(latencies.get(i)).append(", ");
+        }
+        builder.append('>').append((int) LATENCY_BUCKETS[LATENCY_BUCKETS.length - 1]).append("ms=")
+                .append(latencies.get(LATENCY_BUCKETS.length));
+        return builder.append("}}").toString();
+    }
+}
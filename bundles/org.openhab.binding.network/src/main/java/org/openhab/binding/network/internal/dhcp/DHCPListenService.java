@@ -13,7 +13,9 @@
 package org.openhab.binding.network.internal.dhcp;
 
 import java.net.SocketException;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -28,6 +30,7 @@ import org.slf4j.LoggerFactory;
  * after the receive socket is closed.
  * IPRequestReceivedCallback will be called for the address that is registered and matches the
  * DHO_DHCP_REQUESTED_ADDRESS address field.
+ * The addresses of the most recent requests are remembered to seed the discovery.
  *
  * @author David Graeff - Initial contribution
  */
@@ -36,6 +39,8 @@ public class DHCPListenService {
     static @Nullable DHCPPacketListenerServer instance;
     static Map<String, IPRequestReceivedCallback> registeredListeners = new TreeMap<>();
     static Logger logger = LoggerFactory.getLogger(DHCPListenService.class);
+    static final int MAX_RECENT_REQUESTS = 1024;
+    static final Set<String> recentRequests = new LinkedHashSet<>();
 
     @SuppressWarnings({ "null", "unused" })
     public static synchronized DHCPPacketListenerServer register(String hostAddress,
@@ -43,6 +48,7 @@ public class DHCPListenService {
         DHCPPacketListenerServer instance = DHCPListenService.instance;
         if (instance == null) {
             instance = new DHCPPacketListenerServer((String ipAddress) -> {
+                addRecentRequest(ipAddress);
                 IPRequestReceivedCallback listener = registeredListeners.get(ipAddress);
                 if (listener != null) {
                     listener.dhcpRequestReceived(ipAddress);
@@ -73,4 +79,24 @@ public class DHCPListenService {
         }
         DHCPListenService.instance = null;
     }
+
+    static void addRecentRequest(String ipAddress) {
+        synchronized (recentRequests) {
+            // re-insert to move the address to the end of the iteration order
+            recentRequests.remove(ipAddress);
+            recentRequests.add(ipAddress);
+            if (recentRequests.size() > MAX_RECENT_REQUESTS) {
+                recentRequests.remove(recentRequests.iterator().next());
+            }
+        }
+    }
+
+    /**
+     * Returns the addresses of the most recent DHCP requests, the latest last.
+     */
+    public static Set<String> getRecentRequests() {
+        synchronized (recentRequests) {
+            return new LinkedHashSet<>(recentRequests);
+        }
+    }
 }
@@ -16,11 +16,13 @@ import static org.openhab.binding.network.internal.NetworkBindingConstants.*;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -30,9 +32,12 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.network.internal.NetworkBindingConfiguration;
 import org.openhab.binding.network.internal.PresenceDetection;
+import org.openhab.binding.network.internal.PresenceDetectionEngine;
 import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
+import org.openhab.binding.network.internal.dhcp.DHCPListenService;
 import org.openhab.binding.network.internal.utils.NetworkUtils;
+import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.config.core.Configuration;
 import org.openhab.core.config.discovery.AbstractDiscoveryService;
 import org.openhab.core.config.discovery.DiscoveryResultBuilder;
@@ -42,6 +47,7 @@ import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,15 +55,20 @@ import org.slf4j.LoggerFactory;
  * The {@link NetworkDiscoveryService} is responsible for discovering devices on
  * the current Network. It uses every Network Interface which is connected to a network.
  * It tries common TCP ports to connect to, ICMP pings and ARP pings.
+ * In the fast discovery mode, all addresses are scanned concurrently by the {@link SubnetScanner}, starting with the
+ * hosts of the ARP table and the recent DHCP requests.
  *
  * @author Marc Mettke - Initial contribution
  * @author David Graeff - Rewritten
  */
 @NonNullByDefault
 @Component(service = DiscoveryService.class, configurationPid = "discovery.network")
-public class NetworkDiscoveryService extends AbstractDiscoveryService implements PresenceDetectionListener {
+public class NetworkDiscoveryService extends AbstractDiscoveryService
+        implements PresenceDetectionListener, SubnetScanner.Listener {
     static final int PING_TIMEOUT_IN_MS = 500;
     static final int MAXIMUM_IPS_PER_INTERFACE = 255;
+    // a /22 network
+    static final int FAST_MAXIMUM_IPS_PER_INTERFACE = 1024;
     private static final long DISCOVERY_RESULT_TTL = TimeUnit.MINUTES.toSeconds(10);
     private final Logger logger = LoggerFactory.getLogger(NetworkDiscoveryService.class);
 
@@ -68,13 +79,18 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
             .unmodifiableSet(Stream.of(80, 548, 554, 1025).collect(Collectors.toSet()));
     private AtomicInteger scannedIPcount = new AtomicInteger(0);
     private @Nullable ExecutorService executorService = null;
+    private @Nullable ExecutorService checkExecutorService = null;
+    private @Nullable SubnetScanner subnetScanner = null;
     private final NetworkBindingConfiguration configuration = new NetworkBindingConfiguration();
     private final NetworkUtils networkUtils = new NetworkUtils();
+    private final PresenceDetectionEngine presenceDetectionEngine;
 
-    public NetworkDiscoveryService() {
+    @Activate
+    public NetworkDiscoveryService(final @Reference PresenceDetectionEngine presenceDetectionEngine) {
         super(SUPPORTED_THING_TYPES_UIDS, (int) Math.round(
                 new NetworkUtils().getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE).size() * (PING_TIMEOUT_IN_MS / 1000.0)),
                 false);
+        this.presenceDetectionEngine = presenceDetectionEngine;
     }
 
     @Override
@@ -97,9 +113,11 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     @Override
     @Deactivate
     protected void deactivate() {
+        cancelSubnetScanner();
         if (executorService != null) {
             executorService.shutdown();
         }
+        shutdownCheckExecutor();
         super.deactivate();
     }
 
@@ -120,16 +138,37 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
     public void finalDetectionResult(PresenceDetectionValue value) {
     }
 
+    @Override
+    public void hostFound(String ip) {
+        newPingDevice(ip);
+    }
+
+    @Override
+    public void serviceFound(String ip, int port) {
+        newServiceDevice(ip, port);
+    }
+
     /**
      * Starts the DiscoveryThread for each IP on each interface on the network
      */
     @Override
     protected void startScan() {
+        NetworkBindingConfiguration bindingConfiguration = presenceDetectionEngine.getConfiguration();
+        if (bindingConfiguration.fastDiscovery) {
+            startFastScan(bindingConfiguration.discoveryConnectsPerSecond.intValue());
+            return;
+        }
         if (executorService == null) {
             executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
         }
+        // the checks of a discovery must not crowd out the presence detections of the things in the shared executor
+        if (checkExecutorService == null) {
+            checkExecutorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 4,
+                    new NamedThreadFactory("network-discovery"));
+        }
         final ExecutorService service = executorService;
-        if (service == null) {
+        final ExecutorService checkService = checkExecutorService;
+        if (service == null || checkService == null) {
             return;
         }
         removeOlderResults(getTimestampOfLastScan(), null);
@@ -139,7 +178,7 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
         scannedIPcount.set(0);
 
         for (String ip : networkIPs) {
-            final PresenceDetection s = new PresenceDetection(this, 2000);
+            final PresenceDetection s = new PresenceDetection(this, 2000, presenceDetectionEngine);
             s.setHostname(ip);
             s.setIOSDevice(true);
             s.setUseDhcpSniffing(false);
@@ -149,6 +188,7 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
             s.setUseArpPing(true, configuration.arpPingToolPath, configuration.arpPingUtilMethod);
             // TCP devices
             s.setServicePorts(tcpServicePorts);
+            s.setCheckExecutor(checkService);
 
             service.execute(() -> {
                 Thread.currentThread().setName("Discovery thread " + ip);
@@ -162,9 +202,41 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
         }
     }
 
+    private synchronized void startFastScan(int connectsPerSecond) {
+        cancelSubnetScanner();
+        removeOlderResults(getTimestampOfLastScan(), null);
+        logger.trace("Starting fast Network Device Discovery");
+
+        Set<String> knownHosts = new LinkedHashSet<>(networkUtils.getArpTableIPs());
+        knownHosts.addAll(DHCPListenService.getRecentRequests());
+        SubnetScanner scanner = new SubnetScanner(presenceDetectionEngine, this, connectsPerSecond,
+                PING_TIMEOUT_IN_MS);
+        subnetScanner = scanner;
+        scanner.scan(knownHosts, networkUtils.getNetworkIPs(FAST_MAXIMUM_IPS_PER_INTERFACE), tcpServicePorts)
+                // not run by the thread that completes the scan, which might hold the lock of the scanner
+                .thenRunAsync(() -> scanFinished(scanner), presenceDetectionEngine.getExecutor());
+    }
+
+    private synchronized void scanFinished(SubnetScanner scanner) {
+        // a cancelled scanner is no longer the current one
+        if (subnetScanner == scanner) {
+            logger.trace("Fast scan finished");
+            stopScan();
+        }
+    }
+
+    private synchronized void cancelSubnetScanner() {
+        final SubnetScanner scanner = subnetScanner;
+        subnetScanner = null;
+        if (scanner != null) {
+            scanner.cancel();
+        }
+    }
+
     @Override
     protected synchronized void stopScan() {
         super.stopScan();
+        cancelSubnetScanner();
         final ExecutorService service = executorService;
         if (service == null) {
             return;
@@ -177,6 +249,20 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
         }
         service.shutdown();
         executorService = null;
+        shutdownCheckExecutor();
+    }
+
+    private synchronized void shutdownCheckExecutor() {
+        final ExecutorService checkService = checkExecutorService;
+        checkExecutorService = null;
+        if (checkService != null) {
+            // cancelling the drained checks finishes the presence detections that wait for them
+            for (Runnable check : checkService.shutdownNow()) {
+                if (check instanceof Future) {
+                    ((Future<?>) check).cancel(false);
+                }
+            }
+        }
     }
 
     public static ThingUID createServiceUID(String ip, int tcpPort) {
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.network.internal.PresenceDetectionEngine;
+import org.openhab.binding.network.internal.PresenceDetectionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scans a whole range of addresses with non-blocking TCP connection attempts, which are started with a limited rate.
+ * If fping is available, every address is pinged in the same batches as well.
+ *
+ * Known hosts, e.g. from the ARP table, are reported immediately and are scanned first. Every reachable host and
+ * service is reported as soon as it answered.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SubnetScanner {
+    static final long TICK_MS = 20;
+
+    private final Logger logger = LoggerFactory.getLogger(SubnetScanner.class);
+
+    private final PresenceDetectionEngine engine;
+    private final Listener listener;
+    private final int connectsPerSecond;
+    private final int timeout;
+
+    private final Queue<Target> targets = new ArrayDeque<>();
+    private final Set<String> reportedHosts = new LinkedHashSet<>();
+    private final AtomicInteger pendingChecks = new AtomicInteger();
+    private final CompletableFuture<@Nullable Void> result = new CompletableFuture<>();
+    private double budget;
+    private @Nullable ScheduledFuture<?> tickJob;
+
+    /**
+     * Receives the results of a scan. Methods are called from different threads.
+     */
+    public interface Listener {
+        void hostFound(String ip);
+
+        void serviceFound(String ip, int port);
+    }
+
+    private static class Target {
+        final String ip;
+        final int port;
+
+        Target(String ip, int port) {
+            this.ip = ip;
+            this.port = port;
+        }
+    }
+
+    /**
+     * @param engine The engine that performs the checks
+     * @param listener The listener for reachable hosts and services
+     * @param connectsPerSecond The maximum rate of started connection attempts
+     * @param timeout The timeout of a single check in ms
+     */
+    public SubnetScanner(PresenceDetectionEngine engine, Listener listener, int connectsPerSecond, int timeout) {
+        this.engine = engine;
+        this.listener = listener;
+        this.connectsPerSecond = Math.max(1, connectsPerSecond);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Starts the scan. Can only be called once.
+     *
+     * @param knownHosts Hosts that are known to be present, they are reported immediately and scanned first
+     * @param ips All addresses to scan
+     * @param ports The TCP ports to try on every address
+     * @return A future that completes when all checks have finished
+     */
+    public synchronized CompletableFuture<@Nullable Void> scan(Collection<String> knownHosts, Collection<String> ips,
+            Collection<Integer> ports) {
+        // one check is held back until all targets are started, so that the scan cannot finish early
+        pendingChecks.incrementAndGet();
+        Set<String> orderedIps = new LinkedHashSet<>(knownHosts);
+        orderedIps.addAll(ips);
+        for (String ip : orderedIps) {
+            for (int port : ports) {
+                targets.add(new Target(ip, port));
+            }
+        }
+        knownHosts.forEach(this::reportHost);
+        if (engine.isBatchPingAvailable()) {
+            orderedIps.stream().filter(ip -> !knownHosts.contains(ip)).forEach(this::ping);
+        }
+        logger.debug("Scanning {} addresses with {} connection attempts", orderedIps.size(), targets.size());
+
+        tickJob = engine.getExecutor().scheduleAtFixedRate(this::tick, 0, TICK_MS, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    /**
+     * Stops to start new connection attempts. Checks which are already running are not interrupted.
+     */
+    public synchronized void cancel() {
+        targets.clear();
+        ScheduledFuture<?> job = tickJob;
+        if (job != null) {
+            job.cancel(false);
+        }
+        result.complete(null);
+    }
+
+    private synchronized void tick() {
+        // fractional rates accumulate over the ticks, but no burst is allowed after an idle period
+        budget = Math.min(budget + connectsPerSecond * TICK_MS / 1000.0, Math.max(1, connectsPerSecond / 10.0));
+        Target target;
+        while (budget >= 1 && (target = targets.poll()) != null) {
+            budget--;
+            connect(target);
+        }
+        ScheduledFuture<?> job = tickJob;
+        if (targets.isEmpty() && job != null) {
+            job.cancel(false);
+            tickJob = null;
+            checkFinished();
+        }
+    }
+
+    private void connect(Target target) {
+        InetAddress address;
+        try {
+            // the ip is an address literal, therefore no name lookup takes place
+            address = InetAddress.getByName(target.ip);
+        } catch (UnknownHostException e) {
+            return;
+        }
+        pendingChecks.incrementAndGet();
+        engine.servicePing(address, target.port, timeout).whenComplete((pingResult, e) -> {
+            if (pingResult != null) {
+                engine.getMetrics().record(PresenceDetectionType.TCP_CONNECTION, pingResult.isSuccess(),
+                        pingResult.getExecutionTimeInMS());
+                if (pingResult.isSuccess()) {
+                    listener.serviceFound(target.ip, target.port);
+                }
+            }
+            checkFinished();
+        });
+    }
+
+    private void ping(String ip) {
+        pendingChecks.incrementAndGet();
+        engine.batchPing(ip, timeout).whenComplete((pingResult, e) -> {
+            if (pingResult != null) {
+                engine.getMetrics().record(PresenceDetectionType.ICMP_PING, pingResult.isSuccess(),
+                        pingResult.getResponseTimeInMS().orElse(pingResult.getExecutionTimeInMS()));
+                if (pingResult.isSuccess()) {
+                    reportHost(ip);
+                }
+            }
+            checkFinished();
+        });
+    }
+
+    private void reportHost(String ip) {
+        synchronized (reportedHosts) {
+            if (!reportedHosts.add(ip)) {
+                return;
+            }
+        }
+        listener.hostFound(ip);
+    }
+
+    private void checkFinished() {
+        if (pendingChecks.decrementAndGet() == 0) {
+            result.complete(null);
+        }
+    }
+}
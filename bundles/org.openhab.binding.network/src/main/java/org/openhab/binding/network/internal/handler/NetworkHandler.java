@@ -27,6 +27,7 @@ import org.openhab.binding.network.internal.NetworkBindingConfigurationListener;
 import org.openhab.binding.network.internal.NetworkBindingConstants;
 import org.openhab.binding.network.internal.NetworkHandlerConfiguration;
 import org.openhab.binding.network.internal.PresenceDetection;
+import org.openhab.binding.network.internal.PresenceDetectionEngine;
 import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
 import org.openhab.binding.network.internal.WakeOnLanPacketSender;
@@ -66,6 +67,7 @@ public class NetworkHandler extends BaseThingHandler
 
     private boolean isTCPServiceDevice;
     private NetworkBindingConfiguration configuration;
+    private final PresenceDetectionEngine presenceDetectionEngine;
 
     // How many retries before a device is deemed offline
     int retries;
@@ -76,10 +78,12 @@ public class NetworkHandler extends BaseThingHandler
     /**
      * Do not call this directly, but use the {@see NetworkHandlerBuilder} instead.
      */
-    public NetworkHandler(Thing thing, boolean isTCPServiceDevice, NetworkBindingConfiguration configuration) {
+    public NetworkHandler(Thing thing, boolean isTCPServiceDevice, NetworkBindingConfiguration configuration,
+            PresenceDetectionEngine presenceDetectionEngine) {
         super(thing);
         this.isTCPServiceDevice = isTCPServiceDevice;
         this.configuration = configuration;
+        this.presenceDetectionEngine = presenceDetectionEngine;
         this.configuration.addNetworkBindingConfigurationListener(this);
     }
 
@@ -220,7 +224,8 @@ public class NetworkHandler extends BaseThingHandler
     // Create a new network service and apply all configurations.
     @Override
     public void initialize() {
-        initialize(new PresenceDetection(this, configuration.cacheDeviceStateTimeInMS.intValue()));
+        initialize(new PresenceDetection(this, configuration.cacheDeviceStateTimeInMS.intValue(),
+                presenceDetectionEngine));
     }
 
     /**
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.net.exec.ExecUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pings many hosts with a single invocation of the fping tool instead of forking one ping process per host.
+ *
+ * Ping requests are collected for a short time and then sent as one batch per timeout value. A request for a host that
+ * is already part of the pending batch shares its result.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class BatchPinger {
+    static final long BATCH_DELAY_MS = 50;
+    static final int MAX_BATCH_SIZE = 256;
+    // fping sends the packets to the targets of a batch 10 ms apart by default
+    private static final long INTERVAL_PER_HOST_MS = 10;
+
+    private static final Pattern ALIVE_PATTERN = Pattern.compile("^(\\S+) is alive(?: \\(([\\d.]+) ms\\))?");
+
+    private final Logger logger = LoggerFactory.getLogger(BatchPinger.class);
+
+    private final ScheduledExecutorService executor;
+    private final String fpingPath;
+    private final Map<Integer, Map<String, Request>> pending = new HashMap<>();
+
+    private static class Request {
+        final long startNanos = System.nanoTime();
+        final CompletableFuture<PingResult> result = new CompletableFuture<>();
+    }
+
+    public BatchPinger(ScheduledExecutorService executor, String fpingPath) {
+        this.executor = executor;
+        this.fpingPath = fpingPath;
+    }
+
+    /**
+     * Return true if the fping tool is available and executable on the given path.
+     */
+    public static boolean isFpingAvailable(String fpingPath) {
+        if (fpingPath.isBlank()) {
+            return false;
+        }
+        String result = ExecUtil.executeCommandLineAndWaitResponse(Duration.ofMillis(1000), fpingPath, "-v");
+        return result != null && result.contains("fping");
+    }
+
+    /**
+     * Pings the given address as part of the next batch.
+     *
+     * @param ipAddress The IPv4 or IPv6 address
+     * @param timeoutInMS Timeout in milliseconds
+     * @return A future for the ping result
+     */
+    public CompletableFuture<PingResult> ping(String ipAddress, int timeoutInMS) {
+        synchronized (pending) {
+            Map<String, Request> batch = pending.get(timeoutInMS);
+            if (batch == null) {
+                batch = new LinkedHashMap<>();
+                pending.put(timeoutInMS, batch);
+                executor.schedule(() -> flush(timeoutInMS), BATCH_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+            return batch.computeIfAbsent(ipAddress, a -> new Request()).result;
+        }
+    }
+
+    private void flush(int timeoutInMS) {
+        Map<String, Request> batch;
+        synchronized (pending) {
+            batch = pending.remove(timeoutInMS);
+        }
+        if (batch == null) {
+            return;
+        }
+        List<String> hosts = new ArrayList<>(batch.keySet());
+        for (int from = 0; from < hosts.size(); from += MAX_BATCH_SIZE) {
+            List<String> part = hosts.subList(from, Math.min(hosts.size(), from + MAX_BATCH_SIZE));
+            try {
+                execute(part, batch, timeoutInMS);
+            } catch (IOException e) {
+                logger.debug("Failed to execute fping: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // hosts that fping did not report on are unreachable
+        batch.values().forEach(request -> complete(request, false, null));
+    }
+
+    private void execute(List<String> hosts, Map<String, Request> batch, int timeoutInMS)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(hosts.size() + 7);
+        command.add(fpingPath);
+        command.add("-e"); // show the round trip time
+        command.add("-r");
+        command.add("0"); // no retries
+        command.add("-t");
+        command.add(String.valueOf(timeoutInMS));
+        command.addAll(hosts);
+        logger.trace("Pinging {} hosts with fping", hosts.size());
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            // fping prints the line of a host as soon as its reply arrived
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = ALIVE_PATTERN.matcher(line);
+                if (matcher.find()) {
+                    Request request = batch.get(matcher.group(1));
+                    if (request != null) {
+                        String responseTime = matcher.group(2);
+                        complete(request, true, responseTime == null ? null : Double.valueOf(responseTime));
+                    }
+                }
+            }
+        } finally {
+            if (!process.waitFor(timeoutInMS + hosts.size() * INTERVAL_PER_HOST_MS + 1000, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void complete(Request request, boolean success, @Nullable Double responseTimeInMS) {
+        if (request.result.isDone()) {
+            return;
+        }
+        PingResult result = new PingResult(success, (System.nanoTime() - request.startNanos) / 1_000_000.0);
+        if (responseTimeInMS != null) {
+            result.setResponseTimeInMS(responseTimeInMS);
+        }
+        request.result.complete(result);
+    }
+}
@@ -15,23 +15,23 @@ package org.openhab.binding.network.internal.utils;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.net.ConnectException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.Inet4Address;
 import java.net.InetAddress;
-import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
-import java.net.NoRouteToHostException;
 import java.net.PortUnreachableException;
-import java.net.Socket;
-import java.net.SocketAddress;
 import java.net.SocketException;
-import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -53,6 +53,10 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class NetworkUtils {
+    private static final Path ARP_TABLE = Paths.get("/proc/net/arp");
+    // the ARP table flag of entries with a resolved hardware address
+    private static final int ARP_FLAG_COMPLETE = 0x2;
+
     private final Logger logger = LoggerFactory.getLogger(NetworkUtils.class);
 
     private LatencyParser latencyParser = new LatencyParser();
@@ -146,28 +150,6 @@ public class NetworkUtils {
         return networkIPs;
     }
 
-    /**
-     * Try to establish a tcp connection to the given port. Returns false if a timeout occurred
-     * or the connection was denied.
-     *
-     * @param host The IP or hostname
-     * @param port The tcp port. Must be not 0.
-     * @param timeout Timeout in ms
-     * @return Ping result information. Optional is empty if ping command was not executed.
-     * @throws IOException
-     */
-    public Optional<PingResult> servicePing(String host, int port, int timeout) throws IOException {
-        double execStartTimeInMS = System.currentTimeMillis();
-
-        SocketAddress socketAddress = new InetSocketAddress(host, port);
-        try (Socket socket = new Socket()) {
-            socket.connect(socketAddress, timeout);
-            return Optional.of(new PingResult(true, System.currentTimeMillis() - execStartTimeInMS));
-        } catch (ConnectException | SocketTimeoutException | NoRouteToHostException ignored) {
-            return Optional.of(new PingResult(false, System.currentTimeMillis() - execStartTimeInMS));
-        }
-    }
-
     /**
      * Return the working method for the native system ping. If no native ping
      * works JavaPing is returned.
@@ -373,4 +355,47 @@ public class NetworkUtils {
             // We ignore the port unreachable error
         }
     }
+
+    /**
+     * Returns the IPv4 addresses of all neighbours in the ARP table of the operating system. Only the ARP table of
+     * Linux is supported.
+     *
+     * @return The addresses with a resolved hardware address or an empty set if the ARP table is not available
+     */
+    public Set<String> getArpTableIPs() {
+        try {
+            return parseArpTable(Files.readAllLines(ARP_TABLE, StandardCharsets.US_ASCII));
+        } catch (NoSuchFileException e) {
+            return Set.of();
+        } catch (IOException e) {
+            logger.debug("Failed to read the ARP table: {}", e.getMessage());
+            return Set.of();
+        }
+    }
+
+    /**
+     * Parses the lines of /proc/net/arp, e.g.:
+     *
+     * <pre>
+     * IP address       HW type     Flags       HW address            Mask     Device
+     * 192.168.0.1      0x1         0x2         00:11:22:33:44:55     *        eth0
+     * </pre>
+     */
+    static Set<String> parseArpTable(List<String> lines) {
+        Set<String> result = new LinkedHashSet<>();
+        // the first line is the header
+        for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+            String[] columns = line.trim().split("\\s+");
+            if (columns.length < 4) {
+                continue;
+            }
+            try {
+                if ((Integer.decode(columns[2]) & ARP_FLAG_COMPLETE) != 0 && !"00:00:00:00:00:00".equals(columns[3])) {
+                    result.add(columns[0]);
+                }
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return result;
+    }
 }
@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Performs TCP connection attempts ("port knocks") without blocking a thread per attempt. All pending connects are
+ * multiplexed over a single {@link Selector} served by one thread.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class NioConnectChecker implements Runnable {
+    private final Logger logger = LoggerFactory.getLogger(NioConnectChecker.class);
+
+    private final Selector selector;
+    private final Queue<PendingConnect> newConnects = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private static class PendingConnect {
+        final SocketChannel channel;
+        final CompletableFuture<PingResult> result;
+        final long startNanos;
+        final long deadlineNanos;
+
+        PendingConnect(SocketChannel channel, CompletableFuture<PingResult> result, long startNanos,
+                long deadlineNanos) {
+            this.channel = channel;
+            this.result = result;
+            this.startNanos = startNanos;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        void complete(boolean success) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            result.complete(new PingResult(success, elapsedMillis(startNanos)));
+        }
+    }
+
+    public NioConnectChecker(String threadName) throws IOException {
+        selector = Selector.open();
+        thread = new Thread(this, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Try to establish a tcp connection to the given address. The result is not successful if a timeout occurred or
+     * the connection was denied.
+     *
+     * @param address The IP address and port
+     * @param timeout Timeout in ms
+     * @return A future for the ping result, completed exceptionally if the connection attempt could not be started
+     */
+    public CompletableFuture<PingResult> connect(InetSocketAddress address, int timeout) {
+        CompletableFuture<PingResult> result = new CompletableFuture<>();
+        long start = System.nanoTime();
+        if (!running) {
+            result.complete(new PingResult(false, 0));
+            return result;
+        }
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            PendingConnect pending = new PendingConnect(channel, result, start,
+                    start + TimeUnit.MILLISECONDS.toNanos(timeout));
+            if (channel.connect(address)) {
+                pending.complete(true);
+            } else {
+                newConnects.add(pending);
+                selector.wakeup();
+            }
+        } catch (IOException e) {
+            // ConnectException, NoRouteToHostException and the like are thrown immediately on some systems
+            logger.trace("Connecting to {} failed: {}", address, e.getMessage());
+            closeQuietly(channel);
+            result.complete(new PingResult(false, elapsedMillis(start)));
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                registerNewConnects();
+                long now = System.nanoTime();
+                long nextDeadline = expireConnects(now);
+                long waitMillis = nextDeadline == Long.MAX_VALUE ? 0
+                        : Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextDeadline - now));
+                selector.select(waitMillis);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    finishConnect(key);
+                }
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Unexpected error while checking TCP connections: {}", e.getMessage());
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            PendingConnect pending = (PendingConnect) key.attachment();
+            if (pending != null) {
+                pending.complete(false);
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+        }
+        failNewConnects();
+    }
+
+    private void registerNewConnects() {
+        PendingConnect pending;
+        while ((pending = newConnects.poll()) != null) {
+            try {
+                pending.channel.register(selector, SelectionKey.OP_CONNECT, pending);
+            } catch (IOException e) {
+                pending.complete(false);
+            }
+        }
+    }
+
+    private void failNewConnects() {
+        PendingConnect pending;
+        while ((pending = newConnects.poll()) != null) {
+            pending.complete(false);
+        }
+    }
+
+    /**
+     * Completes all connects that ran into their timeout.
+     *
+     * @return the earliest deadline of the remaining connects or {@link Long#MAX_VALUE} if there are none
+     */
+    private long expireConnects(long now) {
+        long nextDeadline = Long.MAX_VALUE;
+        for (SelectionKey key : selector.keys()) {
+            PendingConnect pending = (PendingConnect) key.attachment();
+            if (pending == null || !key.isValid()) {
+                continue;
+            }
+            if (now - pending.deadlineNanos >= 0) {
+                key.cancel();
+                pending.complete(false);
+            } else if (pending.deadlineNanos < nextDeadline) {
+                nextDeadline = pending.deadlineNanos;
+            }
+        }
+        return nextDeadline;
+    }
+
+    private void finishConnect(SelectionKey key) {
+        PendingConnect pending = (PendingConnect) key.attachment();
+        if (pending == null) {
+            return;
+        }
+        key.cancel();
+        boolean success;
+        try {
+            success = pending.channel.finishConnect();
+        } catch (IOException e) {
+            success = false;
+        }
+        pending.complete(success);
+    }
+
+    /**
+     * Stops the selector thread. Pending connects are completed as unsuccessful.
+     */
+    public void dispose() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failNewConnects();
+    }
+
+    private static double elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+
+    private static void closeQuietly(@Nullable SocketChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
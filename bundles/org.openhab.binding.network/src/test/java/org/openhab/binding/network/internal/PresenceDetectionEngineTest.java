@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests cases for {@link PresenceDetectionEngine}
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceDetectionEngineTest {
+    private PresenceDetectionEngine engine;
+    private ExecutorService checkExecutor;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        engine = new PresenceDetectionEngine(1, "");
+        checkExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        checkExecutor.shutdownNow();
+        engine.dispose();
+    }
+
+    @Test
+    public void timeoutStartsWhenTheCheckRuns() throws Exception {
+        CountDownLatch finishFirstCheck = new CountDownLatch(1);
+        CompletableFuture<@Nullable Void> first = engine.execute(() -> await(finishFirstCheck), 5000, checkExecutor);
+        AtomicBoolean secondCheckRan = new AtomicBoolean();
+        CompletableFuture<@Nullable Void> second = engine.execute(() -> secondCheckRan.set(true), 100,
+                checkExecutor);
+
+        // the second check waits for the thread longer than its timeout, but is not timed out
+        Thread.sleep(300);
+        assertFalse(second.isDone());
+
+        finishFirstCheck.countDown();
+        first.get(1, TimeUnit.SECONDS);
+        second.get(1, TimeUnit.SECONDS);
+        assertTrue(secondCheckRan.get());
+    }
+
+    @Test
+    public void staleCheckIsInterrupted() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<@Nullable Void> check = engine.execute(() -> {
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        }, 100, checkExecutor);
+
+        check.get(1, TimeUnit.SECONDS);
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void cancelledCheckDoesNotRun() throws Exception {
+        CountDownLatch finishFirstCheck = new CountDownLatch(1);
+        engine.execute(() -> await(finishFirstCheck), 5000, checkExecutor);
+        AtomicBoolean secondCheckRan = new AtomicBoolean();
+        CompletableFuture<@Nullable Void> second = engine.execute(() -> secondCheckRan.set(true), 5000,
+                checkExecutor);
+
+        second.cancel(true);
+        finishFirstCheck.countDown();
+        checkExecutor.shutdown();
+        assertTrue(checkExecutor.awaitTermination(1, TimeUnit.SECONDS));
+        assertFalse(secondCheckRan.get());
+    }
+
+    @Test
+    public void drainedCheckIsCancelled() {
+        CountDownLatch finishFirstCheck = new CountDownLatch(1);
+        engine.execute(() -> await(finishFirstCheck), 5000, checkExecutor);
+        CompletableFuture<@Nullable Void> second = engine.execute(() -> {
+        }, 5000, checkExecutor);
+
+        checkExecutor.shutdownNow().forEach(check -> ((Future<?>) check).cancel(false));
+        assertTrue(second.isCancelled());
+    }
+
+    @Test
+    public void failedCheckFailsTheFuture() {
+        CompletableFuture<@Nullable Void> check = engine.execute(() -> {
+            throw new IllegalStateException("failed");
+        }, 5000, checkExecutor);
+
+        assertThrows(Exception.class, () -> check.get(1, TimeUnit.SECONDS));
+        assertTrue(check.isCompletedExceptionally());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
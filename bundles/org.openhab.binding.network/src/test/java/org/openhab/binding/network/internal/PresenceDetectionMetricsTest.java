@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests cases for {@link PresenceDetectionMetrics}
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceDetectionMetricsTest {
+
+    @Test
+    public void checksAndLatenciesAreCounted() {
+        PresenceDetectionMetrics metrics = new PresenceDetectionMetrics();
+        metrics.record(PresenceDetectionType.ICMP_PING, true, 0.5);
+        metrics.record(PresenceDetectionType.ICMP_PING, true, 7);
+        metrics.record(PresenceDetectionType.TCP_CONNECTION, false, 5000);
+        metrics.record(PresenceDetectionType.ARP_PING, true, 10000);
+
+        assertThat(metrics.getTotalChecks(), is(4L));
+        assertThat(metrics.getChecks(PresenceDetectionType.ICMP_PING), is(2L));
+        assertThat(metrics.getSuccessfulChecks(PresenceDetectionType.TCP_CONNECTION), is(0L));
+
+        long[] histogram = metrics.getLatencyHistogram();
+        assertThat(histogram[0], is(1L)); // <= 1 ms
+        assertThat(histogram[2], is(1L)); // <= 10 ms
+        assertThat(histogram[histogram.length - 1], is(1L)); // > 5000 ms
+    }
+}
@@ -19,10 +19,12 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
-import java.net.UnknownHostException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.util.Collections;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -53,20 +55,21 @@ public class PresenceDetectionTest {
     private static final long CACHETIME = 2000L;
 
     private PresenceDetection subject;
+    private PresenceDetectionEngine engine;
 
     private @Mock Consumer<PresenceDetectionValue> callback;
-    private @Mock ExecutorService executorService;
     private @Mock PresenceDetectionListener listener;
     private @Mock NetworkUtils networkUtils;
 
     @BeforeEach
-    public void setUp() throws UnknownHostException {
+    public void setUp() throws IOException {
         // Mock an interface
         when(networkUtils.getInterfaceNames()).thenReturn(Collections.singleton("TESTinterface"));
         doReturn(ArpPingUtilEnum.IPUTILS_ARPING).when(networkUtils).determineNativeARPpingMethod(anyString());
         doReturn(IpPingMethodEnum.WINDOWS_PING).when(networkUtils).determinePingMethod();
 
-        subject = spy(new PresenceDetection(listener, (int) CACHETIME));
+        engine = new PresenceDetectionEngine(2, "");
+        subject = spy(new PresenceDetection(listener, (int) CACHETIME, engine));
         subject.networkUtils = networkUtils;
         subject.cache = spy(new ExpiringCacheAsync<>(CACHETIME, () -> {
             subject.performPresenceDetection(false);
@@ -87,28 +90,37 @@ public class PresenceDetectionTest {
     @AfterEach
     public void shutDown() {
         subject.waitForPresenceDetection();
+        engine.dispose();
     }
 
-    // Depending on the amount of test methods an according amount of threads is spawned.
-    // We will check if they spawn and return in time.
+    // Depending on the amount of test methods an according amount of checks is performed.
+    // We will check if they are started and finished in time.
     @Test
-    public void threadCountTest() {
-        assertNull(subject.executorService);
-
-        doNothing().when(subject).performARPping(any());
+    public void checkCountTest() throws InterruptedException {
+        assertNull(subject.detectionResult);
+
+        CountDownLatch arpPingStarted = new CountDownLatch(1);
+        CountDownLatch finishArpPing = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            arpPingStarted.countDown();
+            finishArpPing.await();
+            return null;
+        }).when(subject).performARPping(any());
         doNothing().when(subject).performJavaPing();
-        doNothing().when(subject).performSystemPing();
-        doNothing().when(subject).performServicePing(anyInt());
+        doReturn(CompletableFuture.completedFuture(null)).when(subject).performSystemPing();
+        doReturn(CompletableFuture.completedFuture(null)).when(subject).performServicePing(anyInt());
 
         subject.performPresenceDetection(false);
 
-        // Thread count: ARP + ICMP + 1*TCP
+        // Check count: ARP + ICMP + 1*TCP
         assertThat(subject.detectionChecks, is(3));
-        assertNotNull(subject.executorService);
+        assertNotNull(subject.detectionResult);
+        assertTrue(arpPingStarted.await(1, TimeUnit.SECONDS));
 
+        finishArpPing.countDown();
         subject.waitForPresenceDetection();
         assertThat(subject.detectionChecks, is(0));
-        assertNull(subject.executorService);
+        assertNull(subject.detectionResult);
     }
 
     @Test
@@ -117,10 +129,12 @@ public class PresenceDetectionTest {
                 anyString(), anyInt());
         doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils)
                 .nativeARPPing(eq(ArpPingUtilEnum.IPUTILS_ARPING), anyString(), anyString(), any(), anyInt());
-        doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).servicePing(anyString(), anyInt(), anyInt());
 
-        assertTrue(subject.performPresenceDetection(false));
-        subject.waitForPresenceDetection();
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"))) {
+            subject.setServicePorts(Collections.singleton(serverSocket.getLocalPort()));
+            assertTrue(subject.performPresenceDetection(false));
+            subject.waitForPresenceDetection();
+        }
 
         verify(subject, times(0)).performJavaPing();
         verify(subject).performSystemPing();
@@ -135,30 +149,52 @@ public class PresenceDetectionTest {
     }
 
     @Test
-    public void cacheTest() throws InterruptedException, IOException {
-        doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).nativePing(eq(IpPingMethodEnum.WINDOWS_PING),
-                anyString(), anyInt());
-        doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils)
-                .nativeARPPing(eq(ArpPingUtilEnum.IPUTILS_ARPING), anyString(), anyString(), any(), anyInt());
-        doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).servicePing(anyString(), anyInt(), anyInt());
+    public void slowCheckDoesNotHideFastResult() throws InterruptedException, IOException {
+        // the TCP check succeeds immediately, the ARP ping finishes long after the timeout of 300 ms
+        doAnswer(invocation -> {
+            subject.updateReachableValue(PresenceDetectionType.TCP_CONNECTION, 1);
+            return CompletableFuture.completedFuture(null);
+        }).when(subject).performServicePing(anyInt());
+        doAnswer(invocation -> {
+            Thread.sleep(700);
+            return null;
+        }).when(subject).performARPping(any());
+        doReturn(CompletableFuture.completedFuture(null)).when(subject).performSystemPing();
+
+        assertTrue(subject.performPresenceDetection(true));
 
-        doReturn(executorService).when(subject).getThreadsFor(anyInt());
+        ArgumentCaptor<PresenceDetectionValue> capture = ArgumentCaptor.forClass(PresenceDetectionValue.class);
+        verify(listener).finalDetectionResult(capture.capture());
+        assertTrue(capture.getValue().isReachable());
+        assertThat(capture.getValue().getSuccessfulDetectionTypes(), is("TCP_CONNECTION"));
+    }
+
+    @Test
+    public void cacheTest() throws InterruptedException, IOException {
+        // The checks are held back until the test lets them finish
+        CountDownLatch finishChecks = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            finishChecks.await();
+            return Optional.of(new PingResult(true, 10));
+        }).when(networkUtils).nativePing(eq(IpPingMethodEnum.WINDOWS_PING), anyString(), anyInt());
+        doAnswer(invocation -> {
+            finishChecks.await();
+            return Optional.of(new PingResult(true, 10));
+        }).when(networkUtils).nativeARPPing(eq(ArpPingUtilEnum.IPUTILS_ARPING), anyString(), anyString(), any(),
+                anyInt());
+        subject.setServicePorts(Collections.emptySet());
 
         // We expect no valid value
         assertTrue(subject.cache.isExpired());
         // Get value will issue a PresenceDetection internally.
         subject.getValue(callback);
         verify(subject).performPresenceDetection(eq(false));
-        assertNotNull(subject.executorService);
+        assertNotNull(subject.detectionResult);
         // There should be no straight callback yet
         verify(callback, times(0)).accept(any());
 
-        // Perform the different presence detection threads now
-        ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
-        verify(executorService, times(3)).execute(capture.capture());
-        for (Runnable r : capture.getAllValues()) {
-            r.run();
-        }
+        // Perform the different presence detection checks now
+        finishChecks.countDown();
         // "Wait" for the presence detection to finish
         subject.waitForPresenceDetection();
 
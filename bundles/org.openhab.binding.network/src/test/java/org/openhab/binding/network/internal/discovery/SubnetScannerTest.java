@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.network.internal.PresenceDetectionEngine;
+
+/**
+ * Tests the rate limited scan of the {@link SubnetScanner}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SubnetScannerTest {
+    private static final String IP = "127.0.0.1";
+
+    private PresenceDetectionEngine engine;
+    private SubnetScanner.Listener listener;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        engine = new PresenceDetectionEngine(2, "");
+        listener = mock(SubnetScanner.Listener.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        engine.dispose();
+    }
+
+    @Test
+    public void reachableServicesAreReported() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName(IP))) {
+            int openPort = serverSocket.getLocalPort();
+            int closedPort;
+            try (ServerSocket closedSocket = new ServerSocket(0, 1, InetAddress.getByName(IP))) {
+                closedPort = closedSocket.getLocalPort();
+            }
+            SubnetScanner scanner = new SubnetScanner(engine, listener, 100, 1000);
+            scanner.scan(Set.of(), List.of(IP), List.of(openPort, closedPort)).get(5, TimeUnit.SECONDS);
+
+            verify(listener).serviceFound(IP, openPort);
+            verify(listener, never()).serviceFound(IP, closedPort);
+            verify(listener, never()).hostFound(anyString());
+        }
+    }
+
+    @Test
+    public void knownHostsAreReportedOnce() throws Exception {
+        SubnetScanner scanner = new SubnetScanner(engine, listener, 100, 1000);
+        scanner.scan(Set.of(IP), List.of(IP), List.of()).get(5, TimeUnit.SECONDS);
+
+        verify(listener, times(1)).hostFound(IP);
+    }
+
+    @Test
+    public void connectsAreRateLimitedUntilCancelled() throws Exception {
+        SubnetScanner scanner = new SubnetScanner(engine, listener, 1, 1000);
+        CompletableFuture<?> result = scanner.scan(Set.of(), List.of(IP), List.of(1, 2, 3, 4));
+
+        // with one connect per second the four connects cannot be started within half a second
+        Thread.sleep(500);
+        assertFalse(result.isDone());
+        scanner.cancel();
+        assertTrue(result.isDone());
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the parsing of the ARP table by the {@link NetworkUtils}.
+ *
+ * @author agent - Initial contribution
+ */
+public class NetworkUtilsTest {
+
+    @Test
+    public void completeArpEntriesAreParsed() {
+        List<String> lines = List.of(
+                "IP address       HW type     Flags       HW address            Mask     Device",
+                "192.168.0.1      0x1         0x2         00:11:22:33:44:55     *        eth0",
+                "192.168.0.17     0x1         0x0         00:00:00:00:00:00     *        eth0",
+                "192.168.0.23     0x1         0x6         66:77:88:99:aa:bb     *        eth0");
+
+        assertEquals(Set.of("192.168.0.1", "192.168.0.23"), NetworkUtils.parseArpTable(lines));
+    }
+
+    @Test
+    public void emptyArpTableIsParsed() {
+        assertTrue(NetworkUtils.parseArpTable(List.of()).isEmpty());
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the non-blocking TCP connection attempts of the {@link NioConnectChecker}.
+ *
+ * @author agent - Initial contribution
+ */
+public class NioConnectCheckerTest {
+    private NioConnectChecker checker;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        checker = new NioConnectChecker("NioConnectCheckerTest");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        checker.dispose();
+    }
+
+    @Test
+    public void openPortIsReachable() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"))) {
+            PingResult result = checker
+                    .connect(new InetSocketAddress("127.0.0.1", serverSocket.getLocalPort()), 1000)
+                    .get(2, TimeUnit.SECONDS);
+            assertTrue(result.isSuccess());
+        }
+    }
+
+    @Test
+    public void closedPortIsNotReachable() throws Exception {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"))) {
+            port = serverSocket.getLocalPort();
+        }
+        PingResult result = checker.connect(new InetSocketAddress("127.0.0.1", port), 1000).get(2,
+                TimeUnit.SECONDS);
+        assertFalse(result.isSuccess());
+    }
+
+    @Test
+    public void connectsFailAfterDispose() throws Exception {
+        checker.dispose();
+        PingResult result = checker.connect(new InetSocketAddress("127.0.0.1", 1), 1000).get(2, TimeUnit.SECONDS);
+        assertFalse(result.isSuccess());
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
+import org.openhab.core.thing.ThingUID;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The {@link AddonMetrics} service allows bindings, persistence services and other add-ons to register their own
+ * metrics, e.g. poll durations or queue depths. The meters are exported together with the openHAB core metrics.
+ *
+ * Meters should be tagged with {@link #thingTags(ThingUID)} or {@link #serviceTags(String)} and be removed with
+ * {@link #remove(Tags)} when the thing or service is disposed. Meter names are prefixed with "openhab.".
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = AddonMetrics.class)
+public class AddonMetrics {
+    public static final String TAG_THING = "thing";
+    public static final String TAG_BINDING = "binding";
+    public static final String TAG_SERVICE = "service";
+
+    private static final String NAME_PREFIX = "openhab.";
+
+    private final MeterRegistry meterRegistry;
+    private final Set<Meter.Id> meterIds = ConcurrentHashMap.newKeySet();
+
+    @Activate
+    public AddonMetrics(final @Reference MeterRegistryProvider meterRegistryProvider) {
+        this.meterRegistry = meterRegistryProvider.getOHMeterRegistry();
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        meterIds.forEach(meterRegistry::remove);
+        meterIds.clear();
+    }
+
+    /**
+     * Returns the tags of the given thing and its binding.
+     */
+    public static Tags thingTags(ThingUID thingUID) {
+        return Tags.of(TAG_THING, thingUID.getAsString(), TAG_BINDING, thingUID.getBindingId());
+    }
+
+    /**
+     * Returns the tags of a service, e.g. the id of a persistence service.
+     */
+    public static Tags serviceTags(String serviceId) {
+        return Tags.of(TAG_SERVICE, serviceId);
+    }
+
+    /**
+     * Returns the counter with the given name and tags, it is created if it does not exist yet.
+     */
+    public Counter counter(String name, Tags tags) {
+        return register(Counter.builder(prefixed(name)).tags(tags).register(meterRegistry));
+    }
+
+    /**
+     * Returns the timer with the given name and tags, it is created if it does not exist yet.
+     */
+    public Timer timer(String name, Tags tags) {
+        return register(Timer.builder(prefixed(name)).tags(tags).register(meterRegistry));
+    }
+
+    /**
+     * Registers a gauge which reports the value of the given function. Only a weak reference to the object is kept.
+     */
+    public <T> Gauge gauge(String name, Tags tags, T object, ToDoubleFunction<T> function) {
+        return register(Gauge.builder(prefixed(name), object, function).tags(tags).register(meterRegistry));
+    }
+
+    /**
+     * Removes all meters registered by this service which carry all the given tags.
+     */
+    public void remove(Tags tags) {
+        meterIds.removeIf(id -> {
+            for (Tag tag : tags) {
+                if (!tag.getValue().equals(id.getTag(tag.getKey()))) {
+                    return false;
+                }
+            }
+            meterRegistry.remove(id);
+            return true;
+        });
+    }
+
+    private <M extends Meter> M register(M meter) {
+        meterIds.add(meter.getId());
+        return meter;
+    }
+
+    private static String prefixed(String name) {
+        return name.startsWith(NAME_PREFIX) ? name : NAME_PREFIX + name;
+    }
+}
@@ -28,12 +28,30 @@ public class MetricsConfiguration {
     public @Nullable String influxPassword = null;
     public @Nullable String influxUsername = null;
     public Integer influxUpdateIntervalInSeconds = 300;
+    public Integer prometheusScrapeMaxAgeInSeconds = 5;
+    public boolean remoteWriteMetricsEnabled = false;
+    public String remoteWriteURL = "http://localhost:9090/api/v1/write";
+    public Integer remoteWriteUpdateIntervalInSeconds = 60;
+    public boolean otlpMetricsEnabled = false;
+    public String otlpURL = "http://localhost:4318/v1/metrics";
+    public Integer otlpUpdateIntervalInSeconds = 60;
+    public Integer pushBatchSize = 1000;
+    public Integer pushQueueSize = 100;
+    public boolean jmxMetricsEnabled = false;
+    public String jmxDomain = "openhab";
+    public Integer jmxUpdateIntervalInSeconds = 60;
 
     @Override
     public String toString() {
         return "MetricsConfiguration{" + "influxMetricsEnabled=" + influxMetricsEnabled + ", influxURL='" + influxURL
                 + '\'' + ", influxDB='" + influxDB + '\'' + ", influxPassword='" + influxPassword + '\''
                 + ", influxUsername='" + influxUsername + '\'' + ", influxUpdateIntervalInSeconds="
-                + influxUpdateIntervalInSeconds + '}';
+                + influxUpdateIntervalInSeconds + ", prometheusScrapeMaxAgeInSeconds=" + prometheusScrapeMaxAgeInSeconds
+                + ", remoteWriteMetricsEnabled=" + remoteWriteMetricsEnabled + ", remoteWriteURL='" + remoteWriteURL
+                + '\'' + ", remoteWriteUpdateIntervalInSeconds=" + remoteWriteUpdateIntervalInSeconds
+                + ", otlpMetricsEnabled=" + otlpMetricsEnabled + ", otlpURL='" + otlpURL + '\''
+                + ", otlpUpdateIntervalInSeconds=" + otlpUpdateIntervalInSeconds + ", pushBatchSize=" + pushBatchSize
+                + ", pushQueueSize=" + pushQueueSize + ", jmxMetricsEnabled=" + jmxMetricsEnabled + ", jmxDomain='"
+                + jmxDomain + '\'' + ", jmxUpdateIntervalInSeconds=" + jmxUpdateIntervalInSeconds + '}';
     }
 }
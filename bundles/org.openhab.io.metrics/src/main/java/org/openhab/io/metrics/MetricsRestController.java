@@ -16,6 +16,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.security.RolesAllowed;
 import javax.ws.rs.GET;
@@ -25,14 +26,20 @@ import javax.ws.rs.core.MediaType;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.HttpClient;
 import org.openhab.core.auth.Role;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.config.core.Configuration;
 import org.openhab.core.io.monitor.MeterRegistryProvider;
+import org.openhab.core.io.net.http.HttpClientFactory;
 import org.openhab.core.io.rest.RESTConstants;
 import org.openhab.io.metrics.exporters.InfluxMetricsExporter;
+import org.openhab.io.metrics.exporters.JmxMetricsExporter;
+import org.openhab.io.metrics.exporters.OtlpMetricsExporter;
+import org.openhab.io.metrics.exporters.PrometheusRemoteWriteExporter;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.jaxrs.whiteboard.JaxrsWhiteboardConstants;
@@ -73,6 +80,10 @@ public class MetricsRestController {
             PrometheusConfig.DEFAULT);
     private final Set<MetricsExporter> metricsExporters = new HashSet<>();
     private @Nullable MetricsConfiguration config;
+    private @NonNullByDefault({}) HttpClientFactory httpClientFactory;
+    private volatile long scrapeMaxAgeNanos = 0;
+    private @Nullable String cachedScrape;
+    private long cachedScrapeTimestamp;
 
     @GET
     @Path("/prometheus")
@@ -80,7 +91,21 @@ public class MetricsRestController {
     @Operation(operationId = "getPrometheusMetrics", summary = "Gets openHAB system and core metrics in a Prometheus compatible format.", responses = {
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = String.class))) })
     public String getPrometheusMetrics() {
-        return prometheusMeterRegistry.scrape();
+        long maxAge = scrapeMaxAgeNanos;
+        if (maxAge <= 0) {
+            return prometheusMeterRegistry.scrape();
+        }
+        // concurrent scrapes wait for and share the same result
+        synchronized (prometheusMeterRegistry) {
+            String scrape = cachedScrape;
+            long now = System.nanoTime();
+            if (scrape == null || now - cachedScrapeTimestamp > maxAge) {
+                scrape = prometheusMeterRegistry.scrape();
+                cachedScrape = scrape;
+                cachedScrapeTimestamp = now;
+            }
+            return scrape;
+        }
     }
 
     @Reference
@@ -94,22 +119,41 @@ public class MetricsRestController {
         updateMeterRegistry();
     }
 
+    @Reference
+    public void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+        this.httpClientFactory = httpClientFactory;
+    }
+
     @Activate
     protected void activate(Map<@Nullable String, @Nullable Object> configuration) {
         logger.info("Metrics service activated, serving the following URL(s): /rest/metrics/prometheus");
         metricsExporters.add(new InfluxMetricsExporter());
+        HttpClient httpClient = httpClientFactory.getCommonHttpClient();
+        metricsExporters.add(new PrometheusRemoteWriteExporter(httpClient));
+        metricsExporters.add(new OtlpMetricsExporter(httpClient));
+        metricsExporters.add(new JmxMetricsExporter());
         updateConfig(configuration);
         updateMeterRegistry();
     }
 
+    @Deactivate
+    protected void deactivate() {
+        metricsExporters.forEach(e -> e.updateExporterState(null));
+    }
+
     @Modified
     protected synchronized void modified(Map<@Nullable String, @Nullable Object> configuration) {
         updateConfig(configuration);
     }
 
     private void updateConfig(@Nullable Map<@Nullable String, @Nullable Object> configuration) {
-        this.config = new Configuration(configuration).as(MetricsConfiguration.class);
-        logger.debug("Configuration: {}", this.config);
+        MetricsConfiguration config = new Configuration(configuration).as(MetricsConfiguration.class);
+        this.config = config;
+        logger.debug("Configuration: {}", config);
+        scrapeMaxAgeNanos = TimeUnit.SECONDS.toNanos(config.prometheusScrapeMaxAgeInSeconds);
+        synchronized (prometheusMeterRegistry) {
+            cachedScrape = null;
+        }
         this.metricsExporters.forEach(e -> e.updateExporterState(config));
     }
 
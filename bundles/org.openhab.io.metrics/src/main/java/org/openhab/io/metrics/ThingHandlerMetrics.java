@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.events.Event;
+import org.openhab.core.events.EventFilter;
+import org.openhab.core.events.EventSubscriber;
+import org.openhab.core.items.events.ItemCommandEvent;
+import org.openhab.core.items.events.ItemStateEvent;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.events.ThingRemovedEvent;
+import org.openhab.core.thing.link.ItemChannelLinkRegistry;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * The {@link ThingHandlerMetrics} counts the commands sent to and the state updates received from every thing
+ * handler, tagged by thing and binding.
+ *
+ * Commands are counted for all things whose channels are linked to the commanded item. State updates are counted for
+ * the thing whose channel is the source of the update.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = EventSubscriber.class)
+public class ThingHandlerMetrics implements EventSubscriber {
+    static final String COMMANDS_METRIC = "thing.handler.commands";
+    static final String UPDATES_METRIC = "thing.handler.updates";
+
+    private static final Set<String> SUBSCRIBED_EVENT_TYPES = Set.of(ItemCommandEvent.TYPE, ItemStateEvent.TYPE,
+            ThingRemovedEvent.TYPE);
+
+    private final Logger logger = LoggerFactory.getLogger(ThingHandlerMetrics.class);
+
+    private final AddonMetrics addonMetrics;
+    private final ItemChannelLinkRegistry itemChannelLinkRegistry;
+    // looking up a registered meter is much more expensive than this map
+    private final Map<ThingUID, Counter> commandCounters = new ConcurrentHashMap<>();
+    private final Map<ThingUID, Counter> updateCounters = new ConcurrentHashMap<>();
+
+    @Activate
+    public ThingHandlerMetrics(final @Reference AddonMetrics addonMetrics,
+            final @Reference ItemChannelLinkRegistry itemChannelLinkRegistry) {
+        this.addonMetrics = addonMetrics;
+        this.itemChannelLinkRegistry = itemChannelLinkRegistry;
+    }
+
+    @Override
+    public Set<String> getSubscribedEventTypes() {
+        return SUBSCRIBED_EVENT_TYPES;
+    }
+
+    @Override
+    public @Nullable EventFilter getEventFilter() {
+        return null;
+    }
+
+    @Override
+    public void receive(Event event) {
+        if (event instanceof ItemCommandEvent) {
+            for (ChannelUID channelUID : itemChannelLinkRegistry
+                    .getBoundChannels(((ItemCommandEvent) event).getItemName())) {
+                // commands which were sent by the thing itself are not sent back to it
+                if (!channelUID.getAsString().equals(event.getSource())) {
+                    count(commandCounters, COMMANDS_METRIC, channelUID.getThingUID());
+                }
+            }
+        } else if (event instanceof ItemStateEvent) {
+            ThingUID thingUID = getSourceThing(event.getSource());
+            if (thingUID != null) {
+                count(updateCounters, UPDATES_METRIC, thingUID);
+            }
+        } else if (event instanceof ThingRemovedEvent) {
+            ThingUID thingUID = new ThingUID(((ThingRemovedEvent) event).getThing().UID);
+            commandCounters.remove(thingUID);
+            updateCounters.remove(thingUID);
+            addonMetrics.remove(AddonMetrics.thingTags(thingUID));
+        }
+    }
+
+    private void count(Map<ThingUID, Counter> counters, String name, ThingUID thingUID) {
+        counters.computeIfAbsent(thingUID, uid -> addonMetrics.counter(name, AddonMetrics.thingTags(uid)))
+                .increment();
+    }
+
+    /**
+     * State updates of thing handlers carry the channel UID as source.
+     */
+    private @Nullable ThingUID getSourceThing(@Nullable String source) {
+        // a channel UID has at least four segments: binding:type:thing:channel
+        if (source == null || source.chars().filter(c -> c == ':').count() < 3) {
+            return null;
+        }
+        try {
+            return new ChannelUID(source).getThingUID();
+        } catch (IllegalArgumentException e) {
+            logger.trace("Source {} of state update is not a channel", source);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics.exporters;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.metrics.MetricsConfiguration;
+import org.openhab.io.metrics.MetricsExporter;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.jmx.JmxConfig;
+import io.micrometer.jmx.JmxMeterRegistry;
+
+/**
+ * The {@link JmxMetricsExporter} class implements a MetricsExporter which publishes the metrics as JMX MBeans
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JmxMetricsExporter extends MetricsExporter {
+
+    private @Nullable JmxMeterRegistry jmxMeterRegistry = null;
+    private @Nullable CompositeMeterRegistry compositeMeterRegistry = null;
+
+    @Override
+    public void start(CompositeMeterRegistry meterRegistry, MetricsConfiguration metricsConfiguration) {
+        jmxMeterRegistry = new JmxMeterRegistry(getJmxConfig(metricsConfiguration), Clock.SYSTEM);
+        meterRegistry.add(jmxMeterRegistry);
+        compositeMeterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void shutdown() {
+        JmxMeterRegistry registry = jmxMeterRegistry;
+        if (registry != null) {
+            Objects.requireNonNull(compositeMeterRegistry).remove(registry);
+            registry.close();
+        }
+        compositeMeterRegistry = null;
+        jmxMeterRegistry = null;
+    }
+
+    private JmxConfig getJmxConfig(MetricsConfiguration metricsConfiguration) {
+        return new JmxConfig() {
+            @Override
+            public Duration step() {
+                return Duration.ofSeconds(metricsConfiguration.jmxUpdateIntervalInSeconds);
+            }
+
+            @Override
+            public String domain() {
+                return metricsConfiguration.jmxDomain;
+            }
+
+            @Override
+            @io.micrometer.core.lang.Nullable
+            @Nullable
+            public String get(@Nullable String k) {
+                return null; // accept the rest of the defaults
+            }
+        };
+    }
+
+    @Override
+    protected boolean isEnabled(MetricsConfiguration config) {
+        return config.jmxMetricsEnabled;
+    }
+}
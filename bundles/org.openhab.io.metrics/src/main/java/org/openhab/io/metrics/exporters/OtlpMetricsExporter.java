@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics.exporters;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.client.HttpClient;
+import org.openhab.io.metrics.MetricsConfiguration;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * The {@link OtlpMetricsExporter} pushes the metrics with the OpenTelemetry protocol (OTLP) over HTTP in its JSON
+ * encoding, e.g. to an OpenTelemetry collector.
+ *
+ * Counters are sent as cumulative monotonic sums, all other samples as gauges.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class OtlpMetricsExporter extends PushMetricsExporter {
+    // the cumulative aggregation temporality of the OTLP specification
+    private static final int AGGREGATION_TEMPORALITY_CUMULATIVE = 2;
+
+    private long startTimeUnixNano = currentTimeUnixNano();
+
+    public OtlpMetricsExporter(HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    @Override
+    protected void start(CompositeMeterRegistry meterRegistry, MetricsConfiguration metricsConfiguration) {
+        // the cumulative values start with the new registry
+        startTimeUnixNano = currentTimeUnixNano();
+        super.start(meterRegistry, metricsConfiguration);
+    }
+
+    @Override
+    protected PushConfig getPushConfig(MetricsConfiguration metricsConfiguration) {
+        return new PushConfig(URI.create(metricsConfiguration.otlpURL),
+                Duration.ofSeconds(metricsConfiguration.otlpUpdateIntervalInSeconds), metricsConfiguration.pushBatchSize,
+                metricsConfiguration.pushQueueSize);
+    }
+
+    @Override
+    protected boolean isEnabled(MetricsConfiguration config) {
+        return config.otlpMetricsEnabled;
+    }
+
+    @Override
+    protected String getContentType() {
+        return "application/json";
+    }
+
+    @Override
+    protected byte[] encode(List<Sample> samples, long timestamp) {
+        String timeUnixNano = String.valueOf(TimeUnit.MILLISECONDS.toNanos(timestamp));
+        String startTime = String.valueOf(startTimeUnixNano);
+
+        // the data points of all samples with the same name belong to one metric
+        JsonArray metricArray = new JsonArray();
+        Map<String, JsonArray> dataPointsByName = new LinkedHashMap<>();
+        for (Sample sample : samples) {
+            // JSON cannot represent NaN and infinite values
+            if (!Double.isFinite(sample.value)) {
+                continue;
+            }
+            JsonArray dataPoints = dataPointsByName.computeIfAbsent(sample.name,
+                    name -> addMetric(metricArray, name, sample.monotonic));
+            JsonObject dataPoint = new JsonObject();
+            dataPoint.add("attributes", toAttributes(sample.labels));
+            if (sample.monotonic) {
+                dataPoint.addProperty("startTimeUnixNano", startTime);
+            }
+            dataPoint.addProperty("timeUnixNano", timeUnixNano);
+            dataPoint.addProperty("asDouble", sample.value);
+            dataPoints.add(dataPoint);
+        }
+
+        JsonObject scope = new JsonObject();
+        scope.addProperty("name", "org.openhab.io.metrics");
+        JsonObject scopeMetrics = new JsonObject();
+        scopeMetrics.add("scope", scope);
+        scopeMetrics.add("metrics", metricArray);
+        JsonArray scopeMetricsArray = new JsonArray();
+        scopeMetricsArray.add(scopeMetrics);
+
+        JsonObject resource = new JsonObject();
+        resource.add("attributes", toAttributes(Map.of("service.name", "openhab")));
+        JsonObject resourceMetrics = new JsonObject();
+        resourceMetrics.add("resource", resource);
+        resourceMetrics.add("scopeMetrics", scopeMetricsArray);
+        JsonArray resourceMetricsArray = new JsonArray();
+        resourceMetricsArray.add(resourceMetrics);
+
+        JsonObject request = new JsonObject();
+        request.add("resourceMetrics", resourceMetricsArray);
+        return request.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Adds a new metric to the given array and returns its array of data points.
+     */
+    private JsonArray addMetric(JsonArray metricArray, String name, boolean monotonic) {
+        JsonArray dataPoints = new JsonArray();
+        JsonObject data = new JsonObject();
+        data.add("dataPoints", dataPoints);
+        JsonObject metric = new JsonObject();
+        metric.addProperty("name", name);
+        if (monotonic) {
+            data.addProperty("aggregationTemporality", AGGREGATION_TEMPORALITY_CUMULATIVE);
+            data.addProperty("isMonotonic", true);
+            metric.add("sum", data);
+        } else {
+            metric.add("gauge", data);
+        }
+        metricArray.add(metric);
+        return dataPoints;
+    }
+
+    private static JsonArray toAttributes(Map<String, String> labels) {
+        JsonArray attributes = new JsonArray();
+        labels.forEach((key, value) -> {
+            JsonObject stringValue = new JsonObject();
+            stringValue.addProperty("stringValue", value);
+            JsonObject attribute = new JsonObject();
+            attribute.addProperty("key", key);
+            attribute.add("value", stringValue);
+            attributes.add(attribute);
+        });
+        return attributes;
+    }
+
+    private static long currentTimeUnixNano() {
+        return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics.exporters;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.openhab.io.metrics.MetricsConfiguration;
+
+/**
+ * The {@link PrometheusRemoteWriteExporter} pushes the metrics to a receiver of the Prometheus remote write protocol,
+ * e.g. a Prometheus server with enabled remote write receiver, Cortex or VictoriaMetrics. This allows monitoring
+ * instances which cannot be scraped, e.g. behind NAT.
+ *
+ * The WriteRequest protobuf message is encoded directly. The snappy compression required by the protocol is written as
+ * a snappy stream of uncompressed literals, which every snappy decoder accepts.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PrometheusRemoteWriteExporter extends PushMetricsExporter {
+    private static final String METRIC_NAME_LABEL = "__name__";
+    // the largest literal whose length fits into the two bytes following the tag
+    private static final int MAX_SNAPPY_LITERAL = 1 << 16;
+
+    public PrometheusRemoteWriteExporter(HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    @Override
+    protected PushConfig getPushConfig(MetricsConfiguration metricsConfiguration) {
+        return new PushConfig(URI.create(metricsConfiguration.remoteWriteURL),
+                Duration.ofSeconds(metricsConfiguration.remoteWriteUpdateIntervalInSeconds),
+                metricsConfiguration.pushBatchSize, metricsConfiguration.pushQueueSize);
+    }
+
+    @Override
+    protected boolean isEnabled(MetricsConfiguration config) {
+        return config.remoteWriteMetricsEnabled;
+    }
+
+    @Override
+    protected String getContentType() {
+        return "application/x-protobuf";
+    }
+
+    @Override
+    protected void addHeaders(Request request) {
+        request.header("Content-Encoding", "snappy").header("X-Prometheus-Remote-Write-Version", "0.1.0");
+    }
+
+    @Override
+    protected byte[] encode(List<Sample> samples, long timestamp) {
+        return snappyLiterals(encodeWriteRequest(samples, timestamp));
+    }
+
+    static byte[] encodeWriteRequest(List<Sample> samples, long timestamp) {
+        ByteArrayOutputStream writeRequest = new ByteArrayOutputStream(samples.size() * 64);
+        for (Sample sample : samples) {
+            ByteArrayOutputStream timeSeries = new ByteArrayOutputStream(64);
+            // labels have to be sorted by name
+            Map<String, String> labels = new TreeMap<>(sample.labels);
+            labels.put(METRIC_NAME_LABEL, sample.name);
+            for (Map.Entry<String, String> label : labels.entrySet()) {
+                ByteArrayOutputStream labelMessage = new ByteArrayOutputStream(32);
+                writeString(labelMessage, 1, label.getKey());
+                writeString(labelMessage, 2, label.getValue());
+                writeBytes(timeSeries, 1, labelMessage.toByteArray());
+            }
+            ByteArrayOutputStream sampleMessage = new ByteArrayOutputStream(16);
+            writeTag(sampleMessage, 1, 1); // 64 bit
+            writeFixed64(sampleMessage, Double.doubleToLongBits(sample.value));
+            writeTag(sampleMessage, 2, 0); // varint
+            writeVarint(sampleMessage, timestamp);
+            writeBytes(timeSeries, 2, sampleMessage.toByteArray());
+
+            writeBytes(writeRequest, 1, timeSeries.toByteArray());
+        }
+        return writeRequest.toByteArray();
+    }
+
+    static byte[] snappyLiterals(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length + 16 + data.length / MAX_SNAPPY_LITERAL * 3);
+        writeVarint(out, data.length);
+        for (int offset = 0; offset < data.length; offset += MAX_SNAPPY_LITERAL) {
+            int length = Math.min(MAX_SNAPPY_LITERAL, data.length - offset);
+            // literal with the length - 1 in the two following bytes, little endian
+            out.write(61 << 2);
+            out.write((length - 1) & 0xff);
+            out.write((length - 1) >>> 8);
+            out.write(data, offset, length);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeTag(ByteArrayOutputStream out, int field, int wireType) {
+        writeVarint(out, (field << 3) | wireType);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, int field, String value) {
+        writeBytes(out, field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, int field, byte[] value) {
+        writeTag(out, field, 2); // length delimited
+        writeVarint(out, value.length);
+        out.write(value, 0, value.length);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+
+    private static void writeFixed64(ByteArrayOutputStream out, long value) {
+        for (int i = 0; i < 8; i++) {
+            out.write((int) (value >>> (8 * i)) & 0xff);
+        }
+    }
+}
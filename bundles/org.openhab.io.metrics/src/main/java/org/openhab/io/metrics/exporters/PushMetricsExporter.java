@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics.exporters;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.util.BytesContentProvider;
+import org.eclipse.jetty.http.HttpMethod;
+import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.io.metrics.MetricsConfiguration;
+import org.openhab.io.metrics.MetricsExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.Collector;
+import io.prometheus.client.Collector.MetricFamilySamples;
+
+/**
+ * The {@link PushMetricsExporter} is the base class of exporters which push the metrics via HTTP.
+ *
+ * The metrics are collected with cumulative values by a Prometheus registry. Every step, all samples are split into
+ * batches which are encoded and appended to a bounded queue. The queue is sent in order and a batch stays in the queue
+ * until it was accepted, so that batches are retried in the next step if the receiver is not reachable. If the queue
+ * is full, the oldest batch is dropped.
+ *
+ * The queue is sent without holding the lock of the exporter, so a slow receiver does not block a shutdown or a
+ * configuration change.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public abstract class PushMetricsExporter extends MetricsExporter {
+    private static final long REQUEST_TIMEOUT_SECONDS = 10;
+
+    private final Logger logger = LoggerFactory.getLogger(PushMetricsExporter.class);
+
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool("metrics");
+    private final HttpClient httpClient;
+    // guarded by this
+    private final Deque<byte[]> queue = new ArrayDeque<>();
+    private @Nullable PrometheusMeterRegistry prometheusMeterRegistry;
+    private @Nullable CompositeMeterRegistry compositeMeterRegistry;
+    private @Nullable ScheduledFuture<?> pushJob;
+    private @Nullable PushConfig pushConfig;
+    private long droppedBatches;
+
+    /**
+     * The configuration of a push exporter.
+     */
+    protected static class PushConfig {
+        final URI uri;
+        final Duration step;
+        final int batchSize;
+        final int queueSize;
+
+        public PushConfig(URI uri, Duration step, int batchSize, int queueSize) {
+            this.uri = uri;
+            this.step = step;
+            this.batchSize = Math.max(1, batchSize);
+            this.queueSize = Math.max(1, queueSize);
+        }
+    }
+
+    /**
+     * A single sample of a metric with cumulative value.
+     */
+    protected static class Sample {
+        final String name;
+        final Map<String, String> labels;
+        final double value;
+        final boolean monotonic;
+
+        public Sample(String name, Map<String, String> labels, double value, boolean monotonic) {
+            this.name = name;
+            this.labels = labels;
+            this.value = value;
+            this.monotonic = monotonic;
+        }
+    }
+
+    protected PushMetricsExporter(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    protected abstract PushConfig getPushConfig(MetricsConfiguration metricsConfiguration);
+
+    /**
+     * Encodes a batch of samples into the request body.
+     *
+     * @param samples The samples of the batch
+     * @param timestamp The time of the samples in ms since the epoch
+     */
+    protected abstract byte[] encode(List<Sample> samples, long timestamp);
+
+    /**
+     * Returns the content type of the encoded batches.
+     */
+    protected abstract String getContentType();
+
+    /**
+     * Adds further headers of the wire format to the request.
+     */
+    protected void addHeaders(Request request) {
+    }
+
+    @Override
+    protected synchronized void start(CompositeMeterRegistry meterRegistry, MetricsConfiguration metricsConfiguration) {
+        PushConfig config = getPushConfig(metricsConfiguration);
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        meterRegistry.add(registry);
+        prometheusMeterRegistry = registry;
+        compositeMeterRegistry = meterRegistry;
+        pushConfig = config;
+        long stepMillis = config.step.toMillis();
+        pushJob = scheduler.scheduleWithFixedDelay(this::push, stepMillis, stepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected synchronized void shutdown() {
+        ScheduledFuture<?> job = pushJob;
+        if (job != null) {
+            job.cancel(false);
+            pushJob = null;
+        }
+        PrometheusMeterRegistry registry = prometheusMeterRegistry;
+        if (registry != null) {
+            Objects.requireNonNull(compositeMeterRegistry).remove(registry);
+            registry.close();
+            prometheusMeterRegistry = null;
+        }
+        queue.clear();
+        pushConfig = null;
+    }
+
+    void push() {
+        PushConfig config;
+        try {
+            synchronized (this) {
+                PrometheusMeterRegistry registry = prometheusMeterRegistry;
+                config = pushConfig;
+                if (registry == null || config == null) {
+                    return;
+                }
+                long timestamp = System.currentTimeMillis();
+                List<Sample> samples = collect(registry);
+                for (int from = 0; from < samples.size(); from += config.batchSize) {
+                    enqueue(encode(samples.subList(from, Math.min(samples.size(), from + config.batchSize)),
+                            timestamp), config.queueSize);
+                }
+            }
+            sendQueue(config);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to push metrics with {}: {}", getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    private List<Sample> collect(PrometheusMeterRegistry registry) {
+        List<Sample> samples = new ArrayList<>();
+        for (MetricFamilySamples family : Collections.list(registry.getPrometheusRegistry().metricFamilySamples())) {
+            boolean monotonic = family.type == Collector.Type.COUNTER;
+            for (MetricFamilySamples.Sample sample : family.samples) {
+                Map<String, String> labels = new LinkedHashMap<>();
+                for (int i = 0; i < sample.labelNames.size(); i++) {
+                    labels.put(sample.labelNames.get(i), sample.labelValues.get(i));
+                }
+                samples.add(new Sample(sample.name, labels, sample.value, monotonic));
+            }
+        }
+        return samples;
+    }
+
+    private void enqueue(byte[] batch, int queueSize) {
+        while (queue.size() >= queueSize) {
+            queue.removeFirst();
+            droppedBatches++;
+            logger.debug("Metrics queue of {} is full, dropped the oldest batch ({} in total)",
+                    getClass().getSimpleName(), droppedBatches);
+        }
+        queue.addLast(batch);
+    }
+
+    private void sendQueue(PushConfig config) {
+        byte[] batch;
+        while ((batch = peekBatch(config)) != null) {
+            Request request = httpClient.newRequest(config.uri).method(HttpMethod.POST)
+                    .timeout(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .content(new BytesContentProvider(getContentType(), batch));
+            addHeaders(request);
+            int status;
+            try {
+                status = request.send().getStatus();
+            } catch (ExecutionException | TimeoutException e) {
+                logger.debug("Failed to push metrics to {}, {} batches queued: {}", config.uri, getQueueSize(),
+                        e.getMessage());
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (status >= 500 || status == 429) {
+                // the receiver is temporarily unavailable, retry in the next step
+                logger.debug("Receiver {} answered {}, {} batches queued", config.uri, status, getQueueSize());
+                return;
+            }
+            removeBatch(batch);
+            if (status >= 300) {
+                // retrying a rejected batch would block the queue forever
+                logger.warn("Receiver {} rejected metrics with status {}", config.uri, status);
+            }
+        }
+    }
+
+    /**
+     * Returns the oldest queued batch, or <code>null</code> if the queue is empty or the exporter has been shut down or
+     * restarted with another configuration in the meantime.
+     */
+    private synchronized byte @Nullable [] peekBatch(PushConfig config) {
+        return pushConfig == config ? queue.peekFirst() : null;
+    }
+
+    private synchronized void removeBatch(byte[] batch) {
+        // the queue may have been cleared while the batch was sent
+        if (queue.peekFirst() == batch) {
+            queue.removeFirst();
+        }
+    }
+
+    /**
+     * Returns the number of batches waiting to be sent.
+     */
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of batches which were dropped because the queue was full.
+     */
+    public synchronized long getDroppedBatches() {
+        return droppedBatches;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
+import org.openhab.core.io.net.http.HttpClientFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Tests cases for the cached Prometheus scrapes of {@link MetricsRestController}
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class MetricsRestControllerTest {
+    private static final String MAX_AGE = "prometheusScrapeMaxAgeInSeconds";
+
+    private @Mock MeterRegistryProvider meterRegistryProvider;
+    private @Mock HttpClientFactory httpClientFactory;
+
+    private final CompositeMeterRegistry meterRegistry = new CompositeMeterRegistry();
+    private final MetricsRestController controller = new MetricsRestController();
+    private Counter counter;
+
+    @BeforeEach
+    public void setUp() {
+        when(meterRegistryProvider.getOHMeterRegistry()).thenReturn(meterRegistry);
+        controller.setMeterRegistryProvider(meterRegistryProvider);
+        controller.setHttpClientFactory(httpClientFactory);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        controller.deactivate();
+    }
+
+    private void activate(int maxAgeInSeconds) {
+        controller.activate(Map.<String, Object> of(MAX_AGE, maxAgeInSeconds));
+        counter = meterRegistry.counter("test.scrapes");
+        counter.increment();
+    }
+
+    @Test
+    public void cachedScrapeIsReturnedWithinMaxAge() {
+        activate(60);
+
+        String first = controller.getPrometheusMetrics();
+        counter.increment();
+        String second = controller.getPrometheusMetrics();
+
+        assertThat(first, containsString("test_scrapes_total 1.0"));
+        assertThat(second, is(sameInstance(first)));
+    }
+
+    @Test
+    public void scrapeExpiresAfterMaxAge() throws InterruptedException {
+        activate(1);
+
+        String first = controller.getPrometheusMetrics();
+        counter.increment();
+        Thread.sleep(1100);
+        String second = controller.getPrometheusMetrics();
+
+        assertThat(first, containsString("test_scrapes_total 1.0"));
+        assertThat(second, containsString("test_scrapes_total 2.0"));
+        // the new scrape is cached again
+        assertThat(controller.getPrometheusMetrics(), is(sameInstance(second)));
+    }
+
+    @Test
+    public void everyScrapeIsFreshWithoutMaxAge() {
+        activate(0);
+
+        controller.getPrometheusMetrics();
+        counter.increment();
+
+        assertThat(controller.getPrometheusMetrics(), containsString("test_scrapes_total 2.0"));
+    }
+
+    @Test
+    public void configurationChangeClearsCache() {
+        activate(60);
+
+        String first = controller.getPrometheusMetrics();
+        counter.increment();
+        controller.modified(Map.<String, Object> of(MAX_AGE, 60));
+
+        assertThat(controller.getPrometheusMetrics(), is(not(sameInstance(first))));
+        assertThat(controller.getPrometheusMetrics(), containsString("test_scrapes_total 2.0"));
+    }
+}
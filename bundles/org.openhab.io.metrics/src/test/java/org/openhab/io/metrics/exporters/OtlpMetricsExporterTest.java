@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics.exporters;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.jupiter.api.Test;
+import org.openhab.io.metrics.exporters.PushMetricsExporter.Sample;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests cases for {@link OtlpMetricsExporter}, which parse the encoded batches as JSON.
+ *
+ * @author agent - Initial contribution
+ */
+public class OtlpMetricsExporterTest {
+    private static final long TIMESTAMP = 1600000000123L;
+
+    private final OtlpMetricsExporter exporter = new OtlpMetricsExporter(new HttpClient());
+
+    @Test
+    public void samplesAreGroupedIntoMetrics() {
+        List<Sample> samples = List.of(new Sample("openhab_events_total", Map.of("topic", "items"), 42, true),
+                new Sample("openhab_events_total", Map.of("topic", "things"), 7, true),
+                new Sample("openhab_heap_bytes", Map.of(), 1024, false));
+
+        JsonArray metrics = decodeMetrics(exporter.encode(samples, TIMESTAMP));
+
+        assertThat(metrics.size(), is(2));
+        JsonObject counter = metrics.get(0).getAsJsonObject();
+        assertThat(counter.get("name").getAsString(), is("openhab_events_total"));
+        JsonObject sum = counter.getAsJsonObject("sum");
+        assertThat(sum.get("isMonotonic").getAsBoolean(), is(true));
+        assertThat(sum.get("aggregationTemporality").getAsInt(), is(2));
+        JsonArray dataPoints = sum.getAsJsonArray("dataPoints");
+        assertThat(dataPoints.size(), is(2));
+        JsonObject dataPoint = dataPoints.get(0).getAsJsonObject();
+        assertThat(dataPoint.get("asDouble").getAsDouble(), is(42.0));
+        assertThat(dataPoint.get("timeUnixNano").getAsString(), is("1600000000123000000"));
+        assertThat(dataPoint.has("startTimeUnixNano"), is(true));
+        JsonObject attribute = dataPoint.getAsJsonArray("attributes").get(0).getAsJsonObject();
+        assertThat(attribute.get("key").getAsString(), is("topic"));
+        assertThat(attribute.getAsJsonObject("value").get("stringValue").getAsString(), is("items"));
+
+        JsonObject gauge = metrics.get(1).getAsJsonObject();
+        assertThat(gauge.get("name").getAsString(), is("openhab_heap_bytes"));
+        assertThat(gauge.has("sum"), is(false));
+        JsonObject gaugeDataPoint = gauge.getAsJsonObject("gauge").getAsJsonArray("dataPoints").get(0)
+                .getAsJsonObject();
+        assertThat(gaugeDataPoint.get("asDouble").getAsDouble(), is(1024.0));
+        assertThat(gaugeDataPoint.has("startTimeUnixNano"), is(false));
+    }
+
+    @Test
+    public void nonFiniteValuesAreSkipped() {
+        List<Sample> samples = List.of(new Sample("openhab_nan", Map.of(), Double.NaN, false),
+                new Sample("openhab_infinite", Map.of(), Double.POSITIVE_INFINITY, false),
+                new Sample("openhab_finite", Map.of(), 1, false));
+
+        JsonArray metrics = decodeMetrics(exporter.encode(samples, TIMESTAMP));
+
+        assertThat(metrics.size(), is(1));
+        assertThat(metrics.get(0).getAsJsonObject().get("name").getAsString(), is("openhab_finite"));
+    }
+
+    @Test
+    public void resourceIdentifiesOpenhab() {
+        JsonObject request = JsonParser
+                .parseString(new String(exporter.encode(List.of(), TIMESTAMP), StandardCharsets.UTF_8))
+                .getAsJsonObject();
+
+        JsonObject resource = request.getAsJsonArray("resourceMetrics").get(0).getAsJsonObject()
+                .getAsJsonObject("resource");
+        JsonObject attribute = resource.getAsJsonArray("attributes").get(0).getAsJsonObject();
+        assertThat(attribute.get("key").getAsString(), is("service.name"));
+        assertThat(attribute.getAsJsonObject("value").get("stringValue").getAsString(), is("openhab"));
+    }
+
+    private static JsonArray decodeMetrics(byte[] body) {
+        JsonObject request = JsonParser.parseString(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+        JsonObject scopeMetrics = request.getAsJsonArray("resourceMetrics").get(0).getAsJsonObject()
+                .getAsJsonArray("scopeMetrics").get(0).getAsJsonObject();
+        assertThat(scopeMetrics.getAsJsonObject("scope").get("name").getAsString(), is(notNullValue()));
+        return scopeMetrics.getAsJsonArray("metrics");
+    }
+}
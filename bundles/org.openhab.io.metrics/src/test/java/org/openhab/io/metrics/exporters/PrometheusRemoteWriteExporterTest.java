@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics.exporters;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.jupiter.api.Test;
+import org.openhab.io.metrics.exporters.PushMetricsExporter.Sample;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Tests cases for {@link PrometheusRemoteWriteExporter}, which decode the encoded batches with an independent snappy
+ * decoder and a minimal protobuf reader.
+ *
+ * @author agent - Initial contribution
+ */
+public class PrometheusRemoteWriteExporterTest {
+    private static final long TIMESTAMP = 1600000000123L;
+
+    /**
+     * A decoded TimeSeries message with a single sample.
+     */
+    static class TimeSeries {
+        final Map<String, String> labels = new LinkedHashMap<>();
+        double value;
+        long timestamp;
+    }
+
+    @Test
+    public void writeRequestRoundTrip() throws IOException {
+        List<Sample> samples = List.of(
+                new Sample("openhab_events_total", Map.of("topic", "items", "source", "ümlaut"), 42, true),
+                new Sample("openhab_heap_bytes", Map.of(), -1.5, false));
+
+        List<TimeSeries> series = decode(
+                Snappy.uncompress(new PrometheusRemoteWriteExporter(new HttpClient()).encode(samples, TIMESTAMP)));
+
+        assertThat(series.size(), is(2));
+        // the labels are sorted by name, including the metric name
+        assertThat(new ArrayList<>(series.get(0).labels.keySet()), is(List.of("__name__", "source", "topic")));
+        assertThat(series.get(0).labels.get("__name__"), is("openhab_events_total"));
+        assertThat(series.get(0).labels.get("source"), is("ümlaut"));
+        assertThat(series.get(0).value, is(42.0));
+        assertThat(series.get(0).timestamp, is(TIMESTAMP));
+        assertThat(series.get(1).labels, is(Map.of("__name__", "openhab_heap_bytes")));
+        assertThat(series.get(1).value, is(-1.5));
+    }
+
+    @Test
+    public void largeBatchIsSplitIntoSeveralSnappyLiterals() throws IOException {
+        byte[] data = new byte[200000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        assertThat(Arrays.equals(Snappy.uncompress(PrometheusRemoteWriteExporter.snappyLiterals(data)), data),
+                is(true));
+    }
+
+    @Test
+    public void emptyBatchIsValid() throws IOException {
+        assertThat(Snappy.uncompress(PrometheusRemoteWriteExporter.snappyLiterals(new byte[0])).length, is(0));
+    }
+
+    static List<TimeSeries> decode(byte[] writeRequest) {
+        List<TimeSeries> result = new ArrayList<>();
+        ByteBuffer in = ByteBuffer.wrap(writeRequest);
+        while (in.hasRemaining()) {
+            assertThat(readVarint(in), is((long) (1 << 3 | 2)));
+            result.add(decodeTimeSeries(readMessage(in)));
+        }
+        return result;
+    }
+
+    private static TimeSeries decodeTimeSeries(ByteBuffer in) {
+        TimeSeries series = new TimeSeries();
+        while (in.hasRemaining()) {
+            long tag = readVarint(in);
+            ByteBuffer message = readMessage(in);
+            if (tag == (1 << 3 | 2)) {
+                String name = null;
+                String value = null;
+                while (message.hasRemaining()) {
+                    long labelTag = readVarint(message);
+                    String string = StandardCharsets.UTF_8.decode(readMessage(message)).toString();
+                    if (labelTag == (1 << 3 | 2)) {
+                        name = string;
+                    } else {
+                        value = string;
+                    }
+                }
+                series.labels.put(name, value);
+            } else {
+                assertThat(tag, is((long) (2 << 3 | 2)));
+                assertThat(readVarint(message), is((long) (1 << 3 | 1)));
+                series.value = message.order(ByteOrder.LITTLE_ENDIAN).getDouble();
+                assertThat(readVarint(message), is((long) (2 << 3)));
+                series.timestamp = readVarint(message);
+            }
+        }
+        return series;
+    }
+
+    private static ByteBuffer readMessage(ByteBuffer in) {
+        int length = (int) readVarint(in);
+        ByteBuffer message = in.slice();
+        message.limit(length);
+        in.position(in.position() + length);
+        return message;
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0;; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.metrics.exporters;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.io.metrics.MetricsConfiguration;
+import org.openhab.io.metrics.exporters.PrometheusRemoteWriteExporterTest.TimeSeries;
+import org.xerial.snappy.Snappy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Tests cases for {@link PushMetricsExporter}, which push to a stand-in receiver.
+ *
+ * @author agent - Initial contribution
+ */
+public class PushMetricsExporterTest {
+    private final BlockingQueue<HttpExchange> requests = new LinkedBlockingQueue<>();
+    private final BlockingQueue<byte[]> bodies = new LinkedBlockingQueue<>();
+    private final CompositeMeterRegistry meterRegistry = new CompositeMeterRegistry();
+    private final MetricsConfiguration config = new MetricsConfiguration();
+
+    private volatile int status = 204;
+    private volatile CountDownLatch receiverBlocked = new CountDownLatch(0);
+
+    private HttpServer receiver;
+    private HttpClient httpClient;
+    private PrometheusRemoteWriteExporter exporter;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        receiver.createContext("/api/v1/write", exchange -> {
+            try {
+                receiverBlocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            bodies.add(exchange.getRequestBody().readAllBytes());
+            requests.add(exchange);
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        receiver.start();
+        httpClient = new HttpClient();
+        httpClient.start();
+
+        config.remoteWriteMetricsEnabled = true;
+        config.remoteWriteURL = "http://127.0.0.1:" + receiver.getAddress().getPort() + "/api/v1/write";
+        // the pushes are triggered by the tests
+        config.remoteWriteUpdateIntervalInSeconds = 3600;
+        exporter = new PrometheusRemoteWriteExporter(httpClient);
+        exporter.setMeterRegistry(meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        receiverBlocked.countDown();
+        exporter.updateExporterState(null);
+        httpClient.stop();
+        receiver.stop(0);
+    }
+
+    @Test
+    public void metricsArePushedToTheReceiver() throws Exception {
+        exporter.updateExporterState(config);
+        meterRegistry.counter("test.events", "source", "test").increment(3);
+
+        exporter.push();
+
+        HttpExchange request = requests.poll(5, TimeUnit.SECONDS);
+        assertThat(request, is(notNullValue()));
+        assertThat(request.getRequestMethod(), is("POST"));
+        assertThat(request.getRequestHeaders().getFirst("Content-Type"), is("application/x-protobuf"));
+        assertThat(request.getRequestHeaders().getFirst("Content-Encoding"), is("snappy"));
+        assertThat(request.getRequestHeaders().getFirst("X-Prometheus-Remote-Write-Version"), is("0.1.0"));
+        List<TimeSeries> series = PrometheusRemoteWriteExporterTest.decode(Snappy.uncompress(bodies.take()));
+        TimeSeries counter = series.stream().filter(s -> "test_events_total".equals(s.labels.get("__name__")))
+                .findFirst().orElseThrow();
+        assertThat(counter.labels.get("source"), is("test"));
+        assertThat(counter.value, is(3.0));
+        assertThat(exporter.getQueueSize(), is(0));
+    }
+
+    @Test
+    public void batchesAreRetriedWhileTheReceiverIsUnavailable() throws Exception {
+        exporter.updateExporterState(config);
+        meterRegistry.counter("test.events").increment();
+        status = 503;
+
+        exporter.push();
+        assertThat(requests.poll(5, TimeUnit.SECONDS), is(notNullValue()));
+        assertThat(exporter.getQueueSize(), is(1));
+
+        status = 204;
+        exporter.push();
+        // the kept batch and the new one
+        assertThat(requests.poll(5, TimeUnit.SECONDS), is(notNullValue()));
+        assertThat(requests.poll(5, TimeUnit.SECONDS), is(notNullValue()));
+        assertThat(exporter.getQueueSize(), is(0));
+    }
+
+    @Test
+    public void rejectedBatchIsNotRetried() throws Exception {
+        exporter.updateExporterState(config);
+        status = 400;
+
+        exporter.push();
+
+        assertThat(requests.poll(5, TimeUnit.SECONDS), is(notNullValue()));
+        assertThat(exporter.getQueueSize(), is(0));
+    }
+
+    @Test
+    public void oldestBatchIsDroppedWhenTheQueueIsFull() throws Exception {
+        config.pushQueueSize = 2;
+        exporter.updateExporterState(config);
+        status = 503;
+
+        for (int i = 0; i < 3; i++) {
+            exporter.push();
+        }
+
+        assertThat(exporter.getQueueSize(), is(2));
+        assertThat(exporter.getDroppedBatches(), is(1L));
+    }
+
+    @Test
+    public void samplesAreSplitIntoBatches() throws Exception {
+        config.pushBatchSize = 1;
+        exporter.updateExporterState(config);
+        meterRegistry.counter("test.first").increment();
+        meterRegistry.counter("test.second").increment();
+
+        exporter.push();
+
+        assertThat(requests.poll(5, TimeUnit.SECONDS), is(notNullValue()));
+        assertThat(requests.poll(5, TimeUnit.SECONDS), is(notNullValue()));
+        for (byte[] body : bodies) {
+            assertThat(PrometheusRemoteWriteExporterTest.decode(Snappy.uncompress(body)).size(), is(1));
+        }
+    }
+
+    @Test
+    public void shutdownIsNotBlockedBySlowReceiver() throws Exception {
+        exporter.updateExporterState(config);
+        meterRegistry.counter("test.events").increment();
+        receiverBlocked = new CountDownLatch(1);
+        Thread pushThread = new Thread(exporter::push);
+        pushThread.start();
+        // wait until the request is sent
+        Thread.sleep(500);
+
+        long start = System.nanoTime();
+        exporter.updateExporterState(null);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), is(lessThan(1000L)));
+        assertThat(exporter.getQueueSize(), is(0));
+
+        receiverBlocked.countDown();
+        pushThread.join(5000);
+        assertFalse(pushThread.isAlive());
+    }
+}
@@ -18,26 +18,29 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
 import org.eclipse.jetty.client.util.BytesContentProvider;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
-import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.URIUtil;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.openhab.core.OpenHAB;
+import org.openhab.core.common.ThreadPoolManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,6 +66,13 @@ public class CloudClient {
      */
     private final Logger logger = LoggerFactory.getLogger(CloudClient.class);
 
+    private static final int MIN_PROXY_CHUNK_SIZE = 1024;
+
+    /*
+     * Responses with less content are not worth compressing
+     */
+    private static final int MIN_COMPRESSED_CONTENT_LENGTH = 1024;
+
     /*
      * This variable holds base URL for the openHAB Cloud connections
      */
@@ -122,6 +132,23 @@ public class CloudClient {
     private boolean remoteAccessEnabled;
     private Set<String> exposedItems;
 
+    /*
+     * This variable holds the pipeline which coalesces the item updates sent to the openHAB Cloud
+     */
+    private final ItemUpdateUplink itemUpdateUplink;
+
+    /*
+     * These variables hold the settings and statistics of the proxied requests to local openHAB
+     */
+    private final int proxyChunkSize;
+    private final boolean proxyCompression;
+    private final Semaphore proxyRequestPermits;
+    private final int proxyMaxConcurrentRequests;
+    private final AtomicLong proxiedRequests = new AtomicLong();
+    private final AtomicLong rejectedRequests = new AtomicLong();
+    private final AtomicLong proxiedContentBytes = new AtomicLong();
+    private final AtomicLong proxiedSentBytes = new AtomicLong();
+
     /**
      * Constructor of CloudClient
      *
@@ -129,9 +156,14 @@ public class CloudClient {
      * @param secret openHAB's Secret to connect to the openHAB Cloud
      * @param remoteAccessEnabled Allow the openHAB Cloud to be used as a remote proxy
      * @param exposedItems Items that are made available to apps connected to the openHAB Cloud
+     * @param itemUpdateWindow Time in ms within updates of an item are coalesced, 0 to send every update immediately
+     * @param proxyChunkSize Size in bytes of the response content chunks sent to the openHAB Cloud
+     * @param proxyCompression Compress compressible response content with gzip if the client accepts it
+     * @param proxyMaxConcurrentRequests Maximum number of requests proxied to local openHAB at the same time
      */
     public CloudClient(HttpClient httpClient, String uuid, String secret, String baseURL, String localBaseUrl,
-            boolean remoteAccessEnabled, Set<String> exposedItems) {
+            boolean remoteAccessEnabled, Set<String> exposedItems, long itemUpdateWindow, int proxyChunkSize,
+            boolean proxyCompression, int proxyMaxConcurrentRequests) {
         this.uuid = uuid;
         this.secret = secret;
         this.baseURL = baseURL;
@@ -139,6 +171,12 @@ public class CloudClient {
         this.remoteAccessEnabled = remoteAccessEnabled;
         this.exposedItems = exposedItems;
         this.jettyClient = httpClient;
+        this.itemUpdateUplink = new ItemUpdateUplink(ThreadPoolManager.getScheduledPool("openhabcloud"),
+                this::emitItemUpdate, itemUpdateWindow);
+        this.proxyChunkSize = Math.max(MIN_PROXY_CHUNK_SIZE, proxyChunkSize);
+        this.proxyCompression = proxyCompression;
+        this.proxyMaxConcurrentRequests = Math.max(1, proxyMaxConcurrentRequests);
+        this.proxyRequestPermits = new Semaphore(this.proxyMaxConcurrentRequests);
     }
 
     /**
@@ -180,6 +218,8 @@ public class CloudClient {
             public void call(Object... args) {
                 logger.debug("Socket.IO connected");
                 isConnected = true;
+                // the states sent over the previous connection might not have reached the openHAB Cloud
+                itemUpdateUplink.reset();
                 onConnect();
             }
         }).on(Socket.EVENT_DISCONNECT, new Emitter.Listener() {
@@ -324,33 +364,51 @@ public class CloudClient {
             if (!requestBody.isEmpty()) {
                 request.content(new BytesContentProvider(requestBody.getBytes()));
             }
+            String acceptEncoding = request.getHeaders().get(HttpHeader.ACCEPT_ENCODING);
+            boolean acceptsGzip = proxyCompression && method != HttpMethod.HEAD && acceptEncoding != null
+                    && acceptEncoding.toLowerCase().contains("gzip");
+
+            // Limit the requests to openHAB, as every running request holds a chunk buffer
+            if (!proxyRequestPermits.tryAcquire()) {
+                rejectedRequests.incrementAndGet();
+                logger.debug("Rejecting request {}, {} requests are already running", requestId,
+                        proxyMaxConcurrentRequests);
+                emitServiceUnavailable(requestId);
+                return;
+            }
+            proxiedRequests.incrementAndGet();
+            ProxyResponseStream responseStream = new ProxyResponseStream(jettyClient.getByteBufferPool(),
+                    proxyChunkSize, chunk -> emitResponseContent(requestId, chunk));
 
             request.onResponseHeaders(response -> {
                 logger.debug("onHeaders {}", requestId);
+                boolean compress = acceptsGzip && isCompressible(response);
+                boolean eventStream = isEventStream(response);
+                HttpFields headers = response.getHeaders();
+                if (compress) {
+                    headers = new HttpFields(headers);
+                    headers.remove(HttpHeader.CONTENT_LENGTH);
+                    headers.put(HttpHeader.CONTENT_ENCODING, "gzip");
+                    headers.add(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING.asString());
+                }
                 JSONObject responseJson = new JSONObject();
                 try {
+                    responseStream.begin(compress, eventStream);
                     responseJson.put("id", requestId);
-                    responseJson.put("headers", getJSONHeaders(response.getHeaders()));
+                    responseJson.put("headers", getJSONHeaders(headers));
                     responseJson.put("responseStatusCode", response.getStatus());
                     responseJson.put("responseStatusText", "OK");
                     socket.emit("responseHeader", responseJson);
                     logger.trace("Sent headers to request {}", requestId);
                     logger.trace("{}", responseJson.toString());
-                } catch (JSONException e) {
+                } catch (JSONException | IOException e) {
                     logger.debug("{}", e.getMessage());
                 }
             }).onResponseContent((theResponse, content) -> {
-                logger.debug("onResponseContent: {}, content size {}", requestId, String.valueOf(content.remaining()));
-                JSONObject responseJson = new JSONObject();
+                logger.trace("onResponseContent: {}, content size {}", requestId, content.remaining());
                 try {
-                    responseJson.put("id", requestId);
-                    responseJson.put("body", BufferUtil.toArray(content));
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("{}", StandardCharsets.UTF_8.decode(content).toString());
-                    }
-                    socket.emit("responseContentBinary", responseJson);
-                    logger.trace("Sent content to request {}", requestId);
-                } catch (JSONException e) {
+                    responseStream.write(content);
+                } catch (IOException e) {
                     logger.debug("{}", e.getMessage());
                 }
             }).onRequestFailure((origRequest, failure) -> {
@@ -367,6 +425,19 @@ public class CloudClient {
                 logger.debug("onComplete: {}", requestId);
                 // Remove this request from list of running requests
                 runningRequests.remove(requestId);
+                try {
+                    if (result != null && !result.isFailed()) {
+                        responseStream.finish();
+                    } else {
+                        responseStream.release();
+                    }
+                } catch (IOException e) {
+                    logger.debug("{}", e.getMessage());
+                } finally {
+                    proxyRequestPermits.release();
+                    proxiedContentBytes.addAndGet(responseStream.getContentBytes());
+                    proxiedSentBytes.addAndGet(responseStream.getSentBytes());
+                }
                 if ((result != null && result.isFailed())
                         && (result.getResponse() != null && result.getResponse().getStatus() != HttpStatus.OK_200)) {
                     if (result.getFailure() != null) {
@@ -383,7 +454,8 @@ public class CloudClient {
                 try {
                     responseJson.put("id", requestId);
                     socket.emit("responseFinished", responseJson);
-                    logger.debug("Finished responding to request {}", requestId);
+                    logger.debug("Finished responding to request {} ({} bytes received, {} bytes sent)", requestId,
+                            responseStream.getContentBytes(), responseStream.getSentBytes());
                 } catch (JSONException e) {
                     logger.debug("{}", e.getMessage());
                 }
@@ -397,6 +469,60 @@ public class CloudClient {
         }
     }
 
+    private void emitResponseContent(int requestId, byte[] chunk) {
+        JSONObject responseJson = new JSONObject();
+        try {
+            responseJson.put("id", requestId);
+            responseJson.put("body", chunk);
+            socket.emit("responseContentBinary", responseJson);
+            logger.trace("Sent {} bytes of content to request {}", chunk.length, requestId);
+        } catch (JSONException e) {
+            logger.debug("{}", e.getMessage());
+        }
+    }
+
+    private void emitServiceUnavailable(int requestId) {
+        JSONObject responseJson = new JSONObject();
+        try {
+            responseJson.put("id", requestId);
+            responseJson.put("headers", new JSONObject());
+            responseJson.put("responseStatusCode", HttpStatus.SERVICE_UNAVAILABLE_503);
+            responseJson.put("responseStatusText", "Service Unavailable");
+            socket.emit("responseHeader", responseJson);
+            JSONObject finishedJson = new JSONObject();
+            finishedJson.put("id", requestId);
+            socket.emit("responseFinished", finishedJson);
+        } catch (JSONException e) {
+            logger.debug("{}", e.getMessage());
+        }
+    }
+
+    private boolean isCompressible(Response response) {
+        HttpFields headers = response.getHeaders();
+        int status = response.getStatus();
+        if (status == HttpStatus.NO_CONTENT_204 || status == HttpStatus.NOT_MODIFIED_304
+                || headers.containsKey(HttpHeader.CONTENT_ENCODING.asString())) {
+            return false;
+        }
+        long contentLength = headers.getLongField(HttpHeader.CONTENT_LENGTH.asString());
+        if (contentLength >= 0 && contentLength < MIN_COMPRESSED_CONTENT_LENGTH) {
+            return false;
+        }
+        String contentType = headers.get(HttpHeader.CONTENT_TYPE);
+        if (contentType == null || isEventStream(response)) {
+            return false;
+        }
+        String mimeType = contentType.toLowerCase();
+        return mimeType.startsWith("text/") || mimeType.startsWith("application/json")
+                || mimeType.startsWith("application/javascript") || mimeType.startsWith("application/xml")
+                || mimeType.startsWith("image/svg+xml") || mimeType.contains("+json") || mimeType.contains("+xml");
+    }
+
+    private boolean isEventStream(Response response) {
+        String contentType = response.getHeaders().get(HttpHeader.CONTENT_TYPE);
+        return contentType != null && contentType.toLowerCase().startsWith("text/event-stream");
+    }
+
     private void setRequestHeaders(Request request, JSONObject requestHeadersJson) {
         Iterator<String> headersIterator = requestHeadersJson.keys();
         // Convert JSONObject of headers into Header ArrayList
@@ -525,6 +651,10 @@ public class CloudClient {
      *
      */
     public void sendItemUpdate(String itemName, String itemState) {
+        itemUpdateUplink.update(itemName, itemState);
+    }
+
+    private boolean emitItemUpdate(String itemName, String itemState) {
         if (isConnected()) {
             logger.debug("Sending update '{}' for item '{}'", itemState, itemName);
             JSONObject itemUpdateMessage = new JSONObject();
@@ -532,12 +662,14 @@ public class CloudClient {
                 itemUpdateMessage.put("itemName", itemName);
                 itemUpdateMessage.put("itemStatus", itemState);
                 socket.emit("itemupdate", itemUpdateMessage);
+                return true;
             } catch (JSONException e) {
                 logger.debug("{}", e.getMessage());
             }
         } else {
             logger.debug("No connection, Item update is not sent");
         }
+        return false;
     }
 
     /**
@@ -552,9 +684,50 @@ public class CloudClient {
      */
     public void shutdown() {
         logger.info("Shutting down openHAB Cloud service connection");
+        itemUpdateUplink.dispose();
+        logger.debug("Item updates sent: {}, coalesced: {}, dropped as unchanged: {}",
+                itemUpdateUplink.getSentUpdates(), itemUpdateUplink.getCoalescedUpdates(),
+                itemUpdateUplink.getDroppedUpdates());
+        logger.debug("Requests proxied: {}, rejected: {}, content bytes received: {}, sent: {}", proxiedRequests,
+                rejectedRequests, proxiedContentBytes, proxiedSentBytes);
         socket.disconnect();
     }
 
+    /**
+     * Returns the number of requests to local openHAB which are currently running
+     */
+    public int getInFlightRequests() {
+        return proxyMaxConcurrentRequests - proxyRequestPermits.availablePermits();
+    }
+
+    /**
+     * Returns the number of requests which were proxied to local openHAB
+     */
+    public long getProxiedRequests() {
+        return proxiedRequests.get();
+    }
+
+    /**
+     * Returns the number of requests which were rejected as too many requests were running
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.get();
+    }
+
+    /**
+     * Returns the number of response content bytes received from local openHAB
+     */
+    public long getProxiedContentBytes() {
+        return proxiedContentBytes.get();
+    }
+
+    /**
+     * Returns the number of response content bytes sent to the openHAB Cloud
+     */
+    public long getProxiedSentBytes() {
+        return proxiedSentBytes.get();
+    }
+
     public String getOpenHABVersion() {
         return openHABVersion;
     }
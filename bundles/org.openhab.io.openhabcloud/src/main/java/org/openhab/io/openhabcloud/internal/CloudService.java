@@ -23,6 +23,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToDoubleFunction;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
@@ -33,6 +35,7 @@ import org.openhab.core.events.EventFilter;
 import org.openhab.core.events.EventPublisher;
 import org.openhab.core.events.EventSubscriber;
 import org.openhab.core.id.InstanceUUID;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.io.net.http.HttpClientFactory;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
@@ -55,9 +58,17 @@ import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
 /**
  * This class starts the cloud connection service and implements interface to communicate with the cloud.
  *
@@ -73,10 +84,17 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_ITEM_UPDATE_WINDOW = "itemUpdateWindow";
+    private static final String CFG_PROXY_CHUNK_SIZE = "proxyChunkSize";
+    private static final String CFG_PROXY_COMPRESSION = "proxyCompression";
+    private static final String CFG_PROXY_MAX_CONCURRENT_REQUESTS = "proxyMaxConcurrentRequests";
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
     private static final int DEFAULT_LOCAL_OPENHAB_MAX_CONCURRENT_REQUESTS = 200;
     private static final int DEFAULT_LOCAL_OPENHAB_REQUEST_TIMEOUT = 30000;
+    private static final long DEFAULT_ITEM_UPDATE_WINDOW = 1000;
+    private static final int DEFAULT_PROXY_CHUNK_SIZE = 32768;
+    private static final int DEFAULT_PROXY_MAX_CONCURRENT_REQUESTS = 100;
     private static final String HTTPCLIENT_NAME = "openhabcloud";
     private static final String CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
     private static final SecureRandom SR = new SecureRandom();
@@ -84,7 +102,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private final Logger logger = LoggerFactory.getLogger(CloudService.class);
 
     public static String clientVersion = null;
-    private CloudClient cloudClient;
+    private volatile CloudClient cloudClient;
     private String cloudBaseUrl = null;
     private final HttpClient httpClient;
     protected final ItemRegistry itemRegistry;
@@ -92,8 +110,15 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
     private boolean remoteAccessEnabled = true;
     private Set<String> exposedItems = null;
+    private long itemUpdateWindow = DEFAULT_ITEM_UPDATE_WINDOW;
+    private int proxyChunkSize = DEFAULT_PROXY_CHUNK_SIZE;
+    private boolean proxyCompression = true;
+    private int proxyMaxConcurrentRequests = DEFAULT_PROXY_MAX_CONCURRENT_REQUESTS;
     private int localPort;
 
+    // the meters of the proxied requests, registered while a meter registry is available
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+
     @Activate
     public CloudService(final @Reference HttpClientFactory httpClientFactory,
             final @Reference ItemRegistry itemRegistry, final @Reference EventPublisher eventPublisher) {
@@ -193,6 +218,40 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
         }
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        Tags tags = Tags.of("service", "openhabcloud");
+        meters.add(Gauge.builder("openhab.cloud.requests.active", this,
+                service -> clientValue(service, CloudClient::getInFlightRequests)).tags(tags)
+                .description("Requests which are currently proxied to openHAB").register(registry));
+        meters.add(clientCounter(registry, tags, "openhab.cloud.requests.proxied", CloudClient::getProxiedRequests,
+                null));
+        meters.add(clientCounter(registry, tags, "openhab.cloud.requests.rejected", CloudClient::getRejectedRequests,
+                null));
+        meters.add(clientCounter(registry, tags, "openhab.cloud.content.received", CloudClient::getProxiedContentBytes,
+                "bytes"));
+        meters.add(clientCounter(registry, tags, "openhab.cloud.content.sent", CloudClient::getProxiedSentBytes,
+                "bytes"));
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    private Meter clientCounter(MeterRegistry registry, Tags tags, String name, ToDoubleFunction<CloudClient> count,
+            @Nullable String baseUnit) {
+        return FunctionCounter.builder(name, this, service -> clientValue(service, count)).tags(tags)
+                .baseUnit(baseUnit).register(registry);
+    }
+
+    private static double clientValue(CloudService service, ToDoubleFunction<CloudClient> value) {
+        CloudClient client = service.cloudClient;
+        return client == null ? 0 : value.applyAsDouble(client);
+    }
+
     @Modified
     protected void modified(Map<String, ?> config) {
         if (config != null && config.get(CFG_MODE) != null) {
@@ -207,6 +266,13 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
             cloudBaseUrl = DEFAULT_URL;
         }
 
+        itemUpdateWindow = getNumberConfig(config, CFG_ITEM_UPDATE_WINDOW, DEFAULT_ITEM_UPDATE_WINDOW);
+        proxyChunkSize = (int) getNumberConfig(config, CFG_PROXY_CHUNK_SIZE, DEFAULT_PROXY_CHUNK_SIZE);
+        proxyMaxConcurrentRequests = (int) getNumberConfig(config, CFG_PROXY_MAX_CONCURRENT_REQUESTS,
+                DEFAULT_PROXY_MAX_CONCURRENT_REQUESTS);
+        Object compressionCfg = config.get(CFG_PROXY_COMPRESSION);
+        proxyCompression = compressionCfg == null || Boolean.parseBoolean(compressionCfg.toString());
+
         exposedItems = new HashSet<>();
         Object expCfg = config.get(CFG_EXPOSE);
         if (expCfg instanceof String) {
@@ -242,13 +308,28 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
         String localBaseUrl = "http://localhost:" + localPort;
         cloudClient = new CloudClient(httpClient, InstanceUUID.get(), getSecret(), cloudBaseUrl, localBaseUrl,
-                remoteAccessEnabled, exposedItems);
+                remoteAccessEnabled, exposedItems, itemUpdateWindow, proxyChunkSize, proxyCompression,
+                proxyMaxConcurrentRequests);
         cloudClient.setOpenHABVersion(OpenHAB.getVersion());
         cloudClient.connect();
         cloudClient.setListener(this);
         NotificationAction.cloudService = this;
     }
 
+    private long getNumberConfig(Map<String, ?> config, String key, long defaultValue) {
+        Object value = config.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value instanceof String) {
+            try {
+                return Long.parseLong(((String) value).trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' of {}, using {}", value, key, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
     @Override
     public String getActionClassName() {
         return NotificationAction.class.getCanonicalName();
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ItemUpdateUplink} reduces the item updates which are sent to the openHAB Cloud.
+ *
+ * Updates of an item within the coalescing window replace each other, so that only the latest state is sent. All
+ * pending updates are sent together when the window ends. A state which equals the last state sent for the item over
+ * the current connection is dropped. Without a window every update is sent immediately, as before.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ItemUpdateUplink {
+    /**
+     * Sends a single item update.
+     */
+    @FunctionalInterface
+    public interface Sender {
+        /**
+         * @return true if the update was sent
+         */
+        boolean send(String itemName, String itemState);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ItemUpdateUplink.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final Sender sender;
+    private final long windowMillis;
+
+    private final Map<String, String> pendingUpdates = new LinkedHashMap<>();
+    private final Map<String, String> sentStates = new HashMap<>();
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    private final AtomicLong sentUpdates = new AtomicLong();
+    private final AtomicLong coalescedUpdates = new AtomicLong();
+    private final AtomicLong droppedUpdates = new AtomicLong();
+
+    /**
+     * @param scheduler The scheduler for sending the pending updates
+     * @param sender The sender of a single update
+     * @param windowMillis The coalescing window in ms, 0 sends every update immediately, even if it is unchanged
+     */
+    public ItemUpdateUplink(ScheduledExecutorService scheduler, Sender sender, long windowMillis) {
+        this.scheduler = scheduler;
+        this.sender = sender;
+        this.windowMillis = Math.max(0, windowMillis);
+    }
+
+    /**
+     * Queues the update of an item.
+     */
+    public synchronized void update(String itemName, String itemState) {
+        if (windowMillis == 0) {
+            send(itemName, itemState);
+            return;
+        }
+        if (pendingUpdates.put(itemName, itemState) != null) {
+            coalescedUpdates.incrementAndGet();
+        }
+        if (flushJob == null) {
+            flushJob = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends all pending updates.
+     */
+    public synchronized void flush() {
+        flushJob = null;
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+        pendingUpdates.forEach(this::send);
+        pendingUpdates.clear();
+        logger.trace("Item updates sent: {}, coalesced: {}, dropped: {}", sentUpdates, coalescedUpdates,
+                droppedUpdates);
+    }
+
+    private void send(String itemName, String itemState) {
+        if (windowMillis == 0) {
+            if (sender.send(itemName, itemState)) {
+                sentUpdates.incrementAndGet();
+            }
+            return;
+        }
+        if (itemState.equals(sentStates.get(itemName))) {
+            droppedUpdates.incrementAndGet();
+            return;
+        }
+        if (sender.send(itemName, itemState)) {
+            sentStates.put(itemName, itemState);
+            sentUpdates.incrementAndGet();
+        }
+    }
+
+    /**
+     * Forgets the states sent before, e.g. after a reconnect, so that the next update of every item is sent.
+     */
+    public synchronized void reset() {
+        sentStates.clear();
+    }
+
+    /**
+     * Discards all pending updates.
+     */
+    public synchronized void dispose() {
+        ScheduledFuture<?> job = flushJob;
+        if (job != null) {
+            job.cancel(false);
+            flushJob = null;
+        }
+        pendingUpdates.clear();
+        sentStates.clear();
+    }
+
+    public long getSentUpdates() {
+        return sentUpdates.get();
+    }
+
+    public long getCoalescedUpdates() {
+        return coalescedUpdates.get();
+    }
+
+    public long getDroppedUpdates() {
+        return droppedUpdates.get();
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.io.ByteBufferPool;
+import org.eclipse.jetty.util.BufferUtil;
+
+/**
+ * The {@link ProxyResponseStream} collects the content of a proxied response into chunks of a fixed size, which are
+ * sent to the openHAB Cloud.
+ *
+ * The chunk buffer is taken from a {@link ByteBufferPool} and returned to it when the response is finished, so that
+ * the content of the local response is copied only once into the buffer and once into the sent chunk. The content can
+ * optionally be compressed with gzip while it is collected.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ProxyResponseStream {
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    /**
+     * Sends a single chunk of the response content.
+     */
+    @FunctionalInterface
+    public interface ChunkSender {
+        void send(byte[] chunk);
+    }
+
+    private final ByteBufferPool bufferPool;
+    private final int chunkSize;
+    private final ChunkSender sender;
+
+    private @Nullable ByteBuffer buffer;
+    private @Nullable GZIPOutputStream gzip;
+    private boolean flushEachContent;
+    private long contentBytes;
+    private long sentBytes;
+
+    /**
+     * @param bufferPool The pool of the chunk buffers
+     * @param chunkSize The size of the sent chunks in bytes
+     * @param sender The sender of a single chunk
+     */
+    public ProxyResponseStream(ByteBufferPool bufferPool, int chunkSize, ChunkSender sender) {
+        this.bufferPool = bufferPool;
+        this.chunkSize = chunkSize;
+        this.sender = sender;
+    }
+
+    /**
+     * Prepares the stream for the content of the response.
+     *
+     * @param compress true to compress the content with gzip
+     * @param flushEachContent true to send the content immediately instead of collecting full chunks, e.g. for event
+     *            streams
+     */
+    public void begin(boolean compress, boolean flushEachContent) throws IOException {
+        ByteBuffer chunkBuffer = bufferPool.acquire(chunkSize, false);
+        // the pool may return a larger buffer, but the chunks keep the configured size
+        chunkBuffer.clear().limit(chunkSize);
+        buffer = chunkBuffer;
+        this.flushEachContent = flushEachContent;
+        if (compress) {
+            // sync flush, so that flushing passes on the content of an event stream that is pending in the deflater
+            gzip = new GZIPOutputStream(new ChunkOutputStream(), GZIP_BUFFER_SIZE, true);
+        }
+    }
+
+    /**
+     * Adds content of the response. The given buffer is not consumed.
+     */
+    public void write(ByteBuffer content) throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        int length = content.remaining();
+        contentBytes += length;
+        GZIPOutputStream gzipStream = gzip;
+        if (gzipStream != null) {
+            if (content.hasArray()) {
+                gzipStream.write(content.array(), content.arrayOffset() + content.position(), length);
+            } else {
+                gzipStream.write(BufferUtil.toArray(content));
+            }
+            if (flushEachContent) {
+                gzipStream.flush();
+            }
+        } else {
+            ByteBuffer source = content.slice();
+            while (source.hasRemaining()) {
+                ByteBuffer chunkBuffer = buffer;
+                if (chunkBuffer == null) {
+                    return;
+                }
+                int count = Math.min(source.remaining(), chunkBuffer.remaining());
+                ByteBuffer part = source.slice();
+                part.limit(count);
+                chunkBuffer.put(part);
+                source.position(source.position() + count);
+                if (!chunkBuffer.hasRemaining()) {
+                    sendChunk();
+                }
+            }
+        }
+        if (flushEachContent) {
+            sendChunk();
+        }
+    }
+
+    /**
+     * Sends the remaining content and releases the chunk buffer.
+     */
+    public void finish() throws IOException {
+        try {
+            GZIPOutputStream gzipStream = gzip;
+            if (gzipStream != null) {
+                gzipStream.finish();
+            }
+            sendChunk();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Discards the remaining content and releases the chunk buffer.
+     */
+    public void release() {
+        ByteBuffer chunkBuffer = buffer;
+        buffer = null;
+        GZIPOutputStream gzipStream = gzip;
+        gzip = null;
+        if (gzipStream != null) {
+            try {
+                // ends the deflater, the output is discarded as the buffer is gone
+                gzipStream.close();
+            } catch (IOException e) {
+                // nothing to do as the content is discarded anyway
+            }
+        }
+        if (chunkBuffer != null) {
+            bufferPool.release(chunkBuffer);
+        }
+    }
+
+    private void sendChunk() {
+        ByteBuffer chunkBuffer = buffer;
+        if (chunkBuffer == null || chunkBuffer.position() == 0) {
+            return;
+        }
+        chunkBuffer.flip();
+        byte[] chunk = BufferUtil.toArray(chunkBuffer);
+        chunkBuffer.clear().limit(chunkSize);
+        sentBytes += chunk.length;
+        sender.send(chunk);
+    }
+
+    /**
+     * Returns the number of content bytes received from openHAB.
+     */
+    public long getContentBytes() {
+        return contentBytes;
+    }
+
+    /**
+     * Returns the number of content bytes sent to the openHAB Cloud, which is less than the received bytes if the
+     * content is compressed.
+     */
+    public long getSentBytes() {
+        return sentBytes;
+    }
+
+    /**
+     * Writes the compressed content into the chunk buffer.
+     */
+    private class ChunkOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+            ByteBuffer chunkBuffer = buffer;
+            if (chunkBuffer == null) {
+                return;
+            }
+            chunkBuffer.put((byte) b);
+            if (!chunkBuffer.hasRemaining()) {
+                sendChunk();
+            }
+        }
+
+        @Override
+        public void write(byte @Nullable [] b, int off, int len) {
+            if (b == null) {
+                return;
+            }
+            int offset = off;
+            int remaining = len;
+            while (remaining > 0) {
+                ByteBuffer chunkBuffer = buffer;
+                if (chunkBuffer == null) {
+                    return;
+                }
+                int count = Math.min(remaining, chunkBuffer.remaining());
+                chunkBuffer.put(b, offset, count);
+                offset += count;
+                remaining -= count;
+                if (!chunkBuffer.hasRemaining()) {
+                    sendChunk();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ * Tests cases for {@link ItemUpdateUplink}
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class ItemUpdateUplinkTest {
+    private @Mock ScheduledExecutorService scheduler;
+    private @Mock ScheduledFuture<?> flushJob;
+
+    private final List<String> sent = new ArrayList<>();
+    private boolean connected = true;
+
+    @BeforeEach
+    public void setUp() {
+        doReturn(flushJob).when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    private ItemUpdateUplink createUplink(long windowMillis) {
+        return new ItemUpdateUplink(scheduler, (itemName, itemState) -> {
+            if (connected) {
+                sent.add(itemName + "=" + itemState);
+            }
+            return connected;
+        }, windowMillis);
+    }
+
+    @Test
+    public void everyUpdateIsSentImmediatelyWithoutWindow() {
+        ItemUpdateUplink uplink = createUplink(0);
+
+        uplink.update("item1", "ON");
+        uplink.update("item1", "ON");
+        uplink.update("item1", "OFF");
+
+        assertThat(sent, is(List.of("item1=ON", "item1=ON", "item1=OFF")));
+        assertThat(uplink.getSentUpdates(), is(3L));
+        assertThat(uplink.getDroppedUpdates(), is(0L));
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void updatesWithinWindowAreCoalesced() {
+        ItemUpdateUplink uplink = createUplink(1000);
+
+        uplink.update("item1", "1");
+        uplink.update("item2", "A");
+        uplink.update("item1", "2");
+
+        assertThat(sent.isEmpty(), is(true));
+        verify(scheduler, times(1)).schedule(any(Runnable.class), eq(1000L), eq(TimeUnit.MILLISECONDS));
+
+        uplink.flush();
+
+        assertThat(sent, is(List.of("item1=2", "item2=A")));
+        assertThat(uplink.getCoalescedUpdates(), is(1L));
+        assertThat(uplink.getSentUpdates(), is(2L));
+    }
+
+    @Test
+    public void newWindowStartsAfterFlush() {
+        ItemUpdateUplink uplink = createUplink(1000);
+
+        uplink.update("item1", "1");
+        uplink.flush();
+        uplink.update("item1", "2");
+
+        verify(scheduler, times(2)).schedule(any(Runnable.class), eq(1000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void unchangedStateIsDroppedWithWindow() {
+        ItemUpdateUplink uplink = createUplink(1000);
+
+        uplink.update("item1", "ON");
+        uplink.flush();
+        uplink.update("item1", "ON");
+        uplink.flush();
+
+        assertThat(sent, is(List.of("item1=ON")));
+        assertThat(uplink.getDroppedUpdates(), is(1L));
+    }
+
+    @Test
+    public void unchangedStateIsSentAfterReset() {
+        ItemUpdateUplink uplink = createUplink(1000);
+
+        uplink.update("item1", "ON");
+        uplink.flush();
+        uplink.reset();
+        uplink.update("item1", "ON");
+        uplink.flush();
+
+        assertThat(sent, is(List.of("item1=ON", "item1=ON")));
+    }
+
+    @Test
+    public void stateIsNotRememberedIfSendingFailed() {
+        ItemUpdateUplink uplink = createUplink(1000);
+
+        connected = false;
+        uplink.update("item1", "ON");
+        uplink.flush();
+        connected = true;
+        uplink.update("item1", "ON");
+        uplink.flush();
+
+        assertThat(sent, is(List.of("item1=ON")));
+        assertThat(uplink.getDroppedUpdates(), is(0L));
+    }
+
+    @Test
+    public void disposeDiscardsPendingUpdates() {
+        ItemUpdateUplink uplink = createUplink(1000);
+
+        uplink.update("item1", "ON");
+        uplink.dispose();
+        uplink.flush();
+
+        assertThat(sent.isEmpty(), is(true));
+        verify(flushJob).cancel(false);
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.jetty.io.ByteBufferPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests cases for {@link ProxyResponseStream}
+ *
+ * @author agent - Initial contribution
+ */
+public class ProxyResponseStreamTest {
+    private static final int CHUNK_SIZE = 1024;
+
+    private final CountingBufferPool pool = new CountingBufferPool();
+    private final List<byte[]> chunks = new ArrayList<>();
+    private final ProxyResponseStream stream = new ProxyResponseStream(pool, CHUNK_SIZE, chunks::add);
+
+    @Test
+    public void contentIsSentInChunksOfTheConfiguredSize() throws IOException {
+        byte[] content = content(2 * CHUNK_SIZE + 100);
+
+        stream.begin(false, false);
+        stream.write(ByteBuffer.wrap(content, 0, 500));
+        assertThat(chunks.size(), is(0));
+        stream.write(ByteBuffer.wrap(content, 500, content.length - 500));
+        assertThat(chunks.size(), is(2));
+        stream.finish();
+
+        assertThat(chunks.size(), is(3));
+        assertThat(chunks.get(0).length, is(CHUNK_SIZE));
+        assertThat(chunks.get(1).length, is(CHUNK_SIZE));
+        assertThat(chunks.get(2).length, is(100));
+        assertThat(joinChunks(), is(content));
+        assertThat(stream.getContentBytes(), is((long) content.length));
+        assertThat(stream.getSentBytes(), is((long) content.length));
+    }
+
+    @Test
+    public void writtenBufferIsNotConsumed() throws IOException {
+        ByteBuffer content = ByteBuffer.wrap(content(100));
+        content.position(10);
+
+        stream.begin(false, false);
+        stream.write(content);
+        stream.finish();
+
+        assertThat(content.position(), is(10));
+        assertThat(chunks.get(0).length, is(90));
+    }
+
+    @Test
+    public void eachContentIsSentImmediatelyForEventStreams() throws IOException {
+        stream.begin(false, true);
+        stream.write(ByteBuffer.wrap("event: a\n\n".getBytes(StandardCharsets.UTF_8)));
+        stream.write(ByteBuffer.wrap("event: b\n\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(chunks.size(), is(2));
+        assertThat(new String(chunks.get(1), StandardCharsets.UTF_8), is("event: b\n\n"));
+        stream.finish();
+        assertThat(chunks.size(), is(2));
+    }
+
+    @Test
+    public void compressedContentCanBeDecompressed() throws IOException {
+        byte[] content = "openHAB ".repeat(2000).getBytes(StandardCharsets.UTF_8);
+
+        stream.begin(true, false);
+        stream.write(ByteBuffer.wrap(content));
+        stream.finish();
+
+        assertThat(gunzip(joinChunks()), is(content));
+        assertThat(stream.getContentBytes(), is((long) content.length));
+        assertThat(stream.getSentBytes(), is(lessThan((long) content.length)));
+        for (byte[] chunk : chunks) {
+            assertThat(chunk.length <= CHUNK_SIZE, is(true));
+        }
+    }
+
+    @Test
+    public void compressedEventStreamIsFlushedForEachContent() throws IOException {
+        stream.begin(true, true);
+        stream.write(ByteBuffer.wrap("event: a\n\n".getBytes(StandardCharsets.UTF_8)));
+        int sentAfterFirstEvent = chunks.size();
+        // more than the gzip header has been sent
+        assertThat(stream.getSentBytes() > 10, is(true));
+        stream.write(ByteBuffer.wrap("event: b\n\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(chunks.size() > sentAfterFirstEvent, is(true));
+        stream.finish();
+        assertThat(new String(gunzip(joinChunks()), StandardCharsets.UTF_8), is("event: a\n\nevent: b\n\n"));
+    }
+
+    @Test
+    public void onlyASingleChunkIsBufferedForLargeResponses() throws IOException {
+        byte[] content = content(100 * CHUNK_SIZE);
+
+        stream.begin(false, false);
+        // a single large content is passed on while it is copied instead of being collected first
+        stream.write(ByteBuffer.wrap(content));
+
+        assertThat(chunks.size(), is(100));
+        for (byte[] chunk : chunks) {
+            assertThat(chunk.length, is(CHUNK_SIZE));
+        }
+        assertThat(pool.acquired, is(1));
+        stream.finish();
+        assertThat(joinChunks(), is(content));
+    }
+
+    @Test
+    public void largerPooledBufferKeepsTheChunkSize() throws IOException {
+        pool.extraCapacity = CHUNK_SIZE;
+
+        stream.begin(false, false);
+        stream.write(ByteBuffer.wrap(content(CHUNK_SIZE + 1)));
+        stream.finish();
+
+        assertThat(chunks.get(0).length, is(CHUNK_SIZE));
+        assertThat(chunks.get(1).length, is(1));
+    }
+
+    @Test
+    public void bufferIsReturnedToThePoolWhenFinished() throws IOException {
+        stream.begin(true, false);
+        stream.write(ByteBuffer.wrap(content(100)));
+        stream.finish();
+
+        assertThat(pool.acquired, is(1));
+        assertThat(pool.released, is(1));
+    }
+
+    @Test
+    public void releasedStreamDiscardsTheContent() throws IOException {
+        stream.begin(false, false);
+        stream.write(ByteBuffer.wrap(content(100)));
+        stream.release();
+        stream.write(ByteBuffer.wrap(content(100)));
+        stream.finish();
+
+        assertThat(chunks.size(), is(0));
+        assertThat(stream.getSentBytes(), is(0L));
+        assertThat(pool.released, is(1));
+    }
+
+    private byte[] joinChunks() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        chunks.forEach(out::writeBytes);
+        return out.toByteArray();
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static class CountingBufferPool implements ByteBufferPool {
+        private int acquired;
+        private int released;
+        private int extraCapacity;
+
+        @Override
+        public ByteBuffer acquire(int size, boolean direct) {
+            acquired++;
+            return ByteBuffer.allocate(size + extraCapacity);
+        }
+
+        @Override
+        public void release(ByteBuffer buffer) {
+            released++;
+        }
+    }
+}
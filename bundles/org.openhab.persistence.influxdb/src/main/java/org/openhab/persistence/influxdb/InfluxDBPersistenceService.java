@@ -12,18 +12,25 @@
  */
 package org.openhab.persistence.influxdb;
 
+import java.io.File;
+import java.nio.file.Path;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.config.core.ConfigurableService;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.MetadataRegistry;
@@ -40,6 +47,7 @@ import org.openhab.persistence.influxdb.internal.InfluxDBHistoricItem;
 import org.openhab.persistence.influxdb.internal.InfluxDBPersistentItemInfo;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils;
+import org.openhab.persistence.influxdb.internal.InfluxDBWriteBuffer;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
 import org.openhab.persistence.influxdb.internal.InfluxRow;
 import org.openhab.persistence.influxdb.internal.ItemToStorePointCreator;
@@ -50,9 +58,17 @@ import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
 /**
  * This is the implementation of the InfluxDB {@link PersistenceService}. It
  * persists item values using the <a href="http://influxdb.org">InfluxDB time
@@ -84,6 +100,9 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
 
     protected static final String CONFIG_URI = "persistence:influxdb";
 
+    private static final Path SPILL_FILE = new File(OpenHAB.getUserDataFolder(), "persistence").toPath()
+            .resolve("influxdb").resolve("buffer.spill");
+
     // External dependencies
     private final ItemRegistry itemRegistry;
     private final MetadataRegistry metadataRegistry;
@@ -94,6 +113,10 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
     // Relax rules because can only be null if component is not active
     private @NonNullByDefault({}) ItemToStorePointCreator itemToStorePointCreator;
     private @NonNullByDefault({}) InfluxDBRepository influxDBRepository;
+    private volatile @NonNullByDefault({}) InfluxDBWriteBuffer writeBuffer;
+
+    // the meters of the write buffer, registered while a meter registry is available
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
 
     @Activate
     public InfluxDBPersistenceService(final @Reference ItemRegistry itemRegistry,
@@ -102,6 +125,37 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
         this.metadataRegistry = metadataRegistry;
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        Tags tags = Tags.of("service", SERVICE_NAME);
+        meters.add(bufferCounter(registry, tags, "buffered", InfluxDBWriteBuffer::getBufferedCount));
+        meters.add(bufferCounter(registry, tags, "flushed", InfluxDBWriteBuffer::getFlushedCount));
+        meters.add(bufferCounter(registry, tags, "spilled", InfluxDBWriteBuffer::getSpilledCount));
+        meters.add(bufferCounter(registry, tags, "dropped", InfluxDBWriteBuffer::getDroppedCount));
+        meters.add(Gauge.builder("openhab.persistence.buffer.depth", this,
+                service -> bufferValue(service, InfluxDBWriteBuffer::getBufferDepth)).tags(tags)
+                .description("Points waiting in the write buffer").register(registry));
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    private Meter bufferCounter(MeterRegistry registry, Tags tags, String state,
+            ToDoubleFunction<InfluxDBWriteBuffer> count) {
+        return FunctionCounter.builder("openhab.persistence.points." + state, this,
+                service -> bufferValue(service, count)).tags(tags).baseUnit("points").register(registry);
+    }
+
+    private static double bufferValue(InfluxDBPersistenceService service,
+            ToDoubleFunction<InfluxDBWriteBuffer> value) {
+        InfluxDBWriteBuffer buffer = service.writeBuffer;
+        return buffer == null ? 0 : value.applyAsDouble(buffer);
+    }
+
     /**
      * Connect to database when service is activated
      */
@@ -113,6 +167,8 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
             itemToStorePointCreator = new ItemToStorePointCreator(configuration, metadataRegistry);
             influxDBRepository = createInfluxDBRepository();
             influxDBRepository.connect();
+            writeBuffer = createWriteBuffer();
+            writeBuffer.start();
         } else {
             logger.error("Cannot load configuration, persistence service wont work");
         }
@@ -125,12 +181,23 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
         return RepositoryFactory.createRepository(configuration);
     }
 
+    // Visible for testing
+    protected InfluxDBWriteBuffer createWriteBuffer() {
+        return new InfluxDBWriteBuffer(influxDBRepository, configuration.getBatchSize(),
+                configuration.getFlushInterval(), configuration.getBufferSize(),
+                configuration.isSpillToDisk() ? SPILL_FILE : null, configuration.getSpillFileMaxSize() * 1024L * 1024L);
+    }
+
     /**
      * Disconnect from database when service is deactivated
      */
     @Deactivate
     public void deactivate() {
         logger.debug("InfluxDB persistence service deactivated");
+        if (writeBuffer != null) {
+            writeBuffer.stop();
+            writeBuffer = null;
+        }
         if (influxDBRepository != null) {
             influxDBRepository.disconnect();
             influxDBRepository = null;
@@ -202,19 +269,28 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
 
     @Override
     public void store(Item item, @Nullable String alias) {
-        if (influxDBRepository != null && influxDBRepository.isConnected()) {
+        if (writeBuffer != null) {
             InfluxPoint point = itemToStorePointCreator.convert(item, alias);
             if (point != null) {
                 logger.trace("Storing item {} in InfluxDB point {}", item, point);
-                influxDBRepository.write(point);
+                writeBuffer.write(point);
             } else {
                 logger.trace("Ignoring item {} as is cannot be converted to a InfluxDB point", item);
             }
         } else {
-            logger.debug("store ignored, InfluxDB is not yet connected");
+            logger.debug("store ignored, InfluxDB persistence service is not active");
         }
     }
 
+    /**
+     * Returns the buffer that collects points until they are written, e.g. to read its counters.
+     *
+     * @return the write buffer or <code>null</code> if the service is not active
+     */
+    public @Nullable InfluxDBWriteBuffer getWriteBuffer() {
+        return writeBuffer;
+    }
+
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
         logger.debug("Got a query for historic points!");
@@ -228,14 +304,44 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
             String query = RepositoryFactory.createQueryCreator(configuration, metadataRegistry).createQuery(filter,
                     configuration.getRetentionPolicy());
             logger.trace("Query {}", query);
-            List<InfluxRow> results = influxDBRepository.query(query);
-            return results.stream().map(this::mapRow2HistoricItem).collect(Collectors.toList());
+            final InfluxDBRepository repository = influxDBRepository;
+            // the query is executed each time the result is iterated, its rows are streamed and not kept
+            return () -> new HistoricItemIterator(repository.query(query));
         } else {
             logger.debug("query ignored, InfluxDB is not yet connected");
             return Collections.emptyList();
         }
     }
 
+    /**
+     * Maps the streamed rows of a query. A failed query ends the iteration with an
+     * {@link org.openhab.persistence.influxdb.internal.InfluxQueryException}, closing the iterator cancels the query.
+     */
+    private class HistoricItemIterator implements Iterator<HistoricItem>, AutoCloseable {
+        private final Iterator<InfluxRow> rows;
+
+        private HistoricItemIterator(Iterator<InfluxRow> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rows.hasNext();
+        }
+
+        @Override
+        public HistoricItem next() {
+            return mapRow2HistoricItem(rows.next());
+        }
+
+        @Override
+        public void close() throws Exception {
+            if (rows instanceof AutoCloseable) {
+                ((AutoCloseable) rows).close();
+            }
+        }
+    }
+
     private HistoricItem mapRow2HistoricItem(InfluxRow row) {
         State state = InfluxDBStateConvertUtils.objectToState(row.getValue(), row.getItemName(), itemRegistry);
         return new InfluxDBHistoricItem(row.getItemName(), state,
@@ -40,6 +40,11 @@ public class InfluxDBConfiguration {
     public static final String ADD_CATEGORY_TAG_PARAM = "addCategoryTag";
     public static final String ADD_LABEL_TAG_PARAM = "addLabelTag";
     public static final String ADD_TYPE_TAG_PARAM = "addTypeTag";
+    public static final String BATCH_SIZE_PARAM = "batchSize";
+    public static final String FLUSH_INTERVAL_PARAM = "flushInterval";
+    public static final String BUFFER_SIZE_PARAM = "bufferSize";
+    public static final String SPILL_TO_DISK_PARAM = "spillToDisk";
+    public static final String SPILL_FILE_MAX_SIZE_PARAM = "spillFileMaxSize";
     public static InfluxDBConfiguration NO_CONFIGURATION = new InfluxDBConfiguration(Collections.emptyMap());
     private final Logger logger = LoggerFactory.getLogger(InfluxDBConfiguration.class);
     private final String url;
@@ -55,6 +60,12 @@ public class InfluxDBConfiguration {
     private final boolean addTypeTag;
     private final boolean addLabelTag;
 
+    private final int batchSize;
+    private final int flushInterval;
+    private final int bufferSize;
+    private final boolean spillToDisk;
+    private final int spillFileMaxSize;
+
     public InfluxDBConfiguration(Map<String, Object> config) {
         url = (String) config.getOrDefault(URL_PARAM, "http://127.0.0.1:8086");
         user = (String) config.getOrDefault(USER_PARAM, "openhab");
@@ -68,6 +79,12 @@ public class InfluxDBConfiguration {
         addCategoryTag = getConfigBooleanValue(config, ADD_CATEGORY_TAG_PARAM, false);
         addLabelTag = getConfigBooleanValue(config, ADD_LABEL_TAG_PARAM, false);
         addTypeTag = getConfigBooleanValue(config, ADD_TYPE_TAG_PARAM, false);
+
+        batchSize = getConfigIntValue(config, BATCH_SIZE_PARAM, 200);
+        flushInterval = getConfigIntValue(config, FLUSH_INTERVAL_PARAM, 1000);
+        bufferSize = getConfigIntValue(config, BUFFER_SIZE_PARAM, 10000);
+        spillToDisk = getConfigBooleanValue(config, SPILL_TO_DISK_PARAM, false);
+        spillFileMaxSize = getConfigIntValue(config, SPILL_FILE_MAX_SIZE_PARAM, 10);
     }
 
     private static boolean getConfigBooleanValue(Map<String, Object> config, String key, boolean defaultValue) {
@@ -81,6 +98,20 @@ public class InfluxDBConfiguration {
         }
     }
 
+    private int getConfigIntValue(Map<String, Object> config, String key, int defaultValue) {
+        Object object = config.get(key);
+        if (object instanceof Number) {
+            return ((Number) object).intValue();
+        } else if (object instanceof String && !((String) object).isBlank()) {
+            try {
+                return Integer.parseInt(((String) object).trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' for {}, using {}", object, key, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
     private InfluxDBVersion parseInfluxVersion(@Nullable String value) {
         try {
             return Optional.ofNullable(value).map(InfluxDBVersion::valueOf).orElse(InfluxDBVersion.UNKNOWN);
@@ -101,7 +132,9 @@ public class InfluxDBConfiguration {
         boolean hasDatabase = !databaseName.isBlank();
         boolean hasRetentionPolicy = !retentionPolicy.isBlank();
 
-        boolean valid = hasVersion && hasCredentials && hasDatabase && hasRetentionPolicy;
+        boolean hasBuffer = batchSize > 0 && flushInterval > 0 && bufferSize >= batchSize && spillFileMaxSize > 0;
+
+        boolean valid = hasVersion && hasCredentials && hasDatabase && hasRetentionPolicy && hasBuffer;
         if (valid) {
             return true;
         } else {
@@ -119,6 +152,9 @@ public class InfluxDBConfiguration {
                 if (!hasRetentionPolicy) {
                     reason.add("No retention policy / bucket defined");
                 }
+                if (!hasBuffer) {
+                    reason.add("Invalid write buffer settings");
+                }
             }
             logger.warn("{} {}", msg, reason);
             return false;
@@ -157,6 +193,26 @@ public class InfluxDBConfiguration {
         return addLabelTag;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public boolean isSpillToDisk() {
+        return spillToDisk;
+    }
+
+    public int getSpillFileMaxSize() {
+        return spillFileMaxSize;
+    }
+
     public String getUser() {
         return user;
     }
@@ -175,7 +231,9 @@ public class InfluxDBConfiguration {
                 + password.length() + " chars" + '\'' + ", token='" + token.length() + " chars" + '\''
                 + ", databaseName='" + databaseName + '\'' + ", retentionPolicy='" + retentionPolicy + '\''
                 + ", version=" + version + ", replaceUnderscore=" + replaceUnderscore + ", addCategoryTag="
-                + addCategoryTag + ", addTypeTag=" + addTypeTag + ", addLabelTag=" + addLabelTag + '}';
+                + addCategoryTag + ", addTypeTag=" + addTypeTag + ", addLabelTag=" + addLabelTag + ", batchSize="
+                + batchSize + ", flushInterval=" + flushInterval + ", bufferSize=" + bufferSize + ", spillToDisk="
+                + spillToDisk + ", spillFileMaxSize=" + spillFileMaxSize + '}';
         return sb;
     }
 
@@ -12,6 +12,7 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -58,17 +59,19 @@ public interface InfluxDBRepository {
     Map<String, Integer> getStoredItemsCount();
 
     /**
-     * Executes Flux query
+     * Executes Flux query. The results are streamed from the server while they are iterated, so only a bounded number
+     * of rows is held in memory.
      *
      * @param query Query
      * @return Query results
      */
-    List<InfluxRow> query(String query);
+    Iterator<InfluxRow> query(String query);
 
     /**
-     * Write point to database
+     * Write points to database. The call blocks until the server has accepted or rejected the points.
      *
-     * @param influxPoint Point to write
+     * @param influxPoints Points to write
+     * @return True if the points have been written, otherwise false
      */
-    void write(InfluxPoint influxPoint);
+    boolean write(List<InfluxPoint> influxPoints);
 }
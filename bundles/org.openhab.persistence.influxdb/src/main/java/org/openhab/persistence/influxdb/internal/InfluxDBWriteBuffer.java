@@ -0,0 +1,450 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffers points in memory and writes them in batches to an {@link InfluxDBRepository} from a background thread.
+ *
+ * If a batch cannot be written, it is kept in the buffer and retried with an increasing delay. If the buffer is full,
+ * the oldest points are either appended to a local spill file, which is replayed once the server accepts writes
+ * again, or dropped.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBWriteBuffer {
+    private static final long MAX_RETRY_DELAY = TimeUnit.MINUTES.toMillis(1);
+    private static final String SEPARATOR = "\t";
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxDBWriteBuffer.class);
+
+    private final InfluxDBRepository repository;
+    private final int batchSize;
+    private final long flushInterval;
+    private final int bufferSize;
+    private final @Nullable Path spillFile;
+    private final long spillFileMaxSize;
+
+    private final ScheduledExecutorService executor = Executors
+            .newSingleThreadScheduledExecutor(new NamedThreadFactory("influxdb-writer"));
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Deque<InfluxPoint> buffer = new ArrayDeque<>();
+    private final Object spillLock = new Object();
+
+    // only accessed by the writer thread
+    private long retryDelay = 0;
+    private long nextAttempt = 0;
+
+    private final AtomicLong bufferedCount = new AtomicLong();
+    private final AtomicLong flushedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private volatile long lastFlushTime = 0;
+    private volatile long maxFlushTime = 0;
+
+    /**
+     * @param repository the repository to write to
+     * @param batchSize maximum number of points written at once
+     * @param flushInterval milliseconds between two writes of a partial batch
+     * @param bufferSize maximum number of points kept in memory
+     * @param spillFile file the oldest points are appended to if the buffer is full, <code>null</code> to drop them
+     * @param spillFileMaxSize maximum size of the spill file in bytes
+     */
+    public InfluxDBWriteBuffer(InfluxDBRepository repository, int batchSize, long flushInterval, int bufferSize,
+            @Nullable Path spillFile, long spillFileMaxSize) {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.bufferSize = Math.max(bufferSize, batchSize);
+        this.spillFile = spillFile;
+        this.spillFileMaxSize = spillFileMaxSize;
+    }
+
+    public void start() {
+        logger.debug("Starting write buffer with batchSize={} flushInterval={} ms bufferSize={} spillFile={}",
+                batchSize, flushInterval, bufferSize, spillFile);
+        executor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background thread and makes a last attempt to write the buffered points. Points that still cannot be
+     * written are spilled to disk if enabled.
+     */
+    public void stop() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(flushInterval + 10000, TimeUnit.MILLISECONDS)) {
+                logger.warn("Write buffer did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        nextAttempt = 0;
+        flush();
+        List<InfluxPoint> remaining = poll(Integer.MAX_VALUE);
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+        logger.debug("Write buffer stopped, {}", this);
+    }
+
+    /**
+     * Adds a point to the buffer.
+     */
+    public void write(InfluxPoint point) {
+        List<InfluxPoint> overflow = null;
+        int size;
+        synchronized (buffer) {
+            if (buffer.size() >= bufferSize) {
+                overflow = pollOldest(batchSize);
+            }
+            buffer.addLast(point);
+            size = buffer.size();
+        }
+        bufferedCount.incrementAndGet();
+        if (overflow != null) {
+            spill(overflow);
+        }
+        if (size >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // buffer is stopping, the remaining points are written by stop()
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private void flush() {
+        flushRequested.set(false);
+        if (System.currentTimeMillis() < nextAttempt || !repository.isConnected()) {
+            return;
+        }
+        List<InfluxPoint> batch;
+        while (!(batch = poll(batchSize)).isEmpty()) {
+            if (!writeBatch(batch)) {
+                requeue(batch);
+                scheduleRetry();
+                return;
+            }
+        }
+        if (retryDelay > 0) {
+            logger.info("InfluxDB accepts writes again");
+            retryDelay = 0;
+        }
+        replaySpillFile();
+    }
+
+    private boolean writeBatch(List<InfluxPoint> batch) {
+        long timerStart = System.currentTimeMillis();
+        boolean written;
+        try {
+            written = repository.write(batch);
+        } catch (RuntimeException e) {
+            logger.debug("Writing {} points failed: {}", batch.size(), e.getMessage());
+            written = false;
+        }
+        long flushTime = System.currentTimeMillis() - timerStart;
+        if (written) {
+            flushedCount.addAndGet(batch.size());
+            flushCount.incrementAndGet();
+            lastFlushTime = flushTime;
+            if (flushTime > maxFlushTime) {
+                maxFlushTime = flushTime;
+            }
+            logger.trace("Wrote {} points in {} ms, {} points buffered", batch.size(), flushTime, getBufferDepth());
+        }
+        return written;
+    }
+
+    private void scheduleRetry() {
+        if (retryDelay == 0) {
+            logger.warn("Writing to InfluxDB failed, keeping points buffered and retrying");
+            retryDelay = flushInterval;
+        } else {
+            retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY);
+        }
+        nextAttempt = System.currentTimeMillis() + retryDelay;
+        logger.debug("Retrying write in {} ms, {} points buffered", retryDelay, getBufferDepth());
+    }
+
+    private List<InfluxPoint> poll(int count) {
+        synchronized (buffer) {
+            return pollOldest(count);
+        }
+    }
+
+    private List<InfluxPoint> pollOldest(int count) {
+        List<InfluxPoint> points = new ArrayList<>(Math.min(count, buffer.size()));
+        InfluxPoint point;
+        while (points.size() < count && (point = buffer.pollFirst()) != null) {
+            points.add(point);
+        }
+        return points;
+    }
+
+    private void requeue(List<InfluxPoint> batch) {
+        List<InfluxPoint> overflow = null;
+        synchronized (buffer) {
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                buffer.addFirst(batch.get(i));
+            }
+            if (buffer.size() > bufferSize) {
+                overflow = pollOldest(buffer.size() - bufferSize);
+            }
+        }
+        if (overflow != null) {
+            spill(overflow);
+        }
+    }
+
+    private void spill(List<InfluxPoint> points) {
+        Path file = spillFile;
+        if (file == null) {
+            droppedCount.addAndGet(points.size());
+            logger.debug("Buffer is full, dropped {} points", points.size());
+            return;
+        }
+        synchronized (spillLock) {
+            try {
+                if (Files.exists(file) && Files.size(file) >= spillFileMaxSize) {
+                    droppedCount.addAndGet(points.size());
+                    logger.debug("Spill file {} is full, dropped {} points", file, points.size());
+                    return;
+                }
+                Path parent = file.getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (InfluxPoint point : points) {
+                        writer.write(encode(point));
+                        writer.newLine();
+                    }
+                }
+                spilledCount.addAndGet(points.size());
+                logger.debug("Buffer is full, spilled {} points to {}", points.size(), file);
+            } catch (IOException e) {
+                droppedCount.addAndGet(points.size());
+                logger.warn("Could not spill {} points to {}: {}", points.size(), file, e.getMessage());
+            }
+        }
+    }
+
+    private void replaySpillFile() {
+        Path file = spillFile;
+        if (file == null) {
+            return;
+        }
+        // new points may be spilled while the old ones are replayed, so the file is moved aside first
+        Path replayFile = file.resolveSibling(file.getFileName() + ".replay");
+        List<String> lines;
+        try {
+            synchronized (spillLock) {
+                if (!Files.exists(replayFile)) {
+                    if (!Files.exists(file)) {
+                        return;
+                    }
+                    Files.move(file, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            lines = Files.readAllLines(replayFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Could not read spill file {}: {}", file, e.getMessage());
+            return;
+        }
+        logger.debug("Replaying {} spilled points from {}", lines.size(), file);
+        for (int i = 0; i < lines.size(); i += batchSize) {
+            List<String> chunk = lines.subList(i, Math.min(i + batchSize, lines.size()));
+            List<InfluxPoint> batch = new ArrayList<>(chunk.size());
+            for (String line : chunk) {
+                try {
+                    batch.add(decode(line));
+                } catch (RuntimeException e) {
+                    droppedCount.incrementAndGet();
+                    logger.debug("Ignoring invalid line '{}' in spill file: {}", line, e.getMessage());
+                }
+            }
+            if (!batch.isEmpty() && !writeBatch(batch)) {
+                try {
+                    Files.write(replayFile, lines.subList(i, lines.size()), StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    logger.warn("Could not update spill file {}: {}", replayFile, e.getMessage());
+                }
+                scheduleRetry();
+                return;
+            }
+        }
+        try {
+            Files.delete(replayFile);
+        } catch (IOException e) {
+            logger.warn("Could not delete spill file {}: {}", replayFile, e.getMessage());
+        }
+    }
+
+    static String encode(InfluxPoint point) {
+        StringJoiner tags = new StringJoiner("&");
+        for (Map.Entry<String, String> tag : point.getTags().entrySet()) {
+            tags.add(urlEncode(tag.getKey()) + "=" + urlEncode(tag.getValue()));
+        }
+        return urlEncode(point.getMeasurementName()) + SEPARATOR + point.getTime().toEpochMilli() + SEPARATOR
+                + encodeValue(point.getValue()) + SEPARATOR + tags;
+    }
+
+    static InfluxPoint decode(String line) {
+        String[] fields = line.split(SEPARATOR, -1);
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("Expected 4 fields but got " + fields.length);
+        }
+        InfluxPoint.Builder builder = InfluxPoint.newBuilder(urlDecode(fields[0]))
+                .withTime(Instant.ofEpochMilli(Long.parseLong(fields[1])));
+        Object value = decodeValue(fields[2]);
+        if (value != null) {
+            builder.withValue(value);
+        }
+        if (!fields[3].isEmpty()) {
+            for (String tag : fields[3].split("&")) {
+                String[] keyValue = tag.split("=", 2);
+                builder.withTag(urlDecode(keyValue[0]), keyValue.length > 1 ? urlDecode(keyValue[1]) : "");
+            }
+        }
+        return builder.build();
+    }
+
+    // the type is kept, so that integer fields are not written as float fields after a replay
+    private static String encodeValue(@Nullable Object value) {
+        if (value == null) {
+            return "-";
+        } else if (value instanceof Boolean) {
+            return "B" + value;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            return "L" + value;
+        } else if (value instanceof Double || value instanceof Float) {
+            return "D" + value;
+        } else if (value instanceof Number) {
+            return "N" + value;
+        } else {
+            return "S" + urlEncode(value.toString());
+        }
+    }
+
+    private static @Nullable Object decodeValue(String value) {
+        if (value.isEmpty() || "-".equals(value)) {
+            return null;
+        }
+        String content = value.substring(1);
+        switch (value.charAt(0)) {
+            case 'B':
+                return Boolean.valueOf(content);
+            case 'L':
+                return Long.valueOf(content);
+            case 'D':
+                return Double.valueOf(content);
+            case 'N':
+                return new BigDecimal(content);
+            case 'S':
+                return urlDecode(content);
+            default:
+                throw new IllegalArgumentException("Unknown value type " + value.charAt(0));
+        }
+    }
+
+    private static String urlEncode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String urlDecode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    public int getBufferDepth() {
+        synchronized (buffer) {
+            return buffer.size();
+        }
+    }
+
+    public long getBufferedCount() {
+        return bufferedCount.get();
+    }
+
+    public long getFlushedCount() {
+        return flushedCount.get();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getLastFlushTime() {
+        return lastFlushTime;
+    }
+
+    public long getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    @Override
+    public String toString() {
+        return "InfluxDBWriteBuffer [bufferDepth=" + getBufferDepth() + ", buffered=" + bufferedCount.get()
+                + ", flushed=" + flushedCount.get() + ", spilled=" + spilledCount.get() + ", dropped="
+                + droppedCount.get() + ", flushes=" + flushCount.get() + ", lastFlushTime=" + lastFlushTime
+                + " ms, maxFlushTime=" + maxFlushTime + " ms]";
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Thrown while iterating the result of a query that failed or timed out, so that a partial result is not mistaken
+ * for the complete one.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxQueryException extends RuntimeException {
+    private static final long serialVersionUID = 4817205329516094318L;
+
+    public InfluxQueryException(String message) {
+        super(message);
+    }
+
+    public InfluxQueryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands over the rows of a streamed query from the client's callback thread to the {@link InfluxRowIterator} that
+ * consumes them.
+ *
+ * Only a bounded number of rows is held in memory. The callback thread blocks while the buffer is full, so the
+ * response is read from the server no faster than it is consumed. The query is cancelled when the iterator is closed
+ * or iterated to the end. As a last resort for iterators that are neither, it is also cancelled if the buffer stays
+ * full for longer than the timeout.
+ *
+ * A failed query, or one that does not deliver rows within the timeout, ends the iteration with an
+ * {@link InfluxQueryException} once the rows received before have been consumed.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxRowBuffer {
+    public static final int DEFAULT_CAPACITY = 1000;
+    public static final long DEFAULT_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxRowBuffer.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Queue<InfluxRow> rows = new ArrayDeque<>();
+    private final int capacity;
+    private final long timeout;
+
+    // guarded by lock
+    private boolean completed = false;
+    private boolean cancelled = false;
+    private @Nullable Runnable cancelAction;
+    private @Nullable Throwable failure;
+
+    public InfluxRowBuffer() {
+        this(DEFAULT_CAPACITY, DEFAULT_TIMEOUT);
+    }
+
+    public InfluxRowBuffer(int capacity, long timeout) {
+        this.capacity = capacity;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sets the action that cancels the query on the client side.
+     */
+    public void setCancelAction(Runnable cancelAction) {
+        boolean runNow;
+        lock.lock();
+        try {
+            this.cancelAction = cancelAction;
+            runNow = cancelled;
+        } finally {
+            lock.unlock();
+        }
+        if (runNow) {
+            cancelAction.run();
+        }
+    }
+
+    /**
+     * Adds a row, blocking while the buffer is full.
+     *
+     * @return false if the query has been cancelled and no more rows should be added
+     */
+    public boolean add(InfluxRow row) {
+        lock.lock();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            while (!cancelled && rows.size() >= capacity) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    logger.debug("Rows of query have not been consumed within {} ms, cancelling query", timeout);
+                    break;
+                }
+                notFull.awaitNanos(remaining);
+            }
+            if (!cancelled && rows.size() < capacity) {
+                rows.add(row);
+                notEmpty.signal();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+        cancel();
+        return false;
+    }
+
+    /**
+     * Signals that all rows have been added. Calling it again or after a cancellation has no effect.
+     */
+    public void complete() {
+        lock.lock();
+        try {
+            completed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Signals that the query failed. The rows received so far can still be consumed, then the iteration ends with an
+     * {@link InfluxQueryException}. Only the first failure is kept.
+     */
+    public void fail(Throwable error) {
+        lock.lock();
+        try {
+            if (failure == null && !completed) {
+                failure = error;
+            }
+            completed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels the query. No more rows are added and the iteration ends. Calling it again has no effect.
+     */
+    public void cancel() {
+        Runnable action;
+        lock.lock();
+        try {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            action = cancelAction;
+            rows.clear();
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (action != null) {
+            action.run();
+        }
+    }
+
+    /**
+     * Releases the query once the consumer is done with it. A query that has not been completed yet is cancelled.
+     */
+    void close() {
+        lock.lock();
+        try {
+            if (completed) {
+                rows.clear();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        cancel();
+    }
+
+    /**
+     * Takes the next row, waiting until one is available.
+     *
+     * @return the next row or <code>null</code> if the query is completed or cancelled
+     * @throws InfluxQueryException if the query failed or no row has been received within the timeout
+     */
+    @Nullable
+    InfluxRow take() {
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            while (rows.isEmpty() && !completed && !cancelled) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                notEmpty.awaitNanos(remaining);
+            }
+            InfluxRow row = rows.poll();
+            if (row != null) {
+                notFull.signal();
+                return row;
+            }
+            if (cancelled) {
+                return null;
+            }
+            if (completed) {
+                Throwable error = failure;
+                if (error != null) {
+                    throw new InfluxQueryException("Query failed: " + error.getMessage(), error);
+                }
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupted = true;
+        } finally {
+            lock.unlock();
+        }
+        cancel();
+        if (interrupted) {
+            return null;
+        }
+        throw new InfluxQueryException("No result from InfluxDB within " + timeout + " ms");
+    }
+}
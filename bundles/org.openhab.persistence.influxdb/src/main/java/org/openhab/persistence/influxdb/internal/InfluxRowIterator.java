@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Iterates over the rows of a streamed query that are handed over by an {@link InfluxRowBuffer}.
+ *
+ * The query is released as soon as the iteration ends. An iterator that is not iterated to the end should be closed,
+ * so the client's callback thread is not blocked by rows that are never consumed.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxRowIterator implements Iterator<InfluxRow>, AutoCloseable {
+    private final InfluxRowBuffer buffer;
+
+    // only accessed by the consuming thread
+    private @Nullable InfluxRow next;
+    private boolean finished = false;
+
+    public InfluxRowIterator(InfluxRowBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * @throws InfluxQueryException if the query failed or timed out, after the rows received before have been
+     *             iterated
+     */
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            next = buffer.take();
+        } catch (InfluxQueryException e) {
+            close();
+            throw e;
+        }
+        if (next == null) {
+            close();
+        }
+        return !finished;
+    }
+
+    @Override
+    public InfluxRow next() {
+        InfluxRow row = next;
+        if (row == null && hasNext()) {
+            row = next;
+        }
+        if (row == null) {
+            throw new NoSuchElementException();
+        }
+        next = null;
+        return row;
+    }
+
+    /**
+     * Ends the iteration and cancels the query if it is still running.
+     */
+    @Override
+    public void close() {
+        finished = true;
+        next = null;
+        buffer.close();
+    }
+}
@@ -18,8 +18,8 @@ import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.FIELD_
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.TAG_ITEM_NAME;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -30,6 +30,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.influxdb.InfluxDB;
 import org.influxdb.InfluxDBFactory;
+import org.influxdb.dto.BatchPoints;
 import org.influxdb.dto.Point;
 import org.influxdb.dto.Pong;
 import org.influxdb.dto.Query;
@@ -38,6 +39,8 @@ import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
 import org.openhab.persistence.influxdb.internal.InfluxRow;
+import org.openhab.persistence.influxdb.internal.InfluxRowBuffer;
+import org.openhab.persistence.influxdb.internal.InfluxRowIterator;
 import org.openhab.persistence.influxdb.internal.UnnexpectedConditionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +55,8 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
+    private static final int QUERY_CHUNK_SIZE = 1000;
+
     private final Logger logger = LoggerFactory.getLogger(InfluxDB1RepositoryImpl.class);
     private InfluxDBConfiguration configuration;
     @Nullable
@@ -72,7 +77,6 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
                 configuration.getPassword());
         createdClient.setDatabase(configuration.getDatabaseName());
         createdClient.setRetentionPolicy(configuration.getRetentionPolicy());
-        createdClient.enableBatch(200, 100, TimeUnit.MILLISECONDS);
         this.client = createdClient;
         return checkConnectionStatus();
     }
@@ -115,13 +119,22 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
     }
 
     @Override
-    public void write(InfluxPoint point) {
+    public boolean write(List<InfluxPoint> points) {
         final InfluxDB currentClient = this.client;
         if (currentClient != null) {
-            Point clientPoint = convertPointToClientFormat(point);
-            currentClient.write(configuration.getDatabaseName(), configuration.getRetentionPolicy(), clientPoint);
+            BatchPoints.Builder batchPoints = BatchPoints.database(configuration.getDatabaseName())
+                    .retentionPolicy(configuration.getRetentionPolicy());
+            points.forEach(point -> batchPoints.point(convertPointToClientFormat(point)));
+            try {
+                currentClient.write(batchPoints.build());
+                return true;
+            } catch (RuntimeException e) {
+                logger.debug("Writing {} points failed: {}", points.size(), e.getMessage());
+                return false;
+            }
         } else {
-            logger.warn("Write point {} ignored due to client isn't connected", point);
+            logger.warn("Write of {} points ignored due to client isn't connected", points.size());
+            return false;
         }
     }
 
@@ -148,20 +161,41 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
     }
 
     @Override
-    public List<InfluxRow> query(String query) {
+    public Iterator<InfluxRow> query(String query) {
         final InfluxDB currentClient = client;
         if (currentClient != null) {
             Query parsedQuery = new Query(query, configuration.getDatabaseName());
-            List<QueryResult.Result> results = currentClient.query(parsedQuery, TimeUnit.MILLISECONDS).getResults();
-            return convertClientResutToRepository(results);
+            InfluxRowBuffer rows = new InfluxRowBuffer();
+            InfluxRowIterator iterator = new InfluxRowIterator(rows);
+            // a failed request ends the iteration instead of leaving the iterator waiting until the timeout
+            currentClient.query(parsedQuery, QUERY_CHUNK_SIZE, (cancellable, queryResult) -> {
+                rows.setCancelAction(cancellable::cancel);
+                String error = queryResult.getError();
+                if (error != null) {
+                    // the end of a chunked response is signalled by an error
+                    if (!"DONE".equals(error)) {
+                        rows.fail(new IllegalStateException(error));
+                    }
+                    return;
+                }
+                List<QueryResult.Result> results = queryResult.getResults();
+                if (results != null) {
+                    try {
+                        convertClientResultToRepository(results, rows);
+                    } catch (RuntimeException e) {
+                        cancellable.cancel();
+                        rows.fail(e);
+                    }
+                }
+            }, rows::complete, rows::fail);
+            return iterator;
         } else {
             logger.warn("Returning empty list because queryAPI isn't present");
-            return Collections.emptyList();
+            return Collections.emptyIterator();
         }
     }
 
-    private List<InfluxRow> convertClientResutToRepository(List<QueryResult.Result> results) {
-        List<InfluxRow> rows = new ArrayList<>();
+    private void convertClientResultToRepository(List<QueryResult.Result> results, InfluxRowBuffer rows) {
         for (QueryResult.Result result : results) {
             List<QueryResult.Series> seriess = result.getSeries();
             if (result.getError() != null) {
@@ -197,8 +231,7 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
                                 throw new IllegalStateException("missing column");
                             }
                             for (int i = 0; i < valuess.size(); i++) {
-                                Double rawTime = (Double) Objects.requireNonNull(valuess.get(i).get(timestampColumn));
-                                Instant time = Instant.ofEpochMilli(rawTime.longValue());
+                                Instant time = parseTime(Objects.requireNonNull(valuess.get(i).get(timestampColumn)));
                                 @Nullable
                                 Object value = valuess.get(i).get(valueColumn);
                                 var currentI = i;
@@ -206,14 +239,23 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
                                         .flatMap(inc -> Optional.ofNullable((String) valuess.get(currentI).get(inc)))
                                         .orElse(series.getName());
                                 logger.trace("adding historic item {}: time {} value {}", itemName, time, value);
-                                rows.add(new InfluxRow(time, itemName, value));
+                                if (!rows.add(new InfluxRow(time, itemName, value))) {
+                                    return;
+                                }
                             }
                         }
                     }
                 }
             }
         }
-        return rows;
+    }
+
+    private Instant parseTime(Object rawTime) {
+        // chunked responses contain the time as RFC3339 string instead of an epoch value
+        if (rawTime instanceof Number) {
+            return Instant.ofEpochMilli(((Number) rawTime).longValue());
+        }
+        return Instant.parse(rawTime.toString());
     }
 
     @Override
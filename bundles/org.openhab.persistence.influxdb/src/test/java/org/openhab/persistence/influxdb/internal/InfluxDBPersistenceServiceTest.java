@@ -12,9 +12,12 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Collections;
 import java.util.Map;
 
 import org.eclipse.jdt.annotation.DefaultLocation;
@@ -25,10 +28,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.MetadataRegistry;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.HistoricItem;
 import org.openhab.persistence.influxdb.InfluxDBPersistenceService;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 /**
  * @author Joan Pujol Espinar - Initial contribution
  */
@@ -38,6 +48,7 @@ public class InfluxDBPersistenceServiceTest {
     private InfluxDBPersistenceService instance;
 
     private @Mock InfluxDBRepository influxDBRepository;
+    private @Mock MeterRegistryProvider meterRegistryProvider;
 
     private Map<String, Object> validConfig;
     private Map<String, Object> invalidConfig;
@@ -92,15 +103,58 @@ public class InfluxDBPersistenceServiceTest {
     public void storeItemWithConnectedRepository() {
         instance.activate(validConfig);
         when(influxDBRepository.isConnected()).thenReturn(true);
+        when(influxDBRepository.write(any())).thenReturn(true);
         instance.store(ItemTestHelper.createNumberItem("number", 5));
+        instance.deactivate();
         verify(influxDBRepository).write(any());
     }
 
     @Test
-    public void storeItemWithDisconnectedRepositoryIsIgnored() {
+    public void storeItemWithDisconnectedRepositoryIsNotWritten() {
         instance.activate(validConfig);
         when(influxDBRepository.isConnected()).thenReturn(false);
         instance.store(ItemTestHelper.createNumberItem("number", 5));
+        instance.deactivate();
         verify(influxDBRepository, never()).write(any());
     }
+
+    @Test
+    public void storeItemWithInactiveServiceIsIgnored() {
+        instance.activate(invalidConfig);
+        instance.store(ItemTestHelper.createNumberItem("number", 5));
+        verify(influxDBRepository, never()).write(any());
+    }
+
+    @Test
+    public void queryIsExecutedForEachIteration() {
+        instance.activate(validConfig);
+        when(influxDBRepository.isConnected()).thenReturn(true);
+        when(influxDBRepository.query(anyString())).thenReturn(Collections.emptyIterator());
+
+        Iterable<HistoricItem> result = instance.query(new FilterCriteria().setItemName("number"));
+        assertThat(result.iterator().hasNext(), is(false));
+        assertThat(result.iterator().hasNext(), is(false));
+        instance.deactivate();
+
+        verify(influxDBRepository, times(2)).query(anyString());
+    }
+
+    @Test
+    public void writeBufferCountersAreExported() {
+        CompositeMeterRegistry meterRegistry = new CompositeMeterRegistry();
+        meterRegistry.add(new SimpleMeterRegistry());
+        when(meterRegistryProvider.getOHMeterRegistry()).thenReturn(meterRegistry);
+        instance.setMeterRegistryProvider(meterRegistryProvider);
+        instance.activate(validConfig);
+        when(influxDBRepository.isConnected()).thenReturn(true);
+
+        instance.store(ItemTestHelper.createNumberItem("number", 5));
+        FunctionCounter buffered = meterRegistry.find("openhab.persistence.points.buffered").tag("service", "influxdb")
+                .functionCounter();
+        assertThat(buffered.count(), is(1.0));
+
+        instance.deactivate();
+        instance.unsetMeterRegistryProvider(meterRegistryProvider);
+        assertThat(meterRegistry.getMeters().isEmpty(), is(true));
+    }
 }
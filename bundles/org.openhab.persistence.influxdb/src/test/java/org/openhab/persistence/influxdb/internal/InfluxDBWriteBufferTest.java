@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.DefaultLocation;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("null")
+@NonNullByDefault(value = { DefaultLocation.PARAMETER, DefaultLocation.RETURN_TYPE })
+public class InfluxDBWriteBufferTest {
+    private @Mock InfluxDBRepository influxDBRepository;
+    private @TempDir Path tempDir;
+
+    @Test
+    public void encodedPointIsDecodedWithSameValueTypes() {
+        for (Object value : List.of(new BigDecimal("21.5"), 1, 2L, 3.5d, true, "with\ttab & = chars")) {
+            InfluxPoint point = InfluxPoint.newBuilder("measure ment").withTime(Instant.ofEpochMilli(1234))
+                    .withValue(value).withTag("item", "an item").withTag("floor", "a=b&c").build();
+
+            InfluxPoint decoded = InfluxDBWriteBuffer.decode(InfluxDBWriteBuffer.encode(point));
+
+            assertThat(decoded.getMeasurementName(), is("measure ment"));
+            assertThat(decoded.getTime(), is(Instant.ofEpochMilli(1234)));
+            assertThat(decoded.getTags(), is(point.getTags()));
+            if (value instanceof Integer) {
+                assertThat(decoded.getValue(), is(1L));
+            } else {
+                assertThat(decoded.getValue(), is(value));
+            }
+        }
+    }
+
+    @Test
+    public void pointsAreWrittenOnStop() {
+        when(influxDBRepository.isConnected()).thenReturn(true);
+        List<List<InfluxPoint>> batches = recordWrites(true);
+        InfluxDBWriteBuffer instance = new InfluxDBWriteBuffer(influxDBRepository, 2, 60000, 10, null, 0);
+        instance.start();
+
+        for (int i = 0; i < 3; i++) {
+            instance.write(createPoint(i));
+        }
+        instance.stop();
+
+        assertThat(batches.stream().mapToInt(List::size).sum(), is(3));
+        assertThat(instance.getFlushedCount(), is(3L));
+        assertThat(instance.getDroppedCount(), is(0L));
+    }
+
+    @Test
+    public void oldestPointsAreDroppedIfBufferIsFull() {
+        InfluxDBWriteBuffer instance = new InfluxDBWriteBuffer(influxDBRepository, 2, 60000, 4, null, 0);
+
+        for (int i = 0; i < 5; i++) {
+            instance.write(createPoint(i));
+        }
+
+        assertThat(instance.getBufferDepth(), is(3));
+        assertThat(instance.getDroppedCount(), is(2L));
+        instance.stop();
+    }
+
+    @Test
+    public void spilledPointsAreReplayedWhenWritesSucceedAgain() throws Exception {
+        Path spillFile = tempDir.resolve("buffer.spill");
+        when(influxDBRepository.isConnected()).thenReturn(true);
+
+        InfluxDBWriteBuffer failing = new InfluxDBWriteBuffer(influxDBRepository, 2, 60000, 2, spillFile, 1000000);
+        for (int i = 0; i < 4; i++) {
+            failing.write(createPoint(i));
+        }
+        failing.stop();
+        assertThat(failing.getSpilledCount(), is(4L));
+        assertThat(Files.readAllLines(spillFile).size(), is(4));
+
+        List<List<InfluxPoint>> batches = recordWrites(true);
+        InfluxDBWriteBuffer instance = new InfluxDBWriteBuffer(influxDBRepository, 2, 60000, 2, spillFile, 1000000);
+        instance.stop();
+
+        assertThat(batches.stream().mapToInt(List::size).sum(), is(4));
+        assertThat(batches.get(0).get(0).getValue(), is(0L));
+        assertThat(Files.exists(spillFile), is(false));
+    }
+
+    private List<List<InfluxPoint>> recordWrites(boolean result) {
+        List<List<InfluxPoint>> batches = new ArrayList<>();
+        when(influxDBRepository.write(anyList())).thenAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.getArgument(0)));
+            return result;
+        });
+        return batches;
+    }
+
+    private InfluxPoint createPoint(long value) {
+        return InfluxPoint.newBuilder("measurement").withTime(Instant.ofEpochMilli(value)).withValue(value)
+                .withTag("item", "item").build();
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.DefaultLocation;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault(value = { DefaultLocation.PARAMETER, DefaultLocation.RETURN_TYPE })
+public class InfluxRowIteratorTest {
+
+    @Test
+    public void rowsProducedByAnotherThreadAreIteratedInOrder() throws Exception {
+        InfluxRowBuffer buffer = new InfluxRowBuffer(2, 5000);
+        InfluxRowIterator instance = new InfluxRowIterator(buffer);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                buffer.add(createRow(i));
+            }
+            buffer.complete();
+        });
+        producer.start();
+
+        List<Object> values = new ArrayList<>();
+        instance.forEachRemaining(row -> values.add(row.getValue()));
+        producer.join();
+
+        assertThat(values, contains(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+    }
+
+    @Test
+    public void failureEndsTheIterationAfterTheRowsReceivedBefore() {
+        InfluxRowBuffer buffer = new InfluxRowBuffer(10, 5000);
+        InfluxRowIterator instance = new InfluxRowIterator(buffer);
+        buffer.add(createRow(1));
+        buffer.fail(new IllegalStateException("failure"));
+
+        assertThat(instance.hasNext(), is(true));
+        assertThat(instance.next().getValue(), is(1));
+        InfluxQueryException e = assertThrows(InfluxQueryException.class, instance::hasNext);
+        assertThat(e.getMessage(), containsString("failure"));
+        assertThat(instance.hasNext(), is(false));
+    }
+
+    @Test
+    public void missingResultEndsTheIterationWithAnError() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        InfluxRowBuffer buffer = new InfluxRowBuffer(10, 10);
+        InfluxRowIterator instance = new InfluxRowIterator(buffer);
+        buffer.setCancelAction(() -> cancelled.set(true));
+
+        assertThrows(InfluxQueryException.class, instance::hasNext);
+        assertThat(cancelled.get(), is(true));
+    }
+
+    @Test
+    public void queryIsCancelledIfRowsAreNotConsumed() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        InfluxRowBuffer buffer = new InfluxRowBuffer(1, 10);
+        InfluxRowIterator instance = new InfluxRowIterator(buffer);
+        buffer.setCancelAction(() -> cancelled.set(true));
+
+        assertThat(buffer.add(createRow(1)), is(true));
+        assertThat(buffer.add(createRow(2)), is(false));
+        assertThat(cancelled.get(), is(true));
+        assertThat(instance.hasNext(), is(false));
+    }
+
+    @Test
+    public void completeAndCancelAreIdempotent() {
+        AtomicInteger cancellations = new AtomicInteger();
+        InfluxRowBuffer buffer = new InfluxRowBuffer(10, 5000);
+        InfluxRowIterator instance = new InfluxRowIterator(buffer);
+        buffer.setCancelAction(cancellations::incrementAndGet);
+
+        buffer.add(createRow(1));
+        buffer.complete();
+        buffer.complete();
+        assertThat(instance.next().getValue(), is(1));
+        assertThat(instance.hasNext(), is(false));
+
+        buffer.cancel();
+        buffer.cancel();
+        assertThat(cancellations.get(), is(1));
+        assertThat(buffer.add(createRow(2)), is(false));
+        assertThat(instance.hasNext(), is(false));
+    }
+
+    @Test
+    public void closingTheIteratorCancelsTheQuery() throws Exception {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        InfluxRowBuffer buffer = new InfluxRowBuffer(1, 60000);
+        InfluxRowIterator instance = new InfluxRowIterator(buffer);
+        buffer.setCancelAction(() -> cancelled.set(true));
+        buffer.add(createRow(1));
+
+        // the producer blocks, as the buffer is full
+        Thread producer = new Thread(() -> buffer.add(createRow(2)));
+        producer.start();
+        instance.close();
+        producer.join(5000);
+
+        assertThat(producer.isAlive(), is(false));
+        assertThat(cancelled.get(), is(true));
+        assertThat(instance.hasNext(), is(false));
+    }
+
+    @Test
+    public void completedQueryIsNotCancelled() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        InfluxRowBuffer buffer = new InfluxRowBuffer(10, 5000);
+        InfluxRowIterator instance = new InfluxRowIterator(buffer);
+        buffer.setCancelAction(() -> cancelled.set(true));
+        buffer.add(createRow(1));
+        buffer.complete();
+
+        assertThat(instance.next().getValue(), is(1));
+        assertThat(instance.hasNext(), is(false));
+        instance.close();
+
+        assertThat(cancelled.get(), is(false));
+    }
+
+    private InfluxRow createRow(int value) {
+        return new InfluxRow(Instant.ofEpochMilli(value), "item", value);
+    }
+}
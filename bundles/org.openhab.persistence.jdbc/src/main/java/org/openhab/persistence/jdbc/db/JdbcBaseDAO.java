@@ -13,6 +13,7 @@
 package org.openhab.persistence.jdbc.db;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.ZoneId;
@@ -21,7 +22,10 @@ import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.measure.Quantity;
@@ -50,6 +54,7 @@ import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.types.State;
 import org.openhab.core.types.TypeParser;
+import org.openhab.persistence.jdbc.dto.Aggregation;
 import org.openhab.persistence.jdbc.dto.ItemVO;
 import org.openhab.persistence.jdbc.dto.ItemsVO;
 import org.openhab.persistence.jdbc.dto.JdbcHistoricItem;
@@ -84,6 +89,9 @@ public class JdbcBaseDAO {
     protected String sqlCreateItemTable;
     protected String sqlInsertItemValue;
 
+    // generated insert statements per item table, so that they are not rebuilt for every stored value
+    private final Map<String, CachedSql> storeItemValuesSqls = new ConcurrentHashMap<>();
+
     /********
      * INIT *
      ********/
@@ -323,16 +331,45 @@ public class JdbcBaseDAO {
         Yank.execute(sql, null);
     }
 
+    /**
+     * Stores the current state of an item. The time of the value is taken from {@link ItemVO#getTime()}, like for
+     * values stored by {@link #doStoreItemValues(List)}.
+     */
     public void doStoreItemValue(Item item, ItemVO vo) {
         ItemVO storedVO = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" },
-                new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { storedVO.getValue(), storedVO.getValue() };
+        String sql = getStoreItemValuesSql(storedVO);
+        Object[] params = storeItemValuesParamsProvider(storedVO);
         logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
         Yank.execute(sql, params);
     }
 
+    /**
+     * Converts the current state of an item into a value that can be stored later on by
+     * {@link #doStoreItemValues(List)}.
+     */
+    public ItemVO doPrepareItemValue(Item item, ItemVO vo) {
+        return storeItemValueProvider(item, vo);
+    }
+
+    /**
+     * Stores several prepared values of the same item table in one JDBC batch. The time of each value is taken from
+     * {@link ItemVO#getTime()}.
+     *
+     * @return <code>false</code> if the batch could not be executed
+     */
+    public boolean doStoreItemValues(List<ItemVO> vol) {
+        if (vol.isEmpty()) {
+            return true;
+        }
+        String sql = getStoreItemValuesSql(vol.get(0));
+        Object[][] params = new Object[vol.size()][];
+        for (int i = 0; i < vol.size(); i++) {
+            params[i] = storeItemValuesParamsProvider(vol.get(i));
+        }
+        logger.debug("JDBC::doStoreItemValues sql={} rows={}", sql, vol.size());
+        return Yank.executeBatch(sql, params) != null;
+    }
+
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) {
         String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
@@ -345,11 +382,76 @@ public class JdbcBaseDAO {
                 .collect(Collectors.<HistoricItem> toList());
     }
 
+    /**
+     * Queries one aggregated value per time bucket instead of the raw values, so that the size of the result is
+     * bounded by the number of buckets. Paging of the filter is ignored.
+     *
+     * @param bucketSeconds the length of a time bucket in seconds
+     */
+    public List<HistoricItem> doGetHistItemAggregateQuery(Item item, FilterCriteria filter, int numberDecimalcount,
+            String table, ZoneId timeZone, Aggregation aggregation, long bucketSeconds) {
+        String itemType = getItemType(item);
+        Aggregation usedAggregation = aggregation;
+        if (!"NUMBERITEM".equals(itemType) && !"DIMMERITEM".equals(itemType)
+                && !"ROLLERSHUTTERITEM".equals(itemType)) {
+            usedAggregation = Aggregation.LAST;
+        }
+        String sql = histItemAggregateQueryProvider(filter, table, timeZone, usedAggregation, bucketSeconds);
+        logger.debug("JDBC::doGetHistItemAggregateQuery sql={}", sql);
+        List<Object[]> m = Yank.queryObjectArrays(sql, null);
+        String itemName = item.getName();
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem ? ((NumberItem) item).getUnit() : null;
+        return m.stream().filter(o -> o[0] != null && o[1] != null).map(o -> new JdbcHistoricItem(itemName,
+                getAggregatedState(item, unit, o[1], numberDecimalcount), objectAsDate(o[0])))
+                .collect(Collectors.<HistoricItem> toList());
+    }
+
     /*************
      * Providers *
      *************/
     static final DateTimeFormatter JDBC_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    protected String histItemFilterWhereProvider(FilterCriteria filter, ZoneId timeZone) {
+        String filterString = "";
+        if (filter.getBeginDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME>'" + JDBC_DATE_FORMAT.format(filter.getBeginDate().withZoneSameInstant(timeZone))
+                    + "'";
+        }
+        if (filter.getEndDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME<'" + JDBC_DATE_FORMAT.format(filter.getEndDate().withZoneSameInstant(timeZone))
+                    + "'";
+        }
+        return filterString;
+    }
+
+    /**
+     * Returns an SQL expression that maps the time column to the number of its time bucket.
+     */
+    protected String timeBucketProvider(long bucketSeconds) {
+        return "FLOOR(UNIX_TIMESTAMP(time) / " + bucketSeconds + ")";
+    }
+
+    protected String histItemAggregateQueryProvider(FilterCriteria filter, String table, ZoneId timeZone,
+            Aggregation aggregation, long bucketSeconds) {
+        String filterString = histItemFilterWhereProvider(filter, timeZone);
+        String bucket = timeBucketProvider(bucketSeconds);
+        String order = (filter.getOrdering() == Ordering.ASCENDING) ? " ASC" : " DESC";
+        String queryString;
+        if (aggregation == Aggregation.LAST) {
+            // the time is the primary key, so the last value of each bucket can be joined by its time
+            queryString = "SELECT t.time, t.value FROM " + table + " t INNER JOIN (SELECT MAX(time) AS lasttime FROM "
+                    + table + filterString + " GROUP BY " + bucket + ") b ON t.time = b.lasttime ORDER BY t.time"
+                    + order;
+        } else {
+            queryString = "SELECT MIN(time), " + aggregation.name() + "(value) FROM " + table + filterString
+                    + " GROUP BY " + bucket + " ORDER BY 1" + order;
+        }
+        logger.debug("JDBC::query queryString = {}", queryString);
+        return queryString;
+    }
+
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
             String simpleName, ZoneId timeZone) {
         logger.debug(
@@ -394,6 +496,16 @@ public class JdbcBaseDAO {
         return queryString;
     }
 
+    protected String storeItemValuesProvider(ItemVO vo) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#tablePrimaryValue#" }, new String[] { vo.getTableName(), "?" });
+    }
+
+    protected Object[] storeItemValuesParamsProvider(ItemVO vo) {
+        Timestamp time = new Timestamp(vo.getTime().getTime());
+        return new Object[] { time, vo.getValue(), vo.getValue() };
+    }
+
     protected ItemVO storeItemValueProvider(Item item, ItemVO vo) {
         String itemType = getItemType(item);
 
@@ -517,6 +629,25 @@ public class JdbcBaseDAO {
         }
     }
 
+    protected State getAggregatedState(Item item, @Nullable Unit<? extends Quantity<?>> unit, Object v,
+            int numberDecimalcount) {
+        // aggregate functions may return a different number type than the column type
+        if (v instanceof Number) {
+            Number number = (Number) v;
+            if (item instanceof NumberItem) {
+                BigDecimal value = number instanceof BigDecimal ? (BigDecimal) number
+                        : BigDecimal.valueOf(number.doubleValue());
+                if (numberDecimalcount > -1) {
+                    value = value.setScale(numberDecimalcount, RoundingMode.HALF_UP);
+                }
+                return unit == null ? new DecimalType(value) : QuantityType.valueOf(value.doubleValue(), unit);
+            } else if (item instanceof DimmerItem || item instanceof RollershutterItem) {
+                return new PercentType((int) Math.round(number.doubleValue()));
+            }
+        }
+        return getState(item, unit, v);
+    }
+
     protected ZonedDateTime objectAsDate(Object v) {
         if (v instanceof java.lang.String) {
             return ZonedDateTime.ofInstant(Timestamp.valueOf(v.toString()).toInstant(), ZoneId.systemDefault());
@@ -577,6 +708,31 @@ public class JdbcBaseDAO {
         return itemType;
     }
 
+    // package-private for tests
+    String getStoreItemValuesSql(ItemVO vo) {
+        return getCachedSql(storeItemValuesSqls, vo, this::storeItemValuesProvider);
+    }
+
+    private String getCachedSql(Map<String, CachedSql> cache, ItemVO vo, Function<ItemVO, String> provider) {
+        CachedSql cached = cache.get(vo.getTableName());
+        // the column type of a table only changes if the type of its item has been changed
+        if (cached == null || !Objects.equals(cached.dbType, vo.getDbType())) {
+            cached = new CachedSql(vo.getDbType(), provider.apply(vo));
+            cache.put(vo.getTableName(), cached);
+        }
+        return cached.sql;
+    }
+
+    private static class CachedSql {
+        private final @Nullable String dbType;
+        private final String sql;
+
+        private CachedSql(@Nullable String dbType, String sql) {
+            this.dbType = dbType;
+            this.sql = sql;
+        }
+    }
+
     /******************************
      * public Getters and Setters *
      ******************************/
@@ -12,6 +12,7 @@
  */
 package org.openhab.persistence.jdbc.db;
 
+import java.sql.Timestamp;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,6 +26,7 @@ import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.jdbc.dto.Aggregation;
 import org.openhab.persistence.jdbc.dto.ItemVO;
 import org.openhab.persistence.jdbc.dto.ItemsVO;
 import org.openhab.persistence.jdbc.dto.JdbcHistoricItem;
@@ -147,17 +149,6 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
         Yank.execute(sql, null);
     }
 
-    @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName().toUpperCase(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
-    }
-
     @Override
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) {
@@ -176,6 +167,29 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
     /****************************
      * SQL generation Providers *
      ****************************/
+    @Override
+    protected String storeItemValuesProvider(ItemVO vo) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+                new String[] { vo.getTableName().toUpperCase(), vo.getDbType(), "?" });
+    }
+
+    @Override
+    protected Object[] storeItemValuesParamsProvider(ItemVO vo) {
+        return new Object[] { new Timestamp(vo.getTime().getTime()), vo.getValue() };
+    }
+
+    @Override
+    protected String timeBucketProvider(long bucketSeconds) {
+        return "{fn TIMESTAMPDIFF(SQL_TSI_SECOND, TIMESTAMP('1970-01-01 00:00:00'), time)} / " + bucketSeconds;
+    }
+
+    @Override
+    protected String histItemAggregateQueryProvider(FilterCriteria filter, String table, ZoneId timeZone,
+            Aggregation aggregation, long bucketSeconds) {
+        return super.histItemAggregateQueryProvider(filter, table.toUpperCase(), timeZone, aggregation,
+                bucketSeconds);
+    }
 
     @Override
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
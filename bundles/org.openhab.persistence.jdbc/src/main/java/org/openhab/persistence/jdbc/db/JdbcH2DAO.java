@@ -12,8 +12,8 @@
  */
 package org.openhab.persistence.jdbc.db;
 
-import org.knowm.yank.Yank;
-import org.openhab.core.items.Item;
+import java.sql.Timestamp;
+
 import org.openhab.persistence.jdbc.dto.ItemVO;
 import org.openhab.persistence.jdbc.utils.StringUtilsExt;
 import org.slf4j.Logger;
@@ -67,23 +67,25 @@ public class JdbcH2DAO extends JdbcBaseDAO {
      * ITEMS DAOs *
      **************/
 
-    /*************
-     * ITEM DAOs *
-     *************/
+    /****************************
+     * SQL generation Providers *
+     ****************************/
     @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+    protected String storeItemValuesProvider(ItemVO vo) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
                 new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
+                new String[] { vo.getTableName(), vo.getDbType(), "?" });
     }
 
-    /****************************
-     * SQL generation Providers *
-     ****************************/
+    @Override
+    protected Object[] storeItemValuesParamsProvider(ItemVO vo) {
+        return new Object[] { new Timestamp(vo.getTime().getTime()), vo.getValue() };
+    }
+
+    @Override
+    protected String timeBucketProvider(long bucketSeconds) {
+        return "FLOOR(DATEDIFF('SECOND', TIMESTAMP '1970-01-01 00:00:00', time) / " + bucketSeconds + ")";
+    }
 
     /*****************
      * H E L P E R S *
@@ -12,8 +12,9 @@
  */
 package org.openhab.persistence.jdbc.db;
 
+import java.sql.Timestamp;
+
 import org.knowm.yank.Yank;
-import org.openhab.core.items.Item;
 import org.openhab.persistence.jdbc.dto.ItemVO;
 import org.openhab.persistence.jdbc.dto.ItemsVO;
 import org.openhab.persistence.jdbc.utils.StringUtilsExt;
@@ -97,23 +98,22 @@ public class JdbcHsqldbDAO extends JdbcBaseDAO {
         return Yank.insert(sql, null);
     }
 
-    /*************
-     * ITEM DAOs *
-     *************/
-    @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tableName#", "#tablePrimaryValue#" }, new String[] {
-                        vo.getTableName(), vo.getDbType(), vo.getTableName(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
-    }
-
     /****************************
      * SQL generation Providers *
      ****************************/
+    @Override
+    protected String storeItemValuesProvider(ItemVO vo) {
+        // the type of the time parameter cannot be derived within the VALUES clause
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#dbType#", "#tableName#", "#tablePrimaryValue#" },
+                new String[] { vo.getTableName(), vo.getDbType(), vo.getTableName(),
+                        "CAST( ? as " + sqlTypes.get("tablePrimaryKey") + ")" });
+    }
+
+    @Override
+    protected Object[] storeItemValuesParamsProvider(ItemVO vo) {
+        return new Object[] { new Timestamp(vo.getTime().getTime()), vo.getValue() };
+    }
 
     /*****************
      * H E L P E R S *
@@ -12,11 +12,11 @@
  */
 package org.openhab.persistence.jdbc.db;
 
+import java.sql.Timestamp;
 import java.time.ZoneId;
 import java.util.List;
 
 import org.knowm.yank.Yank;
-import org.openhab.core.items.Item;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.persistence.jdbc.dto.ItemVO;
@@ -127,23 +127,25 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
         return Yank.queryBeanList(sql, ItemsVO.class, null);
     }
 
-    /*************
-     * ITEM DAOs *
-     *************/
+    /****************************
+     * SQL generation Providers *
+     ****************************/
     @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+    protected String storeItemValuesProvider(ItemVO vo) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
                 new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
+                new String[] { vo.getTableName(), vo.getDbType(), "?" });
     }
 
-    /****************************
-     * SQL generation Providers *
-     ****************************/
+    @Override
+    protected Object[] storeItemValuesParamsProvider(ItemVO vo) {
+        return new Object[] { new Timestamp(vo.getTime().getTime()), vo.getValue() };
+    }
+
+    @Override
+    protected String timeBucketProvider(long bucketSeconds) {
+        return "FLOOR(EXTRACT(EPOCH FROM time) / " + bucketSeconds + ")";
+    }
 
     @Override
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
@@ -12,8 +12,10 @@
  */
 package org.openhab.persistence.jdbc.db;
 
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
 import org.knowm.yank.Yank;
-import org.openhab.core.items.Item;
 import org.openhab.persistence.jdbc.dto.ItemVO;
 import org.openhab.persistence.jdbc.dto.ItemsVO;
 import org.openhab.persistence.jdbc.utils.StringUtilsExt;
@@ -30,6 +32,9 @@ import org.slf4j.LoggerFactory;
 public class JdbcSqliteDAO extends JdbcBaseDAO {
     private final Logger logger = LoggerFactory.getLogger(JdbcSqliteDAO.class);
 
+    private static final DateTimeFormatter SQLITE_DATE_FORMAT = DateTimeFormatter
+            .ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
     /********
      * INIT *
      ********/
@@ -86,23 +91,27 @@ public class JdbcSqliteDAO extends JdbcBaseDAO {
         return vo;
     }
 
-    /*************
-     * ITEM DAOs *
-     *************/
+    /****************************
+     * SQL generation Providers *
+     ****************************/
     @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+    protected String storeItemValuesProvider(ItemVO vo) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
                 new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
+                new String[] { vo.getTableName(), vo.getDbType(), "?" });
     }
 
-    /****************************
-     * SQL generation Providers *
-     ****************************/
+    @Override
+    protected Object[] storeItemValuesParamsProvider(ItemVO vo) {
+        // same format as the former default tablePrimaryValue, so that older rows are still comparable
+        String time = SQLITE_DATE_FORMAT.format(vo.getTime().toInstant().atZone(ZoneId.systemDefault()));
+        return new Object[] { time, vo.getValue() };
+    }
+
+    @Override
+    protected String timeBucketProvider(long bucketSeconds) {
+        return "CAST(strftime('%s', time) AS INTEGER) / " + bucketSeconds;
+    }
 
     /*****************
      * H E L P E R S *
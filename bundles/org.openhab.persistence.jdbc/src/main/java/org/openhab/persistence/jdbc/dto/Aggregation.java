@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.dto;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Defines how the values within one time bucket of an aggregated query are combined.
+ *
+ * {@link #AVG}, {@link #MIN} and {@link #MAX} are only applicable to numeric items (Number, Dimmer, Rollershutter),
+ * all other items are always aggregated by {@link #LAST}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public enum Aggregation {
+    AVG,
+    MIN,
+    MAX,
+    LAST
+}
@@ -0,0 +1,279 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.persistence.jdbc.db.JdbcBaseDAO;
+import org.openhab.persistence.jdbc.dto.ItemVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind queue for item values. Values are collected in a bounded queue and written by a single background
+ * thread, grouped per item table, whenever the batch size is reached or the batch interval has elapsed.
+ *
+ * Like a synchronous store, a batch is only written if the {@link JdbcMapper} considers the database accessible, and
+ * its error counter is updated with the outcome. If the batch of a table fails, its values are retried one by one,
+ * so a single bad value does not drop the whole batch.
+ *
+ * @author agent - Initial contribution
+ */
+public class JdbcBatchWriter {
+    private final Logger logger = LoggerFactory.getLogger(JdbcBatchWriter.class);
+
+    /**
+     * Defines what happens with a new value if the queue is full.
+     */
+    public enum OverflowPolicy {
+        /** wait up to one batch interval for free space, then drop the new value */
+        BLOCK,
+        /** drop the oldest queued value */
+        DROP_OLDEST,
+        /** drop the new value */
+        DROP_NEWEST
+    }
+
+    private final JdbcMapper mapper;
+    private final JdbcBaseDAO dao;
+    private final int batchSize;
+    private final long batchInterval;
+    private final OverflowPolicy overflowPolicy;
+    private final BlockingQueue<ItemVO> queue;
+    private final ScheduledExecutorService executor = Executors
+            .newSingleThreadScheduledExecutor(new NamedThreadFactory("jdbc-writer"));
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private volatile boolean stopped = false;
+
+    private final AtomicLong queuedCount = new AtomicLong();
+    private final AtomicLong storedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalFlushTime = new AtomicLong();
+    private volatile long lastFlushTime = 0;
+    private volatile long maxFlushTime = 0;
+
+    public JdbcBatchWriter(JdbcMapper mapper, JdbcBaseDAO dao, int batchSize, long batchInterval, int queueSize,
+            OverflowPolicy overflowPolicy) {
+        this.mapper = mapper;
+        this.dao = dao;
+        this.batchSize = batchSize;
+        this.batchInterval = batchInterval;
+        this.overflowPolicy = overflowPolicy;
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueSize, batchSize));
+    }
+
+    public void start() {
+        logger.debug("JDBC::JdbcBatchWriter: starting with batchSize={} batchInterval={} ms queueSize={} policy={}",
+                batchSize, batchInterval, queue.remainingCapacity(), overflowPolicy);
+        executor.scheduleWithFixedDelay(this::flush, batchInterval, batchInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background thread and writes all values that are still queued. Values that are queued afterwards are
+     * written immediately by the calling thread.
+     */
+    public void stop() {
+        stopped = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(batchInterval + 10000, TimeUnit.MILLISECONDS)) {
+                logger.warn("JDBC::JdbcBatchWriter: writer did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // write what was queued after the last flush
+        flush();
+        logger.debug("JDBC::JdbcBatchWriter: stopped, {}", this);
+    }
+
+    /**
+     * Queues a prepared value. The time of the value must already be set.
+     *
+     * @return <code>true</code> if the value has been queued, <code>false</code> if it has been dropped
+     */
+    public boolean enqueue(ItemVO vo) {
+        boolean queued = queue.offer(vo);
+        if (!queued) {
+            switch (overflowPolicy) {
+                case BLOCK:
+                    requestFlush();
+                    try {
+                        queued = queue.offer(vo, batchInterval, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    break;
+                case DROP_OLDEST:
+                    while (!queued) {
+                        if (queue.poll() != null) {
+                            droppedCount.incrementAndGet();
+                        }
+                        queued = queue.offer(vo);
+                    }
+                    break;
+                case DROP_NEWEST:
+                    break;
+            }
+        }
+        if (!queued) {
+            droppedCount.incrementAndGet();
+            logger.debug("JDBC::JdbcBatchWriter: queue is full, dropping value for table '{}'", vo.getTableName());
+            return false;
+        }
+        queuedCount.incrementAndGet();
+        if (stopped) {
+            // the final flush of stop() may already be done
+            flush();
+        } else if (queue.size() >= batchSize) {
+            requestFlush();
+        }
+        return true;
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // writer is stopping, the remaining values are written by stop()
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    void flush() {
+        flushRequested.set(false);
+        List<ItemVO> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            long timerStart = System.currentTimeMillis();
+            if (!mapper.checkDBAccessability()) {
+                droppedCount.addAndGet(batch.size());
+                logger.warn(
+                        "JDBC::JdbcBatchWriter: No connection to database. Cannot persist {} values! Will retry connecting to database when error count:{} equals errReconnectThreshold",
+                        batch.size(), mapper.errCnt);
+                batch.clear();
+                continue;
+            }
+            Map<String, List<ItemVO>> tables = new LinkedHashMap<>();
+            for (ItemVO vo : batch) {
+                tables.computeIfAbsent(vo.getTableName(), t -> new ArrayList<>()).add(vo);
+            }
+            for (List<ItemVO> vol : tables.values()) {
+                int stored;
+                if (store(vol)) {
+                    stored = vol.size();
+                } else {
+                    logger.debug("JDBC::JdbcBatchWriter: batch for table '{}' failed, storing its {} values one by one",
+                            vol.get(0).getTableName(), vol.size());
+                    stored = 0;
+                    for (ItemVO vo : vol) {
+                        if (store(List.of(vo))) {
+                            stored++;
+                        }
+                    }
+                }
+                storedCount.addAndGet(stored);
+                if (stored < vol.size()) {
+                    droppedCount.addAndGet(vol.size() - stored);
+                    logger.warn("JDBC::JdbcBatchWriter: could not store {} of {} values in table '{}'",
+                            vol.size() - stored, vol.size(), vol.get(0).getTableName());
+                }
+            }
+            long flushTime = System.currentTimeMillis() - timerStart;
+            lastFlushTime = flushTime;
+            if (flushTime > maxFlushTime) {
+                maxFlushTime = flushTime;
+            }
+            totalFlushTime.addAndGet(flushTime);
+            flushCount.incrementAndGet();
+            logger.debug("JDBC::JdbcBatchWriter: stored {} values in {} tables in {} ms, queue depth {}", batch.size(),
+                    tables.size(), flushTime, queue.size());
+            batch.clear();
+        }
+    }
+
+    /**
+     * Stores values of the same table and updates the error counter of the mapper like a synchronous store.
+     */
+    private boolean store(List<ItemVO> vol) {
+        boolean stored;
+        try {
+            stored = dao.doStoreItemValues(vol);
+        } catch (RuntimeException e) {
+            logger.debug("JDBC::JdbcBatchWriter: batch failed: {}", e.getMessage());
+            stored = false;
+        }
+        if (stored) {
+            mapper.errCnt = 0;
+        } else {
+            mapper.errCnt++;
+        }
+        return stored;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    public long getStoredCount() {
+        return storedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * @return the time spent on all flushes in milliseconds
+     */
+    public long getTotalFlushTime() {
+        return totalFlushTime.get();
+    }
+
+    public long getLastFlushTime() {
+        return lastFlushTime;
+    }
+
+    public long getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    @Override
+    public String toString() {
+        return "JdbcBatchWriter [queueDepth=" + queue.size() + ", queued=" + queuedCount.get() + ", stored="
+                + storedCount.get() + ", dropped=" + droppedCount.get() + ", flushes=" + flushCount.get()
+                + ", lastFlushTime=" + lastFlushTime + " ms, maxFlushTime=" + maxFlushTime + " ms]";
+    }
+}
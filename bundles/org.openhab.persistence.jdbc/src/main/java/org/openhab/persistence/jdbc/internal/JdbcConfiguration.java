@@ -60,6 +60,12 @@ public class JdbcConfiguration {
 
     private int errReconnectThreshold = 0;
 
+    // write-behind, disabled if batchSize is 0
+    private int batchSize = 0;
+    private int batchInterval = 1000;
+    private int batchQueueSize = 10000;
+    private JdbcBatchWriter.OverflowPolicy batchOverflowPolicy = JdbcBatchWriter.OverflowPolicy.BLOCK;
+
     public int timerCount = 0;
     public int time1000Statements = 0;
     public long timer1000 = 0;
@@ -167,6 +173,35 @@ public class JdbcConfiguration {
             logger.debug("JDBC::updateConfig: tableIdDigitCount={}", tableIdDigitCount);
         }
 
+        final Pattern isIntegerPattern = Pattern.compile("\\d+");
+        String bs = (String) configuration.get("batchSize");
+        if (bs != null && !bs.isBlank() && isIntegerPattern.matcher(bs.trim()).matches()) {
+            batchSize = Integer.parseInt(bs.trim());
+            logger.debug("JDBC::updateConfig: batchSize={}", batchSize);
+        }
+
+        String bi = (String) configuration.get("batchInterval");
+        if (bi != null && !bi.isBlank() && isIntegerPattern.matcher(bi.trim()).matches()) {
+            batchInterval = Math.max(Integer.parseInt(bi.trim()), 10);
+            logger.debug("JDBC::updateConfig: batchInterval={}", batchInterval);
+        }
+
+        String bq = (String) configuration.get("batchQueueSize");
+        if (bq != null && !bq.isBlank() && isIntegerPattern.matcher(bq.trim()).matches()) {
+            batchQueueSize = Integer.parseInt(bq.trim());
+            logger.debug("JDBC::updateConfig: batchQueueSize={}", batchQueueSize);
+        }
+
+        String bp = (String) configuration.get("batchOverflowPolicy");
+        if (bp != null && !bp.isBlank()) {
+            try {
+                batchOverflowPolicy = JdbcBatchWriter.OverflowPolicy.valueOf(bp.trim().toUpperCase());
+                logger.debug("JDBC::updateConfig: batchOverflowPolicy={}", batchOverflowPolicy);
+            } catch (IllegalArgumentException e) {
+                logger.warn("JDBC::updateConfig: unknown batchOverflowPolicy '{}', using {}", bp, batchOverflowPolicy);
+            }
+        }
+
         String rt = (String) configuration.get("rebuildTableNames");
         if (rt != null && !rt.isBlank()) {
             rebuildTableNames = Boolean.parseBoolean(rt);
@@ -358,6 +393,22 @@ public class JdbcConfiguration {
         return tableIdDigitCount;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getBatchInterval() {
+        return batchInterval;
+    }
+
+    public int getBatchQueueSize() {
+        return batchQueueSize;
+    }
+
+    public JdbcBatchWriter.OverflowPolicy getBatchOverflowPolicy() {
+        return batchOverflowPolicy;
+    }
+
     public JdbcBaseDAO getDBDAO() {
         return dBDAO;
     }
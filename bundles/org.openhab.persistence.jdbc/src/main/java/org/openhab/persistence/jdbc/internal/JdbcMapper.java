@@ -12,11 +12,15 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.knowm.yank.Yank;
@@ -25,6 +29,7 @@ import org.openhab.core.items.Item;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceItemInfo;
+import org.openhab.persistence.jdbc.dto.Aggregation;
 import org.openhab.persistence.jdbc.dto.ItemVO;
 import org.openhab.persistence.jdbc.dto.ItemsVO;
 import org.openhab.persistence.jdbc.dto.JdbcPersistenceItemInfo;
@@ -42,10 +47,12 @@ public class JdbcMapper {
     private final TimeZoneProvider timeZoneProvider;
 
     // Error counter - used to reconnect to database on error
-    protected int errCnt;
+    protected volatile int errCnt;
     protected boolean initialized = false;
     protected JdbcConfiguration conf = null;
-    protected final Map<String, String> sqlTables = new HashMap<>();
+    // read on every store and query without locking, only the creation of new tables is synchronized
+    protected final Map<String, String> sqlTables = new ConcurrentHashMap<>();
+    protected volatile JdbcBatchWriter batchWriter = null;
     private long afterAccessMin = 10000;
     private long afterAccessMax = 0;
     private static final String ITEM_NAME_PATTERN = "[^a-zA-Z_0-9\\-]";
@@ -153,7 +160,15 @@ public class JdbcMapper {
             return item;
         }
         long timerStart = System.currentTimeMillis();
-        conf.getDBDAO().doStoreItemValue(item, new ItemVO(tableName, null));
+        // the time is taken here and not by the database, as a batched value may be written a while later
+        ItemVO vo = new ItemVO(tableName, null);
+        vo.setTime(new Date(timerStart));
+        JdbcBatchWriter writer = batchWriter;
+        if (writer != null) {
+            writer.enqueue(conf.getDBDAO().doPrepareItemValue(item, vo));
+        } else {
+            conf.getDBDAO().doStoreItemValue(item, vo);
+        }
         logTime("storeItemValue", timerStart, System.currentTimeMillis());
         errCnt = 0;
         return item;
@@ -177,6 +192,34 @@ public class JdbcMapper {
         return null;
     }
 
+    /**
+     * Queries at most <code>maxValues</code> aggregated values by splitting the time range of the filter into equally
+     * sized buckets. Falls back to the raw values if the filter has no begin date.
+     */
+    public List<HistoricItem> getHistItemAggregateQuery(FilterCriteria filter, int numberDecimalcount, String table,
+            Item item, Aggregation aggregation, int maxValues) {
+        ZonedDateTime begin = filter.getBeginDate();
+        if (begin == null || maxValues < 1) {
+            return getHistItemFilterQuery(filter, numberDecimalcount, table, item);
+        }
+        ZonedDateTime end = filter.getEndDate() != null ? filter.getEndDate() : ZonedDateTime.now();
+        long rangeSeconds = Math.max(0, Duration.between(begin, end).getSeconds());
+        long bucketSeconds = Math.max(1, (rangeSeconds + maxValues - 1) / maxValues);
+        logger.debug("JDBC::getHistItemAggregateQuery table='{}' item='{}' aggregation={} bucketSeconds={}", table,
+                item.getName(), aggregation, bucketSeconds);
+        if (table != null) {
+            long timerStart = System.currentTimeMillis();
+            List<HistoricItem> result = conf.getDBDAO().doGetHistItemAggregateQuery(item, filter, numberDecimalcount,
+                    table, timeZoneProvider.getTimeZone(), aggregation, bucketSeconds);
+            logTime("getHistItemAggregateQuery", timerStart, System.currentTimeMillis());
+            errCnt = 0;
+            return result;
+        } else {
+            logger.error("JDBC::getHistItemAggregateQuery: TABLE is NULL; cannot get data from non-existent table.");
+        }
+        return null;
+    }
+
     /***********************
      * DATABASE CONNECTION *
      ***********************/
@@ -195,6 +238,24 @@ public class JdbcMapper {
         return true;
     }
 
+    protected void startBatchWriter() {
+        stopBatchWriter();
+        if (conf.getBatchSize() > 0) {
+            JdbcBatchWriter writer = new JdbcBatchWriter(this, conf.getDBDAO(), conf.getBatchSize(),
+                    conf.getBatchInterval(), conf.getBatchQueueSize(), conf.getBatchOverflowPolicy());
+            writer.start();
+            batchWriter = writer;
+        }
+    }
+
+    protected void stopBatchWriter() {
+        JdbcBatchWriter writer = batchWriter;
+        if (writer != null) {
+            batchWriter = null;
+            writer.stop();
+        }
+    }
+
     protected void closeConnection() {
         logger.debug("JDBC::closeConnection");
         // Closes all open connection pools
@@ -240,6 +301,16 @@ public class JdbcMapper {
     }
 
     protected String getTable(Item item) {
+        String tableName = sqlTables.get(item.getName());
+
+        // Table already exists - return the name
+        if (tableName != null) {
+            return tableName;
+        }
+        return createTable(item);
+    }
+
+    private synchronized String createTable(Item item) {
         int rowId = 0;
         ItemsVO isvo;
         ItemVO ivo;
@@ -247,7 +318,7 @@ public class JdbcMapper {
         String itemName = item.getName();
         String tableName = sqlTables.get(itemName);
 
-        // Table already exists - return the name
+        // Table has been created by a concurrent call
         if (tableName != null) {
             return tableName;
         }
@@ -16,11 +16,15 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.i18n.TimeZoneProvider;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
@@ -32,15 +36,25 @@ import org.openhab.core.persistence.PersistenceService;
 import org.openhab.core.persistence.QueryablePersistenceService;
 import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.UnDefType;
+import org.openhab.persistence.jdbc.dto.Aggregation;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
 /**
  * This is the implementation of the JDBC {@link PersistenceService}.
  *
@@ -48,8 +62,8 @@ import org.slf4j.LoggerFactory;
  * @author Kai Kreuzer - Migration to 3.x
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class,
-        QueryablePersistenceService.class }, configurationPid = "org.openhab.jdbc", //
+@Component(service = { PersistenceService.class, QueryablePersistenceService.class,
+        JdbcPersistenceService.class }, configurationPid = "org.openhab.jdbc", //
         property = Constants.SERVICE_PID + "=org.openhab.jdbc")
 @ConfigurableService(category = "persistence", label = "JDBC Persistence Service", description_uri = JdbcPersistenceService.CONFIG_URI)
 public class JdbcPersistenceService extends JdbcMapper implements QueryablePersistenceService {
@@ -60,6 +74,9 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
 
     private final ItemRegistry itemRegistry;
 
+    // the meters of the batch writer, registered while a meter registry is available
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+
     @Activate
     public JdbcPersistenceService(final @Reference ItemRegistry itemRegistry,
             final @Reference TimeZoneProvider timeZoneProvider) {
@@ -104,9 +121,43 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
     public void deactivate(final int reason) {
         logger.debug("JDBC::deactivate:  persistence bundle stopping. Disconnecting from database. reason={}", reason);
         // closeConnection();
+        stopBatchWriter();
         initialized = false;
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        Tags tags = Tags.of("service", "jdbc");
+        meters.add(writerCounter(registry, tags, "queued", JdbcBatchWriter::getQueuedCount));
+        meters.add(writerCounter(registry, tags, "stored", JdbcBatchWriter::getStoredCount));
+        meters.add(writerCounter(registry, tags, "dropped", JdbcBatchWriter::getDroppedCount));
+        meters.add(Gauge.builder("openhab.persistence.queue.depth", this,
+                service -> writerValue(service, JdbcBatchWriter::getQueueDepth)).tags(tags)
+                .description("Values waiting to be written").register(registry));
+        meters.add(FunctionTimer.builder("openhab.persistence.flush", this,
+                service -> (long) writerValue(service, JdbcBatchWriter::getFlushCount),
+                service -> writerValue(service, JdbcBatchWriter::getTotalFlushTime), TimeUnit.MILLISECONDS)
+                .tags(tags).description("Writes of a batch of values").register(registry));
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    private Meter writerCounter(MeterRegistry registry, Tags tags, String state,
+            ToDoubleFunction<JdbcBatchWriter> count) {
+        return FunctionCounter.builder("openhab.persistence.values." + state, this,
+                service -> writerValue(service, count)).tags(tags).register(registry);
+    }
+
+    private static double writerValue(JdbcPersistenceService service, ToDoubleFunction<JdbcBatchWriter> value) {
+        JdbcBatchWriter writer = service.batchWriter;
+        return writer == null ? 0 : value.applyAsDouble(writer);
+    }
+
     @Override
     public String getId() {
         logger.debug("JDBC::getName: returning name 'jdbc' for queryable persistence service.");
@@ -160,6 +211,21 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
      */
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
+        return query(filter, null, 0);
+    }
+
+    /**
+     * Queries the database like {@link #query(FilterCriteria)}, but lets the database aggregate the values into at
+     * most <code>maxValues</code> time buckets, e.g. to render a chart for a long time range. It is served by the
+     * <code>/rest/jdbc/items/{itemname}</code> endpoint of the
+     * {@link org.openhab.persistence.jdbc.internal.rest.JdbcAggregationResource}.
+     *
+     * @param filter the filter to apply, must contain a begin date for the aggregation to take effect
+     * @param aggregation how the values of a time bucket are combined or <code>null</code> to return the raw values
+     * @param maxValues the maximum number of values to return
+     * @return the (aggregated) historic items
+     */
+    public Iterable<HistoricItem> query(FilterCriteria filter, @Nullable Aggregation aggregation, int maxValues) {
         if (!checkDBAccessability()) {
             logger.warn("JDBC::query: database not connected, query aborted for item '{}'", filter.getItemName());
             return List.of();
@@ -202,7 +268,9 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
         }
 
         long timerStart = System.currentTimeMillis();
-        List<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
+        List<HistoricItem> items = aggregation == null
+                ? getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item)
+                : getHistItemAggregateQuery(filter, conf.getNumberDecimalcount(), table, item, aggregation, maxValues);
 
         logger.debug("JDBC::query: query for {} returned {} rows in {} ms", itemName, items.size(),
                 System.currentTimeMillis() - timerStart);
@@ -215,9 +283,11 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
     public void updateConfig(Map<Object, Object> configuration) {
         logger.debug("JDBC::updateConfig");
 
+        stopBatchWriter();
         conf = new JdbcConfiguration(configuration);
         if (conf.valid && checkDBAccessability()) {
             checkDBSchema();
+            startBatchWriter();
             // connection has been established ... initialization completed!
             initialized = true;
         } else {
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.rest;
+
+import java.time.ZonedDateTime;
+import java.util.Locale;
+
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.auth.Role;
+import org.openhab.core.io.rest.RESTConstants;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.persistence.dto.ItemHistoryDTO;
+import org.openhab.persistence.jdbc.dto.Aggregation;
+import org.openhab.persistence.jdbc.internal.JdbcPersistenceService;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.jaxrs.whiteboard.JaxrsWhiteboardConstants;
+import org.osgi.service.jaxrs.whiteboard.propertytypes.JSONRequired;
+import org.osgi.service.jaxrs.whiteboard.propertytypes.JaxrsApplicationSelect;
+import org.osgi.service.jaxrs.whiteboard.propertytypes.JaxrsResource;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * The {@link JdbcAggregationResource} serves the values of an item aggregated into time buckets by the database, e.g.
+ * for charts over long time ranges. The core persistence endpoint has no way to request an aggregation.
+ *
+ * @author agent - Initial contribution
+ */
+@Component(immediate = true, service = JdbcAggregationResource.class)
+@JaxrsResource
+@JaxrsApplicationSelect("(" + JaxrsWhiteboardConstants.JAX_RS_NAME + "=" + RESTConstants.JAX_RS_NAME + ")")
+@Path(JdbcAggregationResource.PATH_JDBC)
+@JSONRequired
+@RolesAllowed({ Role.USER, Role.ADMIN })
+@Tag(name = JdbcAggregationResource.PATH_JDBC)
+@NonNullByDefault
+public class JdbcAggregationResource {
+    public static final String PATH_JDBC = "jdbc";
+
+    private final JdbcPersistenceService persistenceService;
+
+    @Activate
+    public JdbcAggregationResource(final @Reference JdbcPersistenceService persistenceService) {
+        this.persistenceService = persistenceService;
+    }
+
+    @GET
+    @Path("/items/{itemname: [a-zA-Z_0-9]+}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(operationId = "getJdbcAggregatedItemData", summary = "Gets item persistence data of the JDBC persistence service aggregated into time buckets.", responses = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = ItemHistoryDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid time, aggregation or number of values") })
+    public Response getAggregatedItemData(
+            @PathParam("itemname") @Parameter(description = "The item name") String itemName,
+            @QueryParam("starttime") @Parameter(description = "Start time of the data to return. Will default to 1 day before endtime. [yyyy-MM-dd'T'HH:mm:ss.SSSZ]") @Nullable String startTime,
+            @QueryParam("endtime") @Parameter(description = "End time of the data to return. Will default to current time. [yyyy-MM-dd'T'HH:mm:ss.SSSZ]") @Nullable String endTime,
+            @QueryParam("aggregation") @DefaultValue("AVG") @Parameter(description = "How the values of a time bucket are combined: AVG, MIN, MAX or LAST") String aggregation,
+            @QueryParam("maxvalues") @DefaultValue("500") @Parameter(description = "Maximum number of values to return") int maxValues) {
+        ZonedDateTime end;
+        ZonedDateTime begin;
+        Aggregation usedAggregation;
+        try {
+            end = endTime == null ? ZonedDateTime.now() : new DateTimeType(endTime).getZonedDateTime();
+            begin = startTime == null ? end.minusDays(1) : new DateTimeType(startTime).getZonedDateTime();
+            usedAggregation = Aggregation.valueOf(aggregation.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Response.status(Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+        if (maxValues < 1 || begin.isAfter(end)) {
+            return Response.status(Status.BAD_REQUEST).build();
+        }
+
+        FilterCriteria filter = new FilterCriteria().setItemName(itemName).setBeginDate(begin).setEndDate(end)
+                .setOrdering(Ordering.ASCENDING);
+        ItemHistoryDTO dto = new ItemHistoryDTO();
+        dto.name = itemName;
+        int count = 0;
+        for (HistoricItem historicItem : persistenceService.query(filter, usedAggregation, maxValues)) {
+            dto.addData(historicItem.getTimestamp().toInstant().toEpochMilli(), historicItem.getState());
+            count++;
+        }
+        dto.datapoints = Integer.toString(count);
+        return Response.ok(dto).build();
+    }
+}
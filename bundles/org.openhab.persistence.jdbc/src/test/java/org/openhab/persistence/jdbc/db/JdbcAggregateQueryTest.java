@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.db;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.persistence.jdbc.dto.Aggregation;
+
+/**
+ * Tests the SQL of aggregated queries generated by each {@link JdbcBaseDAO} dialect.
+ *
+ * @author agent - Initial contribution
+ */
+public class JdbcAggregateQueryTest {
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final String WHERE = " WHERE TIME>'2021-01-01 00:00:00' AND TIME<'2021-01-02 00:00:00'";
+
+    private final FilterCriteria filter = new FilterCriteria().setItemName("Temperature")
+            .setBeginDate(ZonedDateTime.of(2021, 1, 1, 0, 0, 0, 0, UTC))
+            .setEndDate(ZonedDateTime.of(2021, 1, 2, 0, 0, 0, 0, UTC)).setOrdering(Ordering.ASCENDING);
+
+    @Test
+    public void mysqlAverage() {
+        assertThat(query(new JdbcMysqlDAO(), Aggregation.AVG), is("SELECT MIN(time), AVG(value) FROM item0001" + WHERE
+                + " GROUP BY FLOOR(UNIX_TIMESTAMP(time) / 60) ORDER BY 1 ASC"));
+    }
+
+    @Test
+    public void mariadbMaximum() {
+        assertThat(query(new JdbcMariadbDAO(), Aggregation.MAX), is("SELECT MIN(time), MAX(value) FROM item0001"
+                + WHERE + " GROUP BY FLOOR(UNIX_TIMESTAMP(time) / 60) ORDER BY 1 ASC"));
+    }
+
+    @Test
+    public void hsqldbMinimum() {
+        assertThat(query(new JdbcHsqldbDAO(), Aggregation.MIN), is("SELECT MIN(time), MIN(value) FROM item0001"
+                + WHERE + " GROUP BY FLOOR(UNIX_TIMESTAMP(time) / 60) ORDER BY 1 ASC"));
+    }
+
+    @Test
+    public void postgresqlAverage() {
+        assertThat(query(new JdbcPostgresqlDAO(), Aggregation.AVG), is("SELECT MIN(time), AVG(value) FROM item0001"
+                + WHERE + " GROUP BY FLOOR(EXTRACT(EPOCH FROM time) / 60) ORDER BY 1 ASC"));
+    }
+
+    @Test
+    public void h2Average() {
+        assertThat(query(new JdbcH2DAO(), Aggregation.AVG), is("SELECT MIN(time), AVG(value) FROM item0001" + WHERE
+                + " GROUP BY FLOOR(DATEDIFF('SECOND', TIMESTAMP '1970-01-01 00:00:00', time) / 60) ORDER BY 1 ASC"));
+    }
+
+    @Test
+    public void derbyAverageUsesUpperCaseTable() {
+        assertThat(query(new JdbcDerbyDAO(), Aggregation.AVG), is("SELECT MIN(time), AVG(value) FROM ITEM0001"
+                + WHERE + " GROUP BY {fn TIMESTAMPDIFF(SQL_TSI_SECOND, TIMESTAMP('1970-01-01 00:00:00'), time)} / 60"
+                + " ORDER BY 1 ASC"));
+    }
+
+    @Test
+    public void sqliteAverage() {
+        assertThat(query(new JdbcSqliteDAO(), Aggregation.AVG), is("SELECT MIN(time), AVG(value) FROM item0001"
+                + WHERE + " GROUP BY CAST(strftime('%s', time) AS INTEGER) / 60 ORDER BY 1 ASC"));
+    }
+
+    @Test
+    public void lastValueIsJoinedByItsTime() {
+        assertThat(query(new JdbcMysqlDAO(), Aggregation.LAST),
+                is("SELECT t.time, t.value FROM item0001 t INNER JOIN (SELECT MAX(time) AS lasttime FROM item0001"
+                        + WHERE
+                        + " GROUP BY FLOOR(UNIX_TIMESTAMP(time) / 60)) b ON t.time = b.lasttime ORDER BY t.time ASC"));
+    }
+
+    @Test
+    public void descendingOrdering() {
+        filter.setOrdering(Ordering.DESCENDING);
+        assertThat(query(new JdbcPostgresqlDAO(), Aggregation.MIN), is("SELECT MIN(time), MIN(value) FROM item0001"
+                + WHERE + " GROUP BY FLOOR(EXTRACT(EPOCH FROM time) / 60) ORDER BY 1 DESC"));
+    }
+
+    private String query(JdbcBaseDAO dao, Aggregation aggregation) {
+        return dao.histItemAggregateQueryProvider(filter, "item0001", UTC, aggregation, 60);
+    }
+}
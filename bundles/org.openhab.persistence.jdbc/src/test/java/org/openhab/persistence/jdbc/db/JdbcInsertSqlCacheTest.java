@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.db;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.openhab.persistence.jdbc.dto.ItemVO;
+
+/**
+ * Tests the caching of the generated insert statements of {@link JdbcBaseDAO}.
+ *
+ * @author agent - Initial contribution
+ */
+public class JdbcInsertSqlCacheTest {
+    private final CountingH2DAO dao = new CountingH2DAO();
+
+    @Test
+    public void sqlIsGeneratedOncePerTable() {
+        String sql = dao.getStoreItemValuesSql(createValue("item0001", "DOUBLE"));
+
+        assertThat(sql, is("MERGE INTO item0001 (TIME, VALUE) VALUES( ?, CAST( ? as DOUBLE) )"));
+        assertThat(dao.getStoreItemValuesSql(createValue("item0001", "DOUBLE")), is(sameInstance(sql)));
+        assertThat(dao.generated, is(1));
+    }
+
+    @Test
+    public void sqlIsGeneratedAgainWhenTheDbTypeChanges() {
+        dao.getStoreItemValuesSql(createValue("item0001", "DOUBLE"));
+
+        String sql = dao.getStoreItemValuesSql(createValue("item0001", "VARCHAR(65500)"));
+
+        assertThat(sql, is("MERGE INTO item0001 (TIME, VALUE) VALUES( ?, CAST( ? as VARCHAR(65500)) )"));
+        assertThat(dao.generated, is(2));
+        // the statement of the new type replaces the cached one
+        assertThat(dao.getStoreItemValuesSql(createValue("item0001", "VARCHAR(65500)")), is(sameInstance(sql)));
+        assertThat(dao.generated, is(2));
+    }
+
+    @Test
+    public void sqlIsCachedPerTableName() {
+        String sql1 = dao.getStoreItemValuesSql(createValue("item0001", "DOUBLE"));
+        String sql2 = dao.getStoreItemValuesSql(createValue("item0002", "DOUBLE"));
+
+        assertThat(sql2, is("MERGE INTO item0002 (TIME, VALUE) VALUES( ?, CAST( ? as DOUBLE) )"));
+        assertThat(dao.generated, is(2));
+        assertThat(dao.getStoreItemValuesSql(createValue("item0001", "DOUBLE")), is(sameInstance(sql1)));
+        assertThat(dao.getStoreItemValuesSql(createValue("item0002", "DOUBLE")), is(sameInstance(sql2)));
+        assertThat(dao.generated, is(2));
+    }
+
+    private static ItemVO createValue(String tableName, String dbType) {
+        ItemVO vo = new ItemVO(tableName, null);
+        vo.setDbType(dbType);
+        return vo;
+    }
+
+    private static class CountingH2DAO extends JdbcH2DAO {
+        private int generated;
+
+        @Override
+        protected String storeItemValuesProvider(ItemVO vo) {
+            generated++;
+            return super.storeItemValuesProvider(vo);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.persistence.jdbc.db.JdbcBaseDAO;
+import org.openhab.persistence.jdbc.dto.ItemVO;
+import org.openhab.persistence.jdbc.internal.JdbcBatchWriter.OverflowPolicy;
+
+/**
+ * Tests cases for {@link JdbcBatchWriter}
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class JdbcBatchWriterTest {
+    private @Mock JdbcMapper mapper;
+    private @Mock JdbcBaseDAO dao;
+
+    private JdbcBatchWriter writer;
+
+    @BeforeEach
+    public void setUp() {
+        when(mapper.checkDBAccessability()).thenReturn(true);
+        when(dao.doStoreItemValues(anyList())).thenReturn(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    public void flushWhenBatchSizeIsReached() {
+        writer = new JdbcBatchWriter(mapper, dao, 3, 60000, 10, OverflowPolicy.DROP_NEWEST);
+        writer.start();
+
+        writer.enqueue(createValue("table1"));
+        writer.enqueue(createValue("table1"));
+        verify(dao, after(200).never()).doStoreItemValues(anyList());
+
+        writer.enqueue(createValue("table1"));
+        verify(dao, timeout(1000)).doStoreItemValues(argThat(vol -> vol.size() == 3));
+    }
+
+    @Test
+    public void flushWhenBatchIntervalHasElapsed() {
+        writer = new JdbcBatchWriter(mapper, dao, 100, 100, 100, OverflowPolicy.DROP_NEWEST);
+        writer.start();
+
+        writer.enqueue(createValue("table1"));
+        writer.enqueue(createValue("table1"));
+
+        verify(dao, timeout(2000)).doStoreItemValues(argThat(vol -> vol.size() == 2));
+    }
+
+    @Test
+    public void stopWritesQueuedValues() {
+        JdbcBatchWriter instance = new JdbcBatchWriter(mapper, dao, 100, 60000, 100, OverflowPolicy.DROP_NEWEST);
+        instance.start();
+        instance.enqueue(createValue("table1"));
+        instance.enqueue(createValue("table1"));
+
+        instance.stop();
+
+        verify(dao).doStoreItemValues(argThat(vol -> vol.size() == 2));
+        assertThat(instance.getStoredCount(), is(2L));
+        assertThat(instance.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void valueQueuedAfterStopIsWrittenImmediately() {
+        JdbcBatchWriter instance = new JdbcBatchWriter(mapper, dao, 100, 60000, 100, OverflowPolicy.DROP_NEWEST);
+        instance.start();
+        instance.stop();
+
+        assertThat(instance.enqueue(createValue("table1")), is(true));
+
+        verify(dao).doStoreItemValues(argThat(vol -> vol.size() == 1));
+        assertThat(instance.getStoredCount(), is(1L));
+        assertThat(instance.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void valuesAreWrittenPerTable() {
+        writer = new JdbcBatchWriter(mapper, dao, 100, 60000, 100, OverflowPolicy.DROP_NEWEST);
+        writer.enqueue(createValue("table1"));
+        writer.enqueue(createValue("table2"));
+        writer.enqueue(createValue("table1"));
+
+        writer.flush();
+
+        verify(dao).doStoreItemValues(argThat(vol -> vol.size() == 2 && "table1".equals(vol.get(0).getTableName())));
+        verify(dao).doStoreItemValues(argThat(vol -> vol.size() == 1 && "table2".equals(vol.get(0).getTableName())));
+        assertThat(writer.getStoredCount(), is(3L));
+        assertThat(writer.getFlushCount(), is(1L));
+    }
+
+    @Test
+    public void failedBatchIsRetriedValueByValue() {
+        ItemVO bad = createValue("table1");
+        when(dao.doStoreItemValues(anyList())).thenAnswer(invocation -> {
+            List<ItemVO> vol = invocation.getArgument(0);
+            // values are compared by their content, the bad one is identified by its identity
+            return vol.stream().noneMatch(vo -> vo == bad);
+        });
+        writer = new JdbcBatchWriter(mapper, dao, 100, 60000, 100, OverflowPolicy.DROP_NEWEST);
+        writer.enqueue(createValue("table1"));
+        writer.enqueue(bad);
+        writer.enqueue(createValue("table1"));
+
+        writer.flush();
+
+        // the batch and then each value
+        verify(dao, times(4)).doStoreItemValues(anyList());
+        assertThat(writer.getStoredCount(), is(2L));
+        assertThat(writer.getDroppedCount(), is(1L));
+        // the last value has been stored
+        assertThat(mapper.errCnt, is(0));
+    }
+
+    @Test
+    public void failuresAreCountedForReconnect() {
+        when(dao.doStoreItemValues(anyList())).thenThrow(new IllegalStateException("connection lost"));
+        writer = new JdbcBatchWriter(mapper, dao, 100, 60000, 100, OverflowPolicy.DROP_NEWEST);
+        writer.enqueue(createValue("table1"));
+        writer.enqueue(createValue("table1"));
+
+        writer.flush();
+
+        assertThat(writer.getDroppedCount(), is(2L));
+        assertThat(mapper.errCnt, is(3));
+    }
+
+    @Test
+    public void nothingIsWrittenIfDatabaseIsNotAccessible() {
+        when(mapper.checkDBAccessability()).thenReturn(false);
+        writer = new JdbcBatchWriter(mapper, dao, 100, 60000, 100, OverflowPolicy.DROP_NEWEST);
+        writer.enqueue(createValue("table1"));
+        writer.enqueue(createValue("table2"));
+
+        writer.flush();
+
+        verify(dao, never()).doStoreItemValues(anyList());
+        assertThat(writer.getDroppedCount(), is(2L));
+    }
+
+    private ItemVO createValue(String tableName) {
+        return new ItemVO(tableName, null);
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.core.i18n.TimeZoneProvider;
+import org.openhab.core.items.Item;
+import org.openhab.persistence.jdbc.db.JdbcBaseDAO;
+import org.openhab.persistence.jdbc.dto.ItemVO;
+import org.openhab.persistence.jdbc.dto.ItemsVO;
+
+/**
+ * Tests cases for the item table lookup of {@link JdbcMapper}
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class JdbcMapperTest {
+    private static final int THREADS = 8;
+
+    private @Mock TimeZoneProvider timeZoneProvider;
+    private @Mock JdbcConfiguration conf;
+    private @Mock JdbcBaseDAO dao;
+
+    private final AtomicLong itemId = new AtomicLong();
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    private JdbcMapper mapper;
+
+    @BeforeEach
+    public void setUp() {
+        when(conf.getDBDAO()).thenReturn(dao);
+        when(conf.getTableNamePrefix()).thenReturn("item");
+        when(conf.getTableIdDigitCount()).thenReturn(4);
+        when(dao.getDataType(any())).thenReturn("DOUBLE");
+        when(dao.doCreateNewEntryInItemsTable(any())).thenAnswer(invocation -> {
+            // widen the window in which concurrent calls could create a second table
+            Thread.sleep(50);
+            return itemId.incrementAndGet();
+        });
+        mapper = new JdbcMapper(timeZoneProvider);
+        mapper.conf = conf;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void existingTableIsReturnedWithoutCreatingIt() {
+        mapper.sqlTables.put("Temperature", "item0007");
+
+        assertThat(mapper.getTable(createItem("Temperature")), is("item0007"));
+
+        verify(dao, never()).doCreateNewEntryInItemsTable(any());
+        verify(dao, never()).doCreateItemTable(any());
+    }
+
+    @Test
+    public void concurrentCallsCreateATableOnlyOnce() throws Exception {
+        Item item = createItem("Temperature");
+
+        List<String> tableNames = getTablesConcurrently(item, item, item, item, item, item, item, item);
+
+        for (String tableName : tableNames) {
+            assertThat(tableName, is("item0001"));
+        }
+        verify(dao, times(1)).doCreateNewEntryInItemsTable(any(ItemsVO.class));
+        verify(dao, times(1)).doCreateItemTable(any(ItemVO.class));
+        assertThat(mapper.sqlTables.get("Temperature"), is("item0001"));
+    }
+
+    @Test
+    public void concurrentCallsCreateATablePerItem() throws Exception {
+        Item temperature = createItem("Temperature");
+        Item humidity = createItem("Humidity");
+
+        List<String> tableNames = getTablesConcurrently(temperature, humidity, temperature, humidity, temperature,
+                humidity, temperature, humidity);
+
+        Set<String> distinctNames = new HashSet<>(tableNames);
+        assertThat(distinctNames.size(), is(2));
+        for (int i = 2; i < tableNames.size(); i++) {
+            assertThat(tableNames.get(i), is(tableNames.get(i % 2)));
+        }
+        verify(dao, times(2)).doCreateNewEntryInItemsTable(any(ItemsVO.class));
+        verify(dao, times(2)).doCreateItemTable(any(ItemVO.class));
+        assertThat(mapper.sqlTables.size(), is(2));
+    }
+
+    /**
+     * Looks up the tables of the given items from concurrent threads, which are all started at the same time.
+     */
+    private List<String> getTablesConcurrently(Item... items) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (Item item : items) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return mapper.getTable(item);
+            }));
+        }
+        start.countDown();
+        List<String> tableNames = new ArrayList<>();
+        for (Future<String> future : futures) {
+            tableNames.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return tableNames;
+    }
+
+    private Item createItem(String name) {
+        Item item = mock(Item.class);
+        when(item.getName()).thenReturn(name);
+        return item;
+    }
+}
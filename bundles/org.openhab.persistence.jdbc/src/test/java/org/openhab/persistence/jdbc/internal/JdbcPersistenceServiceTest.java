@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.core.i18n.TimeZoneProvider;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.persistence.jdbc.db.JdbcBaseDAO;
+import org.openhab.persistence.jdbc.dto.ItemVO;
+import org.openhab.persistence.jdbc.internal.JdbcBatchWriter.OverflowPolicy;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests cases for {@link JdbcPersistenceService}
+ *
+ * @author agent - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+public class JdbcPersistenceServiceTest {
+    private @Mock ItemRegistry itemRegistry;
+    private @Mock TimeZoneProvider timeZoneProvider;
+    private @Mock MeterRegistryProvider meterRegistryProvider;
+    private @Mock JdbcBaseDAO dao;
+
+    private final CompositeMeterRegistry meterRegistry = new CompositeMeterRegistry();
+
+    private JdbcPersistenceService instance;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry.add(new SimpleMeterRegistry());
+        when(meterRegistryProvider.getOHMeterRegistry()).thenReturn(meterRegistry);
+        when(dao.doStoreItemValues(anyList())).thenReturn(true);
+        instance = spy(new JdbcPersistenceService(itemRegistry, timeZoneProvider));
+        doReturn(true).when(instance).checkDBAccessability();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        JdbcBatchWriter writer = instance.batchWriter;
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    public void metersAreZeroWithoutBatchWriter() {
+        instance.setMeterRegistryProvider(meterRegistryProvider);
+
+        Gauge depth = meterRegistry.find("openhab.persistence.queue.depth").tag("service", "jdbc").gauge();
+        assertThat(depth.value(), is(0.0));
+        FunctionTimer flush = meterRegistry.find("openhab.persistence.flush").tag("service", "jdbc").functionTimer();
+        assertThat(flush.count(), is(0.0));
+    }
+
+    @Test
+    public void batchWriterCountersAreExported() {
+        instance.setMeterRegistryProvider(meterRegistryProvider);
+        JdbcBatchWriter writer = new JdbcBatchWriter(instance, dao, 100, 60000, 100, OverflowPolicy.DROP_NEWEST);
+        instance.batchWriter = writer;
+
+        writer.enqueue(new ItemVO("table1", null));
+        writer.enqueue(new ItemVO("table1", null));
+
+        FunctionCounter queued = meterRegistry.find("openhab.persistence.values.queued").tag("service", "jdbc")
+                .functionCounter();
+        assertThat(queued.count(), is(2.0));
+        Gauge depth = meterRegistry.find("openhab.persistence.queue.depth").tag("service", "jdbc").gauge();
+        assertThat(depth.value(), is(2.0));
+
+        writer.flush();
+
+        FunctionCounter stored = meterRegistry.find("openhab.persistence.values.stored").tag("service", "jdbc")
+                .functionCounter();
+        assertThat(stored.count(), is(2.0));
+        assertThat(depth.value(), is(0.0));
+        FunctionTimer flush = meterRegistry.find("openhab.persistence.flush").tag("service", "jdbc").functionTimer();
+        assertThat(flush.count(), is(1.0));
+
+        instance.unsetMeterRegistryProvider(meterRegistryProvider);
+        assertThat(meterRegistry.getMeters().isEmpty(), is(true));
+    }
+}
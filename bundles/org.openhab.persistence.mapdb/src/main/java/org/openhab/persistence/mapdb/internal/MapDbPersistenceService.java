@@ -76,7 +76,8 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
     /** holds the local instance of the MapDB database */
 
     private @NonNullByDefault({}) DB db;
-    private @NonNullByDefault({}) Map<String, String> map;
+    // values are serialized by MapDbItemSerializer, older versions stored JSON strings
+    private @NonNullByDefault({}) Map<String, Object> map;
 
     private transient Gson mapper = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
             .create();
@@ -95,8 +96,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
         File dbFile = DB_DIR.resolve(DB_FILE_NAME).toFile();
         try {
-            db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-            map = db.createTreeMap("itemStore").makeOrGet();
+            open(DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make());
         } catch (RuntimeException re) {
             Throwable cause = re.getCause();
             if (cause instanceof ClassNotFoundException) {
@@ -128,13 +128,15 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
                     return;
                 }
 
-                db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-                map = db.createTreeMap("itemStore").makeOrGet();
+                open(DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make());
             } else {
                 logger.warn("Failed to create or open the MapDB: {}", re.getMessage());
                 logger.warn("MapDB persistence service activation has failed.");
             }
         }
+        if (map != null) {
+            migrateJsonItems();
+        }
         logger.debug("MapDB persistence service is now activated");
     }
 
@@ -182,30 +184,77 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(localAlias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(localAlias, json);
-        commit();
-        if (logger.isDebugEnabled()) {
-            logger.debug("Stored '{}' with state '{}' as '{}' in MapDB database", localAlias, state, json);
+        byte[] data;
+        try {
+            data = MapDbItemSerializer.serialize(mItem);
+        } catch (IOException e) {
+            logger.warn("Failed to serialize '{}' with state '{}': {}", localAlias, state, e.getMessage());
+            return;
         }
+        map.put(localAlias, data);
+        commit();
+        logger.debug("Stored '{}' with state '{}' in MapDB database", localAlias, state);
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        Object value = map.get(filter.getItemName());
+        if (value == null) {
             return List.of();
         }
-        Optional<MapDbItem> item = deserialize(json);
+        Optional<MapDbItem> item = deserialize(value);
         return item.isPresent() ? List.of(item.get()) : List.of();
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    // package-private for tests
+    void open(DB db) {
+        this.db = db;
+        map = db.createTreeMap("itemStore").makeOrGet();
+    }
+
+    /**
+     * Converts the JSON strings stored by previous versions of this service into the binary format.
+     */
+    void migrateJsonItems() {
+        int migrated = 0;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (entry.getValue() instanceof String) {
+                Optional<MapDbItem> item = deserializeJson((String) entry.getValue());
+                try {
+                    if (item.isPresent()) {
+                        map.put(entry.getKey(), MapDbItemSerializer.serialize(item.get()));
+                        migrated++;
+                    }
+                } catch (IOException e) {
+                    logger.warn("Failed to migrate '{}': {}", entry.getKey(), e.getMessage());
+                }
+            }
+        }
+        if (migrated > 0) {
+            db.commit();
+            logger.info("Migrated {} items of the MapDB to the binary format", migrated);
+        }
+    }
+
+    private Optional<MapDbItem> deserialize(Object value) {
+        if (value instanceof byte[]) {
+            try {
+                MapDbItem item = MapDbItemSerializer.deserialize((byte[]) value);
+                logger.trace("Deserialized '{}' with state '{}'", item.getName(), item.getState());
+                return Optional.of(item);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to deserialize item: {}", e.getMessage());
+                return Optional.empty();
+            }
+        } else if (value instanceof String) {
+            return deserializeJson((String) value);
+        }
+        logger.warn("Ignoring item with unexpected value type {}", value.getClass().getName());
+        return Optional.empty();
     }
 
     @SuppressWarnings("null")
-    private Optional<MapDbItem> deserialize(String json) {
+    private Optional<MapDbItem> deserializeJson(String json) {
         MapDbItem item = mapper.<MapDbItem> fromJson(json, MapDbItem.class);
         if (item == null || !item.isValid()) {
             logger.warn("Deserialized invalid item: {}", item);
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.PointType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.UpDownType;
+import org.openhab.core.library.unit.SIUnits;
+import org.openhab.core.types.State;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemSerializer;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemSerializerTest {
+
+    @ParameterizedTest
+    @MethodSource
+    public void serializeDeserializeRoundtripShouldRecreateTheItem(State state) throws IOException {
+        MapDbItem item = new MapDbItem();
+        item.setName("item");
+        item.setState(state);
+        item.setTimestamp(new Date(1234567890123L));
+
+        MapDbItem actual = MapDbItemSerializer.deserialize(MapDbItemSerializer.serialize(item));
+
+        assertThat(actual.getName(), is(equalTo("item")));
+        assertThat(actual.getState(), is(equalTo(state)));
+        assertThat(actual.getTimestamp(), is(equalTo(item.getTimestamp())));
+    }
+
+    public static Stream<State> serializeDeserializeRoundtripShouldRecreateTheItem() {
+        return Stream.of(DecimalType.ZERO, new DecimalType(1.123), new DecimalType(new BigDecimal("-1E+400")),
+                PercentType.HUNDRED, PercentType.valueOf("0.0000001"), HSBType.fromRGB(11, 22, 33), OnOffType.ON,
+                OnOffType.OFF, OpenClosedType.OPEN, OpenClosedType.CLOSED,
+                new DateTimeType(ZonedDateTime.of(2021, 3, 4, 5, 6, 7, 890000000, ZoneId.of("Europe/Berlin"))),
+                new QuantityType<>(new BigDecimal("21.23"), SIUnits.CELSIUS), QuantityType.valueOf("1 kW"),
+                StringType.valueOf(""), StringType.valueOf("a b c äöü"), UpDownType.UP,
+                new PointType("52.5,13.4"));
+    }
+}
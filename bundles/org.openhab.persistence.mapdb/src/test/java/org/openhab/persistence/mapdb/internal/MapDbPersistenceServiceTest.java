@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.types.State;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Tests the migration of the JSON strings stored by previous versions of the {@link MapDbPersistenceService}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbPersistenceServiceTest {
+    private static final Date TIMESTAMP = new Date(1234567890123L);
+
+    private final Gson gson = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
+            .create();
+    private final MapDbPersistenceService service = new MapDbPersistenceService();
+
+    private @NonNullByDefault({}) DB db;
+    private @NonNullByDefault({}) Map<String, Object> store;
+
+    @BeforeEach
+    public void setUp() {
+        db = DBMaker.newMemoryDB().make();
+        store = db.createTreeMap("itemStore").makeOrGet();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void jsonItemsAreConvertedAndReadBack() throws IOException {
+        store.put("Temperature", toJson("Temperature", new DecimalType(21.5)));
+        store.put("Light", toJson("Light", OnOffType.ON));
+        db.commit();
+
+        service.open(db);
+        service.migrateJsonItems();
+
+        assertThat(store.get("Temperature"), is(instanceOf(byte[].class)));
+        assertThat(store.get("Light"), is(instanceOf(byte[].class)));
+        MapDbItem converted = MapDbItemSerializer.deserialize((byte[]) store.get("Temperature"));
+        assertThat(converted.getName(), is("Temperature"));
+        assertThat(converted.getState(), is(new DecimalType(21.5)));
+        assertThat(converted.getTimestamp().toInstant(), is(TIMESTAMP.toInstant()));
+
+        HistoricItem item = query("Light");
+        assertThat(item, is(notNullValue()));
+        assertThat(item.getName(), is("Light"));
+        assertThat(item.getState(), is(OnOffType.ON));
+        assertThat(item.getTimestamp().toInstant(), is(TIMESTAMP.toInstant()));
+        assertThat(service.getItemInfo().size(), is(2));
+    }
+
+    @Test
+    public void binaryItemsAreKept() throws IOException {
+        MapDbItem item = createItem("Temperature", new DecimalType(21.5));
+        byte[] data = MapDbItemSerializer.serialize(item);
+        store.put("Temperature", data);
+
+        service.open(db);
+        service.migrateJsonItems();
+
+        assertThat(store.get("Temperature"), is(data));
+    }
+
+    @Test
+    public void invalidJsonItemsAreNotConverted() {
+        // an item without a state
+        String json = "{\"name\":\"Invalid\",\"state\":null}";
+        store.put("Invalid", json);
+
+        service.open(db);
+        service.migrateJsonItems();
+
+        assertThat(store.get("Invalid"), is(json));
+        assertThat(query("Invalid"), is(nullValue()));
+    }
+
+    private @Nullable HistoricItem query(String itemName) {
+        Iterator<HistoricItem> result = service.query(new FilterCriteria().setItemName(itemName)).iterator();
+        return result.hasNext() ? result.next() : null;
+    }
+
+    private String toJson(String name, State state) {
+        return gson.toJson(createItem(name, state));
+    }
+
+    private static MapDbItem createItem(String name, State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName(name);
+        item.setState(state);
+        item.setTimestamp(TIMESTAMP);
+        return item;
+    }
+}
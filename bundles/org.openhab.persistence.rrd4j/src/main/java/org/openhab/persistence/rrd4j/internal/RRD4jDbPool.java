@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.rrd4j.core.RrdDb;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RRD4jDbPool} keeps a bounded number of {@link RrdDb} handles open, so that consecutive stores and
+ * queries for the same item do not have to re-open the database file and re-parse its header.
+ *
+ * Handles are reference counted while they are in use. Once the capacity is exceeded, the least recently used handle
+ * that is not in use is closed. Concurrent access to a single database file is serialized by the {@link RrdDb}
+ * instance itself, so callers that need several operations to be atomic should synchronize on the returned handle.
+ *
+ * Database files are opened without holding the lock of the pool, so that opening a file does not block requests for
+ * other databases. Concurrent requests for a database that is being opened wait for the same opening.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jDbPool {
+
+    public static final int DEFAULT_CAPACITY = 200;
+
+    private final Logger logger = LoggerFactory.getLogger(RRD4jDbPool.class);
+
+    // access ordered, so iteration starts with the least recently used entry
+    private final Map<String, PoolEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // the databases that are being opened, completed with the handle once the file is open
+    private final Map<String, CompletableFuture<@Nullable RrdDb>> openings = new HashMap<>();
+    // incremented by closeAll, so that handles opened before are not added to the pool
+    private int generation = 0;
+
+    private int capacity = DEFAULT_CAPACITY;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Opens (or creates) the database for a given name if it is not yet contained in the pool.
+     */
+    @FunctionalInterface
+    public interface RrdDbOpener {
+        @Nullable
+        RrdDb open(String name) throws IOException;
+    }
+
+    /**
+     * Requests a database handle from the pool. Every successful request must be followed by a call to
+     * {@link #release(String, RrdDb)}.
+     *
+     * @param name the name of the database (usually the item name or alias)
+     * @param opener used to open the database if it is not pooled yet
+     * @return the database handle or <code>null</code> if the opener could not provide one
+     * @throws IOException if opening the database failed
+     */
+    public @Nullable RrdDb request(String name, RrdDbOpener opener) throws IOException {
+        while (true) {
+            CompletableFuture<@Nullable RrdDb> opening;
+            boolean openHere = false;
+            int openingGeneration;
+            synchronized (this) {
+                PoolEntry entry = entries.get(name);
+                if (entry != null && !entry.db.isClosed()) {
+                    hits++;
+                    entry.usages++;
+                    return entry.db;
+                }
+                opening = openings.get(name);
+                if (opening == null) {
+                    misses++;
+                    opening = new CompletableFuture<>();
+                    openings.put(name, opening);
+                    openHere = true;
+                }
+                openingGeneration = generation;
+            }
+            if (openHere) {
+                return open(name, opener, opening, openingGeneration);
+            }
+            // another thread opens the database, take a usage of its handle afterwards
+            if (awaitOpening(name, opening) == null) {
+                return null;
+            }
+        }
+    }
+
+    private @Nullable RrdDb open(String name, RrdDbOpener opener, CompletableFuture<@Nullable RrdDb> opening,
+            int openingGeneration) throws IOException {
+        RrdDb db;
+        try {
+            db = opener.open(name);
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                openings.remove(name);
+            }
+            opening.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            openings.remove(name);
+            if (db == null) {
+                entries.remove(name);
+            } else if (openingGeneration == generation) {
+                PoolEntry entry = new PoolEntry(db);
+                entry.usages++;
+                entries.put(name, entry);
+                evictIdle();
+            }
+            // otherwise the pool was closed meanwhile, the handle is closed when it is released
+        }
+        opening.complete(db);
+        return db;
+    }
+
+    private @Nullable RrdDb awaitOpening(String name, CompletableFuture<@Nullable RrdDb> opening)
+            throws IOException {
+        try {
+            return opening.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for rrd4j database '" + name + "'");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Opening rrd4j database '" + name + "' failed", cause);
+        }
+    }
+
+    /**
+     * Returns a handle that was obtained by {@link #request(String, RrdDbOpener)} to the pool.
+     *
+     * @param name the name the handle was requested for
+     * @param db the handle
+     */
+    public synchronized void release(String name, RrdDb db) {
+        PoolEntry entry = entries.get(name);
+        if (entry == null || entry.db != db) {
+            // the handle has been removed from the pool while it was in use
+            close(name, db);
+            return;
+        }
+        if (entry.usages > 0) {
+            entry.usages--;
+        }
+        evictIdle();
+    }
+
+    /**
+     * Sets the maximum number of handles to keep open. The capacity may temporarily be exceeded if all pooled handles
+     * are in use.
+     *
+     * @param capacity the new capacity, must be at least 1
+     */
+    public synchronized void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, but was " + capacity);
+        }
+        this.capacity = capacity;
+        evictIdle();
+    }
+
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int getOpenFileCount() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Closes all handles that are currently not in use and removes all handles from the pool. Handles that are in
+     * use are closed when they are released.
+     */
+    public synchronized void closeAll() {
+        generation++;
+        for (Map.Entry<String, PoolEntry> e : entries.entrySet()) {
+            PoolEntry entry = e.getValue();
+            if (entry.usages == 0) {
+                close(e.getKey(), entry.db);
+            }
+        }
+        entries.clear();
+    }
+
+    private void evictIdle() {
+        Iterator<Map.Entry<String, PoolEntry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            Map.Entry<String, PoolEntry> e = iterator.next();
+            PoolEntry entry = e.getValue();
+            if (entry.usages == 0) {
+                iterator.remove();
+                close(e.getKey(), entry.db);
+                evictions++;
+            }
+        }
+    }
+
+    private void close(String name, RrdDb db) {
+        try {
+            db.close();
+        } catch (IOException e) {
+            logger.debug("Error closing rrd4j database '{}': {}", name, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RRD4jDbPool [capacity=" + capacity + ", open=" + entries.size() + ", hits=" + hits + ", misses="
+                + misses + ", evictions=" + evictions + "]";
+    }
+
+    private static class PoolEntry {
+        private final RrdDb db;
+        private int usages = 0;
+
+        private PoolEntry(RrdDb db) {
+            this.db = db;
+        }
+    }
+}
@@ -25,11 +25,13 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
@@ -38,6 +40,8 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.core.common.registry.RegistryChangeListener;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
@@ -67,8 +71,11 @@ import org.openhab.core.types.State;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.rrd4j.ConsolFun;
 import org.rrd4j.DsType;
 import org.rrd4j.core.FetchData;
@@ -79,6 +86,12 @@ import org.rrd4j.core.Sample;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
 /**
  * This is the implementation of the RRD4j {@link PersistenceService}. To learn
  * more about RRD4j please visit their
@@ -91,12 +104,14 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 @Component(service = { PersistenceService.class,
         QueryablePersistenceService.class }, configurationPid = "org.openhab.rrd4j", configurationPolicy = ConfigurationPolicy.OPTIONAL)
-public class RRD4jPersistenceService implements QueryablePersistenceService {
+public class RRD4jPersistenceService implements QueryablePersistenceService, RegistryChangeListener<Item> {
 
     private static final String DEFAULT_OTHER = "default_other";
     private static final String DEFAULT_NUMERIC = "default_numeric";
     private static final String DEFAULT_QUANTIFIABLE = "default_quantifiable";
 
+    private static final String CONFIG_MAX_OPEN_FILES = "maxOpenFiles";
+
     private static final Set<String> SUPPORTED_TYPES = Set.of(CoreItemFactory.SWITCH, CoreItemFactory.CONTACT,
             CoreItemFactory.DIMMER, CoreItemFactory.NUMBER, CoreItemFactory.ROLLERSHUTTER, CoreItemFactory.COLOR);
 
@@ -105,13 +120,27 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private final Map<String, RrdDefConfig> rrdDefs = new ConcurrentHashMap<>();
 
+    // item name -> explicitly configured definition, rebuilt whenever the configuration changes
+    private volatile Map<String, RrdDefConfig> itemRrdDefs = Map.of();
+
+    // item name -> default definition resolved from the item type, invalidated on item registry changes
+    private final Map<String, RrdDefConfig> defaultItemRrdDefs = new ConcurrentHashMap<>();
+
+    // database name -> metadata read from the database header, invalidated whenever the database is (re-)opened
+    private final Map<String, RrdDbInfo> dbInfos = new ConcurrentHashMap<>();
+
     private static final String DATASOURCE_STATE = "state";
 
     public static final String DB_FOLDER = getUserPersistenceDataFolder() + File.separator + "rrd4j";
 
     private final Logger logger = LoggerFactory.getLogger(RRD4jPersistenceService.class);
 
-    private final Map<String, ScheduledFuture<?>> scheduledJobs = new HashMap<>();
+    private final Map<String, ScheduledFuture<?>> scheduledJobs = new ConcurrentHashMap<>();
+
+    private final RRD4jDbPool dbPool = new RRD4jDbPool();
+
+    // the meters of the database pool, registered while a meter registry is available
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
 
     protected final ItemRegistry itemRegistry;
 
@@ -120,6 +149,27 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         this.itemRegistry = itemRegistry;
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        Tags tags = Tags.of("service", getId());
+        meters.add(poolCounter(registry, tags, "hits", RRD4jDbPool::getHits));
+        meters.add(poolCounter(registry, tags, "misses", RRD4jDbPool::getMisses));
+        meters.add(poolCounter(registry, tags, "evictions", RRD4jDbPool::getEvictions));
+        meters.add(Gauge.builder("openhab.persistence.pool.open", dbPool, RRD4jDbPool::getOpenFileCount).tags(tags)
+                .description("Database files kept open").register(registry));
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    private Meter poolCounter(MeterRegistry registry, Tags tags, String name, ToDoubleFunction<RRD4jDbPool> count) {
+        return FunctionCounter.builder("openhab.persistence.pool." + name, dbPool, count).tags(tags).register(registry);
+    }
+
     @Override
     public String getId() {
         return "rrd4j";
@@ -131,95 +181,101 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     }
 
     @Override
-    public synchronized void store(final Item item, @Nullable final String alias) {
+    public void store(final Item item, @Nullable final String alias) {
         if (!isSupportedItemType(item)) {
             logger.trace("Ignoring item '{}' since its type {} is not supported", item.getName(), item.getType());
             return;
         }
         final String name = alias == null ? item.getName() : alias;
-        RrdDb db = getDB(name);
+        RrdDb db = requestDB(name);
         if (db != null) {
-            ConsolFun function = getConsolidationFunction(db);
-            long now = System.currentTimeMillis() / 1000;
-            if (function != ConsolFun.AVERAGE) {
-                try {
-                    // we store the last value again, so that the value change
-                    // in the database is not interpolated, but
-                    // happens right at this spot
-                    if (now - 1 > db.getLastUpdateTime()) {
-                        // only do it if there is not already a value
-                        double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
-                        if (!Double.isNaN(lastValue)) {
-                            Sample sample = db.createSample();
-                            sample.setTime(now - 1);
-                            sample.setValue(DATASOURCE_STATE, lastValue);
-                            sample.update();
-                            logger.debug("Stored '{}' as value '{}' in rrd4j database (again)", name, lastValue);
-                        }
-                    }
-                } catch (IOException e) {
-                    logger.debug("Error storing last value (again): {}", e.getMessage());
+            try {
+                // several operations on the same database must not interleave, stores for other items may proceed
+                synchronized (db) {
+                    store(db, item, name);
                 }
+            } finally {
+                dbPool.release(name, db);
             }
+        }
+    }
+
+    private void store(RrdDb db, final Item item, final String name) {
+        RrdDbInfo dbInfo = getDbInfo(name, db);
+        ConsolFun function = dbInfo.consolFun;
+        long now = System.currentTimeMillis() / 1000;
+        if (function != ConsolFun.AVERAGE) {
             try {
-                Sample sample = db.createSample();
-                sample.setTime(now);
-
-                Double value = null;
-
-                if (item instanceof NumberItem && item.getState() instanceof QuantityType) {
-                    NumberItem nItem = (NumberItem) item;
-                    QuantityType<?> qState = (QuantityType<?>) item.getState();
-                    Unit<? extends Quantity<?>> unit = nItem.getUnit();
-                    if (unit != null) {
-                        QuantityType<?> convertedState = qState.toUnit(unit);
-                        if (convertedState != null) {
-                            value = convertedState.doubleValue();
-                        } else {
-                            logger.warn(
-                                    "Failed to convert state '{}' to unit '{}'. Please check your item definition for correctness.",
-                                    qState, unit);
-                        }
+                // we store the last value again, so that the value change
+                // in the database is not interpolated, but
+                // happens right at this spot
+                if (now - 1 > db.getLastUpdateTime()) {
+                    // only do it if there is not already a value
+                    double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
+                    if (!Double.isNaN(lastValue)) {
+                        Sample sample = db.createSample();
+                        sample.setTime(now - 1);
+                        sample.setValue(DATASOURCE_STATE, lastValue);
+                        sample.update();
+                        logger.debug("Stored '{}' as value '{}' in rrd4j database (again)", name, lastValue);
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Error storing last value (again): {}", e.getMessage());
+            }
+        }
+        try {
+            Sample sample = db.createSample();
+            sample.setTime(now);
+
+            Double value = null;
+
+            if (item instanceof NumberItem && item.getState() instanceof QuantityType) {
+                NumberItem nItem = (NumberItem) item;
+                QuantityType<?> qState = (QuantityType<?>) item.getState();
+                Unit<? extends Quantity<?>> unit = nItem.getUnit();
+                if (unit != null) {
+                    QuantityType<?> convertedState = qState.toUnit(unit);
+                    if (convertedState != null) {
+                        value = convertedState.doubleValue();
                     } else {
-                        value = qState.doubleValue();
+                        logger.warn(
+                                "Failed to convert state '{}' to unit '{}'. Please check your item definition for correctness.",
+                                qState, unit);
                     }
                 } else {
-                    DecimalType state = item.getStateAs(DecimalType.class);
-                    if (state != null) {
-                        value = state.toBigDecimal().doubleValue();
-                    }
+                    value = qState.doubleValue();
                 }
-                if (value != null) {
-                    if (db.getDatasource(DATASOURCE_STATE).getType() == DsType.COUNTER) { // counter values must be
-                                                                                          // adjusted by stepsize
-                        value = value * db.getRrdDef().getStep();
-                    }
-                    sample.setValue(DATASOURCE_STATE, value);
-                    sample.update();
-                    logger.debug("Stored '{}' as value '{}' in rrd4j database", name, value);
+            } else {
+                DecimalType state = item.getStateAs(DecimalType.class);
+                if (state != null) {
+                    value = state.toBigDecimal().doubleValue();
                 }
-            } catch (IllegalArgumentException e) {
-                String message = e.getMessage();
-                if (message != null && message.contains("at least one second step is required")) {
-                    // we try to store the value one second later
-                    ScheduledFuture<?> job = scheduledJobs.get(name);
-                    if (job != null) {
-                        job.cancel(true);
-                        scheduledJobs.remove(name);
-                    }
-                    job = scheduler.schedule(() -> store(item, name), 1, TimeUnit.SECONDS);
-                    scheduledJobs.put(name, job);
-                } else {
-                    logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
+            }
+            if (value != null) {
+                if (dbInfo.dsType == DsType.COUNTER) { // counter values must be adjusted by stepsize
+                    value = value * dbInfo.step;
                 }
-            } catch (Exception e) {
-                logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
+                sample.setValue(DATASOURCE_STATE, value);
+                sample.update();
+                logger.debug("Stored '{}' as value '{}' in rrd4j database", name, value);
             }
-            try {
-                db.close();
-            } catch (IOException e) {
-                logger.debug("Error closing rrd4j database: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            String message = e.getMessage();
+            if (message != null && message.contains("at least one second step is required")) {
+                // we try to store the value one second later
+                ScheduledFuture<?> job = scheduledJobs.get(name);
+                if (job != null) {
+                    job.cancel(true);
+                    scheduledJobs.remove(name);
+                }
+                job = scheduler.schedule(() -> store(item, name), 1, TimeUnit.SECONDS);
+                scheduledJobs.put(name, job);
+            } else {
+                logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
             }
+        } catch (Exception e) {
+            logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
         }
     }
 
@@ -232,12 +288,20 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     public Iterable<HistoricItem> query(FilterCriteria filter) {
         String itemName = filter.getItemName();
 
-        RrdDb db = getDB(itemName);
+        RrdDb db = requestDB(itemName);
         if (db == null) {
             logger.debug("Could not find item '{}' in rrd4j database", itemName);
             return List.of();
         }
 
+        try {
+            return query(db, filter, itemName);
+        } finally {
+            dbPool.release(itemName, db);
+        }
+    }
+
+    private Iterable<HistoricItem> query(RrdDb db, FilterCriteria filter, String itemName) {
         Item item = null;
         Unit<?> unit = null;
         try {
@@ -287,7 +351,7 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 start = filter.getBeginDate().toInstant().getEpochSecond();
             }
 
-            FetchRequest request = db.createFetchRequest(getConsolidationFunction(db), start, end, 1);
+            FetchRequest request = db.createFetchRequest(getDbInfo(itemName, db).consolFun, start, end, 1);
             FetchData result = request.fetchData();
 
             List<HistoricItem> items = new ArrayList<>();
@@ -313,7 +377,22 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return Set.of();
     }
 
-    protected synchronized @Nullable RrdDb getDB(String alias) {
+    /**
+     * Requests the database for an item from the pool, opening or creating it if necessary. The returned handle must
+     * be released to {@link #dbPool} after use.
+     */
+    protected @Nullable RrdDb requestDB(String alias) {
+        try {
+            return dbPool.request(alias, this::openDB);
+        } catch (IOException e) {
+            logger.error("Could not open rrd4j database for item '{}': {}", alias, e.getMessage());
+            return null;
+        }
+    }
+
+    private @Nullable RrdDb openDB(String alias) {
+        // the file may have been recreated since the metadata was read
+        dbInfos.remove(alias);
         RrdDb db = null;
         File file = new File(DB_FOLDER + File.separator + alias + ".rrd");
         try {
@@ -345,14 +424,10 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     }
 
     private @Nullable RrdDefConfig getRrdDefConfig(String itemName) {
-        RrdDefConfig useRdc = null;
-        for (Map.Entry<String, RrdDefConfig> e : rrdDefs.entrySet()) {
-            // try to find special config
-            RrdDefConfig rdc = e.getValue();
-            if (rdc != null && rdc.appliesTo(itemName)) {
-                useRdc = rdc;
-                break;
-            }
+        // try to find special config
+        RrdDefConfig useRdc = itemRrdDefs.get(itemName);
+        if (useRdc == null) {
+            useRdc = defaultItemRrdDefs.get(itemName);
         }
         if (useRdc == null) { // not defined, use defaults
             try {
@@ -367,6 +442,9 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 } else {
                     useRdc = rrdDefs.get(DEFAULT_OTHER);
                 }
+                if (useRdc != null) {
+                    defaultItemRrdDefs.put(itemName, useRdc);
+                }
             } catch (ItemNotFoundException e) {
                 logger.debug("Could not find item '{}' in registry", itemName);
                 return null;
@@ -392,6 +470,23 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    private RrdDbInfo getDbInfo(String name, RrdDb db) {
+        RrdDbInfo dbInfo = dbInfos.get(name);
+        if (dbInfo == null) {
+            try {
+                RrdDef rrdDef = db.getRrdDef();
+                DsType dsType = db.getDatasource(DATASOURCE_STATE).getType();
+                dbInfo = new RrdDbInfo(rrdDef.getArcDefs()[0].getConsolFun(), dsType, rrdDef.getStep());
+                dbInfos.put(name, dbInfo);
+            } catch (IOException e) {
+                logger.debug("Could not read rrd4j database header for '{}': {}", name, e.getMessage());
+                // do not cache, we try again with the next access
+                dbInfo = new RrdDbInfo(ConsolFun.MAX, null, 0);
+            }
+        }
+        return dbInfo;
+    }
+
     public ConsolFun getConsolidationFunction(RrdDb db) {
         try {
             return db.getRrdDef().getArcDefs()[0].getConsolFun();
@@ -441,12 +536,39 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     @Activate
     protected void activate(final Map<String, Object> config) {
         modified(config);
+        itemRegistry.addRegistryChangeListener(this);
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        itemRegistry.removeRegistryChangeListener(this);
+        logger.debug("Closing rrd4j databases: {}", dbPool);
+        dbPool.closeAll();
+        dbInfos.clear();
+    }
+
+    @Override
+    public void added(Item element) {
+        defaultItemRrdDefs.remove(element.getName());
+    }
+
+    @Override
+    public void removed(Item element) {
+        defaultItemRrdDefs.remove(element.getName());
+    }
+
+    @Override
+    public void updated(Item oldElement, Item element) {
+        defaultItemRrdDefs.remove(oldElement.getName());
+        defaultItemRrdDefs.remove(element.getName());
     }
 
     @Modified
     protected void modified(final Map<String, Object> config) {
         // clean existing definitions
         rrdDefs.clear();
+        defaultItemRrdDefs.clear();
+        dbPool.setCapacity(RRD4jDbPool.DEFAULT_CAPACITY);
 
         // add default configurations
 
@@ -489,6 +611,7 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
         if (config.isEmpty()) {
             logger.debug("using default configuration only");
+            itemRrdDefs = Map.of();
             return;
         }
 
@@ -501,6 +624,15 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 continue;
             }
 
+            if (key.equals(CONFIG_MAX_OPEN_FILES)) {
+                try {
+                    dbPool.setCapacity(Integer.parseInt(String.valueOf(config.get(key)).trim()));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Ignoring illegal value for '{}': {}", key, config.get(key));
+                }
+                continue;
+            }
+
             String[] subkeys = key.split("\\.");
             if (subkeys.length != 2) {
                 logger.debug("config '{}' should have the format 'name.configkey'", key);
@@ -552,6 +684,30 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 }
             }
         }
+
+        Map<String, RrdDefConfig> newItemRrdDefs = new HashMap<>();
+        for (RrdDefConfig rrdDef : rrdDefs.values()) {
+            for (String itemName : rrdDef.itemNames) {
+                RrdDefConfig existing = newItemRrdDefs.putIfAbsent(itemName, rrdDef);
+                if (existing != null && existing != rrdDef) {
+                    logger.warn("Item '{}' is listed in both '{}' and '{}', using '{}'", itemName, existing.name,
+                            rrdDef.name, existing.name);
+                }
+            }
+        }
+        itemRrdDefs = newItemRrdDefs;
+    }
+
+    private static class RrdDbInfo {
+        private final ConsolFun consolFun;
+        private final @Nullable DsType dsType;
+        private final long step;
+
+        private RrdDbInfo(ConsolFun consolFun, @Nullable DsType dsType, long step) {
+            this.consolFun = consolFun;
+            this.dsType = dsType;
+            this.step = step;
+        }
     }
 
     private class RrdArchiveDef {
@@ -665,10 +821,6 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
             }
         }
 
-        public boolean appliesTo(String item) {
-            return itemNames.contains(item);
-        }
-
         public boolean isValid() { // a valid configuration must be initialized
             // and contain at least one function
             return isInitialized && !archives.isEmpty();
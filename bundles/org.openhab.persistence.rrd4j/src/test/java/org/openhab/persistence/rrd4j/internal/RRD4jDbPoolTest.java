@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.persistence.rrd4j.internal.RRD4jDbPool.RrdDbOpener;
+import org.rrd4j.core.RrdDb;
+
+/**
+ * Tests cases for {@link RRD4jDbPool}
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jDbPoolTest {
+    private static final int THREADS = 8;
+
+    private final RRD4jDbPool pool = new RRD4jDbPool();
+    private final Map<String, RrdDb> handles = new ConcurrentHashMap<>();
+    private final AtomicInteger openCount = new AtomicInteger();
+    private final RrdDbOpener opener = name -> {
+        openCount.incrementAndGet();
+        return handles.computeIfAbsent(name, n -> mock(RrdDb.class));
+    };
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void pooledHandleIsReused() throws IOException {
+        RrdDb db = request("item1", opener);
+        pool.release("item1", db);
+
+        assertThat(request("item1", opener), is(sameInstance(db)));
+        assertThat(openCount.get(), is(1));
+        assertThat(pool.getHits(), is(1L));
+        assertThat(pool.getMisses(), is(1L));
+    }
+
+    @Test
+    public void leastRecentlyUsedIdleHandleIsEvicted() throws IOException {
+        pool.setCapacity(2);
+        RrdDb db1 = request("item1", opener);
+        pool.release("item1", db1);
+        RrdDb db2 = request("item2", opener);
+        pool.release("item2", db2);
+        pool.release("item1", request("item1", opener));
+
+        pool.release("item3", request("item3", opener));
+
+        verify(db2).close();
+        verify(db1, never()).close();
+        assertThat(pool.getOpenFileCount(), is(2));
+        assertThat(pool.getEvictions(), is(1L));
+    }
+
+    @Test
+    public void handleInUseIsNotEvicted() throws IOException {
+        pool.setCapacity(1);
+        RrdDb db1 = request("item1", opener);
+        RrdDb db2 = request("item2", opener);
+
+        // the capacity is exceeded while both handles are in use
+        assertThat(pool.getOpenFileCount(), is(2));
+        pool.release("item2", db2);
+
+        verify(db2).close();
+        verify(db1, never()).close();
+        assertThat(pool.getOpenFileCount(), is(1));
+
+        pool.release("item1", db1);
+        pool.release("item3", request("item3", opener));
+
+        verify(db1).close();
+        assertThat(pool.getEvictions(), is(2L));
+    }
+
+    @Test
+    public void concurrentRequestsOpenTheSameFileOnlyOnce() throws Exception {
+        CountDownLatch opening = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        RrdDbOpener slowOpener = name -> {
+            opening.countDown();
+            try {
+                proceed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return opener.open(name);
+        };
+
+        List<Future<@Nullable RrdDb>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> pool.request("item1", slowOpener)));
+        }
+        assertThat(opening.await(10, TimeUnit.SECONDS), is(true));
+        proceed.countDown();
+
+        RrdDb db = handles.get("item1");
+        for (Future<@Nullable RrdDb> future : futures) {
+            assertThat(future.get(10, TimeUnit.SECONDS), is(sameInstance(db)));
+        }
+        assertThat(openCount.get(), is(1));
+        assertThat(pool.getMisses(), is(1L));
+        assertThat(pool.getHits(), is((long) THREADS - 1));
+
+        for (int i = 0; i < THREADS; i++) {
+            pool.release("item1", db);
+        }
+        pool.setCapacity(1);
+        verify(db, never()).close();
+        assertThat(pool.getOpenFileCount(), is(1));
+    }
+
+    @Test
+    public void concurrentRequestsGetTheErrorOfTheOpening() throws Exception {
+        CountDownLatch opening = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        RrdDbOpener failingOpener = name -> {
+            opening.countDown();
+            try {
+                proceed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("corrupt file");
+        };
+
+        List<Future<@Nullable RrdDb>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> pool.request("item1", failingOpener)));
+        }
+        assertThat(opening.await(10, TimeUnit.SECONDS), is(true));
+        proceed.countDown();
+
+        for (Future<@Nullable RrdDb> future : futures) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+            assertThat(e.getCause(), is(instanceOf(IOException.class)));
+        }
+        assertThat(pool.getOpenFileCount(), is(0));
+        // the next request tries to open the file again
+        request("item1", opener);
+        assertThat(openCount.get(), is(1));
+    }
+
+    @Test
+    public void closeAllClosesHandlesInUseWhenTheyAreReleased() throws IOException {
+        RrdDb idle = request("item1", opener);
+        pool.release("item1", idle);
+        RrdDb inUse = request("item2", opener);
+
+        pool.closeAll();
+
+        verify(idle).close();
+        verify(inUse, never()).close();
+        assertThat(pool.getOpenFileCount(), is(0));
+
+        pool.release("item2", inUse);
+        verify(inUse).close();
+    }
+
+    @Test
+    public void handleOpenedWhileClosingIsNotPooled() throws Exception {
+        CountDownLatch opening = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        RrdDbOpener slowOpener = name -> {
+            opening.countDown();
+            try {
+                proceed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return opener.open(name);
+        };
+
+        Future<@Nullable RrdDb> future = executor.submit(() -> pool.request("item1", slowOpener));
+        assertThat(opening.await(10, TimeUnit.SECONDS), is(true));
+        pool.closeAll();
+        proceed.countDown();
+
+        RrdDb db = future.get(10, TimeUnit.SECONDS);
+        assertThat(db, is(notNullValue()));
+        assertThat(pool.getOpenFileCount(), is(0));
+        verify(db, never()).close();
+
+        pool.release("item1", db);
+        verify(db).close();
+    }
+
+    private RrdDb request(String name, RrdDbOpener opener) throws IOException {
+        RrdDb db = pool.request(name, opener);
+        assertThat(db, is(notNullValue()));
+        return db;
+    }
+}
@@ -12,37 +12,140 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.config.core.ConfigurableService;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
 import org.openhab.core.types.UnDefType;
+import org.osgi.framework.Constants;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by JSonPath Expressions.
  *
+ * <p>
+ * Compiled expressions are cached. Parsed documents are cached for a short time, so that a payload which is
+ * transformed by several expressions, e.g. for several channels, is only parsed once.
+ *
  * @author Gaël L'hopital
  * @author Sebastian Janzen
  *
  */
 @NonNullByDefault
-@Component(property = { "openhab.transform=JSONPATH" })
+@Component(configurationPid = "org.openhab.jsonpath", property = { "openhab.transform=JSONPATH",
+        Constants.SERVICE_PID + "=org.openhab.jsonpath" })
+@ConfigurableService(category = "system", label = "JSONPath Transformation", description_uri = JSonPathTransformationService.CONFIG_URI)
 public class JSonPathTransformationService implements TransformationService {
 
+    protected static final String CONFIG_URI = "transform:jsonpath";
+
+    public static final int DEFAULT_PATH_CACHE_SIZE = 256;
+    public static final int DEFAULT_DOCUMENT_CACHE_SIZE = 16;
+    public static final long DEFAULT_DOCUMENT_CACHE_TTL = 1000;
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final Configuration configuration = Configuration.defaultConfiguration();
+
+    private int pathCacheSize = DEFAULT_PATH_CACHE_SIZE;
+    private int documentCacheSize = DEFAULT_DOCUMENT_CACHE_SIZE;
+    private long documentCacheTtl = DEFAULT_DOCUMENT_CACHE_TTL;
+
+    private final Map<String, JsonPath> pathCache = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+            return size() > pathCacheSize;
+        }
+    };
+    private final Map<String, ParsedDocument> documentCache = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ParsedDocument> eldest) {
+            return size() > documentCacheSize;
+        }
+    };
+
+    private final AtomicLong pathCacheHits = new AtomicLong();
+    private final AtomicLong pathCacheMisses = new AtomicLong();
+    private final AtomicLong documentCacheHits = new AtomicLong();
+    private final AtomicLong documentCacheMisses = new AtomicLong();
+
+    // the meters of the caches, registered while a meter registry is available
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+
+    @Activate
+    protected void activate(@Nullable Map<String, Object> config) {
+        modified(config);
+    }
+
+    @Modified
+    protected void modified(@Nullable Map<String, Object> config) {
+        int pathCacheSize = DEFAULT_PATH_CACHE_SIZE;
+        int documentCacheSize = DEFAULT_DOCUMENT_CACHE_SIZE;
+        long documentCacheTtl = DEFAULT_DOCUMENT_CACHE_TTL;
+        if (config != null) {
+            pathCacheSize = getIntValue(config, "pathCacheSize", pathCacheSize);
+            documentCacheSize = getIntValue(config, "documentCacheSize", documentCacheSize);
+            documentCacheTtl = getIntValue(config, "documentCacheTtl", (int) documentCacheTtl);
+        }
+        synchronized (pathCache) {
+            this.pathCacheSize = Math.max(0, pathCacheSize);
+            pathCache.clear();
+        }
+        synchronized (documentCache) {
+            this.documentCacheSize = Math.max(0, documentCacheSize);
+            this.documentCacheTtl = Math.max(0, documentCacheTtl);
+            documentCache.clear();
+        }
+        logger.debug("JSONPath caches configured: path cache size {}, document cache size {}, document TTL {} ms",
+                this.pathCacheSize, this.documentCacheSize, this.documentCacheTtl);
+    }
+
+    private int getIntValue(Map<String, Object> config, String key, int defaultValue) {
+        Object value = config.get(key);
+        if (value == null || value.toString().isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return new BigDecimal(value.toString()).intValue();
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value '{}' for '{}', using default {}", value, key, defaultValue);
+            return defaultValue;
+        }
+    }
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,7 +163,7 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            Object transformationResult = getPath(jsonPathExpression).read(getDocument(source), configuration);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -76,6 +179,85 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    private JsonPath getPath(String jsonPathExpression) {
+        synchronized (pathCache) {
+            JsonPath path = pathCache.get(jsonPathExpression);
+            if (path != null) {
+                pathCacheHits.incrementAndGet();
+                return path;
+            }
+        }
+
+        pathCacheMisses.incrementAndGet();
+        JsonPath path = JsonPath.compile(jsonPathExpression);
+        synchronized (pathCache) {
+            pathCache.put(jsonPathExpression, path);
+        }
+        return path;
+    }
+
+    private Object getDocument(String source) {
+        long now = System.currentTimeMillis();
+        synchronized (documentCache) {
+            ParsedDocument document = documentCache.get(source);
+            if (document != null) {
+                if (now - document.parsedAt < documentCacheTtl) {
+                    documentCacheHits.incrementAndGet();
+                    return document.document;
+                }
+                documentCache.remove(source);
+            }
+        }
+
+        documentCacheMisses.incrementAndGet();
+        Object document = configuration.jsonProvider().parse(source);
+        if (documentCacheTtl > 0) {
+            synchronized (documentCache) {
+                documentCache.put(source, new ParsedDocument(document, now));
+            }
+        }
+        return document;
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        Tags tags = Tags.of("service", "jsonpath");
+        meters.add(FunctionCounter.builder("openhab.transform.cache.hits", this, service -> service.getPathCacheHits())
+                .tags(tags).register(registry));
+        meters.add(FunctionCounter
+                .builder("openhab.transform.cache.misses", this, service -> service.getPathCacheMisses()).tags(tags)
+                .register(registry));
+        meters.add(FunctionCounter
+                .builder("openhab.transform.document.cache.hits", this, service -> service.getDocumentCacheHits())
+                .tags(tags).register(registry));
+        meters.add(FunctionCounter
+                .builder("openhab.transform.document.cache.misses", this, service -> service.getDocumentCacheMisses())
+                .tags(tags).register(registry));
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    public long getPathCacheHits() {
+        return pathCacheHits.get();
+    }
+
+    public long getPathCacheMisses() {
+        return pathCacheMisses.get();
+    }
+
+    public long getDocumentCacheHits() {
+        return documentCacheHits.get();
+    }
+
+    public long getDocumentCacheMisses() {
+        return documentCacheMisses.get();
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -100,4 +282,17 @@ public class JSonPathTransformationService implements TransformationService {
     private String createStringList(List<?> list) {
         return list.stream().map(n -> "\"" + String.valueOf(n) + "\"").collect(Collectors.joining(", ", "[", "]"));
     }
+
+    /**
+     * A parsed document, which must not be modified as it is shared between transformations.
+     */
+    private static class ParsedDocument {
+        private final Object document;
+        private final long parsedAt;
+
+        ParsedDocument(Object document, long parsedAt) {
+            this.document = document;
+            this.parsedAt = parsedAt;
+        }
+    }
 }
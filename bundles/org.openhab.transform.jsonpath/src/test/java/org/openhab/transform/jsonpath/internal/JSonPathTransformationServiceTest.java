@@ -14,10 +14,16 @@ package org.openhab.transform.jsonpath.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Map;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.transform.TransformationException;
 
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 /**
  * @author Gaël L'hopital
  */
@@ -127,4 +133,47 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testDocumentIsParsedOnceForSeveralPaths() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+
+        assertEquals(1, processor.getDocumentCacheMisses());
+        assertEquals(2, processor.getDocumentCacheHits());
+        assertEquals(2, processor.getPathCacheMisses());
+        assertEquals(1, processor.getPathCacheHits());
+    }
+
+    @Test
+    public void testDocumentIsParsedEachTimeIfDocumentCacheIsDisabled() throws TransformationException {
+        processor.modified(Map.of("documentCacheTtl", 0));
+
+        processor.transform("$[0].name", jsonArray);
+        processor.transform("$[1].name", jsonArray);
+
+        assertEquals(2, processor.getDocumentCacheMisses());
+        assertEquals(0, processor.getDocumentCacheHits());
+    }
+
+    @Test
+    public void testCacheCountersAreExported() throws TransformationException {
+        CompositeMeterRegistry meterRegistry = new CompositeMeterRegistry();
+        meterRegistry.add(new SimpleMeterRegistry());
+        MeterRegistryProvider meterRegistryProvider = () -> meterRegistry;
+        processor.setMeterRegistryProvider(meterRegistryProvider);
+
+        processor.transform("$[0].name", jsonArray);
+        processor.transform("$[1].name", jsonArray);
+
+        assertEquals(0.0, meterRegistry.get("openhab.transform.cache.hits").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("openhab.transform.cache.misses").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("openhab.transform.document.cache.hits").tag("service", "jsonpath")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("openhab.transform.document.cache.misses").functionCounter().count());
+
+        processor.unsetMeterRegistryProvider(meterRegistryProvider);
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
 }
@@ -12,17 +12,33 @@
  */
 package org.openhab.transform.regex.internal;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by Regular Expressions.
@@ -30,6 +46,9 @@ import org.slf4j.LoggerFactory;
  * <p>
  * <b>Note:</b> the given Regular Expression must contain exactly one group!
  *
+ * <p>
+ * Compiled expressions are cached, so that only the matching has to be done per transformation.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
@@ -40,6 +59,22 @@ public class RegExTransformationService implements TransformationService {
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    private static final int MAX_CACHE_SIZE = 256;
+
+    private final Map<String, CompiledExpression> expressionCache = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledExpression> eldest) {
+            return size() > MAX_CACHE_SIZE;
+        }
+    };
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    // the meters of the cache, registered while a meter registry is available
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -50,23 +85,20 @@ public class RegExTransformationService implements TransformationService {
 
         String result = "";
 
-        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
-        if (substMatcher.matches()) {
+        CompiledExpression expression = getExpression(regExpression);
+        String substitution = expression.substitution;
+        if (substitution != null) {
             logger.debug("Using substitution form of regex transformation");
-            String regex = substMatcher.group(1);
-            String substitution = substMatcher.group(2);
-            String options = substMatcher.group(3);
-            if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+            Matcher substMatcher = expression.pattern.matcher(source.trim());
+            if (expression.global) {
+                result = substMatcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
-            }
-            if (result != null) {
-                return result;
+                result = substMatcher.replaceFirst(substitution);
             }
+            return result;
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = expression.pattern.matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -94,4 +126,83 @@ public class RegExTransformationService implements TransformationService {
 
         return result;
     }
+
+    private CompiledExpression getExpression(String regExpression) throws TransformationException {
+        synchronized (expressionCache) {
+            CompiledExpression expression = expressionCache.get(regExpression);
+            if (expression != null) {
+                cacheHits.incrementAndGet();
+                return expression;
+            }
+        }
+
+        cacheMisses.incrementAndGet();
+        CompiledExpression expression;
+        try {
+            Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+            if (substMatcher.matches()) {
+                expression = new CompiledExpression(Pattern.compile(substMatcher.group(1)), substMatcher.group(2),
+                        substMatcher.group(3).equals("g"));
+            } else {
+                expression = new CompiledExpression(Pattern.compile("^" + regExpression + "$", Pattern.DOTALL), null,
+                        false);
+            }
+        } catch (PatternSyntaxException e) {
+            throw new TransformationException("the given regex '" + regExpression + "' is invalid", e);
+        }
+
+        logger.debug("Compiled regex '{}' (cache hits: {}, misses: {})", regExpression, cacheHits.get(),
+                cacheMisses.get());
+        synchronized (expressionCache) {
+            expressionCache.put(regExpression, expression);
+        }
+        return expression;
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        Tags tags = Tags.of("service", "regex");
+        meters.add(FunctionCounter.builder("openhab.transform.cache.hits", this, service -> service.getCacheHits())
+                .tags(tags).register(registry));
+        meters.add(FunctionCounter.builder("openhab.transform.cache.misses", this, service -> service.getCacheMisses())
+                .tags(tags).register(registry));
+        meters.add(Gauge.builder("openhab.transform.cache.size", this, service -> service.getCacheSize()).tags(tags)
+                .description("Compiled regular expressions in the cache").register(registry));
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    public int getCacheSize() {
+        synchronized (expressionCache) {
+            return expressionCache.size();
+        }
+    }
+
+    /**
+     * A compiled regular expression, which is either matched or, if it has a substitution, replaced.
+     */
+    private static class CompiledExpression {
+        private final Pattern pattern;
+        private final @Nullable String substitution;
+        private final boolean global;
+
+        CompiledExpression(Pattern pattern, @Nullable String substitution, boolean global) {
+            this.pattern = pattern;
+            this.substitution = substitution;
+            this.global = global;
+        }
+    }
 }
@@ -16,8 +16,12 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.transform.TransformationException;
 
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 /**
  * @author Thomas.Eichstaedt-Engelen
  */
@@ -75,4 +79,34 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_compiledExpressionIsCached() throws TransformationException {
+        processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "X12,Y54");
+        String transformedResponse = processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "A1");
+
+        assertEquals("varA=1 ", transformedResponse);
+        assertEquals(1, processor.getCacheMisses());
+        assertEquals(1, processor.getCacheHits());
+    }
+
+    @Test
+    public void testCacheCountersAreExported() throws TransformationException {
+        CompositeMeterRegistry meterRegistry = new CompositeMeterRegistry();
+        meterRegistry.add(new SimpleMeterRegistry());
+        MeterRegistryProvider meterRegistryProvider = () -> meterRegistry;
+        processor.setMeterRegistryProvider(meterRegistryProvider);
+
+        processor.transform(".*?<temp_c data=\"(.*?)\".*", source);
+        processor.transform(".*?<temp_c data=\"(.*?)\".*", source);
+
+        assertEquals(1.0, meterRegistry.get("openhab.transform.cache.hits").tag("service", "regex")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("openhab.transform.cache.misses").tag("service", "regex")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("openhab.transform.cache.size").gauge().value());
+
+        processor.unsetMeterRegistryProvider(meterRegistryProvider);
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
 }
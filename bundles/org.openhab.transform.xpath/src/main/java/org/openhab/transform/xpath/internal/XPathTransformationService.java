@@ -13,36 +13,89 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
  *
+ * <p>
+ * Compiled expressions are cached, so that only the evaluation has to be done per transformation.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    private static final int MAX_CACHE_SIZE = 256;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final DocumentBuilderFactory domFactory;
+    private final XPathFactory xpathFactory = XPathFactory.newInstance();
+    private final Map<String, XPathExpression> expressionCache = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+            return size() > MAX_CACHE_SIZE;
+        }
+    };
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    // the meters of the cache, registered while a meter registry is available
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+
+    public XPathTransformationService() {
+        domFactory = DocumentBuilderFactory.newInstance();
+        try {
+            // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
+            domFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            domFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            domFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("XML parser does not support disabling external entities", e);
+        }
+        domFactory.setXIncludeAware(false);
+        domFactory.setExpandEntityReferences(false);
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+    }
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -54,16 +107,13 @@ public class XPathTransformationService implements TransformationService {
         StringReader stringReader = null;
 
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
-            domFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-            domFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-            domFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-            domFactory.setXIncludeAware(false);
-            domFactory.setExpandEntityReferences(false);
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
+            XPathExpression expr = getExpression(xpathExpression);
+
+            DocumentBuilder builder;
+            // factories are not thread-safe, the builders they create are only used by a single thread
+            synchronized (domFactory) {
+                builder = domFactory.newDocumentBuilder();
+            }
 
             stringReader = new StringReader(source);
             InputSource inputSource = new InputSource(stringReader);
@@ -71,10 +121,11 @@ public class XPathTransformationService implements TransformationService {
 
             Document doc = builder.parse(inputSource);
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
-
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            String transformationResult;
+            // compiled expressions are neither thread-safe nor reentrant
+            synchronized (expr) {
+                transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            }
 
             logger.debug("transformation resulted in '{}'", transformationResult);
 
@@ -87,4 +138,59 @@ public class XPathTransformationService implements TransformationService {
             }
         }
     }
+
+    private XPathExpression getExpression(String xpathExpression) throws XPathExpressionException {
+        synchronized (expressionCache) {
+            XPathExpression expr = expressionCache.get(xpathExpression);
+            if (expr != null) {
+                cacheHits.incrementAndGet();
+                return expr;
+            }
+        }
+
+        cacheMisses.incrementAndGet();
+        XPathExpression expr;
+        synchronized (xpathFactory) {
+            expr = xpathFactory.newXPath().compile(xpathExpression);
+        }
+
+        logger.debug("Compiled XPath expression '{}' (cache hits: {}, misses: {})", xpathExpression, cacheHits.get(),
+                cacheMisses.get());
+        synchronized (expressionCache) {
+            expressionCache.put(xpathExpression, expr);
+        }
+        return expr;
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        Tags tags = Tags.of("service", "xpath");
+        meters.add(FunctionCounter.builder("openhab.transform.cache.hits", this, service -> service.getCacheHits())
+                .tags(tags).register(registry));
+        meters.add(FunctionCounter.builder("openhab.transform.cache.misses", this, service -> service.getCacheMisses())
+                .tags(tags).register(registry));
+        meters.add(Gauge.builder("openhab.transform.cache.size", this, service -> service.getCacheSize()).tags(tags)
+                .description("Compiled XPath expressions in the cache").register(registry));
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    public int getCacheSize() {
+        synchronized (expressionCache) {
+            return expressionCache.size();
+        }
+    }
 }
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xslt.internal;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.service.AbstractWatchService;
+
+/**
+ * The {@link XsltStylesheetWatcher} watches the transformation directory and removes modified or deleted stylesheets
+ * from the cache of the {@link XsltTransformationService}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class XsltStylesheetWatcher extends AbstractWatchService {
+
+    private final XsltTransformationService service;
+    private final Path transformFolder;
+
+    public XsltStylesheetWatcher(XsltTransformationService service) {
+        super(XsltTransformationService.TRANSFORM_FOLDER);
+        this.service = service;
+        this.transformFolder = Paths.get(XsltTransformationService.TRANSFORM_FOLDER).toAbsolutePath().normalize();
+    }
+
+    @Override
+    protected boolean watchSubDirectories() {
+        return true;
+    }
+
+    @Override
+    protected Kind<?>[] getWatchEventKinds(Path directory) {
+        return new Kind<?>[] { ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY };
+    }
+
+    @Override
+    protected void processWatchEvent(WatchEvent<?> event, Kind<?> kind, Path path) {
+        logger.debug("New watch event {} for path {}.", kind, path);
+
+        if (kind == OVERFLOW) {
+            // events may have been lost, so any stylesheet may have changed
+            service.invalidateAll();
+            return;
+        }
+
+        Path absolutePath = path.toAbsolutePath().normalize();
+        if (absolutePath.startsWith(transformFolder)) {
+            service.invalidate(transformFolder.relativize(absolutePath));
+        }
+    }
+}
@@ -15,8 +15,15 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
@@ -25,24 +32,78 @@ import javax.xml.transform.stream.StreamSource;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.OpenHAB;
+import org.openhab.core.io.monitor.MeterRegistryProvider;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XSLT.
  *
+ * <p>
+ * Compiled stylesheets are cached until their file is modified or deleted.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=XSLT" })
 public class XsltTransformationService implements TransformationService {
 
+    public static final String TRANSFORM_FOLDER = OpenHAB.getConfigFolder() + File.separator
+            + TransformationService.TRANSFORM_FOLDER_NAME;
+
+    private static final int MAX_CACHE_SIZE = 64;
+
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+    private final Map<String, Templates> templatesCache = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Templates> eldest) {
+            return size() > MAX_CACHE_SIZE;
+        }
+    };
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    // the meters of the cache, registered while a meter registry is available
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+
+    private @Nullable XsltStylesheetWatcher watcher;
+
+    @Activate
+    protected void activate() {
+        XsltStylesheetWatcher watcher = new XsltStylesheetWatcher(this);
+        watcher.activate();
+        this.watcher = watcher;
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        XsltStylesheetWatcher watcher = this.watcher;
+        if (watcher != null) {
+            watcher.deactivate();
+            this.watcher = null;
+        }
+        invalidateAll();
+    }
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,28 +121,16 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
-
-        try {
-            String path = OpenHAB.getConfigFolder() + File.separator + TransformationService.TRANSFORM_FOLDER_NAME
-                    + File.separator + filename;
-            xsl = new StreamSource(new File(path));
-        } catch (Exception e) {
-            String message = "opening file '" + filename + "' throws exception";
-
-            logger.error("{}", message, e);
-            throw new TransformationException(message, e);
-        }
+        Templates templates = getTemplates(filename);
 
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        logger.debug("about to transform '{}' by the function '{}'", source, filename);
 
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
 
-        Transformer transformer;
-
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
+            // Templates are thread-safe, transformers are not and have to be created per transformation
+            Transformer transformer = templates.newTransformer();
             transformer.transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
@@ -92,4 +141,84 @@ public class XsltTransformationService implements TransformationService {
 
         return out.toString();
     }
+
+    private Templates getTemplates(String filename) throws TransformationException {
+        synchronized (templatesCache) {
+            Templates templates = templatesCache.get(filename);
+            if (templates != null) {
+                cacheHits.incrementAndGet();
+                return templates;
+            }
+        }
+
+        cacheMisses.incrementAndGet();
+        Templates templates;
+        try {
+            StreamSource xsl = new StreamSource(new File(TRANSFORM_FOLDER + File.separator + filename));
+            synchronized (transformerFactory) {
+                templates = transformerFactory.newTemplates(xsl);
+            }
+        } catch (Exception e) {
+            String message = "compiling file '" + filename + "' throws exception";
+
+            logger.error("{}", message, e);
+            throw new TransformationException(message, e);
+        }
+
+        logger.debug("Compiled stylesheet '{}' (cache hits: {}, misses: {})", filename, cacheHits.get(),
+                cacheMisses.get());
+        synchronized (templatesCache) {
+            templatesCache.put(filename, templates);
+        }
+        return templates;
+    }
+
+    /**
+     * Removes the compiled stylesheet of the given file from the cache.
+     *
+     * @param path the path of the file relative to the transform folder
+     */
+    protected void invalidate(Path path) {
+        synchronized (templatesCache) {
+            templatesCache.keySet().removeIf(filename -> Paths.get(filename).normalize().equals(path));
+        }
+    }
+
+    protected void invalidateAll() {
+        synchronized (templatesCache) {
+            templatesCache.clear();
+        }
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    public void setMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        Tags tags = Tags.of("service", "xslt");
+        meters.add(FunctionCounter.builder("openhab.transform.cache.hits", this, service -> service.getCacheHits())
+                .tags(tags).register(registry));
+        meters.add(FunctionCounter.builder("openhab.transform.cache.misses", this, service -> service.getCacheMisses())
+                .tags(tags).register(registry));
+        meters.add(Gauge.builder("openhab.transform.cache.size", this, service -> service.getCacheSize()).tags(tags)
+                .description("Compiled stylesheets in the cache").register(registry));
+    }
+
+    public void unsetMeterRegistryProvider(MeterRegistryProvider meterRegistryProvider) {
+        MeterRegistry registry = meterRegistryProvider.getOHMeterRegistry();
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    public int getCacheSize() {
+        synchronized (templatesCache) {
+            return templatesCache.size();
+        }
+    }
 }
@@ -14,6 +14,8 @@ package org.openhab.transform.xslt.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Paths;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openhab.core.transform.TransformationException;
@@ -38,4 +40,18 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testCompiledStylesheetIsCachedUntilInvalidated() throws TransformationException {
+        processor.transform("http/google_weather.xsl", source);
+        processor.transform("http/google_weather.xsl", source);
+        assertEquals(1, processor.getCacheMisses());
+        assertEquals(1, processor.getCacheHits());
+
+        processor.invalidate(Paths.get("http", "google_weather.xsl"));
+        String transformedResponse = processor.transform("http/google_weather.xsl", source);
+
+        assertEquals("8", transformedResponse);
+        assertEquals(2, processor.getCacheMisses());
+    }
 }
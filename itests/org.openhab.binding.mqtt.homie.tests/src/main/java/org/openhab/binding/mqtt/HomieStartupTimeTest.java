@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.binding.mqtt.homie.generic.internal.MqttBindingConstants;
+import org.openhab.binding.mqtt.homie.internal.homie300.Device;
+import org.openhab.binding.mqtt.homie.internal.homie300.DeviceAttributes;
+import org.openhab.binding.mqtt.homie.internal.homie300.DeviceCallback;
+import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.core.io.transport.mqtt.MqttService;
+import org.openhab.core.test.java.JavaOSGiTest;
+import org.openhab.core.thing.ThingUID;
+import org.osgi.service.cm.ConfigurationAdmin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts the embedded MQTT broker, publishes the trees of several homie devices and compares the time it takes to
+ * build the device models with a subscription per attribute topic and with a single wildcard subscription per device.
+ *
+ * @author openHAB Contributors - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.WARN)
+@NonNullByDefault
+public class HomieStartupTimeTest extends JavaOSGiTest {
+    private static final String BASE_TOPIC = "homie";
+    private static final int DEVICES = 20;
+    private static final int NODES = 2;
+    private static final int PROPERTIES = 5;
+    private static final int ATTRIBUTE_TIMEOUT = 500;
+
+    private final Logger logger = LoggerFactory.getLogger(HomieStartupTimeTest.class);
+
+    private @NonNullByDefault({}) MqttBrokerConnection embeddedConnection;
+    private @NonNullByDefault({}) MqttBrokerConnection connection;
+    private @NonNullByDefault({}) ScheduledExecutorService scheduler;
+
+    // The handler is not tested here, so just mock the callback
+    private @Mock @NonNullByDefault({}) DeviceCallback callback;
+
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        registerVolatileStorageService();
+        ConfigurationAdmin configurationAdmin = getService(ConfigurationAdmin.class);
+        MqttService mqttService = getService(MqttService.class);
+
+        embeddedConnection = new EmbeddedBrokerTools(configurationAdmin, mqttService).waitForConnection();
+        embeddedConnection.setQos(1);
+
+        connection = new MqttBrokerConnection(embeddedConnection.getHost(), embeddedConnection.getPort(),
+                embeddedConnection.isSecure(), "homie");
+        connection.setQos(1);
+        connection.start().get(5, TimeUnit.SECONDS);
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int d = 0; d < DEVICES; d++) {
+            final String deviceTopic = BASE_TOPIC + "/device" + d;
+            futures.add(publish(deviceTopic + "/$homie", "3.0"));
+            futures.add(publish(deviceTopic + "/$name", "Device " + d));
+            futures.add(publish(deviceTopic + "/$state", "ready"));
+            List<String> nodes = new ArrayList<>();
+            for (int n = 0; n < NODES; n++) {
+                final String nodeTopic = deviceTopic + "/node" + n;
+                nodes.add("node" + n);
+                futures.add(publish(nodeTopic + "/$name", "Node " + n));
+                futures.add(publish(nodeTopic + "/$type", "Type"));
+                List<String> properties = new ArrayList<>();
+                for (int p = 0; p < PROPERTIES; p++) {
+                    final String propertyTopic = nodeTopic + "/property" + p;
+                    properties.add("property" + p);
+                    futures.add(publish(propertyTopic, "10"));
+                    futures.add(publish(propertyTopic + "/$name", "Property " + p));
+                    futures.add(publish(propertyTopic + "/$settable", "false"));
+                    futures.add(publish(propertyTopic + "/$retained", "true"));
+                    futures.add(publish(propertyTopic + "/$unit", "°C"));
+                    futures.add(publish(propertyTopic + "/$datatype", "float"));
+                    futures.add(publish(propertyTopic + "/$format", "-100:100"));
+                }
+                futures.add(publish(nodeTopic + "/$properties", String.join(",", properties)));
+            }
+            futures.add(publish(deviceTopic + "/$nodes", String.join(",", nodes)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        scheduler = new ScheduledThreadPoolExecutor(6);
+    }
+
+    private CompletableFuture<Boolean> publish(String topic, String message) {
+        return embeddedConnection.publish(topic, message.getBytes(StandardCharsets.UTF_8), 0, true);
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        if (connection != null) {
+            connection.stop().get(2, TimeUnit.SECONDS);
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Builds the models of all devices and returns the number of properties with a channel.
+     */
+    private long buildDevices(boolean subtreeSubscription) throws Exception {
+        List<Device> devices = new ArrayList<>();
+        for (int d = 0; d < DEVICES; d++) {
+            Device device = new Device(new ThingUID(MqttBindingConstants.HOMIE300_MQTT_THING, "device" + d), callback,
+                    new DeviceAttributes());
+            device.initialize(BASE_TOPIC, "device" + d, Collections.emptyList());
+            device.setSubtreeSubscription(subtreeSubscription);
+            devices.add(device);
+        }
+
+        final long start = System.nanoTime();
+        CompletableFuture.allOf(devices.stream()
+                .map(device -> device.subscribe(connection, scheduler, ATTRIBUTE_TIMEOUT))
+                .toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        final long channels = devices.stream().flatMap(device -> device.nodes.stream())
+                .flatMap(node -> node.properties.stream()).filter(p -> p.getChannelState() != null).count();
+        logger.info("Built {} homie devices with {} channels in {} ms ({})", DEVICES, channels, millis,
+                subtreeSubscription ? "wildcard subscription" : "subscription per attribute");
+
+        CompletableFuture.allOf(devices.stream().map(Device::stop).toArray(CompletableFuture[]::new)).get(10,
+                TimeUnit.SECONDS);
+        return channels;
+    }
+
+    @Test
+    public void compareStartupTime() throws Exception {
+        final long expected = DEVICES * NODES * PROPERTIES;
+        assertThat(buildDevices(false), is(expected));
+        assertThat(buildDevices(true), is(expected));
+        assertThat(connection.hasSubscribers(), is(false));
+    }
+}